@@ -0,0 +1,84 @@
+package god.github.haoer.godbase.cache;
+
+/**
+ * 近似访问频率：4 位计数器的 Count-Min Sketch
+ *
+ * <p>每个 long 存 16 个 4 位计数器（最大 15）。一个键用 4 个不同的种子各选一个计数器，频率取 4 个中的最小值，
+ * 冲突只会高估、不会低估。计数总数达到容量的 10 倍时所有计数器减半（老化），让过去的热点逐渐冷却。
+ * 内存约为每个缓存条目 8 字节。
+ *
+ * <p>非线程安全，由 {@link TinyLfuCache} 在持有淘汰锁时调用。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private final long[] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(long maximumSize) {
+        int length = (int) Math.min(Math.max(Long.highestOneBit(Math.max(maximumSize, 8) - 1) << 1, 8), 1 << 26);
+        this.table = new long[length];
+        this.mask = length - 1;
+        this.sampleSize = (int) Math.min(10L * Math.max(maximumSize, 8), Integer.MAX_VALUE);
+    }
+
+    int frequency(int hash) {
+        int min = 15;
+        for (int i = 0; i < 4; i++) {
+            long h = rehash(hash, i);
+            int count = (int) ((table[index(h)] >>> offset(h)) & 0xF);
+            min = Math.min(min, count);
+        }
+        return min;
+    }
+
+    void increment(int hash) {
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            long h = rehash(hash, i);
+            int index = index(h);
+            int offset = offset(h);
+            if (((table[index] >>> offset) & 0xF) != 0xF) {
+                table[index] += 1L << offset;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * 所有计数器减半
+     */
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions >>>= 1;
+    }
+
+    private static long rehash(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        return h ^ (h >>> 32);
+    }
+
+    private int index(long h) {
+        return (int) (h >>> 8) & mask;
+    }
+
+    /**
+     * 计数器在 long 中的位偏移（0、4、...、60）
+     */
+    private static int offset(long h) {
+        return (int) (h & 15) << 2;
+    }
+}
@@ -0,0 +1,706 @@
+package god.github.haoer.godbase.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * 有界并发缓存，W-TinyLFU 淘汰策略，可选写入后过期
+ *
+ * <p>数据存在 ConcurrentHashMap 中，读不加锁；淘汰策略的状态由一把锁保护：
+ * 1. 新条目先进入窗口区（容量的 1%，LRU），挤出窗口的条目成为候选
+ * 2. 主区分为试用区和保护区（主区的 80%），试用区的条目再次被访问后升入保护区
+ * 3. 主区满时比较候选与试用区最老条目（受害者）的近似访问频率（{@link FrequencySketch}），候选更高才淘汰受害者，否则淘汰候选。
+ * 一次性扫描的大量新键频率都很低，进不了主区，不会冲掉热点数据
+ *
+ * <p>命中时只把条目放入按线程分散的有损环形缓冲区，缓冲区过半时 tryLock 批量更新 LRU 与频率，满了直接丢弃这次记录，
+ * 命中路径不会阻塞在锁上。
+ *
+ * <p>{@link #get(Object, Function)} 对同一个键的并发请求只执行一次 loader，其他线程等待结果；
+ * loader 抛出的异常传给所有等待者，不缓存。loader 返回 null 时不缓存。
+ *
+ * <pre>
+ * TinyLfuCache&lt;String, String&gt; cache = new TinyLfuCache&lt;&gt;(10_000, 10, TimeUnit.MINUTES);
+ * String normalized = cache.get(name, this::normalize);
+ * cache.stats().getHitRate();
+ * </pre>
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class TinyLfuCache<K, V> {
+
+    /**
+     * 正在加载，或已从窗口取出、尚未决定去向
+     */
+    private static final int DETACHED = -1;
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+    /**
+     * 已从策略中移除
+     */
+    private static final int DEAD = 3;
+
+    private static final int READ_BUFFER_SIZE = 16;
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+    private static final int DRAIN_THRESHOLD = READ_BUFFER_SIZE / 2;
+
+    private final ConcurrentHashMap<K, Node<K, V>> map;
+    private final long maximumSize;
+    private final long expireNanos;
+    private final LongSupplier ticker;
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final ReadBuffer[] readBuffers;
+    private final FrequencySketch sketch;
+    private final AccessDeque<K, V> window = new AccessDeque<>();
+    private final AccessDeque<K, V> probation = new AccessDeque<>();
+    private final AccessDeque<K, V> protectedQueue = new AccessDeque<>();
+    private final WriteDeque<K, V> writeOrder = new WriteDeque<>();
+    private final long windowMaximum;
+    private final long protectedMaximum;
+    private long windowSize;
+    private long probationSize;
+    private long protectedSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loadSuccesses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder totalLoadNanos = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public TinyLfuCache(long maximumSize) {
+        this(maximumSize, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param expireAfterWrite 写入（或加载）后经过该时间过期，0 表示不过期
+     */
+    public TinyLfuCache(long maximumSize, long expireAfterWrite, TimeUnit unit) {
+        this(maximumSize, unit.toNanos(expireAfterWrite), System::nanoTime);
+    }
+
+    /**
+     * @param ticker 纳秒时钟，测试过期时可以传入可控的时钟
+     */
+    TinyLfuCache(long maximumSize, long expireNanos, LongSupplier ticker) {
+        if (maximumSize <= 0 || expireNanos < 0) {
+            throw new IllegalArgumentException("maximumSize 必须大于0、过期时间不能小于0: " + maximumSize + "/" + expireNanos);
+        }
+        this.maximumSize = maximumSize;
+        this.expireNanos = expireNanos;
+        this.ticker = ticker;
+        this.map = new ConcurrentHashMap<>((int) Math.min(maximumSize, 1 << 20));
+        this.sketch = new FrequencySketch(maximumSize);
+        this.windowMaximum = Math.max(1, maximumSize / 100);
+        this.protectedMaximum = (long) ((maximumSize - windowMaximum) * 0.8);
+        int stripes = Integer.highestOneBit(Math.max(Runtime.getRuntime().availableProcessors(), 1) * 2 - 1);
+        this.readBuffers = new ReadBuffer[Math.min(stripes, 64)];
+        for (int i = 0; i < readBuffers.length; i++) {
+            readBuffers[i] = new ReadBuffer();
+        }
+    }
+
+    /**
+     * 返回缓存的值，不存在或已过期时调用 loader 加载；同一个键同时只有一个线程执行 loader
+     *
+     * @return loader 返回 null 时返回 null（不缓存）
+     * @throws IllegalArgumentException key 为 null
+     * @throws IllegalStateException    loader 中递归加载同一个键
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        if (key == null) {
+            throw new IllegalArgumentException("key 不能为 null");
+        }
+        long now = ticker.getAsLong();
+        Node<K, V> node = map.get(key);
+        if (node != null) {
+            if (node.loading != null) {
+                hits.increment();
+                return await(node);
+            }
+            if (!isExpired(node, now)) {
+                hits.increment();
+                afterRead(node);
+                return node.value;
+            }
+            expire(node);
+        }
+        misses.increment();
+        Node<K, V> loading = new Node<>(key, new CompletableFuture<>(), Thread.currentThread());
+        for (;;) {
+            Node<K, V> existing = map.putIfAbsent(key, loading);
+            if (existing == null) {
+                break;
+            }
+            if (existing.loading != null) {
+                return await(existing);
+            }
+            if (!isExpired(existing, now)) {
+                afterRead(existing);
+                return existing.value;
+            }
+            expire(existing);
+        }
+        return load(loading, loader);
+    }
+
+    /**
+     * @return 不存在或已过期时返回 null，不加载
+     */
+    public V getIfPresent(K key) {
+        Node<K, V> node = key == null ? null : map.get(key);
+        if (node == null || node.loading != null || isExpired(node, ticker.getAsLong())) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        afterRead(node);
+        return node.value;
+    }
+
+    /**
+     * 写入或覆盖；正在加载的同一个键的结果会被丢弃
+     */
+    public void put(K key, V value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("key、value 不能为 null");
+        }
+        Node<K, V> node = new Node<>(key, value, ticker.getAsLong());
+        Node<K, V> previous = map.put(key, node);
+        evictionLock.lock();
+        try {
+            if (previous != null) {
+                unlink(previous);
+            }
+            // 拿到锁之前可能已被同一个键的另一次 put 覆盖
+            if (node.queue != DEAD) {
+                onAdd(node);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        Node<K, V> node = key == null ? null : map.remove(key);
+        if (node != null) {
+            evictionLock.lock();
+            try {
+                unlink(node);
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        for (K key : map.keySet()) {
+            invalidate(key);
+        }
+    }
+
+    /**
+     * 当前条目数（含正在加载的），与淘汰并发时是近似值
+     */
+    public long estimatedSize() {
+        return map.size();
+    }
+
+    public long maximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * 立即处理缓冲的读记录并清除过期条目；平时在读写过程中自动进行
+     */
+    public void cleanUp() {
+        evictionLock.lock();
+        try {
+            maintenance();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), loadSuccesses.sum(), loadFailures.sum(), totalLoadNanos.sum(),
+                evictions.sum(), expirations.sum());
+    }
+
+    private V load(Node<K, V> node, Function<? super K, ? extends V> loader) {
+        CompletableFuture<V> future = node.loading;
+        long start = ticker.getAsLong();
+        V value;
+        try {
+            value = loader.apply(node.key);
+        } catch (RuntimeException | Error e) {
+            loadFailures.increment();
+            totalLoadNanos.add(ticker.getAsLong() - start);
+            map.remove(node.key, node);
+            future.completeExceptionally(e);
+            throw e;
+        }
+        long end = ticker.getAsLong();
+        totalLoadNanos.add(end - start);
+        if (value == null) {
+            map.remove(node.key, node);
+            future.complete(null);
+            return null;
+        }
+        loadSuccesses.increment();
+        node.value = value;
+        node.writeTime = end;
+        // loading 是 volatile，之后读到 null 的线程一定能看到 value
+        node.loading = null;
+        node.loader = null;
+        future.complete(value);
+        evictionLock.lock();
+        try {
+            // 加载期间被 put 覆盖或 invalidate 的不再加入策略
+            if (node.queue != DEAD && map.get(node.key) == node) {
+                onAdd(node);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+        return value;
+    }
+
+    private V await(Node<K, V> node) {
+        CompletableFuture<V> future = node.loading;
+        if (future == null) {
+            return node.value;
+        }
+        if (node.loader == Thread.currentThread()) {
+            throw new IllegalStateException("loader 中递归加载同一个键: " + node.key);
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private boolean isExpired(Node<K, V> node, long now) {
+        return expireNanos > 0 && now - node.writeTime >= expireNanos;
+    }
+
+    private void expire(Node<K, V> node) {
+        if (map.remove(node.key, node)) {
+            expirations.increment();
+            evictionLock.lock();
+            try {
+                unlink(node);
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    private void afterRead(Node<K, V> node) {
+        ReadBuffer buffer = readBuffers[probe() & (readBuffers.length - 1)];
+        if (buffer.offer(node) >= DRAIN_THRESHOLD && evictionLock.tryLock()) {
+            try {
+                maintenance();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    private static int probe() {
+        long id = Thread.currentThread().getId();
+        int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // ---------- 以下方法只在持有 evictionLock 时调用 ----------
+
+    private void maintenance() {
+        for (ReadBuffer buffer : readBuffers) {
+            buffer.drain(this);
+        }
+        if (expireNanos > 0) {
+            long now = ticker.getAsLong();
+            Node<K, V> node;
+            while ((node = writeOrder.first()) != null && isExpired(node, now)) {
+                if (map.remove(node.key, node)) {
+                    expirations.increment();
+                }
+                unlink(node);
+            }
+        }
+    }
+
+    private void onAdd(Node<K, V> node) {
+        sketch.increment(node.key.hashCode());
+        node.queue = WINDOW;
+        window.addLast(node);
+        windowSize++;
+        if (expireNanos > 0) {
+            writeOrder.addLast(node);
+        }
+        maintenance();
+        while (windowSize > windowMaximum) {
+            admit(window.first());
+        }
+    }
+
+    /**
+     * 窗口区挤出的候选进入主区，主区已满时与受害者比较频率
+     */
+    private void admit(Node<K, V> candidate) {
+        window.remove(candidate);
+        windowSize--;
+        candidate.queue = DETACHED;
+        if (windowSize + probationSize + protectedSize < maximumSize) {
+            candidate.queue = PROBATION;
+            probation.addLast(candidate);
+            probationSize++;
+            return;
+        }
+        Node<K, V> victim = probation.first() != null ? probation.first() : protectedQueue.first();
+        if (victim == null) {
+            evict(candidate);
+            return;
+        }
+        int candidateFrequency = sketch.frequency(candidate.key.hashCode());
+        int victimFrequency = sketch.frequency(victim.key.hashCode());
+        // 频率相同时淘汰候选，抵御扫描；候选已有一定热度时偶尔放行，防止针对性的哈希冲突让热点永远进不来
+        boolean admitCandidate = candidateFrequency > victimFrequency
+                || candidateFrequency > 5 && ThreadLocalRandom.current().nextInt(128) == 0;
+        if (admitCandidate) {
+            evict(victim);
+            candidate.queue = PROBATION;
+            probation.addLast(candidate);
+            probationSize++;
+        } else {
+            evict(candidate);
+        }
+    }
+
+    private void evict(Node<K, V> node) {
+        unlink(node);
+        if (map.remove(node.key, node)) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * 从所有队列中移除
+     */
+    private void unlink(Node<K, V> node) {
+        switch (node.queue) {
+            case WINDOW:
+                window.remove(node);
+                windowSize--;
+                break;
+            case PROBATION:
+                probation.remove(node);
+                probationSize--;
+                break;
+            case PROTECTED:
+                protectedQueue.remove(node);
+                protectedSize--;
+                break;
+            default:
+                // DETACHED 或 DEAD
+                break;
+        }
+        if (node.queue != DEAD && expireNanos > 0) {
+            writeOrder.remove(node);
+        }
+        node.queue = DEAD;
+    }
+
+    private void onAccess(Node<K, V> node) {
+        if (node.queue == DEAD || node.loading != null) {
+            return;
+        }
+        sketch.increment(node.key.hashCode());
+        switch (node.queue) {
+            case WINDOW:
+                window.moveToBack(node);
+                break;
+            case PROBATION:
+                probation.remove(node);
+                probationSize--;
+                node.queue = PROTECTED;
+                protectedQueue.addLast(node);
+                protectedSize++;
+                while (protectedSize > protectedMaximum) {
+                    Node<K, V> demoted = protectedQueue.first();
+                    protectedQueue.remove(demoted);
+                    protectedSize--;
+                    demoted.queue = PROBATION;
+                    probation.addLast(demoted);
+                    probationSize++;
+                }
+                break;
+            case PROTECTED:
+                protectedQueue.moveToBack(node);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static final class Node<K, V> {
+        final K key;
+        volatile V value;
+        volatile long writeTime;
+        /**
+         * 加载完成前非 null
+         */
+        volatile CompletableFuture<V> loading;
+        volatile Thread loader;
+
+        /**
+         * 以下字段由 evictionLock 保护
+         */
+        int queue = DETACHED;
+        Node<K, V> prev;
+        Node<K, V> next;
+        Node<K, V> writePrev;
+        Node<K, V> writeNext;
+
+        Node(K key, V value, long writeTime) {
+            this.key = key;
+            this.value = value;
+            this.writeTime = writeTime;
+        }
+
+        Node(K key, CompletableFuture<V> loading, Thread loader) {
+            this.key = key;
+            this.loading = loading;
+            this.loader = loader;
+        }
+    }
+
+    /**
+     * 按访问顺序的双向链表
+     */
+    private static final class AccessDeque<K, V> {
+        private Node<K, V> head;
+        private Node<K, V> tail;
+
+        Node<K, V> first() {
+            return head;
+        }
+
+        void addLast(Node<K, V> node) {
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+        }
+
+        void remove(Node<K, V> node) {
+            Node<K, V> prev = node.prev;
+            Node<K, V> next = node.next;
+            if (prev == null) {
+                head = next;
+            } else {
+                prev.next = next;
+            }
+            if (next == null) {
+                tail = prev;
+            } else {
+                next.prev = prev;
+            }
+            node.prev = null;
+            node.next = null;
+        }
+
+        void moveToBack(Node<K, V> node) {
+            if (tail != node) {
+                remove(node);
+                addLast(node);
+            }
+        }
+    }
+
+    /**
+     * 按写入顺序的双向链表；过期时间固定，头部总是最早过期
+     */
+    private static final class WriteDeque<K, V> {
+        private Node<K, V> head;
+        private Node<K, V> tail;
+
+        Node<K, V> first() {
+            return head;
+        }
+
+        void addLast(Node<K, V> node) {
+            node.writePrev = tail;
+            node.writeNext = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.writeNext = node;
+            }
+            tail = node;
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.writePrev == null && head != node) {
+                return;
+            }
+            Node<K, V> prev = node.writePrev;
+            Node<K, V> next = node.writeNext;
+            if (prev == null) {
+                head = next;
+            } else {
+                prev.writeNext = next;
+            }
+            if (next == null) {
+                tail = prev;
+            } else {
+                next.writePrev = prev;
+            }
+            node.writePrev = null;
+            node.writeNext = null;
+        }
+    }
+
+    /**
+     * 有损的环形缓冲区：多个线程 CAS 写入，持锁线程读取；满了直接丢弃
+     */
+    private static final class ReadBuffer {
+        private final AtomicReferenceArray<Node<?, ?>> slots = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+        private final AtomicLong writeIndex = new AtomicLong();
+        private volatile long readIndex;
+
+        /**
+         * @return 写入后待处理的记录数，满时返回缓冲区大小
+         */
+        int offer(Node<?, ?> node) {
+            long write = writeIndex.get();
+            long pending = write - readIndex;
+            if (pending >= READ_BUFFER_SIZE) {
+                return READ_BUFFER_SIZE;
+            }
+            if (writeIndex.compareAndSet(write, write + 1)) {
+                slots.lazySet((int) write & READ_BUFFER_MASK, node);
+                return (int) pending + 1;
+            }
+            // CAS 失败说明有竞争，丢弃这条记录
+            return (int) pending;
+        }
+
+        @SuppressWarnings("unchecked")
+        <K, V> void drain(TinyLfuCache<K, V> cache) {
+            long read = readIndex;
+            long write = writeIndex.get();
+            for (; read < write; read++) {
+                int index = (int) read & READ_BUFFER_MASK;
+                Node<?, ?> node = slots.get(index);
+                if (node == null) {
+                    // 写线程已占位但尚未写入，下次再处理
+                    break;
+                }
+                slots.lazySet(index, null);
+                cache.onAccess((Node<K, V>) node);
+            }
+            readIndex = read;
+        }
+    }
+
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long loadSuccesses;
+        private final long loadFailures;
+        private final long totalLoadNanos;
+        private final long evictions;
+        private final long expirations;
+
+        Stats(long hits, long misses, long loadSuccesses, long loadFailures, long totalLoadNanos,
+              long evictions, long expirations) {
+            this.hits = hits;
+            this.misses = misses;
+            this.loadSuccesses = loadSuccesses;
+            this.loadFailures = loadFailures;
+            this.totalLoadNanos = totalLoadNanos;
+            this.evictions = evictions;
+            this.expirations = expirations;
+        }
+
+        /**
+         * 未调用 loader 就得到结果的次数（含等待其他线程加载）
+         */
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        /**
+         * @return 没有请求时为 1
+         */
+        public double getHitRate() {
+            long total = hits + misses;
+            return total == 0 ? 1.0 : (double) hits / total;
+        }
+
+        public long getLoadSuccesses() {
+            return loadSuccesses;
+        }
+
+        public long getLoadFailures() {
+            return loadFailures;
+        }
+
+        /**
+         * 平均每次加载的纳秒数
+         */
+        public double getAverageLoadPenalty() {
+            long loads = loadSuccesses + loadFailures;
+            return loads == 0 ? 0 : (double) totalLoadNanos / loads;
+        }
+
+        /**
+         * 因容量淘汰的条目数
+         */
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public long getExpirations() {
+            return expirations;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{hits=" + hits + ", misses=" + misses + ", hitRate=" + String.format("%.4f", getHitRate())
+                    + ", loadSuccesses=" + loadSuccesses + ", loadFailures=" + loadFailures
+                    + ", averageLoadPenalty=" + String.format("%.1f", getAverageLoadPenalty())
+                    + ", evictions=" + evictions + ", expirations=" + expirations + "}";
+        }
+    }
+}
@@ -0,0 +1,55 @@
+// 由 CollectionGenerator 根据 PrimitivePrimitivePair.java.template 生成，修改模板后重新生成，不要直接修改
+package god.github.haoer.godbase.collection;
+
+/**
+ * 键为 int、值为 long 的不可变键值对，{@code GenericWildCard.Pair<Integer, Long>} 的基本类型版本
+ *
+ * <p>两个字段都是基本类型，一个对象即可表示，不需要额外的包装对象。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class IntLongPair {
+
+    private final int key;
+    private final long value;
+
+    public IntLongPair(int key, long value) {
+        this.key = key;
+        this.value = value;
+    }
+
+    public static IntLongPair of(int key, long value) {
+        return new IntLongPair(key, value);
+    }
+
+    public int getKey() {
+        return key;
+    }
+
+    public long getValue() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IntLongPair)) {
+            return false;
+        }
+        IntLongPair other = (IntLongPair) o;
+        return Integer.compare(key, other.key) == 0 && Long.compare(value, other.value) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Integer.hashCode(key) + Long.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        return "Pair{" + "key=" + key + ", value=" + value + "}";
+    }
+}
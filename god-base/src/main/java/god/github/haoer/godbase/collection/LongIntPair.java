@@ -0,0 +1,55 @@
+// 由 CollectionGenerator 根据 PrimitivePrimitivePair.java.template 生成，修改模板后重新生成，不要直接修改
+package god.github.haoer.godbase.collection;
+
+/**
+ * 键为 long、值为 int 的不可变键值对，{@code GenericWildCard.Pair<Long, Integer>} 的基本类型版本
+ *
+ * <p>两个字段都是基本类型，一个对象即可表示，不需要额外的包装对象。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class LongIntPair {
+
+    private final long key;
+    private final int value;
+
+    public LongIntPair(long key, int value) {
+        this.key = key;
+        this.value = value;
+    }
+
+    public static LongIntPair of(long key, int value) {
+        return new LongIntPair(key, value);
+    }
+
+    public long getKey() {
+        return key;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LongIntPair)) {
+            return false;
+        }
+        LongIntPair other = (LongIntPair) o;
+        return Long.compare(key, other.key) == 0 && Integer.compare(value, other.value) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(key) + Integer.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        return "Pair{" + "key=" + key + ", value=" + value + "}";
+    }
+}
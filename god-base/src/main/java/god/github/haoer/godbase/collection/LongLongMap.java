@@ -0,0 +1,377 @@
+// 由 CollectionGenerator 根据 PrimitivePrimitiveMap.java.template 生成，修改模板后重新生成，不要直接修改
+package god.github.haoer.godbase.collection;
+
+import java.util.Arrays;
+
+/**
+ * long 到 long 的哈希表，{@code Map<Long, Long>} 的基本类型版本
+ *
+ * <p>开放寻址、线性探测，键和值分别存在 long[]、long[] 中，没有 Entry 对象也没有装箱：
+ * 1. 槽位 = 键乘以黄金分割常数（Fibonacci 哈希）后取高位，连续的 id 也能均匀分散
+ * 2. 键 0 用来标记空槽，真正的键 0 单独存放
+ * 3. 删除时把后面同一探测链上的元素前移（backward shift），不留墓碑，查找长度不会随删除变长
+ * 4. 元素数超过容量的 {@value #LOAD_FACTOR} 倍时容量翻倍
+ *
+ * <p>不存在的键返回 {@link #noEntryValue()}（默认 0），需要区分时用 {@link #containsKey(long)}。
+ * 计数用 {@link #addTo(long, long)}，不需要先 get 再 put。遍历用 {@link #cursor()}，不分配对象。
+ *
+ * <p>非线程安全。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class LongLongMap {
+
+    public static final float LOAD_FACTOR = 0.75f;
+
+    private static final long PHI = 0x9E3779B97F4A7C15L;
+
+    private final long noEntryValue;
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int shift;
+    private int threshold;
+    /**
+     * 不含键 0
+     */
+    private int assigned;
+    private boolean hasZeroKey;
+    private long zeroValue;
+
+    public LongLongMap() {
+        this(16);
+    }
+
+    public LongLongMap(int expectedSize) {
+        this(expectedSize, 0);
+    }
+
+    /**
+     * @param expectedSize 预计元素数，达到之前不扩容
+     * @param noEntryValue 键不存在时 get/put/remove 返回的值
+     */
+    public LongLongMap(int expectedSize, long noEntryValue) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize 不能小于0: " + expectedSize);
+        }
+        this.noEntryValue = noEntryValue;
+        allocate(tableSize(expectedSize));
+    }
+
+    public long noEntryValue() {
+        return noEntryValue;
+    }
+
+    public int size() {
+        return assigned + (hasZeroKey ? 1 : 0);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public boolean containsKey(long key) {
+        if (key == 0) {
+            return hasZeroKey;
+        }
+        return find(key) >= 0;
+    }
+
+    public long get(long key) {
+        return getOrDefault(key, noEntryValue);
+    }
+
+    public long getOrDefault(long key, long defaultValue) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int index = find(key);
+        return index >= 0 ? values[index] : defaultValue;
+    }
+
+    /**
+     * @return 原来的值，不存在时返回 noEntryValue
+     */
+    public long put(long key, long value) {
+        if (key == 0) {
+            long old = hasZeroKey ? zeroValue : noEntryValue;
+            hasZeroKey = true;
+            zeroValue = value;
+            return old;
+        }
+        long[] k = keys;
+        int m = mask;
+        for (int i = slot(key); ; i = (i + 1) & m) {
+            long current = k[i];
+            if (current == 0) {
+                insert(i, key, value);
+                return noEntryValue;
+            }
+            if (current == key) {
+                long old = values[i];
+                values[i] = value;
+                return old;
+            }
+        }
+    }
+
+    /**
+     * 在原值（不存在时为 noEntryValue）上加 delta
+     *
+     * @return 相加后的值
+     */
+    public long addTo(long key, long delta) {
+        if (key == 0) {
+            zeroValue = (hasZeroKey ? zeroValue : noEntryValue) + delta;
+            hasZeroKey = true;
+            return zeroValue;
+        }
+        long[] k = keys;
+        int m = mask;
+        for (int i = slot(key); ; i = (i + 1) & m) {
+            long current = k[i];
+            if (current == 0) {
+                long value = noEntryValue + delta;
+                insert(i, key, value);
+                return value;
+            }
+            if (current == key) {
+                return values[i] += delta;
+            }
+        }
+    }
+
+    /**
+     * @return 被删除的值，不存在时返回 noEntryValue
+     */
+    public long remove(long key) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                return noEntryValue;
+            }
+            hasZeroKey = false;
+            return zeroValue;
+        }
+        int index = find(key);
+        if (index < 0) {
+            return noEntryValue;
+        }
+        long old = values[index];
+        shiftKeys(index);
+        assigned--;
+        return old;
+    }
+
+    /**
+     * 删除所有元素，保留容量
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        assigned = 0;
+        hasZeroKey = false;
+    }
+
+    /**
+     * 新的遍历游标，遍历期间不能修改键（可以用 {@link Cursor#setValue(long)} 修改值）
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LongLongMap)) {
+            return false;
+        }
+        LongLongMap other = (LongLongMap) o;
+        if (size() != other.size()) {
+            return false;
+        }
+        for (Cursor c = cursor(); c.advance(); ) {
+            if (!other.containsKey(c.key()) || Long.compare(other.get(c.key()), c.value()) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 与相同内容的 {@code Map<Long, Long>} 的 hashCode 相同
+     */
+    @Override
+    public int hashCode() {
+        int h = 0;
+        for (Cursor c = cursor(); c.advance(); ) {
+            h += Long.hashCode(c.key()) ^ Long.hashCode(c.value());
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (Cursor c = cursor(); c.advance(); ) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(c.key()).append('=').append(c.value());
+        }
+        return sb.append('}').toString();
+    }
+
+    private int slot(long key) {
+        return (int) ((key * PHI) >>> shift);
+    }
+
+    private int find(long key) {
+        long[] k = keys;
+        int m = mask;
+        for (int i = slot(key); ; i = (i + 1) & m) {
+            long current = k[i];
+            if (current == key) {
+                return i;
+            }
+            if (current == 0) {
+                return -1;
+            }
+        }
+    }
+
+    private void insert(int index, long key, long value) {
+        keys[index] = key;
+        values[index] = value;
+        if (++assigned > threshold) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    /**
+     * 删除 index 处的元素：把后面探测链上能放到空位的元素依次前移
+     */
+    private void shiftKeys(int index) {
+        long[] k = keys;
+        int m = mask;
+        int last = index;
+        for (int i = (index + 1) & m; ; i = (i + 1) & m) {
+            long current = k[i];
+            if (current == 0) {
+                k[last] = 0;
+                return;
+            }
+            int home = slot(current);
+            // home 不在 (last, i] 内（环形）时，该元素可以前移到 last
+            if (last <= i ? (home <= last || home > i) : (home <= last && home > i)) {
+                k[last] = current;
+                values[last] = values[i];
+                last = i;
+            }
+        }
+    }
+
+    private void rehash(int newSize) {
+        if (newSize <= 0) {
+            throw new IllegalStateException("元素数已达上限");
+        }
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(newSize);
+        long[] k = keys;
+        int m = mask;
+        for (int j = 0; j < oldKeys.length; j++) {
+            long key = oldKeys[j];
+            if (key != 0) {
+                int i = slot(key);
+                while (k[i] != 0) {
+                    i = (i + 1) & m;
+                }
+                k[i] = key;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private void allocate(int size) {
+        keys = new long[size];
+        values = new long[size];
+        mask = size - 1;
+        shift = 64 - Integer.numberOfTrailingZeros(size);
+        threshold = (int) (size * LOAD_FACTOR);
+    }
+
+    private static int tableSize(int expectedSize) {
+        long needed = (long) Math.ceil(expectedSize / (double) LOAD_FACTOR) + 1;
+        if (needed > 1 << 30) {
+            throw new IllegalArgumentException("expectedSize 过大: " + expectedSize);
+        }
+        return Math.max(Integer.highestOneBit((int) needed - 1) << 1, 4);
+    }
+
+    /**
+     * 可复用的遍历游标：先 {@link #advance()}，再读取 {@link #key()}、{@link #value()}
+     * <pre>
+     * for (LongLongMap.Cursor c = map.cursor(); c.advance(); ) {
+     *     c.key();
+     *     c.value();
+     * }
+     * </pre>
+     */
+    public final class Cursor {
+        /**
+         * -2：尚未开始；-1：键 0；其余为槽位
+         */
+        private int index = -2;
+
+        public boolean advance() {
+            if (index == -2) {
+                index = -1;
+                if (hasZeroKey) {
+                    return true;
+                }
+            }
+            long[] k = keys;
+            while (++index < k.length) {
+                if (k[index] != 0) {
+                    return true;
+                }
+            }
+            index = k.length;
+            return false;
+        }
+
+        public long key() {
+            checkPosition();
+            return index == -1 ? 0 : keys[index];
+        }
+
+        public long value() {
+            checkPosition();
+            return index == -1 ? zeroValue : values[index];
+        }
+
+        public void setValue(long value) {
+            checkPosition();
+            if (index == -1) {
+                zeroValue = value;
+            } else {
+                values[index] = value;
+            }
+        }
+
+        /**
+         * 回到第一个元素之前
+         */
+        public void reset() {
+            index = -2;
+        }
+
+        private void checkPosition() {
+            if (index == -2 || index >= keys.length) {
+                throw new IllegalStateException("游标不在元素上");
+            }
+        }
+    }
+}
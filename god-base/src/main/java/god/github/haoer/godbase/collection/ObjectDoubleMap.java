@@ -0,0 +1,371 @@
+// 由 CollectionGenerator 根据 ObjectPrimitiveMap.java.template 生成，修改模板后重新生成，不要直接修改
+package god.github.haoer.godbase.collection;
+
+import java.util.Arrays;
+import java.util.function.ObjDoubleConsumer;
+
+/**
+ * 对象到 double 的哈希表，{@code Map<K, Double>} 的基本类型版本，适合按名称计数、名称到 id 的映射
+ *
+ * <p>开放寻址、线性探测，键存在 Object[]、值存在 double[] 中，没有 Entry 对象也没有 Double：
+ * 1. 槽位 = key.hashCode() 乘以黄金分割常数后取高位，弥补 hashCode 低位分布不均
+ * 2. 每个槽位另存 hashCode，探测时先比较哈希，不同的键不调用 equals（长度相同的 String 逐字节比较很慢）
+ * 3. null 标记空槽，键不能为 null
+ * 4. 删除时把后面同一探测链上的元素前移（backward shift），不留墓碑
+ * 5. 元素数超过容量的 {@value #LOAD_FACTOR} 倍时容量翻倍
+ *
+ * <p>不存在的键返回 {@link #noEntryValue()}（默认 0），需要区分时用 {@link #containsKey(Object)}。
+ * 遍历用 {@link #forEach(ObjDoubleConsumer)} 或 {@link #cursor()}，都不分配 Entry。
+ *
+ * <p>非线程安全。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class ObjectDoubleMap<K> {
+
+    public static final float LOAD_FACTOR = 0.75f;
+
+    private static final long PHI = 0x9E3779B97F4A7C15L;
+
+    private final double noEntryValue;
+    private Object[] keys;
+    private int[] hashes;
+    private double[] values;
+    private int mask;
+    private int shift;
+    private int threshold;
+    private int size;
+
+    public ObjectDoubleMap() {
+        this(16);
+    }
+
+    public ObjectDoubleMap(int expectedSize) {
+        this(expectedSize, 0);
+    }
+
+    /**
+     * @param expectedSize 预计元素数，达到之前不扩容
+     * @param noEntryValue 键不存在时 get/put/remove 返回的值
+     */
+    public ObjectDoubleMap(int expectedSize, double noEntryValue) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize 不能小于0: " + expectedSize);
+        }
+        this.noEntryValue = noEntryValue;
+        allocate(tableSize(expectedSize));
+    }
+
+    public double noEntryValue() {
+        return noEntryValue;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(Object key) {
+        return key != null && find(key) >= 0;
+    }
+
+    public double get(Object key) {
+        return getOrDefault(key, noEntryValue);
+    }
+
+    public double getOrDefault(Object key, double defaultValue) {
+        if (key == null) {
+            return defaultValue;
+        }
+        int index = find(key);
+        return index >= 0 ? values[index] : defaultValue;
+    }
+
+    /**
+     * @return 原来的值，不存在时返回 noEntryValue
+     * @throws IllegalArgumentException key 为 null
+     */
+    public double put(K key, double value) {
+        int h = requireKey(key).hashCode();
+        Object[] k = keys;
+        int m = mask;
+        for (int i = slot(h); ; i = (i + 1) & m) {
+            Object current = k[i];
+            if (current == null) {
+                insert(i, key, h, value);
+                return noEntryValue;
+            }
+            if (current == key || hashes[i] == h && current.equals(key)) {
+                double old = values[i];
+                values[i] = value;
+                return old;
+            }
+        }
+    }
+
+    /**
+     * 在原值（不存在时为 noEntryValue）上加 delta
+     *
+     * @return 相加后的值
+     * @throws IllegalArgumentException key 为 null
+     */
+    public double addTo(K key, double delta) {
+        int h = requireKey(key).hashCode();
+        Object[] k = keys;
+        int m = mask;
+        for (int i = slot(h); ; i = (i + 1) & m) {
+            Object current = k[i];
+            if (current == null) {
+                double value = noEntryValue + delta;
+                insert(i, key, h, value);
+                return value;
+            }
+            if (current == key || hashes[i] == h && current.equals(key)) {
+                return values[i] += delta;
+            }
+        }
+    }
+
+    /**
+     * @return 被删除的值，不存在时返回 noEntryValue
+     */
+    public double remove(Object key) {
+        if (key == null) {
+            return noEntryValue;
+        }
+        int index = find(key);
+        if (index < 0) {
+            return noEntryValue;
+        }
+        double old = values[index];
+        shiftKeys(index);
+        size--;
+        return old;
+    }
+
+    /**
+     * 删除所有元素，保留容量
+     */
+    public void clear() {
+        Arrays.fill(keys, null);
+        size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(ObjDoubleConsumer<? super K> action) {
+        Object[] k = keys;
+        double[] v = values;
+        for (int i = 0; i < k.length; i++) {
+            if (k[i] != null) {
+                action.accept((K) k[i], v[i]);
+            }
+        }
+    }
+
+    /**
+     * 新的遍历游标，遍历期间不能增删键（可以用 {@link Cursor#setValue(double)} 修改值）
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ObjectDoubleMap)) {
+            return false;
+        }
+        ObjectDoubleMap<?> other = (ObjectDoubleMap<?>) o;
+        if (size != other.size) {
+            return false;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            Object key = keys[i];
+            if (key != null && (!other.containsKey(key) || Double.compare(other.get(key), values[i]) != 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 与相同内容的 {@code Map<K, Double>} 的 hashCode 相同
+     */
+    @Override
+    public int hashCode() {
+        int h = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                h += keys[i].hashCode() ^ Double.hashCode(values[i]);
+            }
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                if (sb.length() > 1) {
+                    sb.append(", ");
+                }
+                sb.append(keys[i]).append('=').append(values[i]);
+            }
+        }
+        return sb.append('}').toString();
+    }
+
+    private static Object requireKey(Object key) {
+        if (key == null) {
+            throw new IllegalArgumentException("key 不能为 null");
+        }
+        return key;
+    }
+
+    private int slot(int hash) {
+        return (int) ((hash * PHI) >>> shift);
+    }
+
+    private int find(Object key) {
+        int h = key.hashCode();
+        Object[] k = keys;
+        int m = mask;
+        for (int i = slot(h); ; i = (i + 1) & m) {
+            Object current = k[i];
+            if (current == null) {
+                return -1;
+            }
+            if (current == key || hashes[i] == h && current.equals(key)) {
+                return i;
+            }
+        }
+    }
+
+    private void insert(int index, K key, int hash, double value) {
+        keys[index] = key;
+        hashes[index] = hash;
+        values[index] = value;
+        if (++size > threshold) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    /**
+     * 删除 index 处的元素：把后面探测链上能放到空位的元素依次前移
+     */
+    private void shiftKeys(int index) {
+        Object[] k = keys;
+        int m = mask;
+        int last = index;
+        for (int i = (index + 1) & m; ; i = (i + 1) & m) {
+            Object current = k[i];
+            if (current == null) {
+                k[last] = null;
+                return;
+            }
+            int home = slot(hashes[i]);
+            // home 不在 (last, i] 内（环形）时，该元素可以前移到 last
+            if (last <= i ? (home <= last || home > i) : (home <= last && home > i)) {
+                k[last] = current;
+                hashes[last] = hashes[i];
+                values[last] = values[i];
+                last = i;
+            }
+        }
+    }
+
+    private void rehash(int newSize) {
+        if (newSize <= 0) {
+            throw new IllegalStateException("元素数已达上限");
+        }
+        Object[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        double[] oldValues = values;
+        allocate(newSize);
+        Object[] k = keys;
+        int m = mask;
+        for (int j = 0; j < oldKeys.length; j++) {
+            Object key = oldKeys[j];
+            if (key != null) {
+                int i = slot(oldHashes[j]);
+                while (k[i] != null) {
+                    i = (i + 1) & m;
+                }
+                k[i] = key;
+                hashes[i] = oldHashes[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private void allocate(int size) {
+        keys = new Object[size];
+        hashes = new int[size];
+        values = new double[size];
+        mask = size - 1;
+        shift = 64 - Integer.numberOfTrailingZeros(size);
+        threshold = (int) (size * LOAD_FACTOR);
+    }
+
+    private static int tableSize(int expectedSize) {
+        long needed = (long) Math.ceil(expectedSize / (double) LOAD_FACTOR) + 1;
+        if (needed > 1 << 30) {
+            throw new IllegalArgumentException("expectedSize 过大: " + expectedSize);
+        }
+        return Math.max(Integer.highestOneBit((int) needed - 1) << 1, 4);
+    }
+
+    /**
+     * 可复用的遍历游标：先 {@link #advance()}，再读取 {@link #key()}、{@link #value()}
+     */
+    public final class Cursor {
+        private int index = -1;
+
+        public boolean advance() {
+            Object[] k = keys;
+            while (++index < k.length) {
+                if (k[index] != null) {
+                    return true;
+                }
+            }
+            index = k.length;
+            return false;
+        }
+
+        @SuppressWarnings("unchecked")
+        public K key() {
+            checkPosition();
+            return (K) keys[index];
+        }
+
+        public double value() {
+            checkPosition();
+            return values[index];
+        }
+
+        public void setValue(double value) {
+            checkPosition();
+            values[index] = value;
+        }
+
+        /**
+         * 回到第一个元素之前
+         */
+        public void reset() {
+            index = -1;
+        }
+
+        private void checkPosition() {
+            if (index < 0 || index >= keys.length) {
+                throw new IllegalStateException("游标不在元素上");
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+// 由 CollectionGenerator 根据 ObjectPrimitivePair.java.template 生成，修改模板后重新生成，不要直接修改
+package god.github.haoer.godbase.collection;
+
+import java.util.Objects;
+
+/**
+ * 值为 double 的不可变键值对，{@code GenericWildCard.Pair<K, Double>} 的基本类型版本
+ *
+ * <p>value 直接存为 double 字段，不需要额外的 Double 对象。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class ObjectDoublePair<K> {
+
+    private final K key;
+    private final double value;
+
+    public ObjectDoublePair(K key, double value) {
+        this.key = key;
+        this.value = value;
+    }
+
+    public static <K> ObjectDoublePair<K> of(K key, double value) {
+        return new ObjectDoublePair<>(key, value);
+    }
+
+    public K getKey() {
+        return key;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ObjectDoublePair)) {
+            return false;
+        }
+        ObjectDoublePair<?> other = (ObjectDoublePair<?>) o;
+        return Double.compare(value, other.value) == 0 && Objects.equals(key, other.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hashCode(key) + Double.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        return "Pair{" + "key=" + key + ", value=" + value + "}";
+    }
+}
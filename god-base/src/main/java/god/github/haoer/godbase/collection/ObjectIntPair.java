@@ -0,0 +1,57 @@
+// 由 CollectionGenerator 根据 ObjectPrimitivePair.java.template 生成，修改模板后重新生成，不要直接修改
+package god.github.haoer.godbase.collection;
+
+import java.util.Objects;
+
+/**
+ * 值为 int 的不可变键值对，{@code GenericWildCard.Pair<K, Integer>} 的基本类型版本
+ *
+ * <p>value 直接存为 int 字段，不需要额外的 Integer 对象。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class ObjectIntPair<K> {
+
+    private final K key;
+    private final int value;
+
+    public ObjectIntPair(K key, int value) {
+        this.key = key;
+        this.value = value;
+    }
+
+    public static <K> ObjectIntPair<K> of(K key, int value) {
+        return new ObjectIntPair<>(key, value);
+    }
+
+    public K getKey() {
+        return key;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ObjectIntPair)) {
+            return false;
+        }
+        ObjectIntPair<?> other = (ObjectIntPair<?>) o;
+        return Integer.compare(value, other.value) == 0 && Objects.equals(key, other.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hashCode(key) + Integer.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        return "Pair{" + "key=" + key + ", value=" + value + "}";
+    }
+}
@@ -0,0 +1,57 @@
+// 由 CollectionGenerator 根据 ObjectPrimitivePair.java.template 生成，修改模板后重新生成，不要直接修改
+package god.github.haoer.godbase.collection;
+
+import java.util.Objects;
+
+/**
+ * 值为 long 的不可变键值对，{@code GenericWildCard.Pair<K, Long>} 的基本类型版本
+ *
+ * <p>value 直接存为 long 字段，不需要额外的 Long 对象。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class ObjectLongPair<K> {
+
+    private final K key;
+    private final long value;
+
+    public ObjectLongPair(K key, long value) {
+        this.key = key;
+        this.value = value;
+    }
+
+    public static <K> ObjectLongPair<K> of(K key, long value) {
+        return new ObjectLongPair<>(key, value);
+    }
+
+    public K getKey() {
+        return key;
+    }
+
+    public long getValue() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ObjectLongPair)) {
+            return false;
+        }
+        ObjectLongPair<?> other = (ObjectLongPair<?>) o;
+        return Long.compare(value, other.value) == 0 && Objects.equals(key, other.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hashCode(key) + Long.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        return "Pair{" + "key=" + key + ", value=" + value + "}";
+    }
+}
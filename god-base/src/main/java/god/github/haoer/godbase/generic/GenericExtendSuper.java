@@ -67,6 +67,14 @@ public class GenericExtendSuper {
         processor.processAnimals(animals);
         processor.processAnimals(cats);
         processor.processAnimals(dogs);
+
+        // 批量模式：混合类型的列表按类型分组处理
+        List<Animal> mixed = new ArrayList<>();
+        mixed.add(new Cat());
+        mixed.add(new Dog());
+        mixed.add(new Animal());
+        mixed.add(new Cat());
+        processor.processAnimalsInBatch(mixed);
         
         // 使用super向列表中写入数据
         processor.addAnimal(animals, new Cat());
@@ -147,6 +155,17 @@ public class GenericExtendSuper {
                 System.out.println(" - " + animal.getName() + ": " + animal.eatSomething());
             }
         }
+
+        /**
+         * 批量模式：先按具体类型分组，每种类型走单独的循环，调用点保持单态；元素多时并行处理，输出顺序不变
+         * 见 {@link AnimalBatchProcessor}
+         */
+        public void processAnimalsInBatch(List<? extends Animal> animals) {
+            System.out.println("批量处理动物列表:");
+            for (String line : AnimalBatchProcessor.describeParallel(animals)) {
+                System.out.println(" - " + line);
+            }
+        }
         
         /**
          * 使用super通配符向动物列表添加元素（写入操作）
@@ -30,6 +30,7 @@ public class GenericWildCard<T> {
     /**
      * 基础泛型类示例：键值对
      * 展示了如何使用K和V两个类型参数创建通用的键值对数据结构
+     * 值为基本类型时 V 会被装箱，可以改用 {@link god.github.haoer.godbase.collection.ObjectIntPair} 等基本类型版本
      *
      * @param <K> 键的类型参数
      * @param <V> 值的类型参数
@@ -65,6 +66,8 @@ public class GenericWildCard<T> {
     /**
      * 集合类型示例：使用E表示元素类型的简单列表实现
      * 展示了如何使用泛型创建类型安全的集合类
+     * 泛型不支持基本类型，SimpleList&lt;Integer&gt; 的每个元素都是一个 Integer 对象；
+     * 存放数字时用 {@link god.github.haoer.godbase.collection.IntList} 等基本类型集合
      *
      * @param <E> 列表中元素的类型参数
      */
@@ -95,6 +98,9 @@ public class GenericWildCard<T> {
     /**
      * 函数式接口示例：使用T和R表示输入和返回类型的转换器
      * 展示了如何使用泛型和函数式接口创建通用的数据转换器
+     * 多个转换器串联、批量或并行处理列表时见 {@link god.github.haoer.godbase.transform.Pipeline}
+     * 代价高、输入重复的转换可以用 {@link god.github.haoer.godbase.transform.MemoizingTransformer} 缓存结果
+     * I/O 型的转换见 {@link god.github.haoer.godbase.transform.AsyncTransformer}，批量处理时由 AsyncStream 提供背压和并发上限
      *
      * @param <T> 输入数据的类型参数
      * @param <R> 输出数据的类型参数
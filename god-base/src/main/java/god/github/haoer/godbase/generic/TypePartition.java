@@ -0,0 +1,281 @@
+package god.github.haoer.godbase.generic;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * 按具体类型（getClass()）分组后的元素：同一类型的元素在数组中连续存放，并记录每个元素在原列表中的位置
+ *
+ * <p>对 List&lt;? extends Animal&gt; 逐个调用方法时，同一个调用点会遇到 Cat、Dog 等多种类型，
+ * 超过两种后 JIT 无法内联（megamorphic）。分组后每段只有一种类型，交给各自的循环处理（见 {@link AnimalBatchProcessor}），
+ * 结果按 {@link #position(int)} 写回原位置，输出顺序与输入一致。
+ *
+ * <p>分组是一次计数排序：一遍确定类型和数量，一遍复制，O(n)。类型按首次出现的顺序编号。
+ * {@link #spliterator(int)} 把元素切成只含一种类型的 {@link Range}，可以用并行流分给多个核处理。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class TypePartition<E> {
+
+    private final Class<?>[] types;
+    /**
+     * 第 t 种类型的元素位于 [offsets[t], offsets[t + 1])
+     */
+    private final int[] offsets;
+    private final Object[] elements;
+    private final int[] positions;
+
+    private TypePartition(Class<?>[] types, int[] offsets, Object[] elements, int[] positions) {
+        this.types = types;
+        this.offsets = offsets;
+        this.elements = elements;
+        this.positions = positions;
+    }
+
+    /**
+     * @throws NullPointerException 列表中有 null 元素
+     */
+    public static <E> TypePartition<E> of(List<? extends E> items) {
+        int size = items.size();
+        Object[] source = items.toArray();
+        int[] typeIds = new int[size];
+        Map<Class<?>, Integer> ids = new IdentityHashMap<>();
+        Class<?>[] types = new Class<?>[4];
+        int[] counts = new int[4];
+        int typeCount = 0;
+        Class<?> lastType = null;
+        int lastId = -1;
+        for (int i = 0; i < size; i++) {
+            Object item = source[i];
+            if (item == null) {
+                throw new NullPointerException("第 " + i + " 个元素为 null");
+            }
+            Class<?> type = item.getClass();
+            // 相邻元素常常是同一类型，先比较上一个
+            if (type != lastType) {
+                Integer id = ids.get(type);
+                if (id == null) {
+                    if (typeCount == types.length) {
+                        types = Arrays.copyOf(types, typeCount * 2);
+                        counts = Arrays.copyOf(counts, typeCount * 2);
+                    }
+                    id = typeCount;
+                    types[typeCount++] = type;
+                    ids.put(type, id);
+                }
+                lastType = type;
+                lastId = id;
+            }
+            typeIds[i] = lastId;
+            counts[lastId]++;
+        }
+
+        int[] offsets = new int[typeCount + 1];
+        for (int t = 0; t < typeCount; t++) {
+            offsets[t + 1] = offsets[t] + counts[t];
+        }
+        int[] next = Arrays.copyOf(offsets, typeCount);
+        Object[] elements = new Object[size];
+        int[] positions = new int[size];
+        for (int i = 0; i < size; i++) {
+            int slot = next[typeIds[i]]++;
+            elements[slot] = source[i];
+            positions[slot] = i;
+        }
+        return new TypePartition<>(Arrays.copyOf(types, typeCount), offsets, elements, positions);
+    }
+
+    public int size() {
+        return elements.length;
+    }
+
+    public int typeCount() {
+        return types.length;
+    }
+
+    public Class<?> type(int t) {
+        return types[t];
+    }
+
+    /**
+     * 第 t 种类型第一个元素的下标
+     */
+    public int from(int t) {
+        return offsets[t];
+    }
+
+    /**
+     * 第 t 种类型最后一个元素的下标 + 1
+     */
+    public int to(int t) {
+        return offsets[t + 1];
+    }
+
+    @SuppressWarnings("unchecked")
+    public E element(int i) {
+        return (E) elements[i];
+    }
+
+    /**
+     * 分组后第 i 个元素在原列表中的下标
+     */
+    public int position(int i) {
+        return positions[i];
+    }
+
+    Object[] elements() {
+        return elements;
+    }
+
+    int[] positions() {
+        return positions;
+    }
+
+    /**
+     * 按类型切分的 Spliterator：每个 Range 只含一种类型、最多 minChunk * 2 个元素；
+     * trySplit 优先在类型边界处切分，其次从中间切
+     *
+     * @param minChunk 不再继续切分的元素数
+     */
+    public Spliterator<Range> spliterator(int minChunk) {
+        if (minChunk <= 0) {
+            throw new IllegalArgumentException("minChunk 必须大于0: " + minChunk);
+        }
+        return new RangeSpliterator(0, elements.length, minChunk);
+    }
+
+    /**
+     * 同一类型的一段连续元素 [from, to)
+     */
+    public static final class Range {
+        private final int type;
+        private final int from;
+        private final int to;
+
+        Range(int type, int from, int to) {
+            this.type = type;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * 类型编号，对应 {@link TypePartition#type(int)}
+         */
+        public int getType() {
+            return type;
+        }
+
+        public int getFrom() {
+            return from;
+        }
+
+        public int getTo() {
+            return to;
+        }
+
+        @Override
+        public String toString() {
+            return "Range{type=" + type + ", from=" + from + ", to=" + to + "}";
+        }
+    }
+
+    private final class RangeSpliterator implements Spliterator<Range> {
+
+        private int lo;
+        private final int hi;
+        private final int minChunk;
+
+        RangeSpliterator(int lo, int hi, int minChunk) {
+            this.lo = lo;
+            this.hi = hi;
+            this.minChunk = minChunk;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Range> action) {
+            if (lo >= hi) {
+                return false;
+            }
+            int type = typeAt(lo);
+            int end = Math.min(hi, offsets[type + 1]);
+            // 单一类型的大段继续按 minChunk * 2 切，保证未被切分时也能均匀地交给 forEach
+            end = Math.min(end, lo + minChunk * 2);
+            Range range = new Range(type, lo, end);
+            lo = end;
+            action.accept(range);
+            return true;
+        }
+
+        @Override
+        public Spliterator<Range> trySplit() {
+            if (hi - lo < minChunk * 2) {
+                return null;
+            }
+            int mid = (lo + hi) >>> 1;
+            int boundary = nearestBoundary(mid);
+            if (boundary - lo >= minChunk && hi - boundary >= minChunk) {
+                mid = boundary;
+            }
+            Spliterator<Range> prefix = new RangeSpliterator(lo, mid, minChunk);
+            lo = mid;
+            return prefix;
+        }
+
+        /**
+         * 离 mid 最近的类型边界（lo、hi 之间），没有时返回 mid
+         */
+        private int nearestBoundary(int mid) {
+            int t = typeAt(mid);
+            int left = offsets[t];
+            int right = offsets[t + 1];
+            int best = mid;
+            int distance = Integer.MAX_VALUE;
+            if (left > lo) {
+                best = left;
+                distance = mid - left;
+            }
+            if (right < hi && right - mid < distance) {
+                best = right;
+            }
+            return best;
+        }
+
+        @Override
+        public long estimateSize() {
+            // 以元素数估计工作量
+            return hi - lo;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+    }
+
+    /**
+     * 下标 i 所在的类型编号
+     */
+    private int typeAt(int i) {
+        int t = Arrays.binarySearch(offsets, i);
+        if (t < 0) {
+            return -t - 2;
+        }
+        // 空类型不存在，offsets 严格递增；命中边界时 i 是第 t 种类型的第一个元素
+        return t;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("TypePartition{size=").append(elements.length);
+        for (int t = 0; t < types.length; t++) {
+            sb.append(", ").append(types[t].getSimpleName()).append('=').append(offsets[t + 1] - offsets[t]);
+        }
+        return sb.append('}').toString();
+    }
+}
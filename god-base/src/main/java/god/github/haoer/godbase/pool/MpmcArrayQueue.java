@@ -0,0 +1,95 @@
+package god.github.haoer.godbase.pool;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 有界、无锁的多生产者多消费者队列（Dmitry Vyukov 的环形数组算法）
+ *
+ * <p>每个槽位有一个序号：等于入队位置时可写，等于入队位置 + 1 时可读，读完后加一圈（capacity）等待下一轮写入。
+ * 生产者、消费者各自只 CAS 自己的位置计数器；与 Treiber 栈不同，不存在 ABA 问题，也不需要为每个元素分配节点。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+final class MpmcArrayQueue<E> {
+
+    private final Object[] items;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * @param capacity 向上取整为 2 的幂
+     */
+    MpmcArrayQueue(int capacity) {
+        int n = 1;
+        while (n < capacity) {
+            n <<= 1;
+        }
+        this.items = new Object[n];
+        this.sequences = new AtomicLongArray(n);
+        this.mask = n - 1;
+        for (int i = 0; i < n; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return 队列已满时返回 false
+     */
+    boolean offer(E e) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) pos & mask;
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    items[index] = e;
+                    // 发布元素，序号的读取方能看到上面的写入
+                    sequences.lazySet(index, pos + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+            pos = tail.get();
+        }
+    }
+
+    /**
+     * @return 队列为空时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    E poll() {
+        long pos = head.get();
+        while (true) {
+            int index = (int) pos & mask;
+            long diff = sequences.get(index) - (pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    E e = (E) items[index];
+                    items[index] = null;
+                    sequences.lazySet(index, pos + mask + 1);
+                    return e;
+                }
+            } else if (diff < 0) {
+                return null;
+            }
+            pos = head.get();
+        }
+    }
+
+    /**
+     * 并发修改时只是近似值
+     */
+    int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, mask + 1));
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
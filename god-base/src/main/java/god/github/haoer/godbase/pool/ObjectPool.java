@@ -0,0 +1,334 @@
+package god.github.haoer.godbase.pool;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 短生命周期 Bean 的对象池：线程私有缓存 + 无锁的全局池
+ *
+ * <p>对象由 {@link ResetPlan} 创建（底层是 {@link god.github.haoer.godbase.reflection.ObjectFactories} 选中的最快构造方式），
+ * 归还时按重置计划恢复为构造后的默认值，再执行可选的重置回调。获取与归还：
+ * 1. 先取当前线程的缓存（数组栈，无同步），归还时也优先放回这里
+ * 2. 线程缓存空/满时访问全局池（{@link MpmcArrayQueue}，无锁有界），全局池满时直接丢弃交给 GC
+ * 3. 都取不到时新建
+ *
+ * <p>池中保存的是对象及其代数（generation），每次获取返回一个新的 {@link Lease}，记录获取时的代数；
+ * 归还时代数加一，之后旧 Lease 的 get()/close() 都会抛出异常，不会读到或归还别人正在使用的对象。
+ * Lease 只是一个很小的短命对象，配合 try-with-resources 使用时通常会被逃逸分析消除：
+ * <pre>
+ * ObjectPool&lt;User&gt; pool = new ObjectPool&lt;&gt;(User.class);
+ * try (ObjectPool.Lease&lt;User&gt; lease = pool.acquire()) {
+ *     User user = lease.get();
+ *     ...
+ * }
+ * </pre>
+ *
+ * <p>泄漏检测：debug 模式（构造参数或 -Dgod.pool.debug=true）下，获取时记录调用栈，并用弱引用跟踪 Lease；
+ * 未归还的 Lease 被 GC 回收后，在之后的某次获取时计入 {@link Stats#getLeaks()}，
+ * 并把获取位置交给 {@link #setLeakListener(LeakListener)} 设置的回调。
+ * 调用栈的开销很大，只用于排查问题。
+ *
+ * <p>是否值得池化见 PoolingBenchmark：User 这类只有几个字段的小对象，TLAB 分配加年轻代回收已经很便宜，
+ * 池化的 ThreadLocal 查找与重置反而更慢；构造代价高（内部有大数组等）或对象存活时间跨越多次 GC 时池化才有收益。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class ObjectPool<T> {
+
+    public static final int DEFAULT_LOCAL_CAPACITY = 64;
+    public static final int DEFAULT_GLOBAL_CAPACITY = 1024;
+
+    private final ResetPlan<T> plan;
+    private final Consumer<? super T> resetHook;
+    private final int localCapacity;
+    private final MpmcArrayQueue<Slot<T>> global;
+    private final ThreadLocal<LocalCache<T>> local;
+    private final boolean debug;
+    private volatile LeakListener leakListener = (type, acquiredAt) -> { };
+
+    private final LongAdder created = new LongAdder();
+    private final LongAdder fromGlobal = new LongAdder();
+    private final LongAdder toGlobal = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder leaks = new LongAdder();
+
+    private final ReferenceQueue<Lease<?>> leakQueue = new ReferenceQueue<>();
+    private final Set<LeakTracker> trackers = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    public ObjectPool(Class<T> type) {
+        this(type, DEFAULT_LOCAL_CAPACITY, DEFAULT_GLOBAL_CAPACITY, Boolean.getBoolean("god.pool.debug"), null);
+    }
+
+    /**
+     * @param localCapacity  每个线程缓存的最大对象数
+     * @param globalCapacity 全局池容量，向上取整为 2 的幂
+     * @param debug          是否开启泄漏检测
+     * @param resetHook      按重置计划恢复默认值之后执行，可为 null；用于清理计划处理不了的状态，如清空 {@link Retained} 缓冲区的内容
+     * @throws IllegalArgumentException 该类无法生成重置计划
+     */
+    public ObjectPool(Class<T> type, int localCapacity, int globalCapacity, boolean debug, Consumer<? super T> resetHook) {
+        if (localCapacity < 0 || globalCapacity <= 0) {
+            throw new IllegalArgumentException("localCapacity 不能小于0、globalCapacity 必须大于0: " + localCapacity + "/" + globalCapacity);
+        }
+        this.plan = ResetPlan.of(type);
+        this.resetHook = resetHook;
+        this.localCapacity = localCapacity;
+        this.global = new MpmcArrayQueue<>(globalCapacity);
+        this.local = ThreadLocal.withInitial(() -> new LocalCache<>(localCapacity));
+        this.debug = debug;
+    }
+
+    /**
+     * 取出一个处于默认状态的对象
+     */
+    public Lease<T> acquire() {
+        if (debug) {
+            reportLeaks();
+        }
+        Slot<T> slot = localCapacity == 0 ? null : local.get().pop();
+        if (slot == null) {
+            slot = global.poll();
+            if (slot != null) {
+                fromGlobal.increment();
+            } else {
+                slot = new Slot<>(plan.newInstance());
+                created.increment();
+            }
+        }
+        Lease<T> lease = new Lease<>(this, slot, slot.generation);
+        if (debug) {
+            slot.tracker = new LeakTracker(lease, leakQueue, new Throwable("未归还对象的获取位置"));
+            trackers.add(slot.tracker);
+        }
+        return lease;
+    }
+
+    /**
+     * 设置泄漏回调，默认忽略（泄漏数仍计入 {@link Stats#getLeaks()}）；只在 debug 模式下触发
+     */
+    public void setLeakListener(LeakListener listener) {
+        this.leakListener = Objects.requireNonNull(listener, "listener");
+    }
+
+    public Stats stats() {
+        return new Stats(created.sum(), fromGlobal.sum(), toGlobal.sum(), dropped.sum(), leaks.sum(), global.size(),
+                debug ? trackers.size() : -1);
+    }
+
+    private void release(Slot<T> slot) {
+        // 代数加一之后，这次借出的 Lease 以及更早的 Lease 全部失效
+        slot.generation++;
+        LeakTracker tracker = slot.tracker;
+        if (tracker != null) {
+            slot.tracker = null;
+            tracker.clear();
+            trackers.remove(tracker);
+        }
+        plan.reset(slot.value);
+        if (resetHook != null) {
+            resetHook.accept(slot.value);
+        }
+        if (localCapacity > 0 && local.get().push(slot)) {
+            return;
+        }
+        if (global.offer(slot)) {
+            toGlobal.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    private void reportLeaks() {
+        LeakTracker tracker;
+        while ((tracker = (LeakTracker) leakQueue.poll()) != null) {
+            if (trackers.remove(tracker)) {
+                leaks.increment();
+                leakListener.onLeak(plan.type(), tracker.acquiredAt);
+            }
+        }
+    }
+
+    /**
+     * 泄漏回调，在发现泄漏的那次 {@link #acquire()} 的线程上执行，不应阻塞
+     */
+    @FunctionalInterface
+    public interface LeakListener {
+
+        /**
+         * @param type       池化对象的类型
+         * @param acquiredAt 未归还对象的获取位置
+         */
+        void onLeak(Class<?> type, Throwable acquiredAt);
+    }
+
+    /**
+     * 一次借出，close() 时归还；归还后不能再使用
+     */
+    public static final class Lease<T> implements AutoCloseable {
+        private final ObjectPool<T> pool;
+        private final Slot<T> slot;
+        private final int generation;
+
+        private Lease(ObjectPool<T> pool, Slot<T> slot, int generation) {
+            this.pool = pool;
+            this.slot = slot;
+            this.generation = generation;
+        }
+
+        /**
+         * @throws IllegalStateException 已归还
+         */
+        public T get() {
+            if (slot.generation != generation) {
+                throw new IllegalStateException("对象已归还");
+            }
+            return slot.value;
+        }
+
+        /**
+         * @throws IllegalStateException 重复归还
+         */
+        @Override
+        public void close() {
+            if (slot.generation != generation) {
+                throw new IllegalStateException("重复归还");
+            }
+            pool.release(slot);
+        }
+    }
+
+    /**
+     * 池中保存的对象；每次归还代数加一，用来识别过期的 Lease
+     */
+    private static final class Slot<T> {
+        private final T value;
+        private int generation;
+        private LeakTracker tracker;
+
+        Slot(T value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * 线程私有的数组栈
+     */
+    private static final class LocalCache<T> {
+        private final Object[] items;
+        private int size;
+
+        LocalCache(int capacity) {
+            this.items = new Object[capacity];
+        }
+
+        @SuppressWarnings("unchecked")
+        Slot<T> pop() {
+            if (size == 0) {
+                return null;
+            }
+            Slot<T> slot = (Slot<T>) items[--size];
+            items[size] = null;
+            return slot;
+        }
+
+        boolean push(Slot<T> slot) {
+            if (size == items.length) {
+                return false;
+            }
+            items[size++] = slot;
+            return true;
+        }
+    }
+
+    /**
+     * 弱引用 Lease；Lease 未归还就被回收时进入引用队列
+     */
+    private static final class LeakTracker extends WeakReference<Lease<?>> {
+        private final Throwable acquiredAt;
+
+        LeakTracker(Lease<?> lease, ReferenceQueue<Lease<?>> queue, Throwable acquiredAt) {
+            super(lease, queue);
+            this.acquiredAt = acquiredAt;
+        }
+    }
+
+    public static final class Stats {
+        private final long created;
+        private final long fromGlobal;
+        private final long toGlobal;
+        private final long dropped;
+        private final long leaks;
+        private final int globalSize;
+        private final int outstanding;
+
+        Stats(long created, long fromGlobal, long toGlobal, long dropped, long leaks, int globalSize, int outstanding) {
+            this.created = created;
+            this.fromGlobal = fromGlobal;
+            this.toGlobal = toGlobal;
+            this.dropped = dropped;
+            this.leaks = leaks;
+            this.globalSize = globalSize;
+            this.outstanding = outstanding;
+        }
+
+        /**
+         * 新建的对象数
+         */
+        public long getCreated() {
+            return created;
+        }
+
+        /**
+         * 从全局池取得的次数
+         */
+        public long getFromGlobal() {
+            return fromGlobal;
+        }
+
+        /**
+         * 放回全局池的次数
+         */
+        public long getToGlobal() {
+            return toGlobal;
+        }
+
+        /**
+         * 线程缓存和全局池都满、直接丢弃的次数
+         */
+        public long getDropped() {
+            return dropped;
+        }
+
+        /**
+         * debug 模式下检测到的泄漏数
+         */
+        public long getLeaks() {
+            return leaks;
+        }
+
+        public int getGlobalSize() {
+            return globalSize;
+        }
+
+        /**
+         * debug 模式下已借出未归还的数量，非 debug 模式为 -1
+         */
+        public int getOutstanding() {
+            return outstanding;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{created=" + created + ", fromGlobal=" + fromGlobal + ", toGlobal=" + toGlobal
+                    + ", dropped=" + dropped + ", leaks=" + leaks + ", globalSize=" + globalSize
+                    + ", outstanding=" + outstanding + "}";
+        }
+    }
+}
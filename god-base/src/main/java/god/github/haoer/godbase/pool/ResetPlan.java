@@ -0,0 +1,164 @@
+package god.github.haoer.godbase.pool;
+
+import god.github.haoer.godbase.reflection.BeanCopier;
+import god.github.haoer.godbase.reflection.ObjectFactories;
+import god.github.haoer.godbase.reflection.UnsafeAccess;
+import sun.misc.Unsafe;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 把对象恢复到刚构造时的状态
+ *
+ * <p>每个类生成一次（ClassValue 缓存）：先用 {@link ObjectFactories#forClass(Class)} 构造一个原型，记录构造方法设置的默认值；
+ * 所有实例字段（含父类）的偏移量按宽度分组。{@link #reset(Object)} 按偏移量把原型的字段值写回，不经过反射：
+ * 1. 基本类型字段直接复制原型的值
+ * 2. 引用字段默认值为 null 或不可变对象（String、包装类型、枚举等）时直接写入
+ * 3. 可变的默认值（如构造方法中 new 出来的集合）每次用 {@link BeanCopier#deepCopy(Object)} 复制一份，
+ * 避免多个对象共享同一个默认值。不就地 clear()：字段可能已被替换为调用方自己的集合
+ *
+ * <p>需要复用的内部缓冲区用 {@link Retained} 标注，重置时保留原值。
+ *
+ * <p>没有无参构造方法的类不能生成原型，会抛出 IllegalArgumentException。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class ResetPlan<T> {
+
+    private static final ClassValue<ResetPlan<?>> PLANS = new ClassValue<ResetPlan<?>>() {
+        @Override
+        protected ResetPlan<?> computeValue(Class<?> type) {
+            return new ResetPlan<>(type);
+        }
+    };
+
+    private static final Unsafe U = UnsafeAccess.isAvailable() ? UnsafeAccess.unsafe() : null;
+
+    private final Class<T> type;
+    private final T prototype;
+    private final long[] longOffsets;
+    private final long[] intOffsets;
+    private final long[] shortOffsets;
+    private final long[] byteOffsets;
+    private final long[] refOffsets;
+    private final Object[] refDefaults;
+    /**
+     * 为 true 的默认值是可变对象，每次重置时复制
+     */
+    private final boolean[] refCopies;
+
+    private ResetPlan(Class<T> type) {
+        UnsafeAccess.unsafe();
+        this.type = type;
+        this.prototype = ObjectFactories.forClass(type).newInstance();
+        List<Long> longs = new ArrayList<>();
+        List<Long> ints = new ArrayList<>();
+        List<Long> shorts = new ArrayList<>();
+        List<Long> bytes = new ArrayList<>();
+        List<Long> refs = new ArrayList<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.isAnnotationPresent(Retained.class)) {
+                    continue;
+                }
+                long offset = U.objectFieldOffset(field);
+                Class<?> t = field.getType();
+                if (t == long.class || t == double.class) {
+                    longs.add(offset);
+                } else if (t == int.class || t == float.class) {
+                    ints.add(offset);
+                } else if (t == short.class || t == char.class) {
+                    shorts.add(offset);
+                } else if (t == byte.class || t == boolean.class) {
+                    bytes.add(offset);
+                } else {
+                    refs.add(offset);
+                }
+            }
+        }
+        this.longOffsets = toArray(longs);
+        this.intOffsets = toArray(ints);
+        this.shortOffsets = toArray(shorts);
+        this.byteOffsets = toArray(bytes);
+        this.refOffsets = toArray(refs);
+        this.refDefaults = new Object[refOffsets.length];
+        this.refCopies = new boolean[refOffsets.length];
+        for (int i = 0; i < refOffsets.length; i++) {
+            Object value = U.getObject(prototype, refOffsets[i]);
+            refDefaults[i] = value;
+            refCopies[i] = value != null && isCopyable(value);
+        }
+    }
+
+    /**
+     * deepCopy 对不可变对象返回自身；无法复制的对象（如 JDK 15+ 的 lambda）只能共享同一个默认值
+     */
+    private static boolean isCopyable(Object value) {
+        try {
+            return BeanCopier.deepCopy(value) != value;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 返回该类缓存的重置计划，首次调用时生成
+     *
+     * @throws IllegalArgumentException 无法通过构造方法创建原型
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ResetPlan<T> of(Class<T> type) {
+        return (ResetPlan<T>) PLANS.get(type);
+    }
+
+    public Class<T> type() {
+        return type;
+    }
+
+    /**
+     * 新建一个处于默认状态的对象
+     */
+    public T newInstance() {
+        return ObjectFactories.forClass(type).newInstance();
+    }
+
+    /**
+     * 把 target 的所有实例字段恢复为构造后的默认值
+     */
+    public T reset(T target) {
+        if (target.getClass() != type) {
+            throw new IllegalArgumentException("重置计划类型为 " + type.getName() + ", 实际为 " + target.getClass().getName());
+        }
+        Object p = prototype;
+        for (long offset : longOffsets) {
+            U.putLong(target, offset, U.getLong(p, offset));
+        }
+        for (long offset : intOffsets) {
+            U.putInt(target, offset, U.getInt(p, offset));
+        }
+        for (long offset : shortOffsets) {
+            U.putShort(target, offset, U.getShort(p, offset));
+        }
+        for (long offset : byteOffsets) {
+            U.putByte(target, offset, U.getByte(p, offset));
+        }
+        long[] offsets = refOffsets;
+        for (int i = 0; i < offsets.length; i++) {
+            Object value = refDefaults[i];
+            U.putObject(target, offsets[i], refCopies[i] ? BeanCopier.deepCopy(value) : value);
+        }
+        return target;
+    }
+
+    private static long[] toArray(List<Long> offsets) {
+        long[] array = new long[offsets.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = offsets.get(i);
+        }
+        return array;
+    }
+}
@@ -0,0 +1,22 @@
+package god.github.haoer.godbase.pool;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * {@link ResetPlan} 重置时保留该字段的当前值
+ *
+ * <p>用于可复用的内部缓冲区（如 byte[]、StringBuilder）：按默认规则它们每次重置都会被复制出一份新的默认值，
+ * 池化就失去了意义。内容需要清理时在 {@link ObjectPool} 的重置回调中处理。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Retained {
+}
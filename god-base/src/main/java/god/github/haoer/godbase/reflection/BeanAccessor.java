@@ -0,0 +1,400 @@
+package god.github.haoer.godbase.reflection;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 按名称读写 Bean 属性（如 @Data 生成 getter/setter 的 {@link User}）
+ *
+ * <p>{@link CreateObject#createUserByMethod()} 每次都用 findSetter 查找句柄，再用无类型的 invoke 调用。
+ * 本类对每个类只解析一次：
+ * 1. 属性来自 public 的 getXxx/isXxx/setXxx 方法；没有访问方法的实例字段直接按字段读写
+ * 2. 每个访问方法通过 {@link LambdaMetafactory} 生成一个 {@link Function}/{@link BiConsumer} 实现类，
+ *    直接调用 getXxx()/setXxx()，没有反射与装箱以外的开销
+ * 3. 类或属性类型对本类不可见时退回 {@link MethodHandle}（asType 后 invokeExact）；
+ *    连 setAccessible 都不允许的访问方法或字段（如 JDK 9+ 模块内部）会被忽略
+ * 4. 解析结果缓存在 {@link ClassValue} 中，类加载器卸载时随类一起回收
+ *
+ * <pre>
+ * BeanAccessor&lt;User&gt; accessor = BeanAccessor.of(User.class);
+ * accessor.set(user, "name", "张三");
+ * Property&lt;User, Integer&gt; age = accessor.property("age", Integer.class);
+ * Integer value = age.get(user);
+ * </pre>
+ *
+ * @param <T> Bean 类型
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class BeanAccessor<T> {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final ClassValue<BeanAccessor<?>> CACHE = new ClassValue<BeanAccessor<?>>() {
+        @Override
+        protected BeanAccessor<?> computeValue(Class<?> type) {
+            return new BeanAccessor<>(type);
+        }
+    };
+
+    private final Class<T> type;
+    private final Map<String, Property<T, Object>> properties;
+
+    private BeanAccessor(Class<T> type) {
+        this.type = type;
+        this.properties = Collections.unmodifiableMap(resolve(type));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> BeanAccessor<T> of(Class<T> type) {
+        if (type.isPrimitive() || type.isArray() || type.isInterface()) {
+            throw new IllegalArgumentException(type.getName() + " 不是 Bean 类型");
+        }
+        return (BeanAccessor<T>) CACHE.get(type);
+    }
+
+    public Class<T> type() {
+        return type;
+    }
+
+    /**
+     * 按名称排序的属性名
+     */
+    public Set<String> propertyNames() {
+        return properties.keySet();
+    }
+
+    public Collection<Property<T, Object>> properties() {
+        return properties.values();
+    }
+
+    public boolean hasProperty(String name) {
+        return properties.containsKey(name);
+    }
+
+    /**
+     * @throws IllegalArgumentException 属性不存在
+     */
+    public Property<T, Object> property(String name) {
+        Property<T, Object> property = properties.get(name);
+        if (property == null) {
+            throw new IllegalArgumentException(type.getName() + " 没有属性: " + name);
+        }
+        return property;
+    }
+
+    /**
+     * 带类型检查的属性，valueType 必须是属性类型（或其包装类型）本身或父类型
+     */
+    @SuppressWarnings("unchecked")
+    public <V> Property<T, V> property(String name, Class<V> valueType) {
+        Property<T, Object> property = property(name);
+        if (!valueType.isAssignableFrom(wrap(property.type()))) {
+            throw new IllegalArgumentException(type.getName() + "." + name + " 的类型是 "
+                    + property.type().getName() + "，不能作为 " + valueType.getName() + " 访问");
+        }
+        return (Property<T, V>) (Property<T, ?>) property;
+    }
+
+    public Object get(T bean, String name) {
+        return property(name).get(bean);
+    }
+
+    public void set(T bean, String name, Object value) {
+        property(name).set(bean, value);
+    }
+
+    // ---------- 解析 ----------
+
+    private static <T> Map<String, Property<T, Object>> resolve(Class<T> type) {
+        Map<String, Method> getters = new TreeMap<>();
+        Map<String, List<Method>> setters = new TreeMap<>();
+        for (Method method : type.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) || method.isBridge() || method.isSynthetic()
+                    || method.getDeclaringClass() == Object.class) {
+                continue;
+            }
+            String name = method.getName();
+            int parameters = method.getParameterCount();
+            Class<?> returnType = method.getReturnType();
+            if (parameters == 0 && name.length() > 3 && name.startsWith("get") && returnType != void.class) {
+                getters.put(decapitalize(name.substring(3)), method);
+            } else if (parameters == 0 && name.length() > 2 && name.startsWith("is") && returnType == boolean.class) {
+                getters.putIfAbsent(decapitalize(name.substring(2)), method);
+            } else if (parameters == 1 && name.length() > 3 && name.startsWith("set")) {
+                setters.computeIfAbsent(decapitalize(name.substring(3)), k -> new ArrayList<>()).add(method);
+            }
+        }
+        Map<String, Field> fields = new TreeMap<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                    fields.putIfAbsent(field.getName(), field);
+                }
+            }
+        }
+
+        Set<String> names = new TreeSet<>(getters.keySet());
+        names.addAll(setters.keySet());
+        names.addAll(fields.keySet());
+        // 按名称排序，查找走哈希
+        Map<String, Property<T, Object>> result = new LinkedHashMap<>();
+        for (String name : names) {
+            Method getter = getters.get(name);
+            Field field = fields.get(name);
+            Class<?> propertyType = getter != null ? getter.getReturnType() : null;
+            Method setter = chooseSetter(setters.get(name), propertyType != null ? propertyType : field != null ? field.getType() : null);
+            if (propertyType == null && setter == null && field == null) {
+                // 只有几个无法区分的重载 setter
+                continue;
+            }
+            if (propertyType == null) {
+                propertyType = setter != null ? setter.getParameterTypes()[0] : field.getType();
+            }
+
+            Function<Object, Object> read = null;
+            if (getter != null) {
+                read = compileGetter(type, getter);
+            } else if (field != null && field.getType() == propertyType) {
+                read = fieldGetter(field);
+            }
+            BiConsumer<Object, Object> write = null;
+            if (setter != null) {
+                write = compileSetter(type, setter);
+            } else if (field != null && field.getType() == propertyType && !Modifier.isFinal(field.getModifiers())) {
+                write = fieldSetter(field);
+            }
+            if (read != null || write != null) {
+                result.put(name, new CompiledProperty<>(type, name, propertyType, read, write));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 有多个重载的 setter 时，优先选参数类型与属性类型一致的
+     */
+    private static Method chooseSetter(List<Method> candidates, Class<?> propertyType) {
+        if (candidates == null) {
+            return null;
+        }
+        for (Method candidate : candidates) {
+            if (candidate.getParameterTypes()[0] == propertyType) {
+                return candidate;
+            }
+        }
+        return propertyType == null && candidates.size() == 1 ? candidates.get(0) : null;
+    }
+
+    /**
+     * 与 java.beans.Introspector#decapitalize 相同：URL → URL，Name → name
+     */
+    private static String decapitalize(String name) {
+        if (name.length() > 1 && Character.isUpperCase(name.charAt(1)) && Character.isUpperCase(name.charAt(0))) {
+            return name;
+        }
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    // ---------- 生成访问函数 ----------
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> compileGetter(Class<?> type, Method getter) {
+        Class<?> valueType = wrap(getter.getReturnType());
+        if (isDirectlyAccessible(type, getter.getDeclaringClass(), valueType)) {
+            try {
+                CallSite callSite = LambdaMetafactory.metafactory(
+                        LOOKUP,
+                        "apply",
+                        MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        LOOKUP.unreflect(getter),
+                        MethodType.methodType(valueType, type));
+                return (Function<Object, Object>) callSite.getTarget().invoke();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                // LambdaConversionException 等生成失败时退回 MethodHandle
+            }
+        }
+        try {
+            getter.setAccessible(true);
+            return handleGetter(LOOKUP.unreflect(getter));
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> compileSetter(Class<?> type, Method setter) {
+        Class<?> valueType = wrap(setter.getParameterTypes()[0]);
+        if (isDirectlyAccessible(type, setter.getDeclaringClass(), valueType)) {
+            try {
+                CallSite callSite = LambdaMetafactory.metafactory(
+                        LOOKUP,
+                        "accept",
+                        MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        LOOKUP.unreflect(setter),
+                        MethodType.methodType(void.class, type, valueType));
+                return (BiConsumer<Object, Object>) callSite.getTarget().invoke();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                // LambdaConversionException 等生成失败时退回 MethodHandle
+            }
+        }
+        try {
+            setter.setAccessible(true);
+            return handleSetter(LOOKUP.unreflect(setter));
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Function<Object, Object> fieldGetter(Field field) {
+        try {
+            field.setAccessible(true);
+            return handleGetter(LOOKUP.unreflectGetter(field));
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static BiConsumer<Object, Object> fieldSetter(Field field) {
+        try {
+            field.setAccessible(true);
+            return handleSetter(LOOKUP.unreflectSetter(field));
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Function<Object, Object> handleGetter(MethodHandle handle) {
+        final MethodHandle getter = handle.asType(MethodType.methodType(Object.class, Object.class));
+        return bean -> {
+            try {
+                return (Object) getter.invokeExact(bean);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("读取属性失败", e);
+            }
+        };
+    }
+
+    private static BiConsumer<Object, Object> handleSetter(MethodHandle handle) {
+        final MethodHandle setter = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        return (bean, value) -> {
+            try {
+                setter.invokeExact(bean, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("写入属性失败", e);
+            }
+        };
+    }
+
+    private static boolean isDirectlyAccessible(Class<?>... types) {
+        for (Class<?> type : types) {
+            if (!ObjectFactories.isPublicAndVisible(type)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static Class<?> wrap(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        return MethodType.methodType(type).wrap().returnType();
+    }
+
+    private static final class CompiledProperty<T> implements Property<T, Object> {
+        private final Class<T> owner;
+        private final String name;
+        private final Class<?> type;
+        private final Function<Object, Object> read;
+        private final BiConsumer<Object, Object> write;
+
+        CompiledProperty(Class<T> owner, String name, Class<?> type, Function<Object, Object> read, BiConsumer<Object, Object> write) {
+            this.owner = owner;
+            this.name = name;
+            this.type = type;
+            this.read = read;
+            this.write = write;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public Class<?> type() {
+            return type;
+        }
+
+        @Override
+        public boolean isReadable() {
+            return read != null;
+        }
+
+        @Override
+        public boolean isWritable() {
+            return write != null;
+        }
+
+        @Override
+        public Object get(T bean) {
+            if (read == null) {
+                throw new UnsupportedOperationException(owner.getName() + "." + name + " 不可读");
+            }
+            return read.apply(bean);
+        }
+
+        @Override
+        public void set(T bean, Object value) {
+            if (write == null) {
+                throw new UnsupportedOperationException(owner.getName() + "." + name + " 不可写");
+            }
+            write.accept(bean, value);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Function<T, Object> getter() {
+            return (Function<T, Object>) read;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public BiConsumer<T, Object> setter() {
+            return (BiConsumer<T, Object>) write;
+        }
+
+        @Override
+        public String toString() {
+            return owner.getSimpleName() + "." + name + ": " + type.getName() + (read != null ? " r" : "") + (write != null ? "w" : "");
+        }
+    }
+}
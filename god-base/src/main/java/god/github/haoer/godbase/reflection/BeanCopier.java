@@ -0,0 +1,632 @@
+package god.github.haoer.godbase.reflection;
+
+import sun.misc.Unsafe;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Currency;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 对象复制引擎：浅拷贝、带环检测的深拷贝、不同 Bean 类型之间按属性名复制
+ *
+ * <p>{@link User#clone()} 只是 super.clone() 的浅拷贝；以往需要深拷贝时先序列化再反序列化，
+ * 速度慢几个数量级且分配大量临时对象。本类借鉴 {@link CreateObject#createUserByUnsafe()}：
+ * 1. 每个类只计算一次复制计划（{@link ClassValue} 缓存）：所有实例字段的偏移量按宽度分组
+ * 2. 执行时用 allocateInstance 创建对象（与 clone 一样不执行构造方法），再按偏移量逐字段复制
+ * 3. 深拷贝用 {@link IdentityHashMap} 记录已复制的对象，环形引用、共享引用都只复制一次并保持拓扑；
+ *    遍历使用显式工作栈而不是递归，对象图再深也不会栈溢出
+ * 4. JDK 集合与 Map 重新构建而不是复制内部结构：HashMap 的桶位置依赖键的哈希，
+ *    键被复制后（如 identity hashCode）原有结构可能失效。重建时保留比较器、LinkedHashMap 的访问顺序、
+ *    阻塞队列的容量；子类可能带有额外状态，按普通对象逐字段复制。元素放入容器推迟到整个对象图填充完之后，
+ *    并且元素直接或间接引用的容器先放入，保证哈希、比较基于完整的元素（环形依赖无法满足，按遍历顺序放入）
+ * 5. 不可变对象（String、包装类型、枚举、BigDecimal、java.time 等）直接共享
+ *
+ * <p>跨类型复制（{@link #copyProperties(Object, Object)}）基于 {@link BeanAccessor}，
+ * 每对（源类型, 目标类型）只匹配一次属性，之后直接调用预先生成的 getter/setter。
+ *
+ * <pre>
+ * User copy = BeanCopier.deepCopy(user);
+ * UserDTO dto = BeanCopier.copyProperties(user, UserDTO.class);
+ * </pre>
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class BeanCopier {
+
+    private static final ClassValue<CopyPlan> PLANS = new ClassValue<CopyPlan>() {
+        @Override
+        protected CopyPlan computeValue(Class<?> type) {
+            return new CopyPlan(type);
+        }
+    };
+
+    /**
+     * 源类型 → (目标类型 → 属性映射)；内层 Map 强引用目标类型，目标类型所在类加载器需要卸载时应调用方自行管理生命周期
+     */
+    private static final ClassValue<Map<Class<?>, PropertyMapping>> MAPPINGS = new ClassValue<Map<Class<?>, PropertyMapping>>() {
+        @Override
+        protected Map<Class<?>, PropertyMapping> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private BeanCopier() {
+    }
+
+    /**
+     * 浅拷贝：字段值原样复制，引用类型字段与原对象共享；数组、集合、Map 复制容器本身
+     */
+    public static <T> T shallowCopy(T source) {
+        if (source == null) {
+            return null;
+        }
+        return PLANS.get(source.getClass()).shallowCopy(source);
+    }
+
+    /**
+     * 深拷贝：复制整个对象图，不可变对象共享
+     *
+     * @throws IllegalArgumentException 图中有无法按字段复制的对象（如 JDK 15+ 的 lambda 等隐藏类）
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T deepCopy(T source) {
+        if (source == null) {
+            return null;
+        }
+        Map<Object, Object> copies = new IdentityHashMap<>();
+        Deque<Task> stack = new ArrayDeque<>();
+        List<Task> pending = new ArrayList<>();
+        List<Task> containers = new ArrayList<>();
+        T copy = (T) copyOf(source, copies, pending);
+        push(stack, pending);
+        while (!stack.isEmpty()) {
+            Task task = stack.pop();
+            task.plan.fill(task, copies, pending, containers);
+            push(stack, pending);
+        }
+        if (!containers.isEmpty()) {
+            for (Task task : fillOrder(containers)) {
+                task.plan.insertElements(task);
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * 按属性名把 source 的可读属性复制到 target 的同名可写属性，类型不兼容的属性跳过；值本身不复制
+     *
+     * @return target
+     */
+    public static <T> T copyProperties(Object source, T target) {
+        mapping(source.getClass(), target.getClass()).copy(source, target);
+        return target;
+    }
+
+    /**
+     * 通过 {@link ObjectFactories} 创建 targetType 的实例后按属性名复制
+     */
+    public static <T> T copyProperties(Object source, Class<T> targetType) {
+        return copyProperties(source, ObjectFactories.forClass(targetType).newInstance());
+    }
+
+    /**
+     * 返回 source 的副本：不可变对象和已复制过的对象直接返回，否则创建一个空壳并登记，
+     * 填充任务放入 pending，由调用方压栈
+     */
+    private static Object copyOf(Object source, Map<Object, Object> copies, List<Task> pending) {
+        if (source == null) {
+            return null;
+        }
+        CopyPlan plan = PLANS.get(source.getClass());
+        if (plan.kind == Kind.IMMUTABLE) {
+            return source;
+        }
+        Object existing = copies.get(source);
+        if (existing != null) {
+            return existing;
+        }
+        Object copy = plan.newShell(source);
+        copies.put(source, copy);
+        pending.add(new Task(plan, source, copy));
+        return copy;
+    }
+
+    /**
+     * 逆序压栈，使先登记的任务先执行
+     */
+    private static void push(Deque<Task> stack, List<Task> pending) {
+        for (int i = pending.size() - 1; i >= 0; i--) {
+            stack.push(pending.get(i));
+        }
+        pending.clear();
+    }
+
+    /**
+     * 容器的放入顺序：从每个容器出发，在副本图（容器元素、数组元素、引用字段）上做后序遍历，
+     * 容器在它能到达的所有容器之后放入。此时所有字段和元素都已复制完，只差容器内容
+     */
+    private static List<Task> fillOrder(List<Task> containers) {
+        Map<Object, Task> byCopy = new IdentityHashMap<>();
+        for (Task task : containers) {
+            byCopy.put(task.copy, task);
+        }
+        List<Task> order = new ArrayList<>(containers.size());
+        Map<Object, Boolean> visited = new IdentityHashMap<>();
+        Deque<Frame> frames = new ArrayDeque<>();
+        for (Task root : containers) {
+            if (visited.put(root.copy, Boolean.TRUE) != null) {
+                continue;
+            }
+            frames.push(new Frame(root.copy, root.elements));
+            while (!frames.isEmpty()) {
+                Frame frame = frames.peek();
+                if (frame.next < frame.children.length) {
+                    Object child = frame.children[frame.next++];
+                    if (child != null && visited.put(child, Boolean.TRUE) == null) {
+                        Object[] children = children(child, byCopy);
+                        if (children != null) {
+                            frames.push(new Frame(child, children));
+                        }
+                    }
+                    continue;
+                }
+                frames.pop();
+                Task task = byCopy.get(frame.node);
+                if (task != null) {
+                    order.add(task);
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * 副本对象引用的其它对象，没有时返回 null
+     */
+    private static Object[] children(Object copy, Map<Object, Task> byCopy) {
+        Task task = byCopy.get(copy);
+        if (task != null) {
+            return task.elements;
+        }
+        CopyPlan plan = PLANS.get(copy.getClass());
+        switch (plan.kind) {
+            case ARRAY:
+                return plan.type.getComponentType().isPrimitive() ? null : (Object[]) copy;
+            case FIELDS:
+                if (plan.referenceOffsets.length == 0) {
+                    return null;
+                }
+                Unsafe unsafe = UnsafeAccess.UNSAFE;
+                Object[] references = new Object[plan.referenceOffsets.length];
+                for (int i = 0; i < references.length; i++) {
+                    references[i] = unsafe.getObject(copy, plan.referenceOffsets[i]);
+                }
+                return references;
+            default:
+                return null;
+        }
+    }
+
+    private static PropertyMapping mapping(Class<?> sourceType, Class<?> targetType) {
+        Map<Class<?>, PropertyMapping> byTarget = MAPPINGS.get(sourceType);
+        PropertyMapping mapping = byTarget.get(targetType);
+        if (mapping == null) {
+            mapping = byTarget.computeIfAbsent(targetType, t -> new PropertyMapping(sourceType, t));
+        }
+        return mapping;
+    }
+
+    private static boolean isImmutable(Class<?> type) {
+        return type == String.class || type == Boolean.class || type == Character.class
+                || (Number.class.isAssignableFrom(type) && type.getName().startsWith("java.lang."))
+                || type == BigInteger.class || type == BigDecimal.class
+                || type == Class.class || type == UUID.class || type == Locale.class || type == Currency.class
+                || Enum.class.isAssignableFrom(type)
+                || type.getName().startsWith("java.time.");
+    }
+
+    private enum Kind {
+        IMMUTABLE, ARRAY, COLLECTION, MAP, FIELDS
+    }
+
+    /**
+     * 深拷贝的一个待办：填充 copy 的内容
+     * <p>
+     * 集合与 Map 分两步：先复制元素记在 elements 中（Map 为键值交替），
+     * 等整个对象图填充完、再按 {@link #fillOrder(List)} 的顺序放入容器
+     */
+    private static final class Task {
+        final CopyPlan plan;
+        final Object source;
+        final Object copy;
+        Object[] elements;
+
+        Task(CopyPlan plan, Object source, Object copy) {
+            this.plan = plan;
+            this.source = source;
+            this.copy = copy;
+        }
+    }
+
+    /**
+     * {@link #fillOrder(List)} 后序遍历的栈帧
+     */
+    private static final class Frame {
+        final Object node;
+        final Object[] children;
+        int next;
+
+        Frame(Object node, Object[] children) {
+            this.node = node;
+            this.children = children;
+        }
+    }
+
+    /**
+     * 单个类的复制计划
+     */
+    private static final class CopyPlan {
+        private final Class<?> type;
+        private final Kind kind;
+        /**
+         * 按源容器的配置（比较器、访问顺序、容量）创建空容器；为 null 时集合按普通对象处理
+         */
+        private final Function<Object, Object> container;
+        private final long[] longOffsets;
+        private final long[] intOffsets;
+        private final long[] shortOffsets;
+        private final long[] byteOffsets;
+        private final long[] referenceOffsets;
+
+        CopyPlan(Class<?> type) {
+            this.type = type;
+            Function<Object, Object> container = null;
+            Kind kind;
+            if (isImmutable(type)) {
+                kind = Kind.IMMUTABLE;
+            } else if (type.isArray()) {
+                kind = Kind.ARRAY;
+            } else if ((Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type))
+                    && (container = containerFactory(type)) != null) {
+                kind = Collection.class.isAssignableFrom(type) ? Kind.COLLECTION : Kind.MAP;
+            } else {
+                kind = Kind.FIELDS;
+            }
+            this.kind = kind;
+            this.container = container;
+
+            List<Long> longs = new ArrayList<>();
+            List<Long> ints = new ArrayList<>();
+            List<Long> shorts = new ArrayList<>();
+            List<Long> bytes = new ArrayList<>();
+            List<Long> references = new ArrayList<>();
+            if (kind == Kind.FIELDS) {
+                Unsafe unsafe = UnsafeAccess.unsafe();
+                for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                    for (Field field : c.getDeclaredFields()) {
+                        if (Modifier.isStatic(field.getModifiers())) {
+                            continue;
+                        }
+                        long offset = fieldOffset(unsafe, field);
+                        Class<?> fieldType = field.getType();
+                        // 按宽度复制原始位：double 与 long、float 与 int 的位模式完全一致
+                        if (fieldType == long.class || fieldType == double.class) {
+                            longs.add(offset);
+                        } else if (fieldType == int.class || fieldType == float.class) {
+                            ints.add(offset);
+                        } else if (fieldType == short.class || fieldType == char.class) {
+                            shorts.add(offset);
+                        } else if (fieldType == byte.class || fieldType == boolean.class) {
+                            bytes.add(offset);
+                        } else {
+                            references.add(offset);
+                        }
+                    }
+                }
+            }
+            this.longOffsets = toArray(longs);
+            this.intOffsets = toArray(ints);
+            this.shortOffsets = toArray(shorts);
+            this.byteOffsets = toArray(bytes);
+            this.referenceOffsets = toArray(references);
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> T shallowCopy(T source) {
+            switch (kind) {
+                case IMMUTABLE:
+                    return source;
+                case ARRAY:
+                    int length = Array.getLength(source);
+                    Object array = Array.newInstance(type.getComponentType(), length);
+                    System.arraycopy(source, 0, array, 0, length);
+                    return (T) array;
+                case COLLECTION:
+                    Collection<Object> collection = (Collection<Object>) container.apply(source);
+                    collection.addAll((Collection<Object>) source);
+                    return (T) collection;
+                case MAP:
+                    Map<Object, Object> map = (Map<Object, Object>) container.apply(source);
+                    map.putAll((Map<Object, Object>) source);
+                    return (T) map;
+                default:
+                    T copy = (T) allocate();
+                    copyPrimitives(source, copy);
+                    Unsafe unsafe = UnsafeAccess.UNSAFE;
+                    for (long offset : referenceOffsets) {
+                        unsafe.putObject(copy, offset, unsafe.getObject(source, offset));
+                    }
+                    return copy;
+            }
+        }
+
+        /**
+         * 深拷贝的空壳：先登记副本再填充内容，内容中指回自身的引用才能找到副本
+         */
+        Object newShell(Object source) {
+            switch (kind) {
+                case ARRAY:
+                    return Array.newInstance(type.getComponentType(), Array.getLength(source));
+                case COLLECTION:
+                case MAP:
+                    return container.apply(source);
+                default:
+                    return allocate();
+            }
+        }
+
+        /**
+         * 复制 task 的内容，新发现的对象放入 pending；集合与 Map 只复制元素，放入容器的动作登记到 containers
+         */
+        @SuppressWarnings("unchecked")
+        void fill(Task task, Map<Object, Object> copies, List<Task> pending, List<Task> containers) {
+            Object source = task.source;
+            Object copy = task.copy;
+            switch (kind) {
+                case ARRAY:
+                    if (type.getComponentType().isPrimitive()) {
+                        System.arraycopy(source, 0, copy, 0, Array.getLength(source));
+                    } else {
+                        Object[] from = (Object[]) source;
+                        Object[] to = (Object[]) copy;
+                        for (int i = 0; i < from.length; i++) {
+                            to[i] = copyOf(from[i], copies, pending);
+                        }
+                    }
+                    break;
+                case COLLECTION:
+                    Collection<Object> elements = (Collection<Object>) source;
+                    Object[] copiedElements = new Object[elements.size()];
+                    int n = 0;
+                    for (Object element : elements) {
+                        copiedElements[n++] = copyOf(element, copies, pending);
+                    }
+                    task.elements = copiedElements;
+                    containers.add(task);
+                    break;
+                case MAP:
+                    Map<Object, Object> entries = (Map<Object, Object>) source;
+                    Object[] copiedEntries = new Object[entries.size() * 2];
+                    int i = 0;
+                    for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+                        copiedEntries[i++] = copyOf(entry.getKey(), copies, pending);
+                        copiedEntries[i++] = copyOf(entry.getValue(), copies, pending);
+                    }
+                    task.elements = copiedEntries;
+                    containers.add(task);
+                    break;
+                case FIELDS:
+                    copyPrimitives(source, copy);
+                    Unsafe unsafe = UnsafeAccess.UNSAFE;
+                    for (long offset : referenceOffsets) {
+                        unsafe.putObject(copy, offset, copyOf(unsafe.getObject(source, offset), copies, pending));
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void insertElements(Task task) {
+            if (kind == Kind.COLLECTION) {
+                Collection<Object> collection = (Collection<Object>) task.copy;
+                for (Object element : task.elements) {
+                    collection.add(element);
+                }
+            } else {
+                Map<Object, Object> map = (Map<Object, Object>) task.copy;
+                for (int i = 0; i < task.elements.length; i += 2) {
+                    map.put(task.elements[i], task.elements[i + 1]);
+                }
+            }
+        }
+
+        private void copyPrimitives(Object source, Object copy) {
+            Unsafe unsafe = UnsafeAccess.UNSAFE;
+            for (long offset : longOffsets) {
+                unsafe.putLong(copy, offset, unsafe.getLong(source, offset));
+            }
+            for (long offset : intOffsets) {
+                unsafe.putInt(copy, offset, unsafe.getInt(source, offset));
+            }
+            for (long offset : shortOffsets) {
+                unsafe.putShort(copy, offset, unsafe.getShort(source, offset));
+            }
+            for (long offset : byteOffsets) {
+                unsafe.putByte(copy, offset, unsafe.getByte(source, offset));
+            }
+        }
+
+        private Object allocate() {
+            try {
+                return UnsafeAccess.UNSAFE.allocateInstance(type);
+            } catch (InstantiationException e) {
+                throw new IllegalStateException(type.getName() + ": allocateInstance 失败", e);
+            }
+        }
+
+        private static long fieldOffset(Unsafe unsafe, Field field) {
+            try {
+                return unsafe.objectFieldOffset(field);
+            } catch (UnsupportedOperationException e) {
+                // JDK 15+ 的隐藏类（如 lambda）和 record 不允许按偏移量访问
+                throw new IllegalArgumentException(field.getDeclaringClass().getName() + ": 不支持按字段复制", e);
+            }
+        }
+
+        /**
+         * 按源容器配置创建空容器的函数
+         * <p>
+         * 只重建 JDK 自身的容器类型：无参构造方法会丢失的配置（比较器、访问顺序、容量）通过对应的构造方法传入；
+         * 用户子类可能有额外字段，返回 null 按普通对象逐字段复制
+         */
+        @SuppressWarnings("unchecked")
+        private static Function<Object, Object> containerFactory(Class<?> type) {
+            if (type == TreeSet.class) {
+                return s -> new TreeSet<>(((SortedSet<Object>) s).comparator());
+            }
+            if (type == TreeMap.class) {
+                return s -> new TreeMap<>(((SortedMap<Object, Object>) s).comparator());
+            }
+            if (type == ConcurrentSkipListSet.class) {
+                return s -> new ConcurrentSkipListSet<>(((SortedSet<Object>) s).comparator());
+            }
+            if (type == ConcurrentSkipListMap.class) {
+                return s -> new ConcurrentSkipListMap<>(((SortedMap<Object, Object>) s).comparator());
+            }
+            if (type == PriorityQueue.class) {
+                return s -> {
+                    PriorityQueue<Object> queue = (PriorityQueue<Object>) s;
+                    return new PriorityQueue<>(Math.max(1, queue.size()), queue.comparator());
+                };
+            }
+            if (type == PriorityBlockingQueue.class) {
+                return s -> {
+                    PriorityBlockingQueue<Object> queue = (PriorityBlockingQueue<Object>) s;
+                    return new PriorityBlockingQueue<>(Math.max(1, queue.size()), queue.comparator());
+                };
+            }
+            if (type == LinkedHashMap.class) {
+                return s -> new LinkedHashMap<>(16, 0.75f, AccessOrder.of((LinkedHashMap<?, ?>) s));
+            }
+            if (type == LinkedBlockingQueue.class) {
+                return s -> new LinkedBlockingQueue<>(capacityOf((BlockingQueue<?>) s));
+            }
+            if (type == LinkedBlockingDeque.class) {
+                return s -> new LinkedBlockingDeque<>(capacityOf((BlockingQueue<?>) s));
+            }
+            if (!type.getName().startsWith("java.")
+                    // 其他有序或带界的 JDK 容器用无参构造方法重建会丢失配置，逐字段复制
+                    || SortedSet.class.isAssignableFrom(type) || SortedMap.class.isAssignableFrom(type)
+                    || PriorityQueue.class.isAssignableFrom(type) || BlockingQueue.class.isAssignableFrom(type)) {
+                return null;
+            }
+            ObjectFactory<?> factory = rebuildFactory(type);
+            return factory == null ? null : s -> factory.newInstance();
+        }
+
+        private static int capacityOf(BlockingQueue<?> queue) {
+            return queue.size() + queue.remainingCapacity();
+        }
+
+        private static ObjectFactory<?> rebuildFactory(Class<?> type) {
+            try {
+                return ObjectFactories.forClass(type);
+            } catch (IllegalArgumentException e) {
+                // 没有无参构造方法（如 Collections.unmodifiableList），按普通对象逐字段复制
+                return null;
+            }
+        }
+
+        private static long[] toArray(List<Long> offsets) {
+            long[] array = new long[offsets.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = offsets.get(i);
+            }
+            return array;
+        }
+    }
+
+    /**
+     * LinkedHashMap 没有公开 accessOrder，通过字段偏移量读取；只在第一次复制 LinkedHashMap 时初始化
+     */
+    private static final class AccessOrder {
+        private static final long OFFSET;
+
+        static {
+            try {
+                OFFSET = UnsafeAccess.unsafe().objectFieldOffset(LinkedHashMap.class.getDeclaredField("accessOrder"));
+            } catch (NoSuchFieldException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        static boolean of(LinkedHashMap<?, ?> map) {
+            return UnsafeAccess.UNSAFE.getBoolean(map, OFFSET);
+        }
+    }
+
+    /**
+     * 两个 Bean 类型之间按属性名匹配的结果
+     */
+    private static final class PropertyMapping {
+        private final Function<Object, Object>[] getters;
+        private final BiConsumer<Object, Object>[] setters;
+
+        @SuppressWarnings("unchecked")
+        PropertyMapping(Class<?> sourceType, Class<?> targetType) {
+            BeanAccessor<Object> source = (BeanAccessor<Object>) BeanAccessor.of(sourceType);
+            BeanAccessor<Object> target = (BeanAccessor<Object>) BeanAccessor.of(targetType);
+            List<Function<Object, Object>> getters = new ArrayList<>();
+            List<BiConsumer<Object, Object>> setters = new ArrayList<>();
+            for (Property<Object, Object> from : source.properties()) {
+                if (!from.isReadable() || !target.hasProperty(from.name())) {
+                    continue;
+                }
+                Property<Object, Object> to = target.property(from.name());
+                // 基本类型到包装类型视为兼容，包装类型到基本类型时 null 值会在 set 时抛出 NPE
+                if (to.isWritable() && BeanAccessor.wrap(to.type()).isAssignableFrom(BeanAccessor.wrap(from.type()))) {
+                    getters.add(from.getter());
+                    setters.add(to.setter());
+                }
+            }
+            this.getters = (Function<Object, Object>[]) getters.toArray(new Function<?, ?>[0]);
+            this.setters = (BiConsumer<Object, Object>[]) setters.toArray(new BiConsumer<?, ?>[0]);
+        }
+
+        void copy(Object source, Object target) {
+            for (int i = 0; i < getters.length; i++) {
+                setters[i].accept(target, getters[i].apply(source));
+            }
+        }
+    }
+}
@@ -15,6 +15,7 @@ import java.nio.file.Paths;
 /**
  * Java创建对象的多种方式示例
  * 包含：new关键字、反射、克隆、序列化、MethodHandle、Unsafe等方式
+ * 以及把这些方式封装成可复用API的 {@link ObjectFactories}
  *
  * @author zhaozuhao
  * @version 1.0
@@ -31,6 +32,7 @@ public class CreateObject {
         createUserBySerialize();
         createUserByMethod();
         createUserByUnsafe();
+        createUserByFactory();
     }
 
     /**
@@ -63,15 +65,22 @@ public class CreateObject {
 
     /**
      * 方式三：使用克隆方式创建对象
+     * <p>
+     * super.clone() 是浅拷贝，引用类型字段与原对象共享；需要深拷贝或跨类型复制时使用 {@link BeanCopier}
      */
     static void createUserByClone() throws CloneNotSupportedException {
         User user = new User("王五", 22);
-        User clone = (User) user.clone();
+        User clone = user.clone();
         System.out.println("克隆方式创建对象: " + clone);
     }
 
     /**
      * 方式四：使用序列化方式创建对象
+     * <p>
+     * ObjectOutputStream 每个流都写类描述信息，逐字段反射读写，分配也多；
+     * 只需要传输或存储字段值时可以用 {@link god.github.haoer.godbase.serialize.SchemaSerializer}，
+     * 连续导出大量对象时用 {@link god.github.haoer.godbase.serialize.ChunkedWriter}（ObjectOutputStream 的句柄表会一直增长）；
+     * 大量 User 需要持久化并随机访问时用 {@link god.github.haoer.godbase.store.UserStore}
      */
     static void createUserBySerialize() throws IOException {
         User user = new User("赵老六", 6);
@@ -97,6 +106,8 @@ public class CreateObject {
      * <p>
      * ✅ **优势**：
      * 1. **性能较好**：相比反射性能更优，接近原生调用
+     *    （前提：句柄保存在 static final 字段中并使用 invokeExact；invoke 或非常量句柄会明显变慢，
+     *    实测数据见 god-benchmark 模块的 CreateObjectBenchmark）
      * 2. **类型安全**：在编译时进行类型检查
      * 3. **支持动态语言**：适合实现动态语言特性
      * 4. **更好的封装性**：相比反射更难破坏封装
@@ -145,6 +156,11 @@ public class CreateObject {
         // ✅ 额外示例：修改User类的字段
         MethodHandle nameSetter = lookup.findSetter(User.class, "name", String.class);
         nameSetter.invoke(user, "张三");
+
+        // ✅ 额外示例：需要反复按名称读写属性时，用 BeanAccessor 缓存解析结果，避免每次查找句柄
+        BeanAccessor<User> accessor = BeanAccessor.of(User.class);
+        accessor.set(user, "age", 18);
+        System.out.println("BeanAccessor 读取属性: " + accessor.get(user, "name") + ", " + accessor.get(user, "age"));
     }
 
     /**
@@ -197,4 +213,21 @@ public class CreateObject {
         // 5️⃣ 打印结果
         System.out.println("Unsafe 创建对象：" + user);
     }
+
+    /**
+     * 方式七：使用缓存的ObjectFactory创建对象
+     * <p>
+     * 前面几种方式每次都要查找构造方法或句柄，ObjectFactories 按类只生成一次工厂并缓存：
+     * 1. 优先使用 LambdaMetafactory 生成直接 new 的实现，性能接近 new 关键字
+     * 2. 类不可见时退回 MethodHandle，再退回反射
+     * 3. allocator() 封装了方式六，不执行构造方法，适合反序列化
+     */
+    static void createUserByFactory() {
+        ObjectFactory<User> factory = ObjectFactories.forClass(User.class);
+        User user = factory.newInstance();
+        System.out.println("ObjectFactory 创建对象(" + ObjectFactories.strategyOf(User.class) + "): " + user);
+
+        User allocated = ObjectFactories.allocator(User.class).newInstance();
+        System.out.println("ObjectFactory 不执行构造方法创建对象: " + allocated);
+    }
 }
@@ -0,0 +1,361 @@
+package god.github.haoer.godbase.reflection;
+
+import sun.misc.Unsafe;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+
+/**
+ * 按类生成并缓存 {@link ObjectFactory}，把 {@link CreateObject} 中的几种创建方式做成可复用的 API
+ *
+ * <p>{@link #forClass(Class)} 按以下顺序选择第一个可用的策略（见 {@link Strategy}）：
+ * 1. LAMBDA：{@link LambdaMetafactory} 生成一个直接 new 目标类的实现类，JIT 内联后与手写 new 基本相同
+ * 2. METHOD_HANDLE：目标类或构造方法不是 public、或对本类的类加载器不可见时使用，通过 invokeExact 调用
+ * 3. REFLECTION：前两者都失败时使用 {@link Constructor#newInstance(Object...)}
+ *
+ * <p>{@link #forConstructor(Constructor, Object...)} 把同样的 LAMBDA / METHOD_HANDLE 选择用于带参数的构造方法，
+ * 参数在生成时捕获。无论哪种策略，构造方法声明的受检异常都包装为 {@link IllegalStateException}；
+ * LAMBDA 只为声明了受检异常的构造方法加这层包装，其余直接返回生成的类，调用点只见过这一个实现类。
+ *
+ * <p>{@link #allocator(Class)} 对应 CreateObject 中的方式六，通过 Unsafe.allocateInstance
+ * 创建对象而不执行任何构造方法（字段全部为默认值），供反序列化等场景在之后自行填充字段。
+ *
+ * <p>结果缓存在 {@link ClassValue} 中，与类的生命周期绑定，不会阻止类加载器被回收。
+ *
+ * <pre>
+ * ObjectFactory&lt;User&gt; factory = ObjectFactories.forClass(User.class);
+ * User user = factory.newInstance();
+ * </pre>
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class ObjectFactories {
+
+    /**
+     * 实例化策略，按性能从高到低排列
+     */
+    public enum Strategy {
+        LAMBDA,
+        METHOD_HANDLE,
+        REFLECTION,
+        /**
+         * 不执行构造方法，只能通过 {@link #allocator(Class)} 或 {@link #create(Class, Strategy)} 显式使用
+         */
+        UNSAFE
+    }
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final ClassValue<Selected> FACTORIES = new ClassValue<Selected>() {
+        @Override
+        protected Selected computeValue(Class<?> type) {
+            return select(type);
+        }
+    };
+
+    private static final ClassValue<ObjectFactory<?>> ALLOCATORS = new ClassValue<ObjectFactory<?>>() {
+        @Override
+        protected ObjectFactory<?> computeValue(Class<?> type) {
+            return create(type, Strategy.UNSAFE);
+        }
+    };
+
+    private ObjectFactories() {
+    }
+
+    /**
+     * 返回该类缓存的工厂，首次调用时生成
+     *
+     * @throws IllegalArgumentException 无法实例化（接口、抽象类、没有无参构造方法等）
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ObjectFactory<T> forClass(Class<T> type) {
+        return (ObjectFactory<T>) FACTORIES.get(type).factory;
+    }
+
+    /**
+     * {@link #forClass(Class)} 为该类选中的策略
+     */
+    public static Strategy strategyOf(Class<?> type) {
+        return FACTORIES.get(type).strategy;
+    }
+
+    public static <T> T newInstance(Class<T> type) {
+        return forClass(type).newInstance();
+    }
+
+    /**
+     * 返回该类缓存的、不执行构造方法的工厂
+     *
+     * @throws IllegalArgumentException 接口、抽象类，或当前 JVM 不提供 Unsafe
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ObjectFactory<T> allocator(Class<T> type) {
+        return (ObjectFactory<T>) ALLOCATORS.get(type);
+    }
+
+    /**
+     * 使用指定策略生成新的工厂，不缓存；主要用于对比各策略的性能
+     *
+     * @throws IllegalArgumentException 该策略对这个类不可用
+     */
+    public static <T> ObjectFactory<T> create(Class<T> type, Strategy strategy) {
+        if (type.isInterface() || type.isArray() || type.isPrimitive() || Modifier.isAbstract(type.getModifiers())) {
+            throw new IllegalArgumentException(type.getName() + " 是接口、数组、基本类型或抽象类，无法实例化");
+        }
+        switch (strategy) {
+            case LAMBDA:
+                return lambdaFactory(type);
+            case METHOD_HANDLE:
+                return methodHandleFactory(type);
+            case REFLECTION:
+                return reflectionFactory(type);
+            case UNSAFE:
+                return unsafeFactory(type);
+            default:
+                throw new IllegalArgumentException("未知策略: " + strategy);
+        }
+    }
+
+    /**
+     * 为指定构造方法生成工厂，args 在生成时捕获、每次创建都复用，不缓存
+     *
+     * <p>构造方法、目标类及全部参数类型都是 public 且对本类可见时使用 LAMBDA，否则使用 METHOD_HANDLE
+     *
+     * @throws IllegalArgumentException 抽象类、参数个数不匹配或构造方法不可访问
+     */
+    public static <T> ObjectFactory<T> forConstructor(Constructor<T> constructor, Object... args) {
+        Class<T> type = constructor.getDeclaringClass();
+        if (Modifier.isAbstract(type.getModifiers())) {
+            throw new IllegalArgumentException(type.getName() + " 是抽象类，无法实例化");
+        }
+        Class<?>[] parameterTypes = constructor.getParameterTypes();
+        if (args.length != parameterTypes.length) {
+            throw new IllegalArgumentException(constructor + ": 需要 " + parameterTypes.length + " 个参数，实际 " + args.length);
+        }
+        if (Modifier.isPublic(constructor.getModifiers()) && isPublicAndVisible(type) && allPublicAndVisible(parameterTypes)) {
+            try {
+                return lambdaFactory(type, LOOKUP.unreflectConstructor(constructor), parameterTypes, args,
+                        declaresCheckedException(constructor));
+            } catch (IllegalAccessException | IllegalArgumentException e) {
+                // LambdaMetafactory 无法链接时退回 MethodHandle
+            }
+        }
+        MethodHandle handle;
+        try {
+            constructor.setAccessible(true);
+            handle = LOOKUP.unreflectConstructor(constructor);
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new IllegalArgumentException(type.getName() + ": 无法访问构造方法 " + constructor, e);
+        }
+        return methodHandleFactory(type, handle, args);
+    }
+
+    private static Selected select(Class<?> type) {
+        IllegalArgumentException failure = null;
+        for (Strategy strategy : new Strategy[]{Strategy.LAMBDA, Strategy.METHOD_HANDLE, Strategy.REFLECTION}) {
+            try {
+                return new Selected(create(type, strategy), strategy);
+            } catch (IllegalArgumentException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        throw failure;
+    }
+
+    /**
+     * 生成的类以本类为宿主，只能直接访问本类加载器可见的 public 类和 public 构造方法
+     */
+    private static <T> ObjectFactory<T> lambdaFactory(Class<T> type) {
+        if (!isPublicAndVisible(type)) {
+            throw new IllegalArgumentException(type.getName() + ": 非 public 或对 " + ObjectFactories.class.getSimpleName() + " 不可见，不能使用 LAMBDA");
+        }
+        Constructor<T> constructor;
+        MethodHandle handle;
+        try {
+            constructor = type.getConstructor();
+            handle = LOOKUP.unreflectConstructor(constructor);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException(type.getName() + ": 没有可访问的 public 无参构造方法", e);
+        }
+        return lambdaFactory(type, handle, new Class<?>[0], new Object[0], declaresCheckedException(constructor));
+    }
+
+    private static boolean declaresCheckedException(Constructor<?> constructor) {
+        for (Class<?> exceptionType : constructor.getExceptionTypes()) {
+            if (!RuntimeException.class.isAssignableFrom(exceptionType) && !Error.class.isAssignableFrom(exceptionType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 通过 LambdaMetafactory 生成直接调用构造方法的实现，构造参数作为捕获变量传入
+     *
+     * @param throwsChecked 构造方法声明了受检异常，需要包装
+     * @throws IllegalArgumentException LambdaMetafactory 无法链接该构造方法
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> ObjectFactory<T> lambdaFactory(Class<T> type, MethodHandle constructor,
+                                                      Class<?>[] parameterTypes, Object[] args, boolean throwsChecked) {
+        CallSite callSite;
+        try {
+            callSite = LambdaMetafactory.metafactory(
+                    LOOKUP,
+                    "newInstance",
+                    MethodType.methodType(ObjectFactory.class, parameterTypes),
+                    MethodType.methodType(Object.class),
+                    constructor,
+                    MethodType.methodType(type));
+        } catch (LambdaConversionException e) {
+            throw new IllegalArgumentException(type.getName() + ": LambdaMetafactory 生成失败", e);
+        }
+        ObjectFactory<T> direct;
+        try {
+            direct = (ObjectFactory<T>) callSite.getTarget().invokeWithArguments(args);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            // 捕获参数的工厂方法只会 new 出 lambda 对象，不会抛出受检异常
+            throw new IllegalStateException(type.getName() + ": LambdaMetafactory 工厂调用失败", e);
+        }
+        if (!throwsChecked) {
+            // 每个类型各自生成的实现类，调用方的 newInstance() 调用点只见过它，可以内联到 new
+            return direct;
+        }
+        // 生成的类不校验受检异常，构造方法声明的受检异常会原样逃逸，这里与 METHOD_HANDLE 一样包装；
+        // 包装用的 lambda 由所有这类类型共用，调用点会变成多态，只在确有受检异常时付出这个代价
+        return () -> {
+            try {
+                return direct.newInstance();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(type.getName() + ": 构造方法抛出异常", e);
+            }
+        };
+    }
+
+    private static <T> ObjectFactory<T> methodHandleFactory(Class<T> type) {
+        Constructor<T> constructor = accessibleConstructor(type);
+        final MethodHandle handle;
+        try {
+            handle = LOOKUP.unreflectConstructor(constructor);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException(type.getName() + ": 无法访问构造方法 " + constructor, e);
+        }
+        return methodHandleFactory(type, handle, new Object[0]);
+    }
+
+    /**
+     * 参数预先绑定到 MethodHandle 上，使用 invokeExact 调用
+     */
+    private static <T> ObjectFactory<T> methodHandleFactory(Class<T> type, MethodHandle constructor, Object[] args) {
+        final MethodHandle handle = MethodHandles.insertArguments(constructor, 0, args)
+                .asType(MethodType.methodType(Object.class));
+        return () -> {
+            try {
+                return type.cast((Object) handle.invokeExact());
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(type.getName() + ": 构造方法抛出异常", e);
+            }
+        };
+    }
+
+    private static <T> ObjectFactory<T> reflectionFactory(Class<T> type) {
+        Constructor<T> constructor = accessibleConstructor(type);
+        return () -> {
+            try {
+                return constructor.newInstance();
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IllegalStateException(type.getName() + ": 构造方法抛出异常", cause);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(type.getName() + ": 反射创建失败", e);
+            }
+        };
+    }
+
+    private static <T> ObjectFactory<T> unsafeFactory(Class<T> type) {
+        final Unsafe unsafe = UnsafeAccess.UNSAFE;
+        if (unsafe == null) {
+            throw new IllegalArgumentException("当前 JVM 不提供 sun.misc.Unsafe，不能使用 UNSAFE");
+        }
+        return () -> {
+            try {
+                return type.cast(unsafe.allocateInstance(type));
+            } catch (InstantiationException e) {
+                throw new IllegalStateException(type.getName() + ": allocateInstance 失败", e);
+            }
+        };
+    }
+
+    private static <T> Constructor<T> accessibleConstructor(Class<T> type) {
+        try {
+            Constructor<T> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(type.getName() + ": 没有无参构造方法", e);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(type.getName() + ": 无参构造方法不可访问", e);
+        }
+    }
+
+    /**
+     * 以本包为宿主生成的类能否直接引用该类型
+     */
+    static boolean isPublicAndVisible(Class<?> type) {
+        if (type.isPrimitive()) {
+            return true;
+        }
+        if (!Modifier.isPublic(type.getModifiers())) {
+            return false;
+        }
+        try {
+            return Class.forName(type.getName(), false, ObjectFactories.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static boolean allPublicAndVisible(Class<?>[] types) {
+        for (Class<?> type : types) {
+            if (!isPublicAndVisible(type)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Selected {
+        final ObjectFactory<?> factory;
+        final Strategy strategy;
+
+        Selected(ObjectFactory<?> factory, Strategy strategy) {
+            this.factory = factory;
+            this.strategy = strategy;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package god.github.haoer.godbase.reflection;
+
+/**
+ * 对象工厂
+ *
+ * <p>由 {@link ObjectFactories} 按类生成并缓存，每次 {@link #newInstance()} 都创建一个新对象。
+ * 实现是无状态的，可以在多线程间共享。
+ *
+ * @param <T> 对象类型
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+@FunctionalInterface
+public interface ObjectFactory<T> {
+
+    /**
+     * 创建一个新的实例
+     */
+    T newInstance();
+}
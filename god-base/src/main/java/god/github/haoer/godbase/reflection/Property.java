@@ -0,0 +1,51 @@
+package god.github.haoer.godbase.reflection;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Bean 的单个属性
+ *
+ * <p>由 {@link BeanAccessor} 解析并缓存。按名称访问（{@link BeanAccessor#get}）每次都要查一次 Map；
+ * 热点代码应先取到 Property 保存下来。最热的路径可以进一步保存 {@link #getter()}/{@link #setter()}
+ * 返回的函数：它们是为这个属性单独生成的类，调用点只会看到一种类型，JIT 可以一直内联到 getXxx()/setXxx()。
+ *
+ * @param <T> Bean 类型
+ * @param <V> 属性类型，基本类型属性对应其包装类型
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public interface Property<T, V> {
+
+    String name();
+
+    /**
+     * 属性的声明类型（基本类型属性返回基本类型，如 int.class）
+     */
+    Class<?> type();
+
+    boolean isReadable();
+
+    boolean isWritable();
+
+    /**
+     * @throws UnsupportedOperationException 属性不可读
+     */
+    V get(T bean);
+
+    /**
+     * @throws UnsupportedOperationException 属性不可写
+     * @throws NullPointerException          基本类型属性传入 null
+     */
+    void set(T bean, V value);
+
+    /**
+     * 预先生成的读取函数，不可读时为 null
+     */
+    Function<T, V> getter();
+
+    /**
+     * 预先生成的写入函数，不可写时为 null
+     */
+    BiConsumer<T, V> setter();
+}
@@ -0,0 +1,48 @@
+package god.github.haoer.godbase.reflection;
+
+import sun.misc.Unsafe;
+
+import java.lang.reflect.Field;
+
+/**
+ * 获取 Unsafe 实例（方式同 {@link CreateObject#createUserByUnsafe()}）
+ *
+ * <p>放在单独的类中延迟初始化，不可用时为 null，不影响不依赖 Unsafe 的功能。
+ * 其他包（如序列化、堆外存储）通过 {@link #unsafe()} 获取。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class UnsafeAccess {
+
+    static final Unsafe UNSAFE;
+
+    static {
+        Unsafe unsafe;
+        try {
+            Field field = Unsafe.class.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = (Unsafe) field.get(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            unsafe = null;
+        }
+        UNSAFE = unsafe;
+    }
+
+    private UnsafeAccess() {
+    }
+
+    public static boolean isAvailable() {
+        return UNSAFE != null;
+    }
+
+    /**
+     * @throws IllegalStateException 当前 JVM 不提供 sun.misc.Unsafe
+     */
+    public static Unsafe unsafe() {
+        if (UNSAFE == null) {
+            throw new IllegalStateException("当前 JVM 不提供 sun.misc.Unsafe");
+        }
+        return UNSAFE;
+    }
+}
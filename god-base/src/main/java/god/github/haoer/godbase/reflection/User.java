@@ -20,7 +20,7 @@ public class User implements Cloneable, Serializable {
     }
 
     @Override
-    protected Object clone() throws CloneNotSupportedException {
-        return super.clone();
+    public User clone() throws CloneNotSupportedException {
+        return (User) super.clone();
     }
 }
@@ -0,0 +1,146 @@
+package god.github.haoer.godbase.serialize;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link BinaryWriter} 的读取端，直接在 byte[] 上解码，不复制输入
+ *
+ * <p>输入可能来自不可信的来源：数据不完整时抛出 {@link EOFException}，长度、个数等明显非法时抛出
+ * {@link StreamCorruptedException}，分配内存前都会先用剩余字节数校验。非线程安全。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class BinaryReader {
+
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+
+    public BinaryReader(byte[] buffer) {
+        this(buffer, 0, buffer.length);
+    }
+
+    public BinaryReader(byte[] buffer, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > buffer.length) {
+            throw new IllegalArgumentException("越界: offset=" + offset + ", length=" + length + ", buffer=" + buffer.length);
+        }
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    public boolean hasRemaining() {
+        return position < limit;
+    }
+
+    public int position() {
+        return position;
+    }
+
+    public int readByte() throws IOException {
+        require(1);
+        return buffer[position++];
+    }
+
+    public long readVarint() throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            require(1);
+            byte b = buffer[position++];
+            result |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw new StreamCorruptedException("varint 超过 10 字节，数据已损坏");
+    }
+
+    public int readVarint32() throws IOException {
+        return (int) readVarint();
+    }
+
+    public long readSigned() throws IOException {
+        long v = readVarint();
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    public int readFixed32() throws IOException {
+        require(4);
+        byte[] b = buffer;
+        int p = position;
+        position = p + 4;
+        return (b[p] & 0xFF) | (b[p + 1] & 0xFF) << 8 | (b[p + 2] & 0xFF) << 16 | (b[p + 3] & 0xFF) << 24;
+    }
+
+    public long readFixed64() throws IOException {
+        return (readFixed32() & 0xFFFFFFFFL) | (long) readFixed32() << 32;
+    }
+
+    public String readString() throws IOException {
+        int length = readLength();
+        String s = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return s;
+    }
+
+    public byte[] readBytes() throws IOException {
+        int length = readLength();
+        byte[] bytes = new byte[length];
+        System.arraycopy(buffer, position, bytes, 0, length);
+        position += length;
+        return bytes;
+    }
+
+    /**
+     * 读取长度前缀并校验剩余字节是否足够
+     */
+    public int readLength() throws IOException {
+        int length = readVarint32();
+        if (length < 0) {
+            throw new StreamCorruptedException("长度为负数，数据已损坏: " + length);
+        }
+        require(length);
+        return length;
+    }
+
+    /**
+     * 读取集合的元素个数，每个元素至少占 minBytesPerElement 字节，超出剩余字节数说明数据已损坏
+     */
+    public int readSize(int minBytesPerElement) throws IOException {
+        int size = readVarint32();
+        if (size < 0 || (long) size * minBytesPerElement > limit - position) {
+            throw new StreamCorruptedException("元素个数非法，数据已损坏: " + size + ", 剩余 " + (limit - position) + " 字节");
+        }
+        return size;
+    }
+
+    public void skip(int length) throws IOException {
+        require(length);
+        position += length;
+    }
+
+    /**
+     * 把读取范围收窄到接下来的 length 字节，返回旧的 limit，读完后用 {@link #popLimit(int)} 恢复
+     */
+    int pushLimit(int length) throws IOException {
+        require(length);
+        int old = limit;
+        limit = position + length;
+        return old;
+    }
+
+    void popLimit(int oldLimit) {
+        position = limit;
+        limit = oldLimit;
+    }
+
+    private void require(int n) throws IOException {
+        if (n > limit - position) {
+            throw new EOFException("数据不完整: 需要 " + n + " 字节, 剩余 " + (limit - position));
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package god.github.haoer.godbase.serialize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * 可复用的二进制输出缓冲区
+ *
+ * <p>整数使用 varint 编码（有符号数先做 ZigZag 变换），小数值只占 1～2 个字节；
+ * 缓冲区按需扩容，{@link #reset()} 后可以反复使用，避免每次序列化都分配新数组。
+ *
+ * <p>非线程安全。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class BinaryWriter {
+
+    private byte[] buffer;
+    private int position;
+
+    public BinaryWriter() {
+        this(256);
+    }
+
+    public BinaryWriter(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("initialCapacity 必须大于0: " + initialCapacity);
+        }
+        this.buffer = new byte[initialCapacity];
+    }
+
+    /**
+     * 清空内容，保留已分配的缓冲区
+     */
+    public BinaryWriter reset() {
+        position = 0;
+        return this;
+    }
+
+    public int size() {
+        return position;
+    }
+
+    /**
+     * 丢弃 size 之后的内容，用于撤销写了一半的数据；size 通常取写入前的 {@link #size()}
+     */
+    public BinaryWriter truncate(int size) {
+        if (size < 0 || size > position) {
+            throw new IndexOutOfBoundsException("size=" + size + ", 当前大小=" + position);
+        }
+        position = size;
+        return this;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, position);
+    }
+
+    /**
+     * 底层数组，有效数据为 [0, size())；下一次写入可能导致扩容并替换数组
+     */
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    public void writeByte(int b) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) b;
+    }
+
+    public void writeBytes(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, buffer, position, length);
+        position += length;
+    }
+
+    /**
+     * 无符号 varint，每字节 7 位有效数据，最高位表示后面还有字节
+     */
+    public void writeVarint(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    public void writeVarint32(int value) {
+        writeVarint(value & 0xFFFFFFFFL);
+    }
+
+    /**
+     * ZigZag 编码的有符号整数：0→0, -1→1, 1→2, -2→3 …
+     */
+    public void writeSigned(long value) {
+        writeVarint((value << 1) ^ (value >> 63));
+    }
+
+    public void writeFixed32(int value) {
+        ensureCapacity(4);
+        buffer[position++] = (byte) value;
+        buffer[position++] = (byte) (value >>> 8);
+        buffer[position++] = (byte) (value >>> 16);
+        buffer[position++] = (byte) (value >>> 24);
+    }
+
+    public void writeFixed64(long value) {
+        writeFixed32((int) value);
+        writeFixed32((int) (value >>> 32));
+    }
+
+    /**
+     * 长度前缀 + UTF-8 字节，直接编码进缓冲区，不创建中间 byte[]
+     */
+    public void writeString(String s) {
+        int length = s.length();
+        int utf8Length = 0;
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                utf8Length++;
+            } else if (c < 0x800) {
+                utf8Length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                utf8Length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                utf8Length++;
+            } else {
+                utf8Length += 3;
+            }
+        }
+        writeVarint32(utf8Length);
+        ensureCapacity(utf8Length);
+        byte[] buf = buffer;
+        int pos = position;
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                buf[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                buf[pos++] = (byte) (0xC0 | (c >> 6));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                buf[pos++] = (byte) (0xF0 | (cp >> 18));
+                buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // 孤立的代理字符与 String.getBytes(UTF_8) 一样替换为 '?'
+                buf[pos++] = '?';
+            } else {
+                buf[pos++] = (byte) (0xE0 | (c >> 12));
+                buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        position = pos;
+    }
+
+    /**
+     * 为长度前缀预留位置，返回写入内容的起始位置，配合 {@link #endLengthPrefixed(int)} 使用
+     */
+    int beginLengthPrefixed() {
+        ensureCapacity(1);
+        position++;
+        return position;
+    }
+
+    /**
+     * 回填长度前缀；长度超过 127 时需要多个字节，把内容整体后移
+     */
+    void endLengthPrefixed(int start) {
+        int length = position - start;
+        int prefixSize = varintSize(length);
+        if (prefixSize > 1) {
+            ensureCapacity(prefixSize - 1);
+            System.arraycopy(buffer, start, buffer, start + prefixSize - 1, length);
+            position += prefixSize - 1;
+        }
+        int pos = start - 1;
+        int value = length;
+        while ((value & ~0x7F) != 0) {
+            buffer[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[pos] = (byte) value;
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (position + extra > buffer.length) {
+            long required = (long) position + extra;
+            if (required > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("序列化结果超过 2GB");
+            }
+            buffer = Arrays.copyOf(buffer, (int) Math.max(required, Math.min((long) buffer.length << 1, Integer.MAX_VALUE - 8)));
+        }
+    }
+}
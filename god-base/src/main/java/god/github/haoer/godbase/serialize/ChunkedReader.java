@@ -0,0 +1,237 @@
+package god.github.haoer.godbase.serialize;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32;
+
+/**
+ * 读取 {@link ChunkedWriter} 写出的流
+ *
+ * <p>两种读法：
+ * 1. 迭代：{@link #iterator()} / {@link #stream()} 惰性地逐块读取、逐条解码，复用同一个块缓冲区，堆占用保持在一个块左右
+ * 2. 并行：{@link #forEachChunk(ForkJoinPool, int, Consumer)} 在调用线程顺序读取原始块，交给 ForkJoinPool 并行解码，
+ * 同时在途的块不超过 maxInFlight 个，解码结果按块的原始顺序交给调用线程上的 sink
+ *
+ * <p>块头中的长度超过 {@link ChunkedWriter#MAX_CHUNK_BYTES} 或与记录数矛盾时，在分配缓冲区之前判定为损坏；
+ * 每个块读入后校验 CRC，流在结束块之前中断时抛出 EOFException。迭代时的 IOException 包装为 UncheckedIOException。
+ * 非线程安全，两种读法不能混用。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class ChunkedReader<T> implements Iterable<T>, Closeable {
+
+    private final InputStream in;
+    private final Schema<T> schema;
+    private final byte[] header = new byte[ChunkedWriter.CHUNK_HEADER_BYTES];
+    private final CRC32 crc = new CRC32();
+
+    private byte[] chunk = new byte[ChunkedWriter.DEFAULT_CHUNK_BYTES + 1024];
+    private BinaryReader current;
+    private int remaining;
+    private boolean finished;
+
+    public ChunkedReader(InputStream in, Class<T> type) throws IOException {
+        this.in = in;
+        this.schema = Schema.of(type);
+        readFully(header, 5);
+        if (ChunkedWriter.getInt(header, 0) != ChunkedWriter.MAGIC || header[4] != ChunkedWriter.VERSION) {
+            throw new IOException("不是有效的分块流");
+        }
+    }
+
+    /**
+     * 只能遍历一次，与 reader 共享读取位置
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                try {
+                    return advance();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                remaining--;
+                try {
+                    return readRecord(current);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * 并行解码剩余的所有块
+     *
+     * @param maxInFlight 同时在途（已读入未交给 sink）的最大块数，决定内存上限，通常取并行度的 2 倍
+     * @param sink        在调用线程上按块的顺序收到每块解码后的记录
+     */
+    public void forEachChunk(ForkJoinPool pool, int maxInFlight, Consumer<? super List<T>> sink) throws IOException {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight 必须大于0: " + maxInFlight);
+        }
+        ArrayDeque<ForkJoinTask<List<T>>> inFlight = new ArrayDeque<>();
+        try {
+            while (!finished) {
+                // 先取完当前迭代剩下的记录，再按整块读取
+                if (remaining > 0) {
+                    List<T> rest = new ArrayList<>(remaining);
+                    while (remaining > 0) {
+                        remaining--;
+                        rest.add(readRecord(current));
+                    }
+                    sink.accept(rest);
+                }
+                int records = readChunkHeader();
+                if (records == 0) {
+                    break;
+                }
+                byte[] bytes = readChunkPayload(new byte[ChunkedWriter.getInt(header, 4)]);
+                if (inFlight.size() == maxInFlight) {
+                    sink.accept(join(inFlight.poll()));
+                }
+                inFlight.add(pool.submit(() -> decode(bytes, records)));
+            }
+            while (!inFlight.isEmpty()) {
+                sink.accept(join(inFlight.poll()));
+            }
+        } finally {
+            for (ForkJoinTask<List<T>> task : inFlight) {
+                task.cancel(false);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * ForkJoinTask 把 Callable 抛出的受检异常包装成 RuntimeException，这里还原解码失败的 IOException
+     */
+    private static <V> V join(ForkJoinTask<V> task) throws IOException {
+        try {
+            return task.join();
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private List<T> decode(byte[] bytes, int records) throws IOException {
+        BinaryReader reader = new BinaryReader(bytes);
+        List<T> values = new ArrayList<>(records);
+        for (int i = 0; i < records; i++) {
+            values.add(readRecord(reader));
+        }
+        return values;
+    }
+
+    private T readRecord(BinaryReader reader) throws IOException {
+        int length = reader.readLength();
+        int limit = reader.pushLimit(length);
+        T value = schema.readFields(reader, 0);
+        reader.popLimit(limit);
+        return value;
+    }
+
+    /**
+     * 当前块读完时读入下一块，返回是否还有记录
+     */
+    private boolean advance() throws IOException {
+        while (remaining == 0) {
+            if (finished) {
+                return false;
+            }
+            int records = readChunkHeader();
+            if (records == 0) {
+                return false;
+            }
+            int length = ChunkedWriter.getInt(header, 4);
+            if (chunk.length < length) {
+                chunk = new byte[length];
+            }
+            readChunkPayload(chunk);
+            current = new BinaryReader(chunk, 0, length);
+            remaining = records;
+        }
+        return true;
+    }
+
+    /**
+     * @return 块中的记录数，0 表示流结束
+     */
+    private int readChunkHeader() throws IOException {
+        readFully(header, ChunkedWriter.CHUNK_HEADER_BYTES);
+        int records = ChunkedWriter.getInt(header, 0);
+        int length = ChunkedWriter.getInt(header, 4);
+        // 每条记录至少占 1 字节长度前缀，records 不会超过 length
+        if (records < 0 || length < 0 || length > ChunkedWriter.MAX_CHUNK_BYTES || records > length
+                || (records == 0) != (length == 0)) {
+            throw new StreamCorruptedException("块头已损坏: records=" + records + ", length=" + length);
+        }
+        if (records == 0) {
+            finished = true;
+        }
+        return records;
+    }
+
+    /**
+     * 读入负载到 target 开头并校验 CRC，返回 target
+     */
+    private byte[] readChunkPayload(byte[] target) throws IOException {
+        int length = ChunkedWriter.getInt(header, 4);
+        readFully(target, length);
+        crc.reset();
+        crc.update(target, 0, length);
+        if ((int) crc.getValue() != ChunkedWriter.getInt(header, 8)) {
+            throw new IOException("块校验失败");
+        }
+        return target;
+    }
+
+    private void readFully(byte[] target, int length) throws IOException {
+        int read = 0;
+        while (read < length) {
+            int n = in.read(target, read, length - read);
+            if (n < 0) {
+                throw new EOFException("流在结束块之前中断");
+            }
+            read += n;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package god.github.haoer.godbase.serialize;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+
+/**
+ * 分块写出大量对象，内存占用与对象总数无关
+ *
+ * <p>同一个 ObjectOutputStream 连续写很多对象时，回引用句柄表会一直增长，直到调用 reset()；
+ * 不调用就一直持有所有写过的对象，调用了又失去共享引用。本类用 {@link Schema} 编码记录，
+ * 记录之间没有引用关系，每攒够约 chunkBytes 字节就写出一个自包含的块，之后缓冲区复用，堆占用保持在一个块左右。
+ *
+ * <p>格式：5 字节流头（魔数 + 版本），之后若干个块，每块为 4 字节记录数 + 4 字节负载长度 + 4 字节 CRC32 + 负载，
+ * 负载是依次排列的 varint 长度 + 记录；记录数为 0 的块表示流结束。由 {@link ChunkedReader} 读取。
+ * 块负载不超过 {@link #MAX_CHUNK_BYTES}，读取端据此拒绝损坏的块头。
+ *
+ * <p>单条记录编码失败时缓冲区回退到写入前的位置，已缓冲的记录不受影响，writer 可以继续使用。
+ *
+ * <p>非线程安全。
+ *
+ * <pre>
+ * try (ChunkedWriter&lt;User&gt; writer = new ChunkedWriter&lt;&gt;(out, User.class)) {
+ *     for (User user : users) {
+ *         writer.write(user);
+ *     }
+ * }
+ * </pre>
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class ChunkedWriter<T> implements Closeable {
+
+    public static final int DEFAULT_CHUNK_BYTES = 64 << 10;
+
+    /**
+     * 单个块负载的上限，单条记录也不能超过这个大小
+     */
+    public static final int MAX_CHUNK_BYTES = 64 << 20;
+
+    static final int MAGIC = 0x55434B31;
+    static final int VERSION = 1;
+    static final int CHUNK_HEADER_BYTES = 12;
+
+    private final OutputStream out;
+    private final Schema<T> schema;
+    private final int chunkBytes;
+    private final BinaryWriter buffer;
+    private final byte[] header = new byte[CHUNK_HEADER_BYTES];
+    private final CRC32 crc = new CRC32();
+    private int records;
+    private long totalRecords;
+    private long chunks;
+    private boolean closed;
+
+    public ChunkedWriter(OutputStream out, Class<T> type) throws IOException {
+        this(out, type, DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * @param chunkBytes 块负载达到这个大小后写出；单条记录更大时单独成块，不能超过 {@link #MAX_CHUNK_BYTES}
+     */
+    public ChunkedWriter(OutputStream out, Class<T> type, int chunkBytes) throws IOException {
+        if (chunkBytes <= 0 || chunkBytes > MAX_CHUNK_BYTES) {
+            throw new IllegalArgumentException("chunkBytes 必须在 1 ~ " + MAX_CHUNK_BYTES + " 之间: " + chunkBytes);
+        }
+        this.out = out;
+        this.schema = Schema.of(type);
+        this.chunkBytes = chunkBytes;
+        this.buffer = new BinaryWriter(chunkBytes + 1024);
+        putInt(header, 0, MAGIC);
+        header[4] = VERSION;
+        out.write(header, 0, 5);
+    }
+
+    public void write(T value) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("已关闭");
+        }
+        int mark = buffer.size();
+        if (!append(value, mark)) {
+            // 加上这条记录会超过块上限：先写出已缓冲的记录，再单独成块；
+            // 没有已缓冲的记录时不能写块，记录数为 0 的块是结束标记
+            if (records == 0 || !retryAlone(value)) {
+                throw new IOException("单条记录超过块大小上限 " + MAX_CHUNK_BYTES + " 字节");
+            }
+        }
+        records++;
+        if (buffer.size() >= chunkBytes) {
+            flushChunk();
+        }
+    }
+
+    public void writeAll(Iterable<? extends T> values) throws IOException {
+        for (T value : values) {
+            write(value);
+        }
+    }
+
+    /**
+     * 把已缓冲的记录写成一个块并刷新底层流
+     */
+    public void flush() throws IOException {
+        if (records > 0) {
+            flushChunk();
+        }
+        out.flush();
+    }
+
+    public long totalRecords() {
+        return totalRecords;
+    }
+
+    public long chunks() {
+        return chunks;
+    }
+
+    /**
+     * 写出剩余记录和结束块，并关闭底层流
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try (OutputStream o = out) {
+            if (records > 0) {
+                flushChunk();
+            }
+            putInt(header, 0, 0);
+            putInt(header, 4, 0);
+            putInt(header, 8, 0);
+            o.write(header);
+            o.flush();
+        }
+    }
+
+    private boolean retryAlone(T value) throws IOException {
+        flushChunk();
+        return append(value, 0);
+    }
+
+    /**
+     * 在 mark 处追加一条记录；失败或超过块上限时回退到 mark，超过上限返回 false
+     */
+    private boolean append(T value, int mark) {
+        boolean appended = false;
+        try {
+            int start = buffer.beginLengthPrefixed();
+            schema.write(value, buffer);
+            buffer.endLengthPrefixed(start);
+            appended = buffer.size() <= MAX_CHUNK_BYTES;
+            return appended;
+        } finally {
+            if (!appended) {
+                buffer.truncate(mark);
+            }
+        }
+    }
+
+    private void flushChunk() throws IOException {
+        crc.reset();
+        crc.update(buffer.buffer(), 0, buffer.size());
+        putInt(header, 0, records);
+        putInt(header, 4, buffer.size());
+        putInt(header, 8, (int) crc.getValue());
+        out.write(header);
+        buffer.writeTo(out);
+        totalRecords += records;
+        chunks++;
+        records = 0;
+        buffer.reset();
+    }
+
+    static void putInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) value;
+        bytes[offset + 1] = (byte) (value >>> 8);
+        bytes[offset + 2] = (byte) (value >>> 16);
+        bytes[offset + 3] = (byte) (value >>> 24);
+    }
+
+    static int getInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) | (bytes[offset + 1] & 0xFF) << 8
+                | (bytes[offset + 2] & 0xFF) << 16 | (bytes[offset + 3] & 0xFF) << 24;
+    }
+}
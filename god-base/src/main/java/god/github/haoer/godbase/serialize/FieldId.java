@@ -0,0 +1,32 @@
+package god.github.haoer.godbase.serialize;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 指定字段在二进制格式中的编号
+ *
+ * <p>未标注时编号由字段名计算（见 {@link Schema}），字段改名后编号随之变化，旧数据中的值会被当作未知字段跳过。
+ * 需要改名但保持兼容时，用本注解把编号固定下来。
+ *
+ * <pre>
+ * &#64;FieldId(1)
+ * private String name;
+ * </pre>
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface FieldId {
+
+    /**
+     * 字段编号，范围 1 ~ {@link Schema#MAX_FIELD_ID}，同一个类（含父类）中不能重复
+     */
+    int value();
+}
@@ -0,0 +1,771 @@
+package god.github.haoer.godbase.serialize;
+
+import god.github.haoer.godbase.reflection.ObjectFactories;
+import god.github.haoer.godbase.reflection.ObjectFactory;
+import god.github.haoer.godbase.reflection.UnsafeAccess;
+import sun.misc.Unsafe;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 一个类的二进制结构：字段编号、编码方式和字段偏移量
+ *
+ * <p>首次使用时通过反射扫描一次字段（含父类，跳过 static 和 transient），之后读写都通过 Unsafe 按偏移量访问字段，
+ * 不再逐字段反射。每个类的 Schema 缓存在 ClassValue 中。
+ *
+ * <p>格式与 protobuf 类似，每个字段写成 tag + 值，tag = (字段编号 &lt;&lt; 3) | 编码方式：
+ * <ul>
+ *     <li>0 varint：boolean、byte、short、char、int、long 及其包装类型，有符号数做 ZigZag 变换</li>
+ *     <li>1 固定 8 字节：double</li>
+ *     <li>5 固定 4 字节：float</li>
+ *     <li>2 长度前缀：String（UTF-8）、byte[]、枚举（按名称）、嵌套对象、List/Set/Map</li>
+ * </ul>
+ * 值为 null 的字段不写；基本类型字段总是写出，避免读取时被构造方法里的默认值覆盖。
+ *
+ * <p>版本兼容：
+ * <ul>
+ *     <li>读到未知编号的字段直接跳过，新增字段在旧数据中读出为构造方法设置的默认值</li>
+ *     <li>字段编号默认由字段名计算，改名相当于删除旧字段、新增新字段；需要改名时用 {@link FieldId} 固定编号</li>
+ *     <li>字段类型改变导致编码方式不一致时跳过该字段；int 与 long 编码相同，可以互相读取（超出范围时截断）</li>
+ * </ul>
+ *
+ * <p>字段编号在构建 Schema 时检查，包括嵌套对象、集合元素引用到的类型：编号冲突（按名称计算的编号只有 2047 个取值，
+ * 字段多时可能碰撞）或类型不支持时，第一次获取外层 Schema 就会抛出异常，而不是等到第一次写出嵌套对象。
+ *
+ * <p>嵌套对象只按声明类型编码，运行时是子类会抛出异常；嵌套超过 {@value #MAX_DEPTH} 层（通常是循环引用）时抛出异常。
+ * 读取时通过 {@link ObjectFactories#forClass(Class)} 创建对象，没有无参构造方法时不执行构造方法直接分配。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class Schema<T> {
+
+    public static final int MAX_FIELD_ID = (1 << 29) - 1;
+
+    /**
+     * 未标注 {@link FieldId} 的字段编号范围为 1 ~ 2047，tag 最多占 2 个字节
+     */
+    static final int HASHED_ID_RANGE = 2047;
+
+    static final int MAX_DEPTH = 64;
+
+    static final int WIRE_VARINT = 0;
+    static final int WIRE_FIXED64 = 1;
+    static final int WIRE_LENGTH = 2;
+    static final int WIRE_FIXED32 = 5;
+
+    /**
+     * 不可用时为 null，此时构造 Schema 会抛出异常，不会用到它
+     */
+    private static final Unsafe U = UnsafeAccess.isAvailable() ? UnsafeAccess.unsafe() : null;
+
+    private static final ClassValue<Schema<?>> SCHEMAS = new ClassValue<Schema<?>>() {
+        @Override
+        protected Schema<?> computeValue(Class<?> type) {
+            Set<Class<?>> building = BUILDING.get();
+            building.add(type);
+            try {
+                return new Schema<>(type);
+            } finally {
+                building.remove(type);
+            }
+        }
+    };
+
+    /**
+     * 当前线程正在构建的类型，嵌套类型引用回它们（自引用、互相引用）时推迟到首次使用再获取
+     */
+    private static final ThreadLocal<Set<Class<?>>> BUILDING = ThreadLocal.withInitial(HashSet::new);
+
+    private final Class<T> type;
+    private final ObjectFactory<T> factory;
+    /**
+     * 按编号升序，写出顺序与此一致，读取时可以顺序命中
+     */
+    private final FieldCodec[] fields;
+    private final Map<String, Integer> fieldIds;
+
+    private Schema(Class<T> type) {
+        if (type.isInterface() || type.isArray() || type.isPrimitive() || type.isEnum()
+                || Modifier.isAbstract(type.getModifiers())) {
+            throw new IllegalArgumentException(type.getName() + " 是接口、数组、基本类型、枚举或抽象类，不能作为 Schema");
+        }
+        UnsafeAccess.unsafe();
+        this.type = type;
+        this.fields = scanFields(type);
+        this.factory = factoryFor(type);
+        Map<String, Integer> ids = new LinkedHashMap<>();
+        for (FieldCodec field : fields) {
+            ids.put(field.name, field.id);
+        }
+        this.fieldIds = Collections.unmodifiableMap(ids);
+    }
+
+    /**
+     * 返回该类缓存的 Schema，首次调用时生成
+     *
+     * @throws IllegalArgumentException 类本身无法作为 Schema
+     * @throws IllegalStateException    字段类型不支持或字段编号冲突
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Schema<T> of(Class<T> type) {
+        return (Schema<T>) SCHEMAS.get(type);
+    }
+
+    public Class<T> type() {
+        return type;
+    }
+
+    /**
+     * 字段名到编号的映射，按编号升序
+     */
+    public Map<String, Integer> fieldIds() {
+        return fieldIds;
+    }
+
+    /**
+     * 把对象的字段追加写入 out，不写长度前缀
+     */
+    public void write(T value, BinaryWriter out) {
+        if (value.getClass() != type) {
+            throw new IllegalArgumentException("Schema 类型为 " + type.getName() + ", 实际为 " + value.getClass().getName());
+        }
+        writeFields(value, out, 0);
+    }
+
+    /**
+     * 读取 in 中剩余的全部字节，创建一个新对象
+     *
+     * @throws IOException 数据不完整或已损坏
+     */
+    public T read(BinaryReader in) throws IOException {
+        return readFields(in, 0);
+    }
+
+    void writeFields(Object value, BinaryWriter out, int depth) {
+        if (depth > MAX_DEPTH) {
+            throw new IllegalStateException("嵌套超过 " + MAX_DEPTH + " 层，可能存在循环引用: " + type.getName());
+        }
+        for (FieldCodec field : fields) {
+            field.write(value, out, depth);
+        }
+    }
+
+    T readFields(BinaryReader in, int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new StreamCorruptedException("嵌套超过 " + MAX_DEPTH + " 层: " + type.getName());
+        }
+        T value = factory.newInstance();
+        FieldCodec[] fields = this.fields;
+        int next = 0;
+        while (in.hasRemaining()) {
+            int tag = in.readVarint32();
+            int id = tag >>> 3;
+            int wireType = tag & 7;
+            if (id == 0) {
+                throw new StreamCorruptedException("字段编号为 0，数据已损坏");
+            }
+            FieldCodec field;
+            if (next < fields.length && fields[next].id == id) {
+                field = fields[next++];
+            } else {
+                int index = indexOf(id);
+                field = index >= 0 ? fields[index] : null;
+                next = index + 1;
+            }
+            if (field == null || field.wireType != wireType) {
+                skipValue(in, wireType);
+            } else {
+                field.read(value, in, depth);
+            }
+        }
+        return value;
+    }
+
+    private int indexOf(int id) {
+        int low = 0;
+        int high = fields.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = fields[mid].id;
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    static void skipValue(BinaryReader in, int wireType) throws IOException {
+        switch (wireType) {
+            case WIRE_VARINT:
+                in.readVarint();
+                break;
+            case WIRE_FIXED64:
+                in.skip(8);
+                break;
+            case WIRE_LENGTH:
+                in.skip(in.readLength());
+                break;
+            case WIRE_FIXED32:
+                in.skip(4);
+                break;
+            default:
+                throw new StreamCorruptedException("未知的编码方式 " + wireType + "，数据已损坏");
+        }
+    }
+
+    static int defaultId(String name) {
+        int h = name.hashCode();
+        h ^= h >>> 16;
+        return 1 + (h & Integer.MAX_VALUE) % HASHED_ID_RANGE;
+    }
+
+    private static <T> ObjectFactory<T> factoryFor(Class<T> type) {
+        try {
+            return ObjectFactories.forClass(type);
+        } catch (IllegalArgumentException e) {
+            return ObjectFactories.allocator(type);
+        }
+    }
+
+    private static FieldCodec[] scanFields(Class<?> type) {
+        List<FieldCodec> codecs = new ArrayList<>();
+        Map<Integer, String> names = new HashMap<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                    continue;
+                }
+                FieldId annotation = field.getAnnotation(FieldId.class);
+                int id;
+                if (annotation != null) {
+                    id = annotation.value();
+                    if (id < 1 || id > MAX_FIELD_ID) {
+                        throw new IllegalStateException(field + ": 字段编号必须在 1 ~ " + MAX_FIELD_ID + " 之间: " + id);
+                    }
+                } else {
+                    id = defaultId(field.getName());
+                }
+                String where = c.getName() + "." + field.getName();
+                String previous = names.put(id, where);
+                if (previous != null) {
+                    throw new IllegalStateException(type.getName() + ": 字段 " + previous + " 与 " + where
+                            + " 编号相同 (" + id + (annotation == null ? "，由字段名计算" : "")
+                            + ")，请用 @FieldId 指定不同的编号");
+                }
+                codecs.add(fieldCodec(field, id, where));
+            }
+        }
+        FieldCodec[] array = codecs.toArray(new FieldCodec[0]);
+        Arrays.sort(array, (a, b) -> Integer.compare(a.id, b.id));
+        return array;
+    }
+
+    private static FieldCodec fieldCodec(Field field, int id, String where) {
+        long offset = U.objectFieldOffset(field);
+        Class<?> t = field.getType();
+        if (t.isPrimitive()) {
+            return new PrimitiveField(field.getName(), id, offset, t);
+        }
+        return new ObjectField(field.getName(), id, offset, valueCodec(field.getGenericType(), where));
+    }
+
+    /**
+     * 按声明类型选择编码方式
+     */
+    static ValueCodec valueCodec(Type type, String where) {
+        if (type instanceof Class) {
+            Class<?> c = (Class<?>) type;
+            if (c == String.class) {
+                return ValueCodec.STRING;
+            }
+            if (c == byte[].class) {
+                return ValueCodec.BYTES;
+            }
+            ValueCodec boxed = ValueCodec.boxed(c);
+            if (boxed != null) {
+                return boxed;
+            }
+            if (c.isEnum()) {
+                return new EnumCodec(c);
+            }
+            if (Collection.class.isAssignableFrom(c) || Map.class.isAssignableFrom(c)) {
+                throw new IllegalStateException(where + ": 集合类型需要声明泛型参数");
+            }
+            // JDK 内部类型（BigDecimal、Date 等）的字段是实现细节，不按字段编码
+            if (c.isArray() || c.isPrimitive() || c.isInterface() || c.getName().startsWith("java.")
+                    || Modifier.isAbstract(c.getModifiers())) {
+                throw new IllegalStateException(where + ": 不支持的类型 " + c.getTypeName());
+            }
+            return new BeanCodec(c);
+        }
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterized = (ParameterizedType) type;
+            Class<?> raw = (Class<?>) parameterized.getRawType();
+            Type[] args = parameterized.getActualTypeArguments();
+            if (Collection.class.isAssignableFrom(raw)) {
+                return new CollectionCodec(raw, valueCodec(args[0], where + "<元素>"), where);
+            }
+            if (Map.class.isAssignableFrom(raw)) {
+                return new MapCodec(raw, valueCodec(args[0], where + "<键>"), valueCodec(args[1], where + "<值>"), where);
+            }
+            return valueCodec(raw, where);
+        }
+        throw new IllegalStateException(where + ": 不支持的类型 " + type.getTypeName());
+    }
+
+    /**
+     * 一个字段的读写，tag 预先算好
+     */
+    abstract static class FieldCodec {
+        final String name;
+        final int id;
+        final long offset;
+        final int wireType;
+        final int tag;
+
+        FieldCodec(String name, int id, long offset, int wireType) {
+            this.name = name;
+            this.id = id;
+            this.offset = offset;
+            this.wireType = wireType;
+            this.tag = id << 3 | wireType;
+        }
+
+        abstract void write(Object obj, BinaryWriter out, int depth);
+
+        abstract void read(Object obj, BinaryReader in, int depth) throws IOException;
+    }
+
+    /**
+     * 基本类型字段，直接按偏移量读写，不装箱
+     */
+    static final class PrimitiveField extends FieldCodec {
+        private final Class<?> type;
+
+        PrimitiveField(String name, int id, long offset, Class<?> type) {
+            super(name, id, offset, type == double.class ? WIRE_FIXED64 : type == float.class ? WIRE_FIXED32 : WIRE_VARINT);
+            this.type = type;
+        }
+
+        @Override
+        void write(Object obj, BinaryWriter out, int depth) {
+            out.writeVarint32(tag);
+            Class<?> t = type;
+            if (t == int.class) {
+                out.writeSigned(U.getInt(obj, offset));
+            } else if (t == long.class) {
+                out.writeSigned(U.getLong(obj, offset));
+            } else if (t == boolean.class) {
+                out.writeByte(U.getBoolean(obj, offset) ? 1 : 0);
+            } else if (t == double.class) {
+                out.writeFixed64(Double.doubleToRawLongBits(U.getDouble(obj, offset)));
+            } else if (t == float.class) {
+                out.writeFixed32(Float.floatToRawIntBits(U.getFloat(obj, offset)));
+            } else if (t == short.class) {
+                out.writeSigned(U.getShort(obj, offset));
+            } else if (t == byte.class) {
+                out.writeSigned(U.getByte(obj, offset));
+            } else {
+                out.writeVarint32(U.getChar(obj, offset));
+            }
+        }
+
+        @Override
+        void read(Object obj, BinaryReader in, int depth) throws IOException {
+            Class<?> t = type;
+            if (t == int.class) {
+                U.putInt(obj, offset, (int) in.readSigned());
+            } else if (t == long.class) {
+                U.putLong(obj, offset, in.readSigned());
+            } else if (t == boolean.class) {
+                U.putBoolean(obj, offset, in.readVarint() != 0);
+            } else if (t == double.class) {
+                U.putDouble(obj, offset, Double.longBitsToDouble(in.readFixed64()));
+            } else if (t == float.class) {
+                U.putFloat(obj, offset, Float.intBitsToFloat(in.readFixed32()));
+            } else if (t == short.class) {
+                U.putShort(obj, offset, (short) in.readSigned());
+            } else if (t == byte.class) {
+                U.putByte(obj, offset, (byte) in.readSigned());
+            } else {
+                U.putChar(obj, offset, (char) in.readVarint());
+            }
+        }
+    }
+
+    /**
+     * 引用类型字段，null 不写；读出 null（如未知的枚举常量）时保留默认值
+     */
+    static final class ObjectField extends FieldCodec {
+        private final ValueCodec codec;
+
+        ObjectField(String name, int id, long offset, ValueCodec codec) {
+            super(name, id, offset, codec.wireType);
+            this.codec = codec;
+        }
+
+        @Override
+        void write(Object obj, BinaryWriter out, int depth) {
+            Object value = U.getObject(obj, offset);
+            if (value != null) {
+                out.writeVarint32(tag);
+                codec.write(value, out, depth);
+            }
+        }
+
+        @Override
+        void read(Object obj, BinaryReader in, int depth) throws IOException {
+            Object value = codec.read(in, depth);
+            if (value != null) {
+                U.putObject(obj, offset, value);
+            }
+        }
+    }
+
+    /**
+     * 单个值的编码，不含 tag；长度前缀类型自己写长度，因此也可以直接作为集合元素
+     */
+    abstract static class ValueCodec {
+        final int wireType;
+
+        ValueCodec(int wireType) {
+            this.wireType = wireType;
+        }
+
+        abstract void write(Object value, BinaryWriter out, int depth);
+
+        abstract Object read(BinaryReader in, int depth) throws IOException;
+
+        static final ValueCodec STRING = new ValueCodec(WIRE_LENGTH) {
+            @Override
+            void write(Object value, BinaryWriter out, int depth) {
+                out.writeString((String) value);
+            }
+
+            @Override
+            Object read(BinaryReader in, int depth) throws IOException {
+                return in.readString();
+            }
+        };
+
+        static final ValueCodec BYTES = new ValueCodec(WIRE_LENGTH) {
+            @Override
+            void write(Object value, BinaryWriter out, int depth) {
+                byte[] bytes = (byte[]) value;
+                out.writeVarint32(bytes.length);
+                out.writeBytes(bytes, 0, bytes.length);
+            }
+
+            @Override
+            Object read(BinaryReader in, int depth) throws IOException {
+                return in.readBytes();
+            }
+        };
+
+        static ValueCodec boxed(Class<?> c) {
+            if (c == Integer.class) {
+                return new ValueCodec(WIRE_VARINT) {
+                    @Override
+                    void write(Object value, BinaryWriter out, int depth) {
+                        out.writeSigned((Integer) value);
+                    }
+
+                    @Override
+                    Object read(BinaryReader in, int depth) throws IOException {
+                        return (int) in.readSigned();
+                    }
+                };
+            }
+            if (c == Long.class) {
+                return new ValueCodec(WIRE_VARINT) {
+                    @Override
+                    void write(Object value, BinaryWriter out, int depth) {
+                        out.writeSigned((Long) value);
+                    }
+
+                    @Override
+                    Object read(BinaryReader in, int depth) throws IOException {
+                        return in.readSigned();
+                    }
+                };
+            }
+            if (c == Boolean.class) {
+                return new ValueCodec(WIRE_VARINT) {
+                    @Override
+                    void write(Object value, BinaryWriter out, int depth) {
+                        out.writeByte((Boolean) value ? 1 : 0);
+                    }
+
+                    @Override
+                    Object read(BinaryReader in, int depth) throws IOException {
+                        return in.readVarint() != 0;
+                    }
+                };
+            }
+            if (c == Double.class) {
+                return new ValueCodec(WIRE_FIXED64) {
+                    @Override
+                    void write(Object value, BinaryWriter out, int depth) {
+                        out.writeFixed64(Double.doubleToRawLongBits((Double) value));
+                    }
+
+                    @Override
+                    Object read(BinaryReader in, int depth) throws IOException {
+                        return Double.longBitsToDouble(in.readFixed64());
+                    }
+                };
+            }
+            if (c == Float.class) {
+                return new ValueCodec(WIRE_FIXED32) {
+                    @Override
+                    void write(Object value, BinaryWriter out, int depth) {
+                        out.writeFixed32(Float.floatToRawIntBits((Float) value));
+                    }
+
+                    @Override
+                    Object read(BinaryReader in, int depth) throws IOException {
+                        return Float.intBitsToFloat(in.readFixed32());
+                    }
+                };
+            }
+            if (c == Short.class) {
+                return new ValueCodec(WIRE_VARINT) {
+                    @Override
+                    void write(Object value, BinaryWriter out, int depth) {
+                        out.writeSigned((Short) value);
+                    }
+
+                    @Override
+                    Object read(BinaryReader in, int depth) throws IOException {
+                        return (short) in.readSigned();
+                    }
+                };
+            }
+            if (c == Byte.class) {
+                return new ValueCodec(WIRE_VARINT) {
+                    @Override
+                    void write(Object value, BinaryWriter out, int depth) {
+                        out.writeSigned((Byte) value);
+                    }
+
+                    @Override
+                    Object read(BinaryReader in, int depth) throws IOException {
+                        return (byte) in.readSigned();
+                    }
+                };
+            }
+            if (c == Character.class) {
+                return new ValueCodec(WIRE_VARINT) {
+                    @Override
+                    void write(Object value, BinaryWriter out, int depth) {
+                        out.writeVarint32((Character) value);
+                    }
+
+                    @Override
+                    Object read(BinaryReader in, int depth) throws IOException {
+                        return (char) in.readVarint();
+                    }
+                };
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 枚举按名称编码，调整常量顺序不影响兼容性；读到不存在的常量返回 null
+     */
+    static final class EnumCodec extends ValueCodec {
+        private final Map<String, Object> constants = new HashMap<>();
+
+        EnumCodec(Class<?> type) {
+            super(WIRE_LENGTH);
+            for (Object constant : type.getEnumConstants()) {
+                constants.put(((Enum<?>) constant).name(), constant);
+            }
+        }
+
+        @Override
+        void write(Object value, BinaryWriter out, int depth) {
+            out.writeString(((Enum<?>) value).name());
+        }
+
+        @Override
+        Object read(BinaryReader in, int depth) throws IOException {
+            return constants.get(in.readString());
+        }
+    }
+
+    /**
+     * 嵌套对象：长度前缀 + 字段；Schema 在构建时提前获取，引用正在构建的类型（如自身类型的字段）时推迟到首次使用
+     */
+    static final class BeanCodec extends ValueCodec {
+        private final Class<?> type;
+
+        BeanCodec(Class<?> type) {
+            super(WIRE_LENGTH);
+            this.type = type;
+            // 提前构建嵌套类型的 Schema，让编号冲突等问题在外层 Schema 构建时暴露
+            if (!BUILDING.get().contains(type)) {
+                Schema.of(type);
+            }
+        }
+
+        @Override
+        void write(Object value, BinaryWriter out, int depth) {
+            if (value.getClass() != type) {
+                throw new IllegalArgumentException("字段声明类型为 " + type.getName() + ", 不支持子类 " + value.getClass().getName());
+            }
+            int start = out.beginLengthPrefixed();
+            Schema.of(type).writeFields(value, out, depth + 1);
+            out.endLengthPrefixed(start);
+        }
+
+        @Override
+        Object read(BinaryReader in, int depth) throws IOException {
+            int length = in.readLength();
+            int limit = in.pushLimit(length);
+            Object value = Schema.of(type).readFields(in, depth + 1);
+            in.popLimit(limit);
+            return value;
+        }
+    }
+
+    /**
+     * List/Set：长度前缀 + 元素个数 + 各元素；元素不能为 null
+     *
+     * <p>读取时按声明类型创建 ArrayList、LinkedHashSet 或 TreeSet（自然顺序），声明的具体类型与这些都不兼容时不支持。
+     */
+    static final class CollectionCodec extends ValueCodec {
+        private final Class<?> type;
+        private final ValueCodec element;
+
+        CollectionCodec(Class<?> type, ValueCodec element, String where) {
+            super(WIRE_LENGTH);
+            if (!type.isAssignableFrom(ArrayList.class) && !type.isAssignableFrom(LinkedHashSet.class)
+                    && !type.isAssignableFrom(TreeSet.class)) {
+                throw new IllegalStateException(where + ": 不支持的集合类型 " + type.getName());
+            }
+            this.type = type;
+            this.element = element;
+        }
+
+        @Override
+        void write(Object value, BinaryWriter out, int depth) {
+            Collection<?> collection = (Collection<?>) value;
+            int start = out.beginLengthPrefixed();
+            out.writeVarint32(collection.size());
+            for (Object e : collection) {
+                if (e == null) {
+                    throw new IllegalArgumentException("集合元素不能为 null");
+                }
+                element.write(e, out, depth + 1);
+            }
+            out.endLengthPrefixed(start);
+        }
+
+        @Override
+        Object read(BinaryReader in, int depth) throws IOException {
+            int length = in.readLength();
+            int limit = in.pushLimit(length);
+            int size = in.readSize(1);
+            Collection<Object> collection = newCollection(size);
+            for (int i = 0; i < size; i++) {
+                Object e = element.read(in, depth + 1);
+                if (e != null) {
+                    collection.add(e);
+                }
+            }
+            in.popLimit(limit);
+            return collection;
+        }
+
+        private Collection<Object> newCollection(int size) {
+            // size 已由 readSize 用剩余字节数校验过，不会超出输入本身的规模
+            if (type.isAssignableFrom(ArrayList.class)) {
+                return new ArrayList<>(size);
+            }
+            if (type.isAssignableFrom(LinkedHashSet.class)) {
+                return new LinkedHashSet<>(size * 4 / 3 + 1);
+            }
+            return new TreeSet<>();
+        }
+    }
+
+    /**
+     * Map：长度前缀 + 条目数 + 交替的键、值；键和值都不能为 null
+     *
+     * <p>读取时按声明类型创建 LinkedHashMap 或 TreeMap（自然顺序）。
+     */
+    static final class MapCodec extends ValueCodec {
+        private final Class<?> type;
+        private final ValueCodec key;
+        private final ValueCodec value;
+
+        MapCodec(Class<?> type, ValueCodec key, ValueCodec value, String where) {
+            super(WIRE_LENGTH);
+            if (!type.isAssignableFrom(LinkedHashMap.class) && !type.isAssignableFrom(TreeMap.class)) {
+                throw new IllegalStateException(where + ": 不支持的 Map 类型 " + type.getName());
+            }
+            this.type = type;
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        void write(Object v, BinaryWriter out, int depth) {
+            Map<?, ?> map = (Map<?, ?>) v;
+            int start = out.beginLengthPrefixed();
+            out.writeVarint32(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (entry.getKey() == null || entry.getValue() == null) {
+                    throw new IllegalArgumentException("Map 的键和值不能为 null");
+                }
+                key.write(entry.getKey(), out, depth + 1);
+                value.write(entry.getValue(), out, depth + 1);
+            }
+            out.endLengthPrefixed(start);
+        }
+
+        @Override
+        Object read(BinaryReader in, int depth) throws IOException {
+            int length = in.readLength();
+            int limit = in.pushLimit(length);
+            int size = in.readSize(2);
+            Map<Object, Object> map = type.isAssignableFrom(LinkedHashMap.class)
+                    ? new LinkedHashMap<>(size * 4 / 3 + 1) : new TreeMap<>();
+            for (int i = 0; i < size; i++) {
+                Object k = key.read(in, depth + 1);
+                Object v = value.read(in, depth + 1);
+                if (k != null && v != null) {
+                    map.put(k, v);
+                }
+            }
+            in.popLimit(limit);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package god.github.haoer.godbase.serialize;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+
+/**
+ * 基于 {@link Schema} 的序列化入口
+ *
+ * <pre>
+ * byte[] bytes = SchemaSerializer.toBytes(user);
+ * User copy = SchemaSerializer.fromBytes(bytes, User.class);
+ * </pre>
+ *
+ * <p>与 ObjectOutputStream 相比：不写类描述信息，字段按编号而不是类名和字段名标识；
+ * 字段通过预先算好的偏移量读写；{@link #toBytes(Object)} 复用线程私有的缓冲区，只分配结果数组。
+ * 写入流时用 {@link #writeDelimited(Object, OutputStream)}，每条记录前加 varint 长度，可以连续写多条。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class SchemaSerializer {
+
+    /**
+     * 超过这个大小的线程私有缓冲区用完后丢弃，避免偶尔的大对象让缓冲区一直占着内存
+     */
+    private static final int MAX_CACHED_BUFFER = 1 << 20;
+
+    private static final ThreadLocal<BinaryWriter> WRITERS = ThreadLocal.withInitial(BinaryWriter::new);
+
+    private SchemaSerializer() {
+    }
+
+    public static byte[] toBytes(Object value) {
+        BinaryWriter writer = WRITERS.get().reset();
+        try {
+            write(value, writer);
+            return writer.toByteArray();
+        } finally {
+            release(writer);
+        }
+    }
+
+    /**
+     * 把对象追加写入 writer，不写长度前缀
+     */
+    public static void write(Object value, BinaryWriter writer) {
+        schemaOf(value).write(value, writer);
+    }
+
+    /**
+     * @throws IOException 数据不完整或已损坏
+     */
+    public static <T> T fromBytes(byte[] bytes, Class<T> type) throws IOException {
+        return fromBytes(bytes, 0, bytes.length, type);
+    }
+
+    /**
+     * @throws IOException 数据不完整或已损坏
+     */
+    public static <T> T fromBytes(byte[] bytes, int offset, int length, Class<T> type) throws IOException {
+        return Schema.of(type).read(new BinaryReader(bytes, offset, length));
+    }
+
+    /**
+     * 写入 varint 长度 + 对象
+     */
+    public static void writeDelimited(Object value, OutputStream out) throws IOException {
+        BinaryWriter writer = WRITERS.get().reset();
+        try {
+            int start = writer.beginLengthPrefixed();
+            write(value, writer);
+            writer.endLengthPrefixed(start);
+            writer.writeTo(out);
+        } finally {
+            release(writer);
+        }
+    }
+
+    /**
+     * 读取 {@link #writeDelimited(Object, OutputStream)} 写入的一条记录，长度上限为 {@link ChunkedWriter#MAX_CHUNK_BYTES}
+     *
+     * @return 流已结束时返回 null
+     * @throws EOFException 记录不完整
+     */
+    public static <T> T readDelimited(InputStream in, Class<T> type) throws IOException {
+        return readDelimited(in, type, ChunkedWriter.MAX_CHUNK_BYTES);
+    }
+
+    /**
+     * 读取一条记录；长度前缀来自流，超过 maxLength 时在分配缓冲区之前判定为损坏
+     *
+     * @param maxLength 单条记录允许的最大字节数
+     * @return 流已结束时返回 null
+     * @throws EOFException 记录不完整
+     * @throws StreamCorruptedException 长度前缀损坏或超过 maxLength
+     */
+    public static <T> T readDelimited(InputStream in, Class<T> type, int maxLength) throws IOException {
+        if (maxLength < 0) {
+            throw new IllegalArgumentException("maxLength 不能为负数: " + maxLength);
+        }
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                if (shift == 0) {
+                    return null;
+                }
+                throw new EOFException("长度前缀不完整");
+            }
+            if (shift > 28) {
+                throw new StreamCorruptedException("长度前缀超过 5 字节，数据已损坏");
+            }
+            length |= (b & 0x7F) << shift;
+            if (b < 0x80) {
+                break;
+            }
+        }
+        if (length < 0) {
+            throw new StreamCorruptedException("长度为负数，数据已损坏: " + length);
+        }
+        if (length > maxLength) {
+            throw new StreamCorruptedException("记录长度 " + length + " 超过上限 " + maxLength + "，数据已损坏");
+        }
+        byte[] bytes = new byte[length];
+        int read = 0;
+        while (read < length) {
+            int n = in.read(bytes, read, length - read);
+            if (n < 0) {
+                throw new EOFException("记录不完整: 需要 " + length + " 字节, 读到 " + read);
+            }
+            read += n;
+        }
+        return fromBytes(bytes, type);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Schema<T> schemaOf(T value) {
+        return Schema.of((Class<T>) value.getClass());
+    }
+
+    private static void release(BinaryWriter writer) {
+        if (writer.buffer().length > MAX_CACHED_BUFFER) {
+            WRITERS.remove();
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package god.github.haoer.godbase.spi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * 异步扇出执行器：把一次调用同时分发给所有提供者
+ *
+ * <p>{@link SPIDemo} 中依次调用每个提供者的 execute()，总耗时是所有提供者耗时之和。
+ * 本类把每个提供者的调用提交到线程池并行执行，返回一个汇总的 {@link CompletableFuture}：
+ * 1. 每个提供者单独超时，超时后中断其任务并记为 TIMED_OUT，不影响其他提供者
+ * 2. 取消汇总 future 会取消（并中断）所有尚未完成的调用
+ * 3. 每个提供者的耗时记录到独立的 {@link LatencyHistogram}，可以定位拖慢整体的实现；
+ *    超时与取消的调用只计数，不进入耗时分布
+ *
+ * <p>汇总 future 总是正常完成（除非被取消），单个提供者的失败体现在 {@link Outcome} 中。
+ * Java 8 的 CompletableFuture 没有 orTimeout，超时由一个共享的守护线程调度。
+ *
+ * <pre>
+ * AsyncFanOutExecutor executor = new AsyncFanOutExecutor(pool);
+ * executor.fanOut(registry, MyService::execute, 200, TimeUnit.MILLISECONDS)
+ *         .thenAccept(outcomes -&gt; ...);
+ * </pre>
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public class AsyncFanOutExecutor {
+
+    /**
+     * 调用完成时取消的超时任务立即从队列移除，不会把 Call 及其闭包一直保留到超时时刻
+     */
+    private static final ScheduledThreadPoolExecutor TIMER = newTimer();
+
+    private final ExecutorService executor;
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * @param executor 执行提供者调用的线程池，由调用方负责关闭
+     */
+    public AsyncFanOutExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    private static ScheduledThreadPoolExecutor newTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "fan-out-timer");
+            t.setDaemon(true);
+            return t;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    /**
+     * 把 call 扇出到每个提供者上执行
+     *
+     * @param providers 提供者，例如 {@link ServiceRegistry} 或 {@link ExtensionLoader#getSortedExtensions()}
+     * @param call      对单个提供者的调用
+     * @param timeout   单个提供者的超时时间
+     * @param unit      时间单位
+     * @return 所有提供者结束（完成、失败或超时）后完成的 future，结果顺序与 providers 一致
+     */
+    public <S> CompletableFuture<List<Outcome>> fanOut(Iterable<? extends S> providers, Consumer<? super S> call,
+                                                       long timeout, TimeUnit unit) {
+        List<Call<S>> calls = new ArrayList<>();
+        for (S provider : providers) {
+            Call<S> c = new Call<>(provider, call);
+            calls.add(c);
+            c.start(timeout, unit);
+        }
+
+        @SuppressWarnings("unchecked")
+        CompletableFuture<Outcome>[] futures = (CompletableFuture<Outcome>[]) new CompletableFuture<?>[calls.size()];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = calls.get(i).outcome;
+        }
+        CompletableFuture<List<Outcome>> result = CompletableFuture.allOf(futures).thenApply(v -> {
+            List<Outcome> outcomes = new ArrayList<>(futures.length);
+            for (CompletableFuture<Outcome> future : futures) {
+                outcomes.add(future.join());
+            }
+            return outcomes;
+        });
+        // 取消汇总结果时，把取消传播给每个提供者
+        result.whenComplete((outcomes, error) -> {
+            if (error instanceof CancellationException) {
+                for (Call<S> c : calls) {
+                    c.cancel();
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 指定提供者的延迟直方图，尚未调用过时返回 null
+     */
+    public LatencyHistogram getHistogram(String providerName) {
+        return histograms.get(providerName);
+    }
+
+    /**
+     * 全部提供者的延迟直方图（提供者类名 -&gt; 直方图）
+     */
+    public Map<String, LatencyHistogram> getHistograms() {
+        return Collections.unmodifiableMap(histograms);
+    }
+
+    /**
+     * 单个提供者的一次调用
+     */
+    private final class Call<S> implements Runnable {
+        private final S provider;
+        private final Consumer<? super S> call;
+        private final String name;
+        private final CompletableFuture<Outcome> outcome = new CompletableFuture<>();
+        private volatile Future<?> task;
+        private volatile ScheduledFuture<?> timeoutTask;
+        private volatile long startNanos;
+
+        Call(S provider, Consumer<? super S> call) {
+            this.provider = provider;
+            this.call = call;
+            this.name = provider.getClass().getName();
+        }
+
+        void start(long timeout, TimeUnit unit) {
+            startNanos = System.nanoTime();
+            // 先调度超时再提交：提供者很快完成时，finish() 一定能看到 timeoutTask 并取消它
+            timeoutTask = TIMER.schedule(() -> {
+                if (finish(State.TIMED_OUT, new TimeoutException(name + " 超过 " + unit.toMillis(timeout) + "ms 未完成"))) {
+                    interruptTask();
+                }
+            }, timeout, unit);
+            try {
+                task = executor.submit(this);
+            } catch (RejectedExecutionException e) {
+                finish(State.FAILED, e);
+                return;
+            }
+            // 超时或取消发生在 task 赋值之前时，由这里补发中断
+            if (isAbandoned()) {
+                interruptTask();
+            }
+        }
+
+        @Override
+        public void run() {
+            if (outcome.isDone()) {
+                return;
+            }
+            try {
+                call.accept(provider);
+                finish(State.OK, null);
+            } catch (Throwable e) {
+                finish(State.FAILED, e);
+            }
+        }
+
+        void cancel() {
+            if (finish(State.CANCELLED, new CancellationException())) {
+                interruptTask();
+            }
+        }
+
+        private boolean isAbandoned() {
+            Outcome o = outcome.getNow(null);
+            return o != null && (o.state == State.TIMED_OUT || o.state == State.CANCELLED);
+        }
+
+        private void interruptTask() {
+            Future<?> t = task;
+            if (t != null) {
+                t.cancel(true);
+            }
+        }
+
+        /**
+         * 只有第一个到达的结果生效
+         */
+        boolean finish(State state, Throwable error) {
+            long elapsed = System.nanoTime() - startNanos;
+            if (!outcome.complete(new Outcome(name, state, elapsed, error))) {
+                return false;
+            }
+            ScheduledFuture<?> t = timeoutTask;
+            if (t != null) {
+                t.cancel(false);
+            }
+            LatencyHistogram histogram = histograms.computeIfAbsent(name, k -> new LatencyHistogram());
+            if (state == State.OK || state == State.FAILED) {
+                histogram.record(elapsed);
+            } else {
+                // 超时与取消的耗时只反映超时设置，计入分布会拉偏百分位
+                histogram.recordAbandoned();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 单个提供者调用的结束状态
+     */
+    public enum State {
+        /** 正常完成 */
+        OK,
+        /** 抛出异常或被线程池拒绝 */
+        FAILED,
+        /** 超时 */
+        TIMED_OUT,
+        /** 被调用方取消 */
+        CANCELLED
+    }
+
+    /**
+     * 单个提供者的调用结果
+     */
+    public static final class Outcome {
+        private final String provider;
+        private final State state;
+        private final long elapsedNanos;
+        private final Throwable error;
+
+        Outcome(String provider, State state, long elapsedNanos, Throwable error) {
+            this.provider = provider;
+            this.state = state;
+            this.elapsedNanos = elapsedNanos;
+            this.error = error;
+        }
+
+        public String getProvider() {
+            return provider;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        public long getElapsedMicros() {
+            return TimeUnit.NANOSECONDS.toMicros(elapsedNanos);
+        }
+
+        public Throwable getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return provider + " " + state + " " + getElapsedMicros() + "us" + (error != null ? " (" + error + ")" : "");
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package god.github.haoer.godbase.spi;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记扩展点实现的名称与优先级
+ *
+ * <p>未标注时，扩展名为类的简单名称（首字母小写），order 为 0。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Extension {
+
+    /**
+     * 扩展名，同一个扩展点内必须唯一
+     */
+    String value() default "";
+
+    /**
+     * 别名（限定符），同样可以用于查找
+     */
+    String[] aliases() default {};
+
+    /**
+     * 排序值，越小越靠前
+     */
+    int order() default 0;
+}
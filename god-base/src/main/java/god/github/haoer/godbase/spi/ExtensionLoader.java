@@ -0,0 +1,179 @@
+package god.github.haoer.godbase.spi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 按名称查找、按优先级排序的扩展加载器（参考 Dubbo ExtensionLoader）
+ *
+ * <p>原生 SPI 只能线性遍历 ServiceLoader，顺序取决于加载顺序。本类在构造时一次性完成：
+ * 1. 通过 {@link ServiceRegistry} 发现实现类（只加载类，不实例化）
+ * 2. 读取 {@link Extension} 注解得到名称、别名和排序值
+ * 3. 建立 名称 -&gt; 提供者 的哈希表和排好序的列表
+ *
+ * <p>之后的 {@link #getExtension(String)} 只是一次 HashMap 查找，实例由 {@link ServiceRegistry.Provider}
+ * 缓存为单例，不会在请求路径上重复反射创建。构造完成后内部结构不再变化，可以无锁并发读取。
+ *
+ * <pre>
+ * MyService service = ExtensionLoader.load(MyService.class).getExtension("a");
+ * </pre>
+ *
+ * @param <S> 扩展点接口类型
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class ExtensionLoader<S> {
+
+    private final ServiceRegistry<S> registry;
+    private final Map<String, ServiceRegistry.Provider<S>> byName;
+    private final List<ServiceRegistry.Provider<S>> sorted;
+    private final Set<String> names;
+    private final String defaultName;
+
+    ExtensionLoader(ServiceRegistry<S> registry) {
+        this.registry = registry;
+
+        List<Entry<S>> entries = new ArrayList<>();
+        for (ServiceRegistry.Provider<S> provider : registry.providers()) {
+            entries.add(new Entry<>(provider, provider.type().getAnnotation(Extension.class)));
+        }
+        // 稳定排序：order 相同时保持声明顺序
+        entries.sort(Comparator.comparingInt(e -> e.order));
+
+        Map<String, ServiceRegistry.Provider<S>> map = new HashMap<>();
+        List<ServiceRegistry.Provider<S>> list = new ArrayList<>(entries.size());
+        Set<String> primaryNames = new LinkedHashSet<>();
+        for (Entry<S> entry : entries) {
+            list.add(entry.provider);
+            primaryNames.add(entry.name);
+            register(map, entry.name, entry.provider);
+            for (String alias : entry.aliases) {
+                register(map, alias, entry.provider);
+            }
+        }
+        this.byName = map;
+        this.sorted = Collections.unmodifiableList(list);
+        this.names = Collections.unmodifiableSet(primaryNames);
+
+        SPI spi = registry.service().getAnnotation(SPI.class);
+        String name = spi != null ? spi.value().trim() : "";
+        if (name.isEmpty()) {
+            this.defaultName = list.isEmpty() ? null : entries.get(0).name;
+        } else if (!map.containsKey(name)) {
+            throw new IllegalStateException(registry.service().getName() + ": 默认扩展 " + name + " 不存在，可选值 " + names);
+        } else {
+            this.defaultName = name;
+        }
+    }
+
+    /**
+     * 使用线程上下文类加载器获取扩展加载器
+     */
+    public static <S> ExtensionLoader<S> load(Class<S> service) {
+        return load(service, Thread.currentThread().getContextClassLoader());
+    }
+
+    /**
+     * 获取指定类加载器下的扩展加载器，缓存规则与 {@link ServiceRegistry#load(Class, ClassLoader)} 相同，
+     * 每个被缓存的 (类加载器, 接口) 只构建一次
+     */
+    public static <S> ExtensionLoader<S> load(Class<S> service, ClassLoader loader) {
+        if (!service.isInterface()) {
+            throw new IllegalArgumentException(service.getName() + " 不是接口");
+        }
+        return ServiceRegistry.load(service, loader).extensionLoader();
+    }
+
+    private void register(Map<String, ServiceRegistry.Provider<S>> map, String name, ServiceRegistry.Provider<S> provider) {
+        ServiceRegistry.Provider<S> old = map.put(name, provider);
+        if (old != null && old != provider) {
+            throw new IllegalStateException(registry.service().getName() + ": 扩展名 " + name
+                    + " 重复，" + old.name() + " 与 " + provider.name());
+        }
+    }
+
+    /**
+     * 按名称或别名获取扩展（单例）
+     *
+     * @throws IllegalArgumentException 名称不存在
+     */
+    public S getExtension(String name) {
+        ServiceRegistry.Provider<S> provider = byName.get(name);
+        if (provider == null) {
+            throw new IllegalArgumentException(registry.service().getName() + ": 没有名为 " + name + " 的扩展，可选值 " + names);
+        }
+        return provider.get();
+    }
+
+    /**
+     * 按名称获取扩展，不存在时返回默认扩展
+     */
+    public S getExtensionOrDefault(String name) {
+        ServiceRegistry.Provider<S> provider = name == null ? null : byName.get(name);
+        return provider != null ? provider.get() : getDefaultExtension();
+    }
+
+    /**
+     * 默认扩展：{@link SPI#value()} 指定的实现，未指定时为优先级最高的实现；没有任何实现时返回 null
+     */
+    public S getDefaultExtension() {
+        return defaultName == null ? null : byName.get(defaultName).get();
+    }
+
+    public String getDefaultExtensionName() {
+        return defaultName;
+    }
+
+    public boolean hasExtension(String name) {
+        return byName.containsKey(name);
+    }
+
+    /**
+     * 所有扩展名（不含别名），按优先级排序
+     */
+    public Set<String> getSupportedExtensions() {
+        return names;
+    }
+
+    /**
+     * 按优先级排序的全部扩展实例，会实例化所有实现
+     */
+    public List<S> getSortedExtensions() {
+        List<S> list = new ArrayList<>(sorted.size());
+        for (ServiceRegistry.Provider<S> provider : sorted) {
+            list.add(provider.get());
+        }
+        return list;
+    }
+
+    /**
+     * 扩展名：优先取注解，否则取简单类名（首字母小写）
+     */
+    static String extensionName(Class<?> type, Extension extension) {
+        if (extension != null && !extension.value().trim().isEmpty()) {
+            return extension.value().trim();
+        }
+        String simpleName = type.getSimpleName();
+        return Character.toLowerCase(simpleName.charAt(0)) + simpleName.substring(1);
+    }
+
+    private static final class Entry<S> {
+        final ServiceRegistry.Provider<S> provider;
+        final String name;
+        final String[] aliases;
+        final int order;
+
+        Entry(ServiceRegistry.Provider<S> provider, Extension extension) {
+            this.provider = provider;
+            this.name = extensionName(provider.type(), extension);
+            this.aliases = extension != null ? extension.aliases() : new String[0];
+            this.order = extension != null ? extension.order() : 0;
+        }
+    }
+}
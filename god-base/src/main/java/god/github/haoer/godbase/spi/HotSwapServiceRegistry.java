@@ -0,0 +1,560 @@
+package god.github.haoer.godbase.spi;
+
+import god.github.haoer.godbase.reflection.ObjectFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 支持热加载的服务注册表
+ *
+ * <p>插件目录中的 jar 被加载到一个独立的 {@link PluginClassLoader} 中，目录发生变化时自动重新加载，
+ * 无需重启即可替换 {@link MyService} 等服务的实现。
+ *
+ * <p>并发设计：
+ * 1. 每次加载得到一个不可变的 {@link Snapshot}（提供者列表 + 类加载器），通过 {@link AtomicReference} 原子发布
+ * 2. 调用方 {@link #dispatch(Consumer)} 只做 "读引用 + 计数器自增"，不加锁、不阻塞，替换过程中照常执行
+ * 3. 旧快照被替换后标记为退役，等正在执行的调用全部结束（计数归零）时交给后台释放线程：
+ *    关闭实现了 {@link AutoCloseable} 的提供者、关闭类加载器并删除影子目录，此后旧的实现类可以被 GC 卸载。
+ *    最后一个在途调用只负责提交释放任务，不在调用线程上做任何 I/O
+ *
+ * <p>jar 会先复制到临时影子目录再加载，避免读到写了一半的文件，也避免 Windows 上 jar 被类加载器锁住无法覆盖。
+ *
+ * <p>{@link #getStats()} 提供重载耗时、分发次数、后台失败次数以及尚未释放的旧快照数量，便于观测。
+ * 后台失败（监听触发的重载失败、旧插件释放失败）不会抛给调用方，通过 {@link #setFailureListener(FailureListener)} 接收。
+ *
+ * @param <S> 服务接口类型
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public class HotSwapServiceRegistry<S> implements Closeable {
+
+    /**
+     * 插件与宿主共享的 API 类型，始终由父加载器加载，保证 instanceof 与类型转换成立
+     */
+    private static final Set<String> SHARED_API = new HashSet<>(Arrays.asList(
+            SPI.class.getName(), Extension.class.getName(), Warmable.class.getName(),
+            ProviderContext.class.getName(), ObjectFactory.class.getName()));
+
+    /**
+     * 所有注册表共用的释放线程，关闭旧插件和删除影子目录都在这里执行
+     */
+    private static final ExecutorService DISPOSER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "plugin-disposer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Class<S> service;
+    private final Path pluginDir;
+    private final ClassLoader parent;
+    private final ProviderContext context;
+    private final AtomicReference<Snapshot<S>> current = new AtomicReference<>();
+    private final AtomicInteger generation = new AtomicInteger();
+    private final Object reloadLock = new Object();
+
+    private final LongAdder dispatchCount = new LongAdder();
+    private final AtomicLong reloadCount = new AtomicLong();
+    private final AtomicLong lastReloadNanos = new AtomicLong();
+    private final AtomicLong totalReloadNanos = new AtomicLong();
+    private final AtomicInteger pendingRetired = new AtomicInteger();
+    private final LongAdder failureCount = new LongAdder();
+
+    private volatile FailureListener failureListener = (message, error) -> {
+    };
+
+    private volatile WatchService watchService;
+    private volatile Thread watcher;
+
+    public HotSwapServiceRegistry(Class<S> service, Path pluginDir) {
+        this(service, pluginDir, service.getClassLoader(), ProviderContext.empty());
+    }
+
+    /**
+     * @param service   服务接口
+     * @param pluginDir 插件目录，其中的 *.jar 会被加载
+     * @param parent    插件类加载器的父加载器，必须能加载服务接口
+     * @param context   插件提供者的构造参数上下文
+     */
+    public HotSwapServiceRegistry(Class<S> service, Path pluginDir, ClassLoader parent, ProviderContext context) {
+        this.service = service;
+        this.pluginDir = pluginDir;
+        this.parent = parent;
+        this.context = context;
+        this.current.set(new Snapshot<>(0, Collections.emptyList(), null, null));
+    }
+
+    /**
+     * 在当前快照的每个提供者上执行操作
+     * <p>
+     * 无锁：执行期间发生的替换不会影响本次调用，本次调用结束前旧类加载器不会被关闭
+     */
+    public void dispatch(Consumer<? super S> action) {
+        Snapshot<S> snapshot = acquire();
+        try {
+            for (S provider : snapshot.providers) {
+                action.accept(provider);
+            }
+        } finally {
+            release(snapshot);
+        }
+    }
+
+    /**
+     * 在当前快照上执行一次计算，适合只挑选一个实现的场景
+     */
+    public <R> R apply(Function<? super List<S>, R> function) {
+        Snapshot<S> snapshot = acquire();
+        try {
+            return function.apply(snapshot.providers);
+        } finally {
+            release(snapshot);
+        }
+    }
+
+    /**
+     * 当前快照中的提供者；注意返回后不再受保护，替换后旧实现可能已被关闭，长时间持有请使用 {@link #dispatch(Consumer)}
+     */
+    public List<S> providers() {
+        return current.get().providers;
+    }
+
+    public long getGeneration() {
+        return current.get().generation;
+    }
+
+    /**
+     * 设置后台失败的回调，默认忽略（失败次数仍计入 {@link Stats#getFailureCount()}）
+     */
+    public void setFailureListener(FailureListener listener) {
+        this.failureListener = Objects.requireNonNull(listener, "listener");
+    }
+
+    private void fail(String message, Exception error) {
+        failureCount.increment();
+        failureListener.onFailure(message, error);
+    }
+
+    /**
+     * 获取快照并登记在途调用
+     * <p>
+     * 先自增再校验快照仍是当前值：若期间被替换，说明旧快照可能已进入释放流程，撤销后重试
+     */
+    private Snapshot<S> acquire() {
+        for (; ; ) {
+            Snapshot<S> snapshot = current.get();
+            snapshot.inFlight.incrementAndGet();
+            if (current.get() == snapshot) {
+                dispatchCount.increment();
+                return snapshot;
+            }
+            release(snapshot);
+        }
+    }
+
+    private void release(Snapshot<S> snapshot) {
+        if (snapshot.inFlight.decrementAndGet() == 0 && snapshot.retired) {
+            scheduleDispose(snapshot);
+        }
+    }
+
+    /**
+     * 重新扫描插件目录并原子替换快照，返回新快照中的提供者数量
+     * <p>
+     * 重载之间串行执行；调用方的 dispatch 不受影响
+     */
+    public int reload() throws IOException {
+        synchronized (reloadLock) {
+            long start = System.nanoTime();
+            int gen = generation.incrementAndGet();
+            Path shadowDir = Files.createTempDirectory("plugins-gen" + gen + "-");
+            PluginClassLoader loader = null;
+            Snapshot<S> next;
+            try {
+                List<URL> urls = new ArrayList<>();
+                if (Files.isDirectory(pluginDir)) {
+                    try (DirectoryStream<Path> jars = Files.newDirectoryStream(pluginDir, "*.jar")) {
+                        for (Path jar : jars) {
+                            Path copy = shadowDir.resolve(jar.getFileName());
+                            Files.copy(jar, copy, StandardCopyOption.REPLACE_EXISTING);
+                            urls.add(copy.toUri().toURL());
+                        }
+                    }
+                }
+                loader = new PluginClassLoader(urls.toArray(new URL[0]), parent, service.getName());
+                next = new Snapshot<>(gen, instantiate(loader), loader, shadowDir);
+            } catch (IOException | RuntimeException | Error e) {
+                if (loader != null) {
+                    loader.close();
+                }
+                deleteRecursively(shadowDir);
+                throw e;
+            }
+
+            Snapshot<S> old = current.getAndSet(next);
+            retire(old);
+
+            long elapsed = System.nanoTime() - start;
+            reloadCount.incrementAndGet();
+            lastReloadNanos.set(elapsed);
+            totalReloadNanos.addAndGet(elapsed);
+            return next.providers.size();
+        }
+    }
+
+    /**
+     * 只发现插件 jar 自身声明的提供者（findResources 不委托父加载器），并在发布前全部实例化
+     */
+    private List<S> instantiate(PluginClassLoader loader) throws IOException {
+        Set<String> names = new LinkedHashSet<>();
+        Enumeration<URL> configs = loader.findResources("META-INF/services/" + service.getName());
+        while (configs.hasMoreElements()) {
+            URL url = configs.nextElement();
+            try (InputStream in = url.openStream();
+                 BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String name = ServiceRegistry.parseLine(line);
+                    if (name != null) {
+                        names.add(name);
+                    }
+                }
+            }
+        }
+        List<S> providers = new ArrayList<>(names.size());
+        for (String name : names) {
+            try {
+                Class<? extends S> type = Class.forName(name, false, loader).asSubclass(service);
+                providers.add(ProviderFactories.compile(type, context).newInstance());
+            } catch (ClassNotFoundException | ClassCastException e) {
+                throw new IllegalStateException(service.getName() + ": 插件提供者 " + name + " 无法加载", e);
+            }
+        }
+        return Collections.unmodifiableList(providers);
+    }
+
+    private void retire(Snapshot<S> snapshot) {
+        if (snapshot.loader == null) {
+            return;
+        }
+        pendingRetired.incrementAndGet();
+        snapshot.retired = true;
+        // 退役标记之后再检查一次：若已无在途调用，由这里负责释放
+        if (snapshot.inFlight.get() == 0) {
+            scheduleDispose(snapshot);
+        }
+    }
+
+    /**
+     * 只提交一次释放任务；在 dispatch 的调用线程上执行，不能阻塞
+     */
+    private void scheduleDispose(Snapshot<S> snapshot) {
+        if (snapshot.disposed.compareAndSet(false, true)) {
+            DISPOSER.execute(() -> dispose(snapshot));
+        }
+    }
+
+    /**
+     * 在释放线程上执行：先关闭提供者（它们可能还要用类加载器加载类），再关闭类加载器、删除影子目录
+     */
+    private void dispose(Snapshot<S> snapshot) {
+        try {
+            for (S provider : snapshot.providers) {
+                if (provider instanceof AutoCloseable) {
+                    try {
+                        ((AutoCloseable) provider).close();
+                    } catch (Exception e) {
+                        fail("关闭第 " + snapshot.generation + " 代插件提供者失败: " + provider.getClass().getName(), e);
+                    }
+                }
+            }
+            try {
+                snapshot.loader.close();
+            } catch (IOException e) {
+                fail("关闭第 " + snapshot.generation + " 代插件类加载器失败", e);
+            }
+            deleteRecursively(snapshot.shadowDir);
+        } finally {
+            pendingRetired.decrementAndGet();
+        }
+    }
+
+    /**
+     * 启动目录监听，插件目录中 jar 发生变化后等待 quietPeriod 无新变化再重载
+     */
+    public synchronized void watch(long quietPeriod, TimeUnit unit) throws IOException {
+        if (watcher != null) {
+            return;
+        }
+        Files.createDirectories(pluginDir);
+        WatchService ws = FileSystems.getDefault().newWatchService();
+        pluginDir.register(ws, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        long quietMillis = unit.toMillis(quietPeriod);
+        Thread t = new Thread(() -> watchLoop(ws, quietMillis), "plugin-watcher-" + service.getSimpleName());
+        t.setDaemon(true);
+        this.watchService = ws;
+        this.watcher = t;
+        t.start();
+    }
+
+    private void watchLoop(WatchService ws, long quietMillis) {
+        try {
+            for (; ; ) {
+                WatchKey key = ws.take();
+                boolean changed = drain(key);
+                // 合并一段时间内的连续变化（复制大 jar 会触发多次 MODIFY）
+                WatchKey more;
+                while ((more = ws.poll(quietMillis, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= drain(more);
+                }
+                if (changed) {
+                    try {
+                        reload();
+                    } catch (IOException | RuntimeException e) {
+                        fail("插件重载失败，继续使用第 " + getGeneration() + " 代", e);
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // 关闭监听
+        }
+    }
+
+    private static boolean drain(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            Object context = event.context();
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || (context instanceof Path && context.toString().endsWith(".jar"))) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    /**
+     * 停止监听，并在在途调用结束后释放当前插件
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (watchService != null) {
+                watchService.close();
+                watcher.interrupt();
+                watchService = null;
+                watcher = null;
+            }
+        }
+        synchronized (reloadLock) {
+            retire(current.getAndSet(new Snapshot<>(generation.incrementAndGet(), Collections.emptyList(), null, null)));
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(current.get().generation, current.get().providers.size(), reloadCount.get(),
+                lastReloadNanos.get(), totalReloadNanos.get(), dispatchCount.sum(), pendingRetired.get(), failureCount.sum());
+    }
+
+    private void deleteRecursively(Path dir) {
+        if (dir == null) {
+            return;
+        }
+        try {
+            Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    Files.deleteIfExists(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path d, IOException exc) throws IOException {
+                    Files.deleteIfExists(d);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            fail("删除影子目录失败: " + dir, e);
+        }
+    }
+
+    /**
+     * 一代不可变的提供者快照
+     */
+    private static final class Snapshot<S> {
+        final long generation;
+        final List<S> providers;
+        final URLClassLoader loader;
+        final Path shadowDir;
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicBoolean disposed = new AtomicBoolean();
+        volatile boolean retired;
+
+        Snapshot(long generation, List<S> providers, URLClassLoader loader, Path shadowDir) {
+            this.generation = generation;
+            this.providers = providers;
+            this.loader = loader;
+            this.shadowDir = shadowDir;
+        }
+    }
+
+    /**
+     * 子优先的插件类加载器
+     * <p>
+     * 插件 jar 中的类优先从插件自身加载，这样新版本的同名实现类可以覆盖旧版本；
+     * JDK 类、服务接口与共享 API 始终委托父加载器
+     */
+    static final class PluginClassLoader extends URLClassLoader {
+        private final String serviceName;
+
+        PluginClassLoader(URL[] urls, ClassLoader parent, String serviceName) {
+            super(urls, parent);
+            this.serviceName = serviceName;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (name.startsWith("java.") || name.startsWith("javax.") || name.equals(serviceName) || SHARED_API.contains(name)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> c = findLoadedClass(name);
+                if (c == null) {
+                    try {
+                        c = findClass(name);
+                    } catch (ClassNotFoundException e) {
+                        return super.loadClass(name, resolve);
+                    }
+                }
+                if (resolve) {
+                    resolveClass(c);
+                }
+                return c;
+            }
+        }
+    }
+
+    /**
+     * 后台失败回调，在监听线程、调用 reload() 的线程或释放线程上执行，不应阻塞
+     */
+    @FunctionalInterface
+    public interface FailureListener {
+
+        /**
+         * @param message 失败场景的描述
+         * @param error   原始异常
+         */
+        void onFailure(String message, Exception error);
+    }
+
+    /**
+     * 热加载统计信息
+     */
+    public static final class Stats {
+        private final long generation;
+        private final int providerCount;
+        private final long reloadCount;
+        private final long lastReloadNanos;
+        private final long totalReloadNanos;
+        private final long dispatchCount;
+        private final int pendingRetired;
+        private final long failureCount;
+
+        Stats(long generation, int providerCount, long reloadCount, long lastReloadNanos,
+              long totalReloadNanos, long dispatchCount, int pendingRetired, long failureCount) {
+            this.generation = generation;
+            this.providerCount = providerCount;
+            this.reloadCount = reloadCount;
+            this.lastReloadNanos = lastReloadNanos;
+            this.totalReloadNanos = totalReloadNanos;
+            this.dispatchCount = dispatchCount;
+            this.pendingRetired = pendingRetired;
+            this.failureCount = failureCount;
+        }
+
+        public long getGeneration() {
+            return generation;
+        }
+
+        public int getProviderCount() {
+            return providerCount;
+        }
+
+        public long getReloadCount() {
+            return reloadCount;
+        }
+
+        public long getLastReloadMicros() {
+            return TimeUnit.NANOSECONDS.toMicros(lastReloadNanos);
+        }
+
+        public long getAvgReloadMicros() {
+            return reloadCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalReloadNanos / reloadCount);
+        }
+
+        public long getDispatchCount() {
+            return dispatchCount;
+        }
+
+        /**
+         * 已被替换、尚未释放完成（仍有在途调用或正在后台释放）的旧快照数量
+         */
+        public int getPendingRetired() {
+            return pendingRetired;
+        }
+
+        /**
+         * 后台失败次数，见 {@link FailureListener}
+         */
+        public long getFailureCount() {
+            return failureCount;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{generation=" + generation + ", providers=" + providerCount + ", reloads=" + reloadCount
+                    + ", lastReload=" + getLastReloadMicros() + "us, avgReload=" + getAvgReloadMicros()
+                    + "us, dispatches=" + dispatchCount + ", pendingRetired=" + pendingRetired + ", failures=" + failureCount + "}";
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package god.github.haoer.godbase.spi;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁的对数-线性延迟直方图（HdrHistogram 的简化版）
+ *
+ * <p>每个 2 的幂区间再均分为 8 个子桶，相对误差不超过 12.5%，固定占用约 500 个 long，
+ * 记录一次只是几次原子自增，可以放在请求路径上。
+ * 超时或被取消的调用没有真实耗时，只计入 {@link #recordAbandoned()}，不参与百分位统计。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+    private final LongAdder abandoned = new LongAdder();
+
+    /**
+     * 记录一次耗时（纳秒），负数按 0 处理
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(indexOf(value));
+        count.increment();
+        sum.add(value);
+        long m;
+        while (value > (m = max.get()) && !max.compareAndSet(m, value)) {
+            // 重试
+        }
+    }
+
+    /**
+     * 记录一次超时或被取消、没有拿到真实耗时的调用
+     */
+    public void recordAbandoned() {
+        abandoned.increment();
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int exp = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exp - SUB_BITS)) & (SUB_COUNT - 1);
+        return (exp - SUB_BITS + 1) * SUB_COUNT + sub;
+    }
+
+    /**
+     * 桶的上界（包含）
+     */
+    static long upperBoundOf(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int exp = index / SUB_COUNT + SUB_BITS - 1;
+        int sub = index % SUB_COUNT;
+        long lower = (long) (SUB_COUNT + sub) << (exp - SUB_BITS);
+        return lower + (1L << (exp - SUB_BITS)) - 1;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * 超时或被取消的调用次数，不包含在 {@link #getCount()} 中
+     */
+    public long getAbandonedCount() {
+        return abandoned.sum();
+    }
+
+    public long getMaxNanos() {
+        return max.get();
+    }
+
+    public double getMeanNanos() {
+        long c = count.sum();
+        return c == 0 ? 0 : (double) sum.sum() / c;
+    }
+
+    /**
+     * 百分位数（纳秒），返回所在桶的上界
+     *
+     * @param percentile 0-100
+     */
+    public long getPercentileNanos(double percentile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d, abandoned=%d, mean=%.1fus, p50=%dus, p99=%dus, max=%dus", getCount(), getAbandonedCount(),
+                getMeanNanos() / 1000.0,
+                TimeUnit.NANOSECONDS.toMicros(getPercentileNanos(50)),
+                TimeUnit.NANOSECONDS.toMicros(getPercentileNanos(99)),
+                TimeUnit.NANOSECONDS.toMicros(getMaxNanos()));
+    }
+}
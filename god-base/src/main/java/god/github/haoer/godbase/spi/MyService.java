@@ -7,6 +7,7 @@ package god.github.haoer.godbase.spi;
  * @description: TODO
  * @date 2025/3/619:40
  */
+@SPI("a")
 public interface MyService {
 
    void execute();
@@ -7,6 +7,7 @@ package god.github.haoer.godbase.spi;
  * @description: TODO
  * @date 2025/3/619:41
  */
+@Extension(value = "a", order = 1)
 public class MyServiceImplA implements MyService {
 
     @Override
@@ -7,6 +7,7 @@ package god.github.haoer.godbase.spi;
  * @description: TODO
  * @date 2025/3/619:41
  */
+@Extension(value = "b", order = 2)
 public class MyServiceImplB implements MyService {
 
     @Override
@@ -0,0 +1,343 @@
+package god.github.haoer.godbase.spi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 并行、限时的 SPI 提供者初始化器
+ *
+ * <p>{@link java.util.ServiceLoader} 在调用线程上逐个实例化提供者，一个慢构造方法会拖住整个启动过程，
+ * 启动耗时是所有提供者耗时之和。本类先通过 {@link ServiceRegistry} 发现提供者（只拿类名），
+ * 再在一个有界线程池上并行完成实例化与 {@link Warmable#warmUp() 预热}：
+ * 1. 并行度有上限，避免插件过多时把机器打满
+ * 2. 每个提供者单独计时，超过 timeout 即判定超时并中断其线程，不再等待
+ * 3. 超过 slowThreshold 但在超时之前完成的提供者会被标记为"慢"
+ *
+ * <p>理想情况下启动耗时约等于最慢的那个提供者，而不是所有提供者之和。
+ * 初始化成功的实例同时缓存在 {@link ServiceRegistry.Provider} 中，之后的 get() 直接返回；
+ * 超时后才完成的实例不会进入缓存，实现了 {@link AutoCloseable} 的会被关闭。
+ * 每次初始化使用独立的工作线程池（挂死的提供者不会占用之后的调用），超时检测共用一个守护线程。
+ * 注意：没有构建期索引时注册表会退回 ServiceLoader，发现阶段就已串行实例化，并行只作用于预热。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public class ParallelServiceInitializer {
+
+    private static final AtomicInteger POOL_SEQ = new AtomicInteger();
+
+    /**
+     * 所有初始化共用的超时检测线程，任务完成时取消的回调立即从队列移除
+     */
+    private static final ScheduledThreadPoolExecutor WATCHDOG = newWatchdog();
+
+    private final int parallelism;
+    private final long timeoutNanos;
+    private final long slowThresholdNanos;
+
+    /**
+     * @param parallelism       并行线程数上限
+     * @param timeout           单个提供者的超时时间
+     * @param slowThreshold     超过该耗时即判定为慢提供者
+     * @param unit              时间单位
+     */
+    public ParallelServiceInitializer(int parallelism, long timeout, long slowThreshold, TimeUnit unit) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism 必须大于0: " + parallelism);
+        }
+        if (timeout <= 0 || slowThreshold < 0) {
+            throw new IllegalArgumentException("timeout 必须大于0，slowThreshold 不能为负数");
+        }
+        this.parallelism = parallelism;
+        this.timeoutNanos = unit.toNanos(timeout);
+        this.slowThresholdNanos = unit.toNanos(slowThreshold);
+    }
+
+    /**
+     * 并行实例化并预热注册表中的全部提供者，返回每个提供者的状态
+     */
+    public <S> Report<S> initialize(ServiceRegistry<S> registry) {
+        List<ServiceRegistry.Provider<S>> providers = registry.providers();
+        int seq = POOL_SEQ.incrementAndGet();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallelism, Math.max(1, providers.size())),
+                daemonFactory("spi-init-" + seq + "-"));
+        long start = System.nanoTime();
+        try {
+            List<CompletableFuture<Result<S>>> futures = new ArrayList<>(providers.size());
+            for (ServiceRegistry.Provider<S> provider : providers) {
+                CompletableFuture<Result<S>> future = new CompletableFuture<>();
+                pool.execute(new InitTask<>(provider, future));
+                futures.add(future);
+            }
+            List<Result<S>> results = new ArrayList<>(futures.size());
+            for (CompletableFuture<Result<S>> future : futures) {
+                results.add(future.get());
+            }
+            return new Report<>(registry.service(), results, System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("初始化被中断", e);
+        } catch (ExecutionException e) {
+            // InitTask 总是以 Result 正常完成 future，走到这里说明出现了意料之外的错误
+            throw new IllegalStateException("初始化失败", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static ScheduledThreadPoolExecutor newWatchdog() {
+        ScheduledThreadPoolExecutor watchdog = new ScheduledThreadPoolExecutor(1, daemonFactory("spi-init-watchdog-"));
+        watchdog.setRemoveOnCancelPolicy(true);
+        return watchdog;
+    }
+
+    /**
+     * 丢弃超时后才创建完成、或者没能成为单例的实例
+     */
+    private static void discard(Object instance) {
+        if (instance instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) instance).close();
+            } catch (Exception e) {
+                // 实例已被丢弃，关闭失败不影响初始化结果
+            }
+        }
+    }
+
+    private static ThreadFactory daemonFactory(String prefix) {
+        AtomicInteger index = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + index.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /**
+     * 单个提供者的初始化任务
+     * <p>
+     * 任务开始时向 watchdog 注册超时回调；任务与回调在同一把锁下争夺结果，先到者生效。
+     * 回调只会在任务仍在运行时中断线程，避免误伤线程池中的下一个任务；
+     * 任务先完成时取消回调，超时后才完成的实例不会发布到 {@link ServiceRegistry.Provider}。
+     */
+    private final class InitTask<S> implements Runnable {
+        private final ServiceRegistry.Provider<S> provider;
+        private final CompletableFuture<Result<S>> future;
+        private boolean running;
+        private boolean timedOut;
+
+        InitTask(ServiceRegistry.Provider<S> provider, CompletableFuture<Result<S>> future) {
+            this.provider = provider;
+            this.future = future;
+        }
+
+        @Override
+        public void run() {
+            final Thread worker = Thread.currentThread();
+            synchronized (this) {
+                running = true;
+            }
+            ScheduledFuture<?> timeoutTask = WATCHDOG.schedule(() -> onTimeout(worker), timeoutNanos, TimeUnit.NANOSECONDS);
+
+            long begin = System.nanoTime();
+            boolean cached = provider.isInstantiated();
+            S instance = null;
+            Throwable error = null;
+            try {
+                // 先创建但不缓存，确认没有超时后再发布为单例
+                instance = cached ? provider.get() : provider.instantiate();
+                if (instance instanceof Warmable) {
+                    ((Warmable) instance).warmUp();
+                }
+            } catch (Throwable e) {
+                error = e;
+            }
+            long elapsed = System.nanoTime() - begin;
+
+            boolean late;
+            synchronized (this) {
+                running = false;
+                late = timedOut;
+                if (late) {
+                    // 只清除超时回调设置的中断标记，线程池 shutdownNow 的中断留给线程池处理
+                    Thread.interrupted();
+                }
+            }
+            if (late) {
+                if (!cached) {
+                    discard(instance);
+                }
+                return;
+            }
+            timeoutTask.cancel(false);
+
+            if (error != null) {
+                if (!cached) {
+                    discard(instance);
+                }
+                future.complete(new Result<>(provider.name(), State.FAILED, null, elapsed, error));
+                return;
+            }
+            if (!cached) {
+                S published = provider.publish(instance);
+                if (published != instance) {
+                    // 初始化期间其它线程已经通过 get() 创建了单例，以单例为准
+                    discard(instance);
+                    instance = published;
+                }
+            }
+            future.complete(new Result<>(provider.name(), elapsed > slowThresholdNanos ? State.SLOW : State.OK, instance, elapsed, null));
+        }
+
+        private void onTimeout(Thread worker) {
+            synchronized (this) {
+                if (!running) {
+                    return;
+                }
+                timedOut = true;
+                worker.interrupt();
+            }
+            future.complete(new Result<>(provider.name(), State.TIMED_OUT, null, timeoutNanos,
+                    new TimeoutException("超过 " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + "ms 未完成")));
+        }
+    }
+
+    /**
+     * 提供者初始化状态
+     */
+    public enum State {
+        /** 正常完成 */
+        OK,
+        /** 完成但超过慢阈值 */
+        SLOW,
+        /** 构造或预热抛出异常 */
+        FAILED,
+        /** 超时未完成 */
+        TIMED_OUT
+    }
+
+    /**
+     * 单个提供者的初始化结果
+     */
+    public static final class Result<S> {
+        private final String name;
+        private final State state;
+        private final S instance;
+        private final long elapsedNanos;
+        private final Throwable error;
+
+        Result(String name, State state, S instance, long elapsedNanos, Throwable error) {
+            this.name = name;
+            this.state = state;
+            this.instance = instance;
+            this.elapsedNanos = elapsedNanos;
+            this.error = error;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        /**
+         * 初始化成功（OK 或 SLOW）时的实例，否则为 null
+         */
+        public S getInstance() {
+            return instance;
+        }
+
+        public long getElapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        }
+
+        public Throwable getError() {
+            return error;
+        }
+
+        public boolean isSuccess() {
+            return state == State.OK || state == State.SLOW;
+        }
+
+        @Override
+        public String toString() {
+            return name + " " + state + " " + getElapsedMillis() + "ms" + (error != null ? " (" + error + ")" : "");
+        }
+    }
+
+    /**
+     * 一次并行初始化的汇总报告
+     */
+    public static final class Report<S> {
+        private final Class<S> service;
+        private final List<Result<S>> results;
+        private final long totalNanos;
+
+        Report(Class<S> service, List<Result<S>> results, long totalNanos) {
+            this.service = service;
+            this.results = Collections.unmodifiableList(results);
+            this.totalNanos = totalNanos;
+        }
+
+        /**
+         * 全部结果，顺序与注册表中的声明顺序一致
+         */
+        public List<Result<S>> getResults() {
+            return results;
+        }
+
+        /**
+         * 初始化成功的实例，按声明顺序
+         */
+        public List<S> getInstances() {
+            List<S> instances = new ArrayList<>(results.size());
+            for (Result<S> result : results) {
+                if (result.isSuccess()) {
+                    instances.add(result.getInstance());
+                }
+            }
+            return instances;
+        }
+
+        /**
+         * 慢提供者、失败和超时的提供者
+         */
+        public List<Result<S>> getProblems() {
+            List<Result<S>> problems = new ArrayList<>();
+            for (Result<S> result : results) {
+                if (result.getState() != State.OK) {
+                    problems.add(result);
+                }
+            }
+            return problems;
+        }
+
+        public long getTotalMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(totalNanos);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(service.getName())
+                    .append(" 并行初始化 ").append(results.size()).append(" 个提供者，总耗时 ")
+                    .append(getTotalMillis()).append("ms");
+            for (Result<S> result : results) {
+                sb.append("\n - ").append(result);
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package god.github.haoer.godbase.spi;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 提供者构造参数上下文
+ *
+ * <p>原生 SPI 只能调用无参构造方法，提供者只好在 execute() 里懒加载静态配置。
+ * 通过本上下文可以按类型注册配置对象、共享线程池等依赖，{@link ProviderFactories}
+ * 会据此选择提供者的构造方法并注入参数。
+ *
+ * <p>不可变对象，{@link #with(Class, Object)} 返回新实例，可在多线程间共享。
+ *
+ * <pre>
+ * ProviderContext context = ProviderContext.empty()
+ *         .with(ExecutorService.class, sharedExecutor)
+ *         .with(MyConfig.class, config);
+ * </pre>
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class ProviderContext {
+
+    private static final ProviderContext EMPTY = new ProviderContext(Collections.emptyMap());
+
+    private final Map<Class<?>, Object> values;
+
+    private ProviderContext(Map<Class<?>, Object> values) {
+        this.values = values;
+    }
+
+    public static ProviderContext empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 注册一个依赖，返回新的上下文
+     *
+     * @param type  依赖类型，构造方法参数按该类型匹配
+     * @param value 依赖对象，不能为 null
+     */
+    public <T> ProviderContext with(Class<T> type, T value) {
+        if (value == null) {
+            throw new IllegalArgumentException(type.getName() + " 的值不能为 null");
+        }
+        Map<Class<?>, Object> copy = new LinkedHashMap<>(values);
+        copy.put(type, type.cast(value));
+        return new ProviderContext(Collections.unmodifiableMap(copy));
+    }
+
+    /**
+     * 按类型查找依赖：先精确匹配，再查找可赋值的子类型；找不到返回 null
+     */
+    public <T> T resolve(Class<T> type) {
+        Object value = values.get(type);
+        if (value == null) {
+            for (Map.Entry<Class<?>, Object> entry : values.entrySet()) {
+                if (type.isAssignableFrom(entry.getKey())) {
+                    value = entry.getValue();
+                    break;
+                }
+            }
+        }
+        return type.cast(value);
+    }
+
+    public boolean canResolve(Class<?> type) {
+        return resolve(type) != null;
+    }
+
+    @Override
+    public String toString() {
+        return "ProviderContext" + values.keySet();
+    }
+}
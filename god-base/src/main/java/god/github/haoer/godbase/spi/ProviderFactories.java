@@ -0,0 +1,82 @@
+package god.github.haoer.godbase.spi;
+
+import god.github.haoer.godbase.reflection.ObjectFactories;
+import god.github.haoer.godbase.reflection.ObjectFactory;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * 提供者工厂编译器
+ *
+ * <p>原生 SPI 通过 Constructor.newInstance 反射创建对象，而且只支持无参构造方法。
+ * 本类为提供者"编译"一个 {@link ObjectFactory}：
+ * 1. 选择构造方法：在所有 public 构造方法中，选参数最多且每个参数都能从 {@link ProviderContext} 按类型解析的那个
+ * 2. 解析参数：编译时一次性解析，之后每次创建都复用，不再查找
+ * 3. 生成工厂：交给 {@link ObjectFactories#forConstructor(Constructor, Object...)}，
+ *    优先用 LambdaMetafactory 生成直接 new 目标类的实现，目标类不可见时退回绑定了参数的 MethodHandle；
+ *    两种方式都把构造方法抛出的受检异常包装为 {@link IllegalStateException}
+ *
+ * <p>直接返回 {@link ObjectFactories} 生成的工厂，不再包一层适配：每个提供者类型各有一个生成的实现类，
+ * 调用方的 newInstance() 调用点不会因为共用一个适配 lambda 而变成多态。
+ *
+ * <p>编译本身有一定成本（生成类、查找构造方法），应缓存返回的工厂，按请求调用 {@link ObjectFactory#newInstance()}。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class ProviderFactories {
+
+    private ProviderFactories() {
+    }
+
+    /**
+     * 为无参构造方法编译工厂
+     */
+    public static <T> ObjectFactory<T> compile(Class<T> type) {
+        return compile(type, ProviderContext.empty());
+    }
+
+    /**
+     * 为指定类型编译工厂，构造参数从上下文中按类型解析
+     *
+     * @throws IllegalArgumentException 没有可以满足的 public 构造方法
+     */
+    public static <T> ObjectFactory<T> compile(Class<T> type, ProviderContext context) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            throw new IllegalArgumentException(type.getName() + " 是接口或抽象类，无法实例化");
+        }
+        Constructor<T> constructor = selectConstructor(type, context);
+        Class<?>[] parameterTypes = constructor.getParameterTypes();
+        Object[] args = new Object[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            args[i] = context.resolve(parameterTypes[i]);
+        }
+        return ObjectFactories.forConstructor(constructor, args);
+    }
+
+    /**
+     * 选择参数最多且可以满足的构造方法
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Constructor<T> selectConstructor(Class<T> type, ProviderContext context) {
+        Constructor<?>[] constructors = type.getConstructors();
+        Arrays.sort(constructors, Comparator.comparingInt((Constructor<?> c) -> c.getParameterCount()).reversed());
+        for (Constructor<?> constructor : constructors) {
+            boolean satisfied = true;
+            for (Class<?> parameterType : constructor.getParameterTypes()) {
+                if (!context.canResolve(parameterType)) {
+                    satisfied = false;
+                    break;
+                }
+            }
+            if (satisfied) {
+                // getConstructors() 只返回 type 自身声明的构造方法
+                return (Constructor<T>) constructor;
+            }
+        }
+        throw new IllegalArgumentException(type.getName() + ": 没有可以用 " + context + " 满足的 public 构造方法");
+    }
+}
@@ -0,0 +1,26 @@
+package god.github.haoer.godbase.spi;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记一个扩展点接口
+ *
+ * <p>{@link #value()} 为默认扩展名，{@link ExtensionLoader#getDefaultExtension()} 据此返回默认实现。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface SPI {
+
+    /**
+     * 默认扩展名，为空时取排序后的第一个实现
+     */
+    String value() default "";
+}
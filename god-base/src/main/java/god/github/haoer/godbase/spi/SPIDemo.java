@@ -1,6 +1,12 @@
 package god.github.haoer.godbase.spi;
 
+import god.github.haoer.godbase.reflection.ObjectFactory;
+
+import java.util.List;
 import java.util.ServiceLoader;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * SPI (Service Provider Interface) 机制示例
@@ -27,14 +33,22 @@ import java.util.ServiceLoader;
  *
  * <p>SPI 可能存在的问题：
  * 🚨 无法按优先级加载（默认是 按照 ServiceLoader 加载顺序执行）。
+ *    → {@link ExtensionLoader}：按 {@link Extension} 的名称 O(1) 查找、按 order 排序，支持默认实现。
  * 🚨 存在性能开销（每次都会遍历 META-INF/services 目录下的文件，影响启动速度）。
+ *    → {@link ServiceRegistry}：构建期生成索引，运行期只读一个资源，并按需实例化。
  * 🚨 无法传递参数（SPI 只支持无参构造方法，无法动态传参）。
+ *    → {@link ProviderContext} + {@link ProviderFactories}：按类型注入构造参数，用 LambdaMetafactory 编译工厂。
  *
  * <p>本示例展示了如何：
  * 1. 定义服务接口 {@link MyService}
  * 2. 提供两个实现 {@link MyServiceImplA} 和 {@link MyServiceImplB}
  * 3. 配置META-INF/services/god.github.haoer.godbase.spi.MyService
  * 4. 使用ServiceLoader加载并遍历所有实现
+ * 5. 使用基于构建期索引的 {@link ServiceRegistry} 加载实现
+ * 6. 使用 {@link ExtensionLoader} 按名称、按优先级获取实现
+ * 7. 使用 {@link ParallelServiceInitializer} 并行、限时地初始化全部实现
+ * 8. 使用 {@link ProviderFactories} 编译工厂，按请求创建新实例
+ * 9. 使用 {@link AsyncFanOutExecutor} 并行调用所有实现并统计各自延迟
  *
  * @author zhaozuhao
  * @date 2025/3/619:45
@@ -46,5 +60,34 @@ public class SPIDemo {
         for (MyService spiDemo : spiDemos) {
             spiDemo.execute();
         }
+
+        ServiceRegistry<MyService> registry = ServiceRegistry.load(MyService.class);
+        System.out.println(registry);
+        for (ServiceRegistry.Provider<MyService> provider : registry.providers()) {
+            System.out.println(provider.name() + " 已实例化: " + provider.isInstantiated());
+            provider.get().execute();
+        }
+
+        ExtensionLoader<MyService> extensionLoader = ExtensionLoader.load(MyService.class);
+        System.out.println("扩展名（按优先级）: " + extensionLoader.getSupportedExtensions());
+        extensionLoader.getExtension("b").execute();
+        extensionLoader.getDefaultExtension().execute();
+
+        ParallelServiceInitializer initializer = new ParallelServiceInitializer(4, 3000, 500, TimeUnit.MILLISECONDS);
+        System.out.println(initializer.initialize(registry));
+
+        ObjectFactory<MyServiceImplB> factory = ProviderFactories.compile(MyServiceImplB.class);
+        MyService perRequest = factory.newInstance();
+        perRequest.execute();
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            AsyncFanOutExecutor fanOut = new AsyncFanOutExecutor(pool);
+            List<AsyncFanOutExecutor.Outcome> outcomes = fanOut.fanOut(registry, MyService::execute, 1, TimeUnit.SECONDS).join();
+            System.out.println("扇出结果: " + outcomes);
+            System.out.println("延迟统计: " + fanOut.getHistograms());
+        } finally {
+            pool.shutdown();
+        }
     }
 }
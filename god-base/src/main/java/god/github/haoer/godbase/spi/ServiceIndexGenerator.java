@@ -0,0 +1,86 @@
+package god.github.haoer.godbase.spi;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * SPI 索引生成器（构建期执行）
+ *
+ * <p>在 Maven 的 process-classes 阶段由 exec-maven-plugin 调用，读取编译输出目录中
+ * META-INF/services 下的全部配置文件，合并去重后写入 {@link ServiceRegistry#INDEX_PREFIX} 目录。
+ * 运行期 {@link ServiceRegistry} 只需读取一个索引资源，不再枚举整个 classpath 上的
+ * META-INF/services 文件。
+ *
+ * <p>用法：
+ * <pre>
+ * java god.github.haoer.godbase.spi.ServiceIndexGenerator &lt;输出目录&gt; [其他classes目录...]
+ * </pre>
+ * 第一个参数既是索引的写出位置，也是第一个扫描目录；后续参数只参与扫描。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public class ServiceIndexGenerator {
+
+    private static final String SERVICES_DIR = "META-INF/services";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("用法: ServiceIndexGenerator <outputDirectory> [classesDirectory...]");
+        }
+        Path output = Paths.get(args[0]);
+
+        // 接口全限定名 -> 实现类（保持配置文件中的声明顺序）
+        Map<String, Set<String>> services = new TreeMap<>();
+        for (String root : args) {
+            collect(Paths.get(root).resolve(SERVICES_DIR), services);
+        }
+
+        Path indexDir = output.resolve(ServiceRegistry.INDEX_PREFIX);
+        Files.createDirectories(indexDir);
+        for (Map.Entry<String, Set<String>> entry : services.entrySet()) {
+            Path indexFile = indexDir.resolve(entry.getKey());
+            try (BufferedWriter writer = Files.newBufferedWriter(indexFile, StandardCharsets.UTF_8)) {
+                writer.write("# generated by ServiceIndexGenerator, do not edit");
+                writer.newLine();
+                for (String provider : entry.getValue()) {
+                    writer.write(provider);
+                    writer.newLine();
+                }
+            }
+            System.out.println("SPI索引: " + entry.getKey() + " -> " + entry.getValue().size() + " 个实现");
+        }
+    }
+
+    /**
+     * 读取一个 META-INF/services 目录下的所有配置文件
+     */
+    private static void collect(Path servicesDir, Map<String, Set<String>> services) throws IOException {
+        if (!Files.isDirectory(servicesDir)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(servicesDir)) {
+            for (Path file : files) {
+                if (!Files.isRegularFile(file)) {
+                    continue;
+                }
+                Set<String> providers = services.computeIfAbsent(file.getFileName().toString(), k -> new LinkedHashSet<>());
+                for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    String provider = ServiceRegistry.parseLine(line);
+                    if (provider != null) {
+                        providers.add(provider);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,434 @@
+package god.github.haoer.godbase.spi;
+
+import god.github.haoer.godbase.reflection.ObjectFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 基于构建期索引的服务注册表
+ *
+ * <p>{@link ServiceLoader} 每次 load 都要通过 ClassLoader#getResources 枚举 classpath 上所有的
+ * META-INF/services 文件，提供者越多、jar 越多，启动越慢。本注册表做了以下改进：
+ * 1. 构建期由 {@link ServiceIndexGenerator} 为每个产物把配置合并成一个索引文件，运行期只读取索引，不实例化提供者
+ * 2. 同一个 ClassLoader 下每个服务接口只解析一次索引，结果缓存复用
+ * 3. 只记录实现类名，真正的实例在第一次 {@link Provider#get()} 时才创建（单例）
+ * 4. 实例通过 {@link ProviderFactories} 编译出的工厂创建，构造参数可由 {@link #setContext(ProviderContext)} 注入
+ *
+ * <p>找不到索引时（例如没有执行构建插件直接在 IDE 里运行），退回到 {@link ServiceLoader}，
+ * 此时提供者会在第一次访问时全部实例化，行为与原始 SPI 一致。
+ *
+ * <p>classpath 上每个 jar / 目录都可以带自己的索引，运行期合并所有同名索引并按出现顺序去重。
+ * 只要有一个提供了 META-INF/services 配置的 jar 没有对应的索引，就整体退回 {@link ServiceLoader}，
+ * 保证不会漏掉提供者。
+ *
+ * @param <S> 服务接口类型
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class ServiceRegistry<S> implements Iterable<S> {
+
+    /**
+     * 索引文件所在目录，文件名为服务接口的全限定名，格式与 META-INF/services 一致
+     */
+    public static final String INDEX_PREFIX = "META-INF/service-index/";
+
+    private static final String SERVICES_PREFIX = "META-INF/services/";
+
+    /**
+     * 服务接口 -> (ClassLoader -> 注册表)
+     * <p>
+     * 缓存挂在服务接口的 Class 上（{@link ClassValue}），接口所在的类加载器被卸载时缓存随之回收。
+     * 注册表强引用类加载器和实现类，因此只缓存本来就会被接口或应用类加载器钉住的类加载器，见 {@link #isCacheable}
+     */
+    private static final ClassValue<ConcurrentMap<ClassLoader, ServiceRegistry<?>>> REGISTRIES =
+            new ClassValue<ConcurrentMap<ClassLoader, ServiceRegistry<?>>>() {
+                @Override
+                protected ConcurrentMap<ClassLoader, ServiceRegistry<?>> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    private final Class<S> service;
+    private final ClassLoader loader;
+    private final boolean indexed;
+    private volatile List<Provider<S>> providers;
+    private volatile ProviderContext context = ProviderContext.empty();
+    private volatile ExtensionLoader<S> extensionLoader;
+
+    private ServiceRegistry(Class<S> service, ClassLoader loader, List<String> indexedNames) {
+        this.service = service;
+        this.loader = loader;
+        this.indexed = indexedNames != null;
+        if (indexed) {
+            List<Provider<S>> list = new ArrayList<>(indexedNames.size());
+            for (String name : indexedNames) {
+                list.add(new Provider<>(this, name));
+            }
+            this.providers = Collections.unmodifiableList(list);
+        }
+    }
+
+    /**
+     * 使用线程上下文类加载器获取注册表，与 {@link ServiceLoader#load(Class)} 语义一致
+     */
+    public static <S> ServiceRegistry<S> load(Class<S> service) {
+        return load(service, Thread.currentThread().getContextClassLoader());
+    }
+
+    /**
+     * 获取指定类加载器下的注册表，同一个类加载器只会解析一次索引
+     *
+     * <p>只有接口自身的类加载器及其祖先、系统类加载器及其祖先会进入缓存；
+     * 其它类加载器（例如插件类加载器）每次都返回新的注册表，调用方应自行持有，避免缓存钉住可卸载的类加载器
+     *
+     * @param service 服务接口
+     * @param loader  类加载器，为 null 时使用系统类加载器
+     */
+    @SuppressWarnings("unchecked")
+    public static <S> ServiceRegistry<S> load(Class<S> service, ClassLoader loader) {
+        ClassLoader cl = loader != null ? loader : ClassLoader.getSystemClassLoader();
+        if (!isCacheable(service, cl)) {
+            return create(service, cl);
+        }
+        return (ServiceRegistry<S>) REGISTRIES.get(service).computeIfAbsent(cl, k -> create(service, cl));
+    }
+
+    /**
+     * 类加载器本来就被接口类或系统类加载器强引用时（位于二者的父链上），缓存不会延长它的生命周期
+     */
+    private static boolean isCacheable(Class<?> service, ClassLoader loader) {
+        return isAncestor(loader, service.getClassLoader()) || isAncestor(loader, ClassLoader.getSystemClassLoader());
+    }
+
+    private static boolean isAncestor(ClassLoader candidate, ClassLoader from) {
+        for (ClassLoader cl = from; cl != null; cl = cl.getParent()) {
+            if (cl == candidate) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 创建一个不进入缓存的注册表，适用于用完即丢弃的类加载器（例如热加载插件）
+     */
+    public static <S> ServiceRegistry<S> create(Class<S> service, ClassLoader loader) {
+        return new ServiceRegistry<>(service, loader, readIndex(service, loader));
+    }
+
+    /**
+     * 合并 classpath 上所有构建期生成的索引；没有索引，或者有 META-INF/services 配置的位置缺少索引时返回 null
+     */
+    private static List<String> readIndex(Class<?> service, ClassLoader loader) {
+        String indexName = INDEX_PREFIX + service.getName();
+        Set<String> indexed = new HashSet<>();
+        Set<String> names = new LinkedHashSet<>();
+        try {
+            Enumeration<URL> indexes = loader.getResources(indexName);
+            while (indexes.hasMoreElements()) {
+                URL url = indexes.nextElement();
+                indexed.add(root(url, indexName));
+                readNames(url, names);
+            }
+            if (indexed.isEmpty()) {
+                return null;
+            }
+            String servicesName = SERVICES_PREFIX + service.getName();
+            Enumeration<URL> configs = loader.getResources(servicesName);
+            while (configs.hasMoreElements()) {
+                if (!indexed.contains(root(configs.nextElement(), servicesName))) {
+                    return null;
+                }
+            }
+        } catch (IOException e) {
+            throw new ServiceConfigurationError(service.getName() + ": 读取索引失败", e);
+        }
+        return new ArrayList<>(names);
+    }
+
+    /**
+     * 资源所在的 jar 或目录，例如 jar:file:/a.jar!/META-INF/services/X → jar:file:/a.jar!/
+     */
+    private static String root(URL url, String resource) {
+        String s = url.toString();
+        return s.endsWith(resource) ? s.substring(0, s.length() - resource.length()) : s;
+    }
+
+    private static void readNames(URL url, Set<String> names) throws IOException {
+        try (InputStream in = url.openStream();
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String name = parseLine(line);
+                if (name != null) {
+                    names.add(name);
+                }
+            }
+        } catch (IOException e) {
+            throw new IOException("读取索引失败 " + url, e);
+        }
+    }
+
+    /**
+     * 解析配置文件中的一行：去掉 # 注释和首尾空白，空行返回 null
+     */
+    static String parseLine(String line) {
+        int comment = line.indexOf('#');
+        if (comment >= 0) {
+            line = line.substring(0, comment);
+        }
+        line = line.trim();
+        return line.isEmpty() ? null : line;
+    }
+
+    /**
+     * 没有索引时通过 ServiceLoader 发现并实例化全部提供者
+     */
+    private List<Provider<S>> loadWithServiceLoader() {
+        List<Provider<S>> list = new ArrayList<>();
+        for (S instance : ServiceLoader.load(service, loader)) {
+            list.add(new Provider<>(this, instance));
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * 所有提供者（按索引声明顺序），此方法本身不会实例化任何提供者（回退模式除外）
+     */
+    public List<Provider<S>> providers() {
+        List<Provider<S>> list = providers;
+        if (list == null) {
+            synchronized (this) {
+                list = providers;
+                if (list == null) {
+                    providers = list = loadWithServiceLoader();
+                }
+            }
+        }
+        return list;
+    }
+
+    public Class<S> service() {
+        return service;
+    }
+
+    public ClassLoader classLoader() {
+        return loader;
+    }
+
+    public ProviderContext getContext() {
+        return context;
+    }
+
+    /**
+     * 设置构造参数上下文，只影响之后才实例化的提供者
+     *
+     * @throws IllegalStateException 已有提供者实例化时再设置
+     */
+    public void setContext(ProviderContext context) {
+        synchronized (this) {
+            List<Provider<S>> list = providers;
+            if (list != null) {
+                for (Provider<S> provider : list) {
+                    if (provider.isInstantiated()) {
+                        throw new IllegalStateException(service.getName() + ": " + provider.name() + " 已经实例化，不能再修改上下文");
+                    }
+                }
+            }
+            this.context = context;
+        }
+    }
+
+    /**
+     * 与本注册表同生命周期的扩展加载器，随注册表一起回收
+     */
+    ExtensionLoader<S> extensionLoader() {
+        ExtensionLoader<S> el = extensionLoader;
+        if (el == null) {
+            synchronized (this) {
+                el = extensionLoader;
+                if (el == null) {
+                    extensionLoader = el = new ExtensionLoader<>(this);
+                }
+            }
+        }
+        return el;
+    }
+
+    /**
+     * 是否命中了构建期索引；false 表示走的是 ServiceLoader 回退
+     */
+    public boolean isIndexed() {
+        return indexed;
+    }
+
+    /**
+     * 按声明顺序遍历提供者实例，遍历到哪个才实例化哪个
+     */
+    @Override
+    public Iterator<S> iterator() {
+        final Iterator<Provider<S>> it = providers().iterator();
+        return new Iterator<S>() {
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public S next() {
+                if (!it.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return it.next().get();
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "ServiceRegistry[" + service.getName() + ", indexed=" + indexed + "]";
+    }
+
+    /**
+     * 单个提供者的懒加载句柄
+     *
+     * @param <S> 服务接口类型
+     */
+    public static final class Provider<S> {
+        private final ServiceRegistry<S> registry;
+        private final String name;
+        private volatile Class<? extends S> type;
+        private volatile S instance;
+        private volatile ObjectFactory<? extends S> factory;
+
+        Provider(ServiceRegistry<S> registry, String name) {
+            this.registry = registry;
+            this.name = name;
+        }
+
+        @SuppressWarnings("unchecked")
+        Provider(ServiceRegistry<S> registry, S instance) {
+            this.registry = registry;
+            this.name = instance.getClass().getName();
+            this.type = (Class<? extends S>) instance.getClass();
+            this.instance = instance;
+        }
+
+        /**
+         * 实现类的全限定名
+         */
+        public String name() {
+            return name;
+        }
+
+        /**
+         * 加载（但不初始化）实现类
+         */
+        public Class<? extends S> type() {
+            Class<? extends S> t = type;
+            if (t == null) {
+                Class<S> service = registry.service;
+                try {
+                    Class<?> c = Class.forName(name, false, registry.loader);
+                    if (!service.isAssignableFrom(c)) {
+                        throw new ServiceConfigurationError(service.getName() + ": " + name + " 不是该接口的实现");
+                    }
+                    type = t = c.asSubclass(service);
+                } catch (ClassNotFoundException e) {
+                    throw new ServiceConfigurationError(service.getName() + ": 找不到实现类 " + name, e);
+                }
+            }
+            return t;
+        }
+
+        /**
+         * 获取实例，第一次调用时才创建，之后始终返回同一个对象
+         */
+        public S get() {
+            S s = instance;
+            if (s == null) {
+                synchronized (this) {
+                    s = instance;
+                    if (s == null) {
+                        instance = s = newInstance();
+                    }
+                }
+            }
+            return s;
+        }
+
+        /**
+         * 创建一个新实例但不缓存，需要先完成额外步骤（如限时预热）再决定是否发布时使用
+         */
+        S instantiate() {
+            return newInstance();
+        }
+
+        /**
+         * 尚未实例化时把 candidate 发布为单例，返回最终生效的单例
+         */
+        S publish(S candidate) {
+            synchronized (this) {
+                S s = instance;
+                if (s == null) {
+                    instance = s = candidate;
+                }
+                return s;
+            }
+        }
+
+        /**
+         * 是否已经实例化
+         */
+        public boolean isInstantiated() {
+            return instance != null;
+        }
+
+        /**
+         * 使用注册表上下文编译的工厂，用于按需创建新实例（非单例），结果会被缓存
+         */
+        public ObjectFactory<? extends S> factory() {
+            ObjectFactory<? extends S> f = factory;
+            if (f == null) {
+                try {
+                    factory = f = ProviderFactories.compile(type(), registry.context);
+                } catch (RuntimeException e) {
+                    throw new ServiceConfigurationError(registry.service.getName() + ": 无法为 " + name + " 生成工厂", e);
+                }
+            }
+            return f;
+        }
+
+        private S newInstance() {
+            ObjectFactory<? extends S> f = factory();
+            try {
+                return f.newInstance();
+            } catch (RuntimeException e) {
+                throw new ServiceConfigurationError(registry.service.getName() + ": 实例化失败 " + name, e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Provider[" + name + "]";
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package god.github.haoer.godbase.spi;
+
+/**
+ * 可预热的服务提供者
+ *
+ * <p>实现该接口的提供者会在 {@link ParallelServiceInitializer} 实例化之后立刻执行 {@link #warmUp()}，
+ * 适合做建立连接、加载缓存、触发 JIT 等耗时的准备工作，避免把这些成本留到第一次请求。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public interface Warmable {
+
+    /**
+     * 预热，抛出异常视为初始化失败
+     */
+    void warmUp() throws Exception;
+}
@@ -0,0 +1,313 @@
+package god.github.haoer.godbase.store;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * 不可变的哈希数组映射字典树（HAMT）
+ *
+ * <p>每层用键哈希的 5 位选择分支，节点用 32 位位图标记存在的分支，数组只存实际存在的分支（按位图中的序号压缩）。
+ * 修改时只复制从根到目标叶子的路径（最多 7 层），其余节点与旧版本共享；旧版本不再被引用后由 GC 回收。
+ * 哈希完全相同的键放在冲突节点中线性查找。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+final class PersistentHashMap<K, V> {
+
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentHashMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(K key) {
+        if (root == null) {
+            return null;
+        }
+        Leaf leaf = root.find(key, hash(key), 0);
+        return leaf == null ? null : (V) leaf.value;
+    }
+
+    /**
+     * 返回包含该映射的新版本，原版本不变
+     */
+    PersistentHashMap<K, V> plus(K key, V value) {
+        int hash = hash(key);
+        Leaf leaf = new Leaf(key, hash, value);
+        if (root == null) {
+            return new PersistentHashMap<>(new BitmapNode(0, new Object[0]).put(leaf, 0, new boolean[1]), 1);
+        }
+        boolean[] added = new boolean[1];
+        Node newRoot = root.put(leaf, 0, added);
+        return new PersistentHashMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * 返回去掉该键的新版本，键不存在时返回自身
+     */
+    PersistentHashMap<K, V> minus(K key) {
+        if (root == null) {
+            return this;
+        }
+        Node newRoot = root.remove(key, hash(key), 0);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentHashMap<>(newRoot, size - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    void forEach(BiConsumer<? super K, ? super V> action) {
+        if (root != null) {
+            root.forEach((BiConsumer<Object, Object>) action);
+        }
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Leaf {
+        final Object key;
+        final int hash;
+        final Object value;
+
+        Leaf(Object key, int hash, Object value) {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+        }
+    }
+
+    private abstract static class Node {
+        abstract Leaf find(Object key, int hash, int shift);
+
+        abstract Node put(Leaf leaf, int shift, boolean[] added);
+
+        /**
+         * @return 删除后的节点，为空时返回 null，键不存在时返回自身
+         */
+        abstract Node remove(Object key, int hash, int shift);
+
+        abstract void forEach(BiConsumer<Object, Object> action);
+    }
+
+    /**
+     * 数组元素是 Leaf 或子 Node
+     */
+    private static final class BitmapNode extends Node {
+        final int bitmap;
+        final Object[] slots;
+
+        BitmapNode(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        @Override
+        Leaf find(Object key, int hash, int shift) {
+            int bit = 1 << ((hash >>> shift) & 31);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            Object slot = slots[Integer.bitCount(bitmap & (bit - 1))];
+            if (slot instanceof Leaf) {
+                Leaf leaf = (Leaf) slot;
+                return leaf.hash == hash && leaf.key.equals(key) ? leaf : null;
+            }
+            return ((Node) slot).find(key, hash, shift + 5);
+        }
+
+        @Override
+        Node put(Leaf leaf, int shift, boolean[] added) {
+            int bit = 1 << ((leaf.hash >>> shift) & 31);
+            int index = Integer.bitCount(bitmap & (bit - 1));
+            if ((bitmap & bit) == 0) {
+                Object[] copy = new Object[slots.length + 1];
+                System.arraycopy(slots, 0, copy, 0, index);
+                copy[index] = leaf;
+                System.arraycopy(slots, index, copy, index + 1, slots.length - index);
+                added[0] = true;
+                return new BitmapNode(bitmap | bit, copy);
+            }
+            Object slot = slots[index];
+            Object replacement;
+            if (slot instanceof Leaf) {
+                Leaf existing = (Leaf) slot;
+                if (existing.hash == leaf.hash && existing.key.equals(leaf.key)) {
+                    replacement = leaf;
+                } else {
+                    added[0] = true;
+                    replacement = merge(existing, leaf, shift + 5);
+                }
+            } else {
+                replacement = ((Node) slot).put(leaf, shift + 5, added);
+            }
+            Object[] copy = slots.clone();
+            copy[index] = replacement;
+            return new BitmapNode(bitmap, copy);
+        }
+
+        @Override
+        Node remove(Object key, int hash, int shift) {
+            int bit = 1 << ((hash >>> shift) & 31);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int index = Integer.bitCount(bitmap & (bit - 1));
+            Object slot = slots[index];
+            Object replacement;
+            if (slot instanceof Leaf) {
+                Leaf leaf = (Leaf) slot;
+                if (leaf.hash != hash || !leaf.key.equals(key)) {
+                    return this;
+                }
+                replacement = null;
+            } else {
+                Node child = (Node) slot;
+                Node newChild = child.remove(key, hash, shift + 5);
+                if (newChild == child) {
+                    return this;
+                }
+                replacement = newChild == null ? null : collapse(newChild);
+            }
+            if (replacement == null) {
+                if (slots.length == 1) {
+                    return null;
+                }
+                Object[] copy = new Object[slots.length - 1];
+                System.arraycopy(slots, 0, copy, 0, index);
+                System.arraycopy(slots, index + 1, copy, index, slots.length - index - 1);
+                return new BitmapNode(bitmap & ~bit, copy);
+            }
+            Object[] copy = slots.clone();
+            copy[index] = replacement;
+            return new BitmapNode(bitmap, copy);
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (Object slot : slots) {
+                if (slot instanceof Leaf) {
+                    action.accept(((Leaf) slot).key, ((Leaf) slot).value);
+                } else {
+                    ((Node) slot).forEach(action);
+                }
+            }
+        }
+
+        /**
+         * 只剩一个叶子（或一个冲突节点）的子节点直接换成它，保持树的高度最小；冲突节点的查找不依赖所在层
+         */
+        private static Object collapse(Node node) {
+            if (node instanceof BitmapNode) {
+                Object[] s = ((BitmapNode) node).slots;
+                if (s.length == 1 && !(s[0] instanceof BitmapNode)) {
+                    return s[0];
+                }
+            } else if (((CollisionNode) node).leaves.length == 1) {
+                return ((CollisionNode) node).leaves[0];
+            }
+            return node;
+        }
+
+        private static Node merge(Leaf a, Leaf b, int shift) {
+            if (a.hash == b.hash) {
+                return new CollisionNode(a.hash, new Leaf[]{a, b});
+            }
+            int ia = (a.hash >>> shift) & 31;
+            int ib = (b.hash >>> shift) & 31;
+            if (ia == ib) {
+                return new BitmapNode(1 << ia, new Object[]{merge(a, b, shift + 5)});
+            }
+            return new BitmapNode((1 << ia) | (1 << ib), ia < ib ? new Object[]{a, b} : new Object[]{b, a});
+        }
+    }
+
+    /**
+     * 哈希完全相同的键
+     */
+    private static final class CollisionNode extends Node {
+        final int hash;
+        final Leaf[] leaves;
+
+        CollisionNode(int hash, Leaf[] leaves) {
+            this.hash = hash;
+            this.leaves = leaves;
+        }
+
+        @Override
+        Leaf find(Object key, int hash, int shift) {
+            if (hash != this.hash) {
+                return null;
+            }
+            for (Leaf leaf : leaves) {
+                if (leaf.key.equals(key)) {
+                    return leaf;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        Node put(Leaf leaf, int shift, boolean[] added) {
+            if (leaf.hash != hash) {
+                // 冲突节点可能位于较浅的层，遇到前缀相同的其他哈希时在本层展开为位图节点
+                return new BitmapNode(1 << ((hash >>> shift) & 31), new Object[]{this}).put(leaf, shift, added);
+            }
+            for (int i = 0; i < leaves.length; i++) {
+                if (leaves[i].key.equals(leaf.key)) {
+                    Leaf[] copy = leaves.clone();
+                    copy[i] = leaf;
+                    return new CollisionNode(hash, copy);
+                }
+            }
+            Leaf[] copy = Arrays.copyOf(leaves, leaves.length + 1);
+            copy[leaves.length] = leaf;
+            added[0] = true;
+            return new CollisionNode(hash, copy);
+        }
+
+        @Override
+        Node remove(Object key, int hash, int shift) {
+            if (hash != this.hash) {
+                return this;
+            }
+            for (int i = 0; i < leaves.length; i++) {
+                if (leaves[i].key.equals(key)) {
+                    if (leaves.length == 1) {
+                        return null;
+                    }
+                    Leaf[] copy = new Leaf[leaves.length - 1];
+                    System.arraycopy(leaves, 0, copy, 0, i);
+                    System.arraycopy(leaves, i + 1, copy, i, leaves.length - i - 1);
+                    return new CollisionNode(hash, copy);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (Leaf leaf : leaves) {
+                action.accept(leaf.key, leaf.value);
+            }
+        }
+    }
+}
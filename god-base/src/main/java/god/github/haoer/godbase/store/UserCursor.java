@@ -0,0 +1,111 @@
+package god.github.haoer.godbase.store;
+
+import god.github.haoer.godbase.reflection.User;
+
+/**
+ * {@link UserTable} 上可复用的游标（flyweight），提供与 {@link User} 相同的 getter/setter
+ *
+ * <p>游标只记录当前行号，移动时不分配对象；getAge()/getName() 为兼容 User 的接口会装箱、解码，
+ * 热点路径用 {@link #age()}、{@link #hasAge()}、{@link #nameId()}。
+ *
+ * <pre>
+ * UserCursor cursor = table.cursor();
+ * int id = table.nameIdOf("张三");
+ * while (cursor.next()) {
+ *     if (cursor.nameId() == id &amp;&amp; cursor.hasAge()) {
+ *         total += cursor.age();
+ *     }
+ * }
+ * </pre>
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class UserCursor {
+
+    private final UserTable table;
+    private int row = -1;
+
+    UserCursor(UserTable table) {
+        this.table = table;
+    }
+
+    /**
+     * 移到下一行
+     *
+     * @return 已经是最后一行时返回 false
+     */
+    public boolean next() {
+        if (row + 1 < table.size()) {
+            row++;
+            return true;
+        }
+        return false;
+    }
+
+    public UserCursor moveTo(int row) {
+        table.checkRow(row);
+        this.row = row;
+        return this;
+    }
+
+    /**
+     * 回到第一行之前
+     */
+    public void rewind() {
+        row = -1;
+    }
+
+    public int row() {
+        return row;
+    }
+
+    public boolean hasAge() {
+        table.checkRow(row);
+        return table.hasAge(row);
+    }
+
+    /**
+     * age 为 null 时返回 0，需要区分时先调用 {@link #hasAge()}
+     */
+    public int age() {
+        table.checkRow(row);
+        return table.ageAt(row);
+    }
+
+    public Integer getAge() {
+        return hasAge() ? table.ageAt(row) : null;
+    }
+
+    public void setAge(Integer age) {
+        table.checkRow(row);
+        table.setAge(row, age);
+    }
+
+    /**
+     * name 在字典中的编号，null 时为 {@link UserTable#NULL_NAME}
+     */
+    public int nameId() {
+        table.checkRow(row);
+        return table.nameIdAt(row);
+    }
+
+    public String getName() {
+        return table.name(nameId());
+    }
+
+    public void setName(String name) {
+        table.checkRow(row);
+        table.setName(row, name);
+    }
+
+    public User toUser() {
+        return new User(getName(), getAge());
+    }
+
+    @Override
+    public String toString() {
+        return row < 0 || row >= table.size() ? "UserCursor{row=" + row + "}"
+                : "UserCursor{row=" + row + ", name=" + getName() + ", age=" + getAge() + "}";
+    }
+}
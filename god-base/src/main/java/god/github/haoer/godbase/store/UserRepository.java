@@ -0,0 +1,307 @@
+package god.github.haoer.godbase.store;
+
+import god.github.haoer.godbase.reflection.User;
+
+import java.util.ConcurrentModificationException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * 多版本并发控制（MVCC）的内存 User 仓库，按 name 存取
+ *
+ * <p>每次提交生成一个新版本：记录放在不可变的 {@link PersistentHashMap} 中，写入时只复制修改路径上的节点，
+ * 未修改的部分与旧版本共享；当前版本由一个 AtomicReference 指向：
+ * 1. 读：{@link #snapshot()} 只是一次 volatile 读，没有锁也没有 CAS，读线程之间不共享可写的缓存行，吞吐随核数线性增长
+ * 2. 写：写入的 User 先 {@link User#clone()}，之后不再修改；提交时 CAS 替换当前版本
+ * 3. 回收：旧版本只被持有它的快照引用，快照不再可达后由 GC 回收，不需要额外的清理线程
+ *
+ * <p>事务是快照隔离：{@link Transaction} 读取开始时的版本，先提交者胜出；
+ * 提交时发现写过的 name 在开始之后已被其他事务修改，抛出 ConcurrentModificationException。
+ * 单条的 {@link #put(User)}、{@link #remove(String)} 不检查冲突，后写入的覆盖先写入的。
+ *
+ * <pre>
+ * UserRepository repository = new UserRepository();
+ * repository.put(new User("张三", 18));
+ * UserRepository.Snapshot snapshot = repository.snapshot();
+ * repository.update("张三", user -&gt; { user.setAge(19); return user; });
+ * snapshot.get("张三").getAge();              // 18，快照不受之后的提交影响
+ * repository.get("张三").getAge();            // 19
+ * </pre>
+ *
+ * <p>读写吞吐见 UserRepositoryBenchmark。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class UserRepository {
+
+    private static final int MAX_RETRIES = 64;
+
+    private final AtomicReference<Snapshot> head =
+            new AtomicReference<>(new Snapshot(0, PersistentHashMap.<String, Record>empty()));
+
+    /**
+     * 当前版本的只读快照
+     */
+    public Snapshot snapshot() {
+        return head.get();
+    }
+
+    public long version() {
+        return head.get().version;
+    }
+
+    public int size() {
+        return head.get().size();
+    }
+
+    /**
+     * 当前版本中该 name 的记录副本，不存在时返回 null
+     */
+    public User get(String name) {
+        return head.get().get(name);
+    }
+
+    /**
+     * 写入一条记录，name 相同时覆盖
+     *
+     * @return 提交后的版本号
+     */
+    public long put(User user) {
+        String name = requireName(user);
+        Record record = new Record(copy(user));
+        for (;;) {
+            Snapshot current = head.get();
+            Snapshot next = new Snapshot(current.version + 1, current.records.plus(name, record));
+            if (head.compareAndSet(current, next)) {
+                return next.version;
+            }
+        }
+    }
+
+    /**
+     * @return 提交后的版本号；不存在该 name 时不产生新版本，返回当前版本号
+     */
+    public long remove(String name) {
+        for (;;) {
+            Snapshot current = head.get();
+            PersistentHashMap<String, Record> records = current.records.minus(name);
+            if (records == current.records) {
+                return current.version;
+            }
+            Snapshot next = new Snapshot(current.version + 1, records);
+            if (head.compareAndSet(current, next)) {
+                return next.version;
+            }
+        }
+    }
+
+    /**
+     * 读取-修改-写入，冲突时在新版本上重试
+     *
+     * @param updater 参数是记录副本，可以直接修改后返回；不存在时参数为 null；返回 null 表示删除
+     * @return 提交后的版本号
+     * @throws IllegalStateException 重试多次仍然冲突
+     */
+    public long update(String name, UnaryOperator<User> updater) {
+        for (int i = 0; i < MAX_RETRIES; i++) {
+            Transaction tx = begin();
+            User updated = updater.apply(tx.get(name));
+            if (updated == null) {
+                tx.remove(name);
+            } else {
+                if (!name.equals(updated.getName())) {
+                    throw new IllegalArgumentException("不能修改 name: " + name + " -> " + updated.getName());
+                }
+                tx.put(updated);
+            }
+            try {
+                return tx.commit();
+            } catch (ConcurrentModificationException e) {
+                // 其他事务先修改了这条记录，基于新版本重新计算
+            }
+        }
+        throw new IllegalStateException("update 冲突重试 " + MAX_RETRIES + " 次仍未成功: " + name);
+    }
+
+    /**
+     * 基于当前版本开始一个事务
+     */
+    public Transaction begin() {
+        return new Transaction(head.get());
+    }
+
+    private long commit(Snapshot base, Map<String, Record> writes) {
+        for (;;) {
+            Snapshot current = head.get();
+            if (current != base) {
+                // 写过的 name 在 base 之后被替换或删除：记录对象不同即视为冲突
+                for (String name : writes.keySet()) {
+                    if (current.records.get(name) != base.records.get(name)) {
+                        throw new ConcurrentModificationException("记录 " + name + " 已被其他事务修改，开始版本 "
+                                + base.version + "，当前版本 " + current.version);
+                    }
+                }
+            }
+            PersistentHashMap<String, Record> records = current.records;
+            for (Map.Entry<String, Record> write : writes.entrySet()) {
+                records = write.getValue() == null ? records.minus(write.getKey()) : records.plus(write.getKey(), write.getValue());
+            }
+            Snapshot next = new Snapshot(current.version + 1, records);
+            if (head.compareAndSet(current, next)) {
+                return next.version;
+            }
+        }
+    }
+
+    private static String requireName(User user) {
+        if (user.getName() == null) {
+            throw new IllegalArgumentException("name 不能为空");
+        }
+        return user.getName();
+    }
+
+    private static User copy(User user) {
+        try {
+            // name、age 都是不可变对象，浅拷贝即可隔离调用方之后的修改
+            return user.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 提交后不再修改的记录；冲突检测按对象引用比较
+     */
+    private static final class Record {
+        final User user;
+
+        Record(User user) {
+            this.user = user;
+        }
+    }
+
+    /**
+     * 某个版本的只读视图，可以在任意线程长期持有；返回的 User 都是副本，修改不影响仓库
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final PersistentHashMap<String, Record> records;
+
+        private Snapshot(long version, PersistentHashMap<String, Record> records) {
+            this.version = version;
+            this.records = records;
+        }
+
+        public long version() {
+            return version;
+        }
+
+        public int size() {
+            return records.size();
+        }
+
+        public boolean contains(String name) {
+            return records.get(name) != null;
+        }
+
+        public User get(String name) {
+            Record record = records.get(name);
+            return record == null ? null : copy(record.user);
+        }
+
+        /**
+         * 该版本中 name 对应的 age，不存在或 age 为 null 时返回 null；不复制记录
+         */
+        public Integer getAge(String name) {
+            Record record = records.get(name);
+            return record == null ? null : record.user.getAge();
+        }
+
+        /**
+         * 遍历该版本的所有记录副本，顺序不确定
+         */
+        public void forEach(Consumer<? super User> action) {
+            records.forEach((name, record) -> action.accept(copy(record.user)));
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot{version=" + version + ", size=" + records.size() + "}";
+        }
+    }
+
+    /**
+     * 单线程使用的事务：读取开始时的快照，写入先缓存在本地，{@link #commit()} 时一次性提交
+     */
+    public final class Transaction {
+        private final Snapshot base;
+        /**
+         * value 为 null 表示删除
+         */
+        private final Map<String, Record> writes = new LinkedHashMap<>();
+        private boolean done;
+
+        private Transaction(Snapshot base) {
+            this.base = base;
+        }
+
+        /**
+         * 事务开始时的版本号
+         */
+        public long baseVersion() {
+            return base.version;
+        }
+
+        /**
+         * 能读到本事务尚未提交的写入
+         */
+        public User get(String name) {
+            ensureActive();
+            if (writes.containsKey(name)) {
+                Record record = writes.get(name);
+                return record == null ? null : copy(record.user);
+            }
+            return base.get(name);
+        }
+
+        public Transaction put(User user) {
+            ensureActive();
+            writes.put(requireName(user), new Record(copy(user)));
+            return this;
+        }
+
+        public Transaction remove(String name) {
+            ensureActive();
+            writes.put(name, null);
+            return this;
+        }
+
+        /**
+         * @return 提交后的版本号；没有写入时返回开始时的版本号
+         * @throws ConcurrentModificationException 写过的记录在事务开始后已被其他提交修改，本事务的写入全部丢弃
+         */
+        public long commit() {
+            ensureActive();
+            done = true;
+            return writes.isEmpty() ? base.version : UserRepository.this.commit(base, writes);
+        }
+
+        /**
+         * 丢弃本事务的写入
+         */
+        public void rollback() {
+            done = true;
+            writes.clear();
+        }
+
+        private void ensureActive() {
+            if (done) {
+                throw new IllegalStateException("事务已结束");
+            }
+        }
+    }
+}
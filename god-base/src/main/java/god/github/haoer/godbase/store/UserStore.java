@@ -0,0 +1,591 @@
+package god.github.haoer.godbase.store;
+
+import god.github.haoer.godbase.reflection.User;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * 基于内存映射文件的 User 记录存储，支持追加、按编号读取、按 name 查找，崩溃后可以恢复
+ *
+ * <p>{@link god.github.haoer.godbase.reflection.CreateObject#createUserBySerialize()} 把一个 User 序列化到固定路径，
+ * 无法应对上千万条记录的持久化和随机访问。本类把数据放在一个目录中：
+ * 1. data-NNNNN.seg：数据段，固定大小，整体映射；记录依次追加，格式为 4 字节负载长度 + 4 字节 CRC32 + 负载（见 {@link UserView}），
+ * 段内剩余空间放不下下一条记录时写入段结束标记 -1，换到下一个段
+ * 2. index.idx：32 字节文件头（魔数、版本、段大小、记录数）+ 每条记录 16 字节的索引项
+ * （8 字节位置 = 段号 &lt;&lt; 32 | 段内偏移，4 字节负载长度，4 字节 name 哈希），按 16MB 分块映射
+ *
+ * <p>读取返回 {@link UserView}，直接读映射内存，不做反序列化。按 name 查找使用堆外的开放寻址哈希表（保存记录编号），
+ * 打开时只根据索引项中的哈希重建，不需要读取数据段；同名记录以最后追加的为准。
+ *
+ * <p>崩溃恢复：追加时先写数据、再写索引项、最后更新文件头中的记录数。打开时：
+ * 1. 从文件头记录数开始向前检查，丢弃指向不完整记录（长度或 CRC 不符）的索引项
+ * 2. 从最后一条有效记录之后向前扫描数据段，把已写入数据但未写入索引的完整记录补进索引
+ * 3. 清零扫描停止处之后的残留数据，避免以后追加的记录与旧数据拼接后被误认为有效
+ * 恢复结果见 {@link #recovery()}。进程崩溃不会丢失已追加的记录（映射内存由操作系统写回）；
+ * 断电时只保证最近一次 {@link #flush()} 之前的记录。
+ *
+ * <p>非线程安全：追加与读取需要由调用方同步；没有写入时可以多线程并发读取。
+ * Java 8 无法主动解除映射，{@link #close()} 后映射内存在 GC 回收对应的 buffer 时才释放。
+ *
+ * <pre>
+ * try (UserStore store = UserStore.open(Paths.get("users"))) {
+ *     int id = store.append(new User("张三", 18));
+ *     store.get(id).age();            // 18
+ *     store.indexOf("张三");           // id
+ * }
+ * </pre>
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class UserStore implements Closeable {
+
+    /**
+     * {@link #indexOf(String)} 未找到时的返回值
+     */
+    public static final int NOT_FOUND = -1;
+
+    public static final int DEFAULT_SEGMENT_SIZE = 256 << 20;
+
+    private static final int MIN_SEGMENT_SIZE = 4 << 10;
+    private static final int MAX_SEGMENT_SIZE = 1 << 30;
+
+    private static final int MAGIC = 0x55535452;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int COUNT_OFFSET = 12;
+
+    private static final int RECORD_HEADER = 8;
+    private static final int END_OF_SEGMENT = -1;
+
+    private static final int ENTRY_BYTES = 16;
+    private static final int REGION_SHIFT = 20;
+    private static final int REGION_MASK = (1 << REGION_SHIFT) - 1;
+    private static final int REGION_BYTES = ENTRY_BYTES << REGION_SHIFT;
+
+    private static final int MIN_SLOTS = 1024;
+    private static final int MAX_SLOTS = 1 << 29;
+
+    private final Path dir;
+    private final int segmentSize;
+    private final FileChannel indexChannel;
+    private final MappedByteBuffer header;
+    private final List<MappedByteBuffer> indexRegions = new ArrayList<>();
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+
+    private ByteBuffer slots;
+    private int slotMask;
+    private int keyCount;
+
+    private int size;
+    private int writeSegment;
+    private int writeOffset;
+    private int flushedSegment;
+    private int flushedRegion;
+    private boolean closed;
+
+    private final CRC32 crc = new CRC32();
+    private byte[] scratch = new byte[256];
+    private final Recovery recovery;
+
+    private UserStore(Path dir, int segmentSize, FileChannel indexChannel, MappedByteBuffer header) throws IOException {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.indexChannel = indexChannel;
+        this.header = header;
+        for (int i = 0; Files.exists(segmentPath(i)); i++) {
+            segments.add(mapSegment(i));
+        }
+        if (segments.isEmpty()) {
+            segments.add(mapSegment(0));
+        }
+        this.recovery = recover();
+        rebuildKeyIndex();
+    }
+
+    public static UserStore open(Path dir) throws IOException {
+        return open(dir, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * 打开或创建存储目录
+     *
+     * @param segmentSize 新建时数据段的大小（4KB ~ 1GB），单条记录不能超过它；已存在的存储沿用创建时的段大小
+     * @throws IOException 目录中的索引文件无效
+     */
+    public static UserStore open(Path dir, int segmentSize) throws IOException {
+        if (segmentSize < MIN_SEGMENT_SIZE || segmentSize > MAX_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("segmentSize 必须在 " + MIN_SEGMENT_SIZE + " ~ " + MAX_SEGMENT_SIZE + " 之间: " + segmentSize);
+        }
+        Files.createDirectories(dir);
+        FileChannel channel = FileChannel.open(dir.resolve("index.idx"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            boolean created = channel.size() == 0;
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (created) {
+                header.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, segmentSize).putInt(COUNT_OFFSET, 0);
+            } else {
+                if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                    throw new IOException("不是有效的索引文件: " + dir.resolve("index.idx"));
+                }
+                segmentSize = header.getInt(8);
+                if (segmentSize < MIN_SEGMENT_SIZE || segmentSize > MAX_SEGMENT_SIZE) {
+                    throw new IOException("索引文件已损坏，段大小: " + segmentSize);
+                }
+            }
+            return new UserStore(dir, segmentSize, channel, header);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 追加一条记录
+     *
+     * @return 记录编号，从 0 开始连续递增
+     * @throws IllegalArgumentException 记录超过段大小
+     */
+    public int append(User user) throws IOException {
+        ensureOpen();
+        if (size == Integer.MAX_VALUE) {
+            throw new IllegalStateException("记录数已达上限");
+        }
+        String name = user.getName();
+        Integer age = user.getAge();
+        byte[] nameBytes = name == null ? null : name.getBytes(StandardCharsets.UTF_8);
+        int length = UserView.NAME_OFFSET + (nameBytes == null ? 0 : nameBytes.length);
+        if (RECORD_HEADER + length > segmentSize) {
+            throw new IllegalArgumentException("记录长度 " + length + " 超过段大小 " + segmentSize);
+        }
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length << 1)];
+        }
+        byte[] payload = scratch;
+        payload[0] = (byte) ((nameBytes != null ? UserView.HAS_NAME : 0) | (age != null ? UserView.HAS_AGE : 0));
+        int ageValue = age == null ? 0 : age;
+        payload[1] = (byte) ageValue;
+        payload[2] = (byte) (ageValue >>> 8);
+        payload[3] = (byte) (ageValue >>> 16);
+        payload[4] = (byte) (ageValue >>> 24);
+        if (nameBytes != null) {
+            System.arraycopy(nameBytes, 0, payload, UserView.NAME_OFFSET, nameBytes.length);
+        }
+        crc.reset();
+        crc.update(payload, 0, length);
+
+        if (writeOffset + RECORD_HEADER + length > segmentSize) {
+            if (segmentSize - writeOffset >= 4) {
+                segments.get(writeSegment).putInt(writeOffset, END_OF_SEGMENT);
+            }
+            writeSegment++;
+            writeOffset = 0;
+            if (writeSegment == segments.size()) {
+                segments.add(mapSegment(writeSegment));
+            }
+        }
+        MappedByteBuffer segment = segments.get(writeSegment);
+        int offset = writeOffset;
+        ByteBuffer target = segment.duplicate();
+        target.position(offset + RECORD_HEADER);
+        target.put(payload, 0, length);
+        segment.putInt(offset + 4, (int) crc.getValue());
+        // 长度最后写：长度为 0 的位置即数据末尾
+        segment.putInt(offset, length);
+
+        int id = size;
+        int hash = nameBytes == null ? 0 : Utf8.hash(nameBytes);
+        writeEntry(id, writeSegment, offset, length, hash);
+        size = id + 1;
+        header.putInt(COUNT_OFFSET, size);
+        writeOffset = offset + RECORD_HEADER + length;
+        putKey(id);
+        return id;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public UserView get(int index) {
+        return get(index, new UserView());
+    }
+
+    /**
+     * 把 view 指向第 index 条记录并返回它，不分配对象
+     */
+    public UserView get(int index, UserView view) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+        }
+        long position = entryPosition(index);
+        return view.set(segments.get((int) (position >>> 32)), (int) position + RECORD_HEADER, entryLength(index), index);
+    }
+
+    public User getUser(int index) {
+        return get(index).toUser();
+    }
+
+    /**
+     * 按 name 查找最后追加的一条记录
+     *
+     * @return 记录编号，没有时返回 {@link #NOT_FOUND}
+     */
+    public int indexOf(String name) {
+        if (name == null) {
+            return NOT_FOUND;
+        }
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int hash = Utf8.hash(bytes);
+        for (int slot = hash & slotMask; ; slot = (slot + 1) & slotMask) {
+            int entry = slots.getInt(slot << 2);
+            if (entry == 0) {
+                return NOT_FOUND;
+            }
+            int id = entry - 1;
+            if (entryHash(id) == hash && entryLength(id) - UserView.NAME_OFFSET == bytes.length && nameEquals(id, bytes)) {
+                return id;
+            }
+        }
+    }
+
+    /**
+     * @return 没有时返回 null
+     */
+    public UserView find(String name) {
+        int id = indexOf(name);
+        return id == NOT_FOUND ? null : get(id);
+    }
+
+    /**
+     * 把数据段、索引和文件头写回磁盘，保证断电后不丢失此前追加的记录
+     */
+    public void flush() {
+        ensureOpen();
+        for (int i = flushedSegment; i < segments.size(); i++) {
+            segments.get(i).force();
+        }
+        for (int i = flushedRegion; i < indexRegions.size(); i++) {
+            indexRegions.get(i).force();
+        }
+        header.force();
+        flushedSegment = writeSegment;
+        flushedRegion = Math.max(0, indexRegions.size() - 1);
+    }
+
+    public Recovery recovery() {
+        return recovery;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        flush();
+        closed = true;
+        indexChannel.close();
+    }
+
+    private Recovery recover() throws IOException {
+        long maxCount = (indexChannel.size() - HEADER_BYTES) / ENTRY_BYTES;
+        int count = (int) Math.max(0, Math.min(header.getInt(COUNT_OFFSET), maxCount));
+        int indexed = count;
+        if (count > 0) {
+            region(count - 1);
+        }
+        while (count > 0 && !entryValid(count - 1)) {
+            count--;
+        }
+        int segment = 0;
+        int offset = 0;
+        if (count > 0) {
+            long position = entryPosition(count - 1);
+            segment = (int) (position >>> 32);
+            offset = (int) position + RECORD_HEADER + entryLength(count - 1);
+        }
+        size = count;
+
+        int rescanned = 0;
+        while (true) {
+            MappedByteBuffer buffer = segments.get(segment);
+            int length = offset + RECORD_HEADER <= segmentSize ? buffer.getInt(offset) : 0;
+            if ((length == END_OF_SEGMENT || offset + RECORD_HEADER > segmentSize) && segment + 1 < segments.size()) {
+                segment++;
+                offset = 0;
+                continue;
+            }
+            if (!recordValid(buffer, offset, length)) {
+                break;
+            }
+            writeEntry(size, segment, offset, length, keyHash(buffer, offset + RECORD_HEADER, length));
+            size++;
+            rescanned++;
+            offset += RECORD_HEADER + length;
+        }
+
+        // 正常关闭时扫描停止处及之后的段都是全零，只在有残留时才清零
+        long discarded = 0;
+        for (int i = segment; i < segments.size(); i++) {
+            int from = i == segment ? offset : 0;
+            if (!headerIsZero(segments.get(i), from)) {
+                discarded += zero(segments.get(i), from);
+            }
+        }
+        header.putInt(COUNT_OFFSET, size);
+        writeSegment = segment;
+        writeOffset = offset;
+        return new Recovery(indexed, indexed - count, rescanned, discarded);
+    }
+
+    private boolean headerIsZero(MappedByteBuffer buffer, int offset) {
+        for (int i = offset, end = Math.min(offset + RECORD_HEADER, segmentSize); i < end; i++) {
+            if (buffer.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 清零 from 之后的非零字节，返回清零的字节数
+     */
+    private long zero(MappedByteBuffer buffer, int from) {
+        long cleared = 0;
+        for (int i = from; i < segmentSize; i++) {
+            if (buffer.get(i) != 0) {
+                buffer.put(i, (byte) 0);
+                cleared++;
+            }
+        }
+        return cleared;
+    }
+
+    private boolean entryValid(int id) {
+        long position = entryPosition(id);
+        int segment = (int) (position >>> 32);
+        int offset = (int) position;
+        int length = entryLength(id);
+        return segment >= 0 && segment < segments.size()
+                && recordValid(segments.get(segment), offset, length)
+                && segments.get(segment).getInt(offset) == length;
+    }
+
+    private boolean recordValid(MappedByteBuffer buffer, int offset, int length) {
+        if (length < UserView.NAME_OFFSET || offset < 0 || (long) offset + RECORD_HEADER + length > segmentSize) {
+            return false;
+        }
+        ByteBuffer payload = buffer.duplicate();
+        payload.limit(offset + RECORD_HEADER + length).position(offset + RECORD_HEADER);
+        crc.reset();
+        crc.update(payload);
+        return (int) crc.getValue() == buffer.getInt(offset + 4);
+    }
+
+    private int keyHash(ByteBuffer buffer, int payload, int length) {
+        if ((buffer.get(payload) & UserView.HAS_NAME) == 0) {
+            return 0;
+        }
+        return Utf8.hash(buffer, payload + UserView.NAME_OFFSET, length - UserView.NAME_OFFSET);
+    }
+
+    private void rebuildKeyIndex() {
+        int slotCount = MIN_SLOTS;
+        while (slotCount < MAX_SLOTS && slotCount < (long) size * 2) {
+            slotCount <<= 1;
+        }
+        slots = ByteBuffer.allocateDirect(slotCount * 4).order(ByteOrder.LITTLE_ENDIAN);
+        slotMask = slotCount - 1;
+        keyCount = 0;
+        for (int id = 0; id < size; id++) {
+            putKey(id);
+        }
+    }
+
+    /**
+     * 把记录加入 name 哈希表，同名时替换为该记录
+     */
+    private void putKey(int id) {
+        int hash = entryHash(id);
+        if (hash == 0) {
+            return;
+        }
+        for (int slot = hash & slotMask; ; slot = (slot + 1) & slotMask) {
+            int entry = slots.getInt(slot << 2);
+            if (entry == 0) {
+                slots.putInt(slot << 2, id + 1);
+                if (++keyCount * 2 > slotMask + 1) {
+                    resizeKeyIndex();
+                }
+                return;
+            }
+            int other = entry - 1;
+            if (entryHash(other) == hash && sameName(other, id)) {
+                slots.putInt(slot << 2, id + 1);
+                return;
+            }
+        }
+    }
+
+    private void resizeKeyIndex() {
+        int slotCount = slotMask + 1;
+        if (slotCount >= MAX_SLOTS) {
+            if (keyCount >= slotCount - 1) {
+                throw new IllegalStateException("name 索引已满: " + keyCount);
+            }
+            return;
+        }
+        ByteBuffer old = slots;
+        slots = ByteBuffer.allocateDirect(slotCount * 8).order(ByteOrder.LITTLE_ENDIAN);
+        slotMask = slotCount * 2 - 1;
+        for (int i = 0; i < slotCount; i++) {
+            int entry = old.getInt(i << 2);
+            if (entry != 0) {
+                int slot = entryHash(entry - 1) & slotMask;
+                while (slots.getInt(slot << 2) != 0) {
+                    slot = (slot + 1) & slotMask;
+                }
+                slots.putInt(slot << 2, entry);
+            }
+        }
+    }
+
+    private boolean sameName(int a, int b) {
+        int length = entryLength(a);
+        if (entryLength(b) != length) {
+            return false;
+        }
+        long pa = entryPosition(a);
+        long pb = entryPosition(b);
+        return Utf8.equals(segments.get((int) (pa >>> 32)), (int) pa + RECORD_HEADER + UserView.NAME_OFFSET,
+                segments.get((int) (pb >>> 32)), (int) pb + RECORD_HEADER + UserView.NAME_OFFSET,
+                length - UserView.NAME_OFFSET);
+    }
+
+    private boolean nameEquals(int id, byte[] bytes) {
+        long position = entryPosition(id);
+        ByteBuffer buffer = segments.get((int) (position >>> 32));
+        int start = (int) position + RECORD_HEADER + UserView.NAME_OFFSET;
+        for (int i = 0; i < bytes.length; i++) {
+            if (buffer.get(start + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void writeEntry(int id, int segment, int offset, int length, int hash) throws IOException {
+        MappedByteBuffer region = region(id);
+        int at = (id & REGION_MASK) * ENTRY_BYTES;
+        region.putLong(at, (long) segment << 32 | offset);
+        region.putInt(at + 8, length);
+        region.putInt(at + 12, hash);
+    }
+
+    private long entryPosition(int id) {
+        return indexRegions.get(id >>> REGION_SHIFT).getLong((id & REGION_MASK) * ENTRY_BYTES);
+    }
+
+    private int entryLength(int id) {
+        return indexRegions.get(id >>> REGION_SHIFT).getInt((id & REGION_MASK) * ENTRY_BYTES + 8);
+    }
+
+    private int entryHash(int id) {
+        return indexRegions.get(id >>> REGION_SHIFT).getInt((id & REGION_MASK) * ENTRY_BYTES + 12);
+    }
+
+    private MappedByteBuffer region(int id) throws IOException {
+        int region = id >>> REGION_SHIFT;
+        while (indexRegions.size() <= region) {
+            long position = HEADER_BYTES + (long) indexRegions.size() * REGION_BYTES;
+            MappedByteBuffer mapped = indexChannel.map(FileChannel.MapMode.READ_WRITE, position, REGION_BYTES);
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            indexRegions.add(mapped);
+        }
+        return indexRegions.get(region);
+    }
+
+    private MappedByteBuffer mapSegment(int segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            return mapped;
+        }
+    }
+
+    private Path segmentPath(int segment) {
+        return dir.resolve(String.format("data-%05d.seg", segment));
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("存储已关闭: " + dir);
+        }
+    }
+
+    /**
+     * 打开时的恢复结果
+     */
+    public static final class Recovery {
+        private final int indexed;
+        private final int droppedEntries;
+        private final int rescanned;
+        private final long discardedBytes;
+
+        Recovery(int indexed, int droppedEntries, int rescanned, long discardedBytes) {
+            this.indexed = indexed;
+            this.droppedEntries = droppedEntries;
+            this.rescanned = rescanned;
+            this.discardedBytes = discardedBytes;
+        }
+
+        /**
+         * 文件头中记录的记录数
+         */
+        public int getIndexed() {
+            return indexed;
+        }
+
+        /**
+         * 因指向不完整记录而丢弃的索引项数
+         */
+        public int getDroppedEntries() {
+            return droppedEntries;
+        }
+
+        /**
+         * 从数据段扫描补回索引的记录数
+         */
+        public int getRescanned() {
+            return rescanned;
+        }
+
+        /**
+         * 清零的残留数据字节数
+         */
+        public long getDiscardedBytes() {
+            return discardedBytes;
+        }
+
+        @Override
+        public String toString() {
+            return "Recovery{indexed=" + indexed + ", droppedEntries=" + droppedEntries
+                    + ", rescanned=" + rescanned + ", discardedBytes=" + discardedBytes + "}";
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package god.github.haoer.godbase.store;
+
+import god.github.haoer.godbase.reflection.UnsafeAccess;
+import god.github.haoer.godbase.reflection.User;
+import god.github.haoer.godbase.string.OffHeapStringDictionary;
+import sun.misc.Unsafe;
+
+/**
+ * 堆外列式存储的 User 表
+ *
+ * <p>每个 User 对象有自己的对象头，name 是 String（再加一个 byte[]），age 是装箱的 Integer，一条记录要好几个对象。
+ * 本类按列存储（struct of arrays），数据全部在 Unsafe 分配的堆外内存中：
+ * 1. age 列：连续的 int，null 存为 0
+ * 2. age 非空位图：每行 1 位，区分 null 与 0
+ * 3. name 列：连续的 int，保存 {@link OffHeapStringDictionary} 中的编号，null 存为 {@link #NULL_NAME}；重复的 name 只存一份
+ *
+ * <p>一行约 8 字节加 1 位，堆上只有几个对象，不产生 GC 压力。按 age 的扫描与聚合（{@link #sumAge()} 等）
+ * 顺序读取连续内存，速度接近内存带宽。逐行访问通过可复用的 {@link UserCursor}。
+ *
+ * <p>非线程安全；没有写入时可以多线程并发读取。堆外内存需要 {@link #close()} 释放。
+ *
+ * <pre>
+ * try (UserTable table = new UserTable()) {
+ *     table.add(new User("张三", 18));
+ *     UserCursor cursor = table.cursor();
+ *     while (cursor.next()) {
+ *         cursor.getAge();
+ *     }
+ *     table.sumAge();
+ * }
+ * </pre>
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class UserTable implements AutoCloseable {
+
+    /**
+     * name 为 null 的行的 name 编号，与 {@link OffHeapStringDictionary#NOT_FOUND} 不同
+     */
+    public static final int NULL_NAME = -2;
+
+    private static final Unsafe U = UnsafeAccess.isAvailable() ? UnsafeAccess.unsafe() : null;
+
+    private final OffHeapStringDictionary names;
+    private long ages;
+    private long nameIds;
+    private long present;
+    private int capacity;
+    private int size;
+    private boolean closed;
+
+    public UserTable() {
+        this(1024);
+    }
+
+    /**
+     * @param initialCapacity 初始行数，不够时按 2 倍扩容
+     */
+    public UserTable(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("initialCapacity 必须大于0: " + initialCapacity);
+        }
+        UnsafeAccess.unsafe();
+        this.names = new OffHeapStringDictionary(Math.min(initialCapacity, 1 << 16), Math.min(initialCapacity, 1 << 16) * 16);
+        this.capacity = initialCapacity;
+        this.ages = U.allocateMemory((long) initialCapacity * 4);
+        this.nameIds = U.allocateMemory((long) initialCapacity * 4);
+        this.present = U.allocateMemory(bitmapBytes(initialCapacity));
+        U.setMemory(present, bitmapBytes(initialCapacity), (byte) 0);
+    }
+
+    public int add(User user) {
+        return add(user.getName(), user.getAge());
+    }
+
+    /**
+     * @return 行号
+     */
+    public int add(String name, Integer age) {
+        ensureOpen();
+        if (size == capacity) {
+            grow();
+        }
+        int row = size++;
+        setName(row, name);
+        setAge(row, age);
+        return row;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 新的游标，位于第一行之前
+     */
+    public UserCursor cursor() {
+        return new UserCursor(this);
+    }
+
+    /**
+     * name 在字典中的编号，null 返回 {@link #NULL_NAME}，表中没有这个 name 时返回 {@link OffHeapStringDictionary#NOT_FOUND}；
+     * 按 name 过滤时先取编号再比较 {@link UserCursor#nameId()}，不需要解码字符串
+     */
+    public int nameIdOf(String name) {
+        return name == null ? NULL_NAME : names.idOf(name);
+    }
+
+    /**
+     * 非空 age 之和
+     */
+    public long sumAge() {
+        ensureOpen();
+        long address = ages;
+        long sum = 0;
+        for (long p = address, end = address + (long) size * 4; p < end; p += 4) {
+            sum += U.getInt(p);
+        }
+        return sum;
+    }
+
+    /**
+     * 非空 age 的行数
+     */
+    public int countAge() {
+        ensureOpen();
+        int count = 0;
+        int words = size >>> 6;
+        for (int i = 0; i < words; i++) {
+            count += Long.bitCount(U.getLong(present + i * 8L));
+        }
+        int tail = size & 63;
+        if (tail != 0) {
+            count += Long.bitCount(U.getLong(present + words * 8L) & ((1L << tail) - 1));
+        }
+        return count;
+    }
+
+    /**
+     * @return 没有非空 age 时返回 NaN
+     */
+    public double averageAge() {
+        int count = countAge();
+        return count == 0 ? Double.NaN : (double) sumAge() / count;
+    }
+
+    /**
+     * age 在 [min, max] 之间的行数，null 不计入
+     */
+    public int countAgeBetween(int min, int max) {
+        ensureOpen();
+        if (min > max) {
+            return 0;
+        }
+        int count = 0;
+        // 无符号比较把区间判断变成一次比较；null 存为 0，只有落在区间内时才需要查位图
+        long lower = min;
+        long range = max - lower;
+        for (int row = 0; row < size; row++) {
+            long delta = U.getInt(ages + row * 4L) - lower;
+            if (Long.compareUnsigned(delta, range) <= 0 && hasAge(row)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * name 等于给定值的行数
+     */
+    public int countName(String name) {
+        int id = nameIdOf(name);
+        if (id == OffHeapStringDictionary.NOT_FOUND) {
+            return 0;
+        }
+        int count = 0;
+        for (long p = nameIds, end = nameIds + (long) size * 4; p < end; p += 4) {
+            if (U.getInt(p) == id) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 三列与 name 字典占用的堆外字节数
+     */
+    public long offHeapBytes() {
+        return (long) capacity * 8 + bitmapBytes(capacity) + names.offHeapBytes();
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        U.freeMemory(ages);
+        U.freeMemory(nameIds);
+        U.freeMemory(present);
+        ages = 0;
+        nameIds = 0;
+        present = 0;
+        size = 0;
+    }
+
+    boolean hasAge(int row) {
+        return (U.getLong(present + (row >>> 6) * 8L) & (1L << row)) != 0;
+    }
+
+    int ageAt(int row) {
+        return U.getInt(ages + row * 4L);
+    }
+
+    int nameIdAt(int row) {
+        return U.getInt(nameIds + row * 4L);
+    }
+
+    String name(int id) {
+        return id == NULL_NAME ? null : names.get(id);
+    }
+
+    void setAge(int row, Integer age) {
+        long word = present + (row >>> 6) * 8L;
+        if (age == null) {
+            U.putInt(ages + row * 4L, 0);
+            U.putLong(word, U.getLong(word) & ~(1L << row));
+        } else {
+            U.putInt(ages + row * 4L, age);
+            U.putLong(word, U.getLong(word) | 1L << row);
+        }
+    }
+
+    void setName(int row, String name) {
+        U.putInt(nameIds + row * 4L, name == null ? NULL_NAME : names.add(name));
+    }
+
+    void checkRow(int row) {
+        ensureOpen();
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row: " + row + ", size: " + size);
+        }
+    }
+
+    private void grow() {
+        if (capacity == Integer.MAX_VALUE) {
+            throw new IllegalStateException("行数已达上限");
+        }
+        int newCapacity = (int) Math.min((long) capacity << 1, Integer.MAX_VALUE);
+        ages = U.reallocateMemory(ages, (long) newCapacity * 4);
+        nameIds = U.reallocateMemory(nameIds, (long) newCapacity * 4);
+        long oldBitmap = bitmapBytes(capacity);
+        long newBitmap = bitmapBytes(newCapacity);
+        present = U.reallocateMemory(present, newBitmap);
+        U.setMemory(present + oldBitmap, newBitmap - oldBitmap, (byte) 0);
+        capacity = newCapacity;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("表已关闭");
+        }
+    }
+
+    private static long bitmapBytes(int rows) {
+        return ((rows + 63L) >>> 6) * 8;
+    }
+}
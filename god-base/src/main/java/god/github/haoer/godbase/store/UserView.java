@@ -0,0 +1,135 @@
+package god.github.haoer.godbase.store;
+
+import god.github.haoer.godbase.reflection.User;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link UserStore} 中一条记录的只读视图，直接读取映射内存，不做反序列化
+ *
+ * <p>视图是可复用的 flyweight：{@link UserStore#get(int, UserView)} 只改变它指向的位置，遍历大量记录时不分配对象。
+ * 记录只追加不修改，视图在存储打开期间一直有效。只有 {@link #name()} 和 {@link #toUser()} 会创建对象。
+ *
+ * <p>记录负载格式：1 字节标志 + 4 字节 age + name 的 UTF-8 字节（到记录末尾）。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class UserView {
+
+    static final int HAS_NAME = 1;
+    static final int HAS_AGE = 2;
+    static final int AGE_OFFSET = 1;
+    static final int NAME_OFFSET = 5;
+
+    private ByteBuffer buffer;
+    private int offset;
+    private int length;
+    private int index = -1;
+
+    public UserView() {
+    }
+
+    UserView set(ByteBuffer buffer, int offset, int length, int index) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+        this.index = index;
+        return this;
+    }
+
+    /**
+     * 记录编号，未指向任何记录时为 -1
+     */
+    public int index() {
+        return index;
+    }
+
+    public boolean hasName() {
+        return (flags() & HAS_NAME) != 0;
+    }
+
+    /**
+     * name 的 UTF-8 字节数，没有 name 时为 0
+     */
+    public int nameLength() {
+        return length - NAME_OFFSET;
+    }
+
+    public byte nameByteAt(int i) {
+        if (i < 0 || i >= nameLength()) {
+            throw new IndexOutOfBoundsException("index: " + i + ", nameLength: " + nameLength());
+        }
+        return buffer.get(offset + NAME_OFFSET + i);
+    }
+
+    /**
+     * 与字符串逐字符按 UTF-8 比较，不解码、不分配
+     */
+    public boolean nameEquals(String s) {
+        if (!hasName()) {
+            return s == null;
+        }
+        return s != null && Utf8.equals(buffer, offset + NAME_OFFSET, nameLength(), s);
+    }
+
+    /**
+     * name 字节的只读切片，与映射内存共享数据
+     */
+    public ByteBuffer nameBytes() {
+        ByteBuffer slice = buffer.duplicate();
+        slice.limit(offset + length).position(offset + NAME_OFFSET);
+        return slice.slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * 解码出 String，会分配对象
+     */
+    public String name() {
+        if (!hasName()) {
+            return null;
+        }
+        byte[] bytes = new byte[nameLength()];
+        ByteBuffer source = buffer.duplicate();
+        source.position(offset + NAME_OFFSET);
+        source.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public boolean hasAge() {
+        return (flags() & HAS_AGE) != 0;
+    }
+
+    /**
+     * @throws IllegalStateException 记录中 age 为 null
+     */
+    public int age() {
+        if (!hasAge()) {
+            throw new IllegalStateException("记录 " + index + " 的 age 为 null");
+        }
+        return buffer.getInt(offset + AGE_OFFSET);
+    }
+
+    /**
+     * 复制出一个独立的 User
+     */
+    public User toUser() {
+        return new User(name(), hasAge() ? age() : null);
+    }
+
+    private int flags() {
+        if (buffer == null) {
+            throw new IllegalStateException("视图未指向任何记录");
+        }
+        return buffer.get(offset);
+    }
+
+    @Override
+    public String toString() {
+        if (buffer == null) {
+            return "UserView{}";
+        }
+        return "UserView{index=" + index + ", name=" + name() + ", age=" + (hasAge() ? age() : null) + "}";
+    }
+}
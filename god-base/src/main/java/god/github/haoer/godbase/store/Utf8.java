@@ -0,0 +1,92 @@
+package god.github.haoer.godbase.store;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 在映射内存上直接处理 UTF-8 字节的工具方法
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+final class Utf8 {
+
+    private Utf8() {
+    }
+
+    /**
+     * buffer[offset, offset + length) 是否等于 s 的 UTF-8 编码（与 String.getBytes(UTF_8) 一致）
+     */
+    static boolean equals(ByteBuffer buffer, int offset, int length, String s) {
+        int pos = offset;
+        int end = offset + length;
+        int n = s.length();
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                if (pos >= end || buffer.get(pos++) != c) {
+                    return false;
+                }
+            } else if (c < 0x800) {
+                if (end - pos < 2
+                        || buffer.get(pos++) != (byte) (0xC0 | (c >> 6))
+                        || buffer.get(pos++) != (byte) (0x80 | (c & 0x3F))) {
+                    return false;
+                }
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                if (end - pos < 4
+                        || buffer.get(pos++) != (byte) (0xF0 | (cp >> 18))
+                        || buffer.get(pos++) != (byte) (0x80 | ((cp >> 12) & 0x3F))
+                        || buffer.get(pos++) != (byte) (0x80 | ((cp >> 6) & 0x3F))
+                        || buffer.get(pos++) != (byte) (0x80 | (cp & 0x3F))) {
+                    return false;
+                }
+            } else if (Character.isSurrogate(c)) {
+                if (pos >= end || buffer.get(pos++) != '?') {
+                    return false;
+                }
+            } else {
+                if (end - pos < 3
+                        || buffer.get(pos++) != (byte) (0xE0 | (c >> 12))
+                        || buffer.get(pos++) != (byte) (0x80 | ((c >> 6) & 0x3F))
+                        || buffer.get(pos++) != (byte) (0x80 | (c & 0x3F))) {
+                    return false;
+                }
+            }
+        }
+        return pos == end;
+    }
+
+    static boolean equals(ByteBuffer a, int aOffset, ByteBuffer b, int bOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            if (a.get(aOffset + i) != b.get(bOffset + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 键的哈希，与 {@link #hash(byte[])} 结果一致；0 保留表示没有键
+     */
+    static int hash(ByteBuffer buffer, int offset, int length) {
+        int h = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            h = 31 * h + buffer.get(i);
+        }
+        return mix(h);
+    }
+
+    static int hash(byte[] bytes) {
+        int h = 0;
+        for (byte b : bytes) {
+            h = 31 * h + b;
+        }
+        return mix(h);
+    }
+
+    private static int mix(int h) {
+        h = (h ^ (h >>> 16)) * 0x9E3779B9;
+        return h == 0 ? 1 : h;
+    }
+}
@@ -0,0 +1,483 @@
+package god.github.haoer.godbase.string;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 以字节保存内容的紧凑字符串
+ *
+ * <p>项目运行在 Java 8 上（没有 JDK 9 的 Compact Strings），每个 String 都是 UTF-16 的 char[]，
+ * 对以 ASCII/Latin-1 为主的配置、字典数据来说内存翻倍。本类：
+ * 1. 编码由内容决定：所有字符都 ≤ 0xFF 时使用 LATIN1（每字符 1 字节），否则使用 UTF8
+ * 2. 可以直接包装共享的字节数组（如网络缓冲区、文件内容），{@link #slice}/{@link #subSequence} 不复制数据
+ * 3. hashCode 与 {@link String#hashCode()} 的结果相同，并且只计算一次
+ * 4. 可以作为 {@link ShardedWeakInterner} 的元素，也可以直接写入 {@link OffHeapStringDictionary}
+ *
+ * <p>注意：切片会引用整个底层数组，长期持有（如驻留）之前应先调用 {@link #compact()}。
+ * UTF8 编码下 length()/charAt() 需要从头解码，是 O(n) 的。
+ *
+ * <pre>
+ * byte[] line = "name=beijing".getBytes(StandardCharsets.US_ASCII);
+ * ByteString all = ByteString.latin1(line, 0, line.length);
+ * ByteString value = all.slice(all.indexOf((byte) '=', 0) + 1, all.byteLength()); // 不复制
+ * </pre>
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class ByteString implements CharSequence, Comparable<ByteString> {
+
+    static final byte LATIN1 = 0;
+    static final byte UTF8 = 1;
+
+    public static final ByteString EMPTY = new ByteString(new byte[0], 0, 0, LATIN1);
+
+    private final byte[] value;
+    private final int offset;
+    private final int length;
+    private final byte coder;
+    /**
+     * 缓存的哈希值，0 表示尚未计算（与 String 相同）
+     */
+    private int hash;
+
+    private ByteString(byte[] value, int offset, int length, byte coder) {
+        this.value = value;
+        this.offset = offset;
+        this.length = length;
+        this.coder = coder;
+    }
+
+    /**
+     * 从 String 复制内容，Latin-1 范围内的字符串每字符只占 1 字节
+     */
+    public static ByteString of(String s) {
+        int n = s.length();
+        if (n == 0) {
+            return EMPTY;
+        }
+        byte[] bytes = new byte[n];
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c > 0xFF) {
+                byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+                return new ByteString(utf8, 0, utf8.length, UTF8);
+            }
+            bytes[i] = (byte) c;
+        }
+        return new ByteString(bytes, 0, n, LATIN1);
+    }
+
+    /**
+     * 包装 Latin-1 字节，不复制；调用方之后不能再修改这段数据
+     */
+    public static ByteString latin1(byte[] bytes, int offset, int length) {
+        checkRange(bytes, offset, length);
+        return new ByteString(bytes, offset, length, LATIN1);
+    }
+
+    /**
+     * 包装 UTF-8 字节，不复制；调用方之后不能再修改这段数据
+     * <p>
+     * 内容全部是 ASCII 时按 LATIN1 处理（两种编码的字节相同）
+     *
+     * @throws IllegalArgumentException 不是合法的 UTF-8
+     */
+    public static ByteString utf8(byte[] bytes, int offset, int length) {
+        checkRange(bytes, offset, length);
+        int end = offset + length;
+        int pos = offset;
+        while (pos < end && bytes[pos] >= 0) {
+            pos++;
+        }
+        if (pos == end) {
+            return new ByteString(bytes, offset, length, LATIN1);
+        }
+        boolean latin1 = true;
+        while (pos < end) {
+            int lead = bytes[pos] & 0xFF;
+            int size = sequenceLength(lead);
+            if (size == 0 || pos + size > end) {
+                throw new IllegalArgumentException("非法的 UTF-8 序列，位置: " + (pos - offset));
+            }
+            int cp = decode(bytes, pos, size);
+            if (cp < 0) {
+                throw new IllegalArgumentException("非法的 UTF-8 序列，位置: " + (pos - offset));
+            }
+            latin1 &= cp <= 0xFF;
+            pos += size;
+        }
+        if (latin1) {
+            // 内容都在 Latin-1 范围内但有非 ASCII 字符，需要转码才能保证编码由内容唯一决定
+            return of(new String(bytes, offset, length, StandardCharsets.UTF_8));
+        }
+        return new ByteString(bytes, offset, length, UTF8);
+    }
+
+    /**
+     * 字符（UTF-16 code unit）个数
+     */
+    @Override
+    public int length() {
+        if (coder == LATIN1) {
+            return length;
+        }
+        int chars = 0;
+        for (int pos = offset, end = offset + length; pos < end; ) {
+            int size = sequenceLength(value[pos] & 0xFF);
+            chars += size == 4 ? 2 : 1;
+            pos += size;
+        }
+        return chars;
+    }
+
+    public int byteLength() {
+        return length;
+    }
+
+    public boolean isLatin1() {
+        return coder == LATIN1;
+    }
+
+    public byte byteAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index: " + index + ", byteLength: " + length);
+        }
+        return value[offset + index];
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (coder == LATIN1) {
+            return (char) (byteAt(index) & 0xFF);
+        }
+        if (index >= 0) {
+            CharCursor cursor = new CharCursor(this);
+            for (int i = 0; cursor.hasNext(); i++) {
+                char c = cursor.next();
+                if (i == index) {
+                    return c;
+                }
+            }
+        }
+        throw new IndexOutOfBoundsException("index: " + index);
+    }
+
+    /**
+     * 按字符下标截取，不复制数据
+     *
+     * @throws IllegalArgumentException 截断了代理对
+     */
+    @Override
+    public ByteString subSequence(int start, int end) {
+        if (coder == LATIN1) {
+            return slice(start, end);
+        }
+        if (start < 0 || start > end) {
+            throw new IndexOutOfBoundsException("start: " + start + ", end: " + end);
+        }
+        CharCursor cursor = new CharCursor(this);
+        int from = -1;
+        for (int i = 0; ; i++) {
+            if (i == start) {
+                from = cursor.bytePosition();
+            }
+            if (i == end) {
+                return new ByteString(value, from, cursor.bytePosition() - from, coder).normalize();
+            }
+            if (!cursor.hasNext()) {
+                throw new IndexOutOfBoundsException("end: " + end + ", length: " + i);
+            }
+            cursor.next();
+        }
+    }
+
+    /**
+     * 按字节下标截取，不复制数据
+     *
+     * @throws IllegalArgumentException UTF8 编码下边界落在多字节字符的中间
+     */
+    public ByteString slice(int from, int to) {
+        if (from < 0 || to > length || from > to) {
+            throw new IndexOutOfBoundsException("from: " + from + ", to: " + to + ", byteLength: " + length);
+        }
+        if (from == 0 && to == length) {
+            return this;
+        }
+        if (coder == UTF8 && (isContinuation(from) || isContinuation(to))) {
+            throw new IllegalArgumentException("切片边界位于多字节字符中间: [" + from + ", " + to + ")");
+        }
+        return new ByteString(value, offset + from, to - from, coder).normalize();
+    }
+
+    /**
+     * 从 from（字节下标）开始查找字节 b，找不到返回 -1
+     */
+    public int indexOf(byte b, int from) {
+        for (int i = Math.max(from, 0); i < length; i++) {
+            if (value[offset + i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 独占一份刚好大小的数组；本身已经独占时返回自己
+     */
+    public ByteString compact() {
+        if (offset == 0 && length == value.length) {
+            return this;
+        }
+        ByteString copy = new ByteString(Arrays.copyOfRange(value, offset, offset + length), 0, length, coder);
+        copy.hash = hash;
+        return copy;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOfRange(value, offset, offset + length);
+    }
+
+    /**
+     * 底层字节的只读视图
+     */
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(value, offset, length).slice().asReadOnlyBuffer();
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(value, offset, length);
+    }
+
+    /**
+     * UTF-8 形式的字节：UTF8 编码或纯 ASCII 时直接使用底层数组，否则转码
+     */
+    boolean isUtf8Compatible() {
+        if (coder == UTF8) {
+            return true;
+        }
+        for (int i = offset, end = offset + length; i < end; i++) {
+            if (value[i] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    byte[] array() {
+        return value;
+    }
+
+    int arrayOffset() {
+        return offset;
+    }
+
+    /**
+     * 与 {@link String#hashCode()} 相同：s[0]*31^(n-1) + ... + s[n-1]
+     */
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0 && length > 0) {
+            if (coder == LATIN1) {
+                for (int i = offset, end = offset + length; i < end; i++) {
+                    h = 31 * h + (value[i] & 0xFF);
+                }
+            } else {
+                CharCursor cursor = new CharCursor(this);
+                while (cursor.hasNext()) {
+                    h = 31 * h + cursor.next();
+                }
+            }
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ByteString)) {
+            return false;
+        }
+        ByteString other = (ByteString) obj;
+        // 编码由内容唯一决定，编码不同内容必然不同
+        if (coder != other.coder || length != other.length) {
+            return false;
+        }
+        if (hash != 0 && other.hash != 0 && hash != other.hash) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (value[offset + i] != other.value[other.offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 按 UTF-16 字符逐个比较，结果与 {@link String#compareTo(String)} 一致
+     */
+    @Override
+    public int compareTo(ByteString other) {
+        if (coder == LATIN1 && other.coder == LATIN1) {
+            int n = Math.min(length, other.length);
+            for (int i = 0; i < n; i++) {
+                int c = (value[offset + i] & 0xFF) - (other.value[other.offset + i] & 0xFF);
+                if (c != 0) {
+                    return c;
+                }
+            }
+            return length - other.length;
+        }
+        CharCursor a = new CharCursor(this);
+        CharCursor b = new CharCursor(other);
+        while (a.hasNext() && b.hasNext()) {
+            int c = a.next() - b.next();
+            if (c != 0) {
+                return c;
+            }
+        }
+        return a.hasNext() ? 1 : b.hasNext() ? -1 : 0;
+    }
+
+    @Override
+    public String toString() {
+        return new String(value, offset, length, coder == LATIN1 ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+    }
+
+    /**
+     * UTF8 切片后可能只剩 ASCII，转为 LATIN1 以保持"编码由内容决定"；
+     * 只剩非 ASCII 的 Latin-1 字符时需要转码
+     */
+    private ByteString normalize() {
+        if (coder == LATIN1) {
+            return this;
+        }
+        boolean ascii = true;
+        boolean latin1 = true;
+        for (CharCursor cursor = new CharCursor(this); cursor.hasNext() && latin1; ) {
+            char c = cursor.next();
+            ascii &= c < 0x80;
+            latin1 &= c <= 0xFF;
+        }
+        if (ascii) {
+            return new ByteString(value, offset, length, LATIN1);
+        }
+        return latin1 ? of(toString()) : this;
+    }
+
+    private boolean isContinuation(int index) {
+        return index < length && (value[offset + index] & 0xC0) == 0x80;
+    }
+
+    private static void checkRange(byte[] bytes, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > bytes.length - length) {
+            throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", array: " + bytes.length);
+        }
+    }
+
+    /**
+     * 根据首字节判断 UTF-8 序列长度，非法首字节返回 0
+     */
+    private static int sequenceLength(int lead) {
+        if (lead < 0x80) {
+            return 1;
+        } else if (lead >= 0xC2 && lead < 0xE0) {
+            return 2;
+        } else if (lead >= 0xE0 && lead < 0xF0) {
+            return 3;
+        } else if (lead >= 0xF0 && lead < 0xF5) {
+            return 4;
+        }
+        return 0;
+    }
+
+    /**
+     * 解码一个 code point，遇到非法的后续字节、过长编码或代理区字符返回 -1
+     */
+    private static int decode(byte[] bytes, int pos, int size) {
+        int cp;
+        switch (size) {
+            case 1:
+                return bytes[pos];
+            case 2:
+                cp = bytes[pos] & 0x1F;
+                break;
+            case 3:
+                cp = bytes[pos] & 0x0F;
+                break;
+            default:
+                cp = bytes[pos] & 0x07;
+                break;
+        }
+        for (int i = 1; i < size; i++) {
+            int b = bytes[pos + i];
+            if ((b & 0xC0) != 0x80) {
+                return -1;
+            }
+            cp = (cp << 6) | (b & 0x3F);
+        }
+        if ((size == 3 && (cp < 0x800 || (cp >= 0xD800 && cp <= 0xDFFF))) || (size == 4 && (cp < 0x10000 || cp > 0x10FFFF))) {
+            return -1;
+        }
+        return cp;
+    }
+
+    /**
+     * 逐个产出 UTF-16 字符，补充平面字符拆成代理对
+     */
+    private static final class CharCursor {
+        private final byte[] value;
+        private final int end;
+        private final boolean latin1;
+        private int pos;
+        private char pendingLow;
+
+        CharCursor(ByteString s) {
+            this.value = s.value;
+            this.pos = s.offset;
+            this.end = s.offset + s.length;
+            this.latin1 = s.coder == LATIN1;
+        }
+
+        boolean hasNext() {
+            return pendingLow != 0 || pos < end;
+        }
+
+        char next() {
+            if (pendingLow != 0) {
+                char low = pendingLow;
+                pendingLow = 0;
+                return low;
+            }
+            if (latin1) {
+                return (char) (value[pos++] & 0xFF);
+            }
+            int size = sequenceLength(value[pos] & 0xFF);
+            int cp = decode(value, pos, size);
+            pos += size;
+            if (cp >= 0x10000) {
+                pendingLow = Character.lowSurrogate(cp);
+                return Character.highSurrogate(cp);
+            }
+            return (char) cp;
+        }
+
+        /**
+         * 下一个字符的字节位置；处在代理对中间时无法切分
+         */
+        int bytePosition() {
+            if (pendingLow != 0) {
+                throw new IllegalArgumentException("截断了代理对");
+            }
+            return pos;
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package god.github.haoer.godbase.string;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 堆外字符串字典：每个不同的字符串只以 UTF-8 字节保存一次，对外发放紧凑的 int 编号
+ *
+ * <p>{@link InternStudy} 中提到配置、字典数据是去重收益最大的场景，但即使去重后，
+ * 数百万个 String 对象仍然留在堆上，每次 GC 都要扫描。本类把所有数据放在堆外：
+ * 1. data：所有字符串的 UTF-8 字节首尾相接
+ * 2. offsets：第 id 个字符串在 data 中的起始位置，长度 = offsets[id + 1] - offsets[id]
+ * 3. hashes：每个字符串的哈希，扩容时无需重新读取字节
+ * 4. slots：开放寻址（线性探测）的哈希槽，保存 id + 1，0 表示空槽
+ *
+ * <p>堆上只剩下几个 ByteBuffer 对象，GC 不再需要扫描字符串本身。
+ * 字典可以通过 {@link #save(Path)} 持久化，再通过 {@link #load(Path)} 以内存映射方式只读加载，
+ * 加载时不需要反序列化，也不占用堆内存。也可以直接存取 {@link ByteString}，省去与 String 之间的转码。
+ *
+ * <p>构建阶段非线程安全，构建完成（或加载）后的只读访问可以在多线程间共享。
+ *
+ * <pre>
+ * OffHeapStringDictionary dict = new OffHeapStringDictionary();
+ * int id = dict.add("beijing");
+ * dict.get(id);          // "beijing"
+ * dict.idOf("beijing");  // id
+ * </pre>
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public class OffHeapStringDictionary {
+
+    /**
+     * {@link #idOf(String)} 未找到时的返回值
+     */
+    public static final int NOT_FOUND = -1;
+
+    private static final int MAGIC = 0x53444943;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private ByteBuffer data;
+    private ByteBuffer offsets;
+    private ByteBuffer hashes;
+    private ByteBuffer slots;
+    private int size;
+    private int dataSize;
+    private int slotMask;
+    private final boolean readOnly;
+
+    public OffHeapStringDictionary() {
+        this(1024, 16 * 1024);
+    }
+
+    /**
+     * @param expectedSize  预计的字符串个数
+     * @param expectedBytes 预计的 UTF-8 总字节数
+     */
+    public OffHeapStringDictionary(int expectedSize, int expectedBytes) {
+        if (expectedSize <= 0 || expectedBytes <= 0) {
+            throw new IllegalArgumentException("expectedSize/expectedBytes 必须大于0: " + expectedSize + "/" + expectedBytes);
+        }
+        this.data = allocate(expectedBytes);
+        this.offsets = allocate((expectedSize + 1) * 4);
+        this.hashes = allocate(expectedSize * 4);
+        int slotCount = tableSizeFor((int) (expectedSize / LOAD_FACTOR) + 1);
+        this.slots = allocate(slotCount * 4);
+        this.slotMask = slotCount - 1;
+        this.readOnly = false;
+    }
+
+    private OffHeapStringDictionary(ByteBuffer data, ByteBuffer offsets, ByteBuffer hashes, ByteBuffer slots, int size, int dataSize) {
+        this.data = data;
+        this.offsets = offsets;
+        this.hashes = hashes;
+        this.slots = slots;
+        this.size = size;
+        this.dataSize = dataSize;
+        this.slotMask = slots.capacity() / 4 - 1;
+        this.readOnly = true;
+    }
+
+    /**
+     * 返回字符串的编号，不存在则追加到字典末尾并分配新编号（从 0 开始连续递增）
+     */
+    public int add(String value) {
+        byte[] bytes = encode(value);
+        return add(bytes, 0, bytes.length);
+    }
+
+    /**
+     * 同 {@link #add(String)}，UTF-8 兼容的 ByteString 直接使用其底层字节，不经过 String
+     */
+    public int add(ByteString value) {
+        if (value.isUtf8Compatible()) {
+            return add(value.array(), value.arrayOffset(), value.byteLength());
+        }
+        return add(value.toString());
+    }
+
+    private int add(byte[] bytes, int off, int len) {
+        if (readOnly) {
+            throw new IllegalStateException("字典为只读（从文件加载）");
+        }
+        int hash = hash(bytes, off, len);
+        int slot = findSlot(bytes, off, len, hash);
+        int existing = slots.getInt(slot << 2);
+        if (existing != 0) {
+            return existing - 1;
+        }
+        if (dataSize + len < 0) {
+            throw new IllegalStateException("字典数据超过 2GB 上限");
+        }
+
+        int id = size;
+        ensureCapacity(id + 1, dataSize + len);
+        ByteBuffer d = data.duplicate();
+        d.position(dataSize);
+        d.put(bytes, off, len);
+        offsets.putInt(id << 2, dataSize);
+        dataSize += len;
+        offsets.putInt((id + 1) << 2, dataSize);
+        hashes.putInt(id << 2, hash);
+        size++;
+
+        if (size > (slotMask + 1) * LOAD_FACTOR) {
+            rehash((slotMask + 1) << 1);
+        } else {
+            slots.putInt(slot << 2, id + 1);
+        }
+        return id;
+    }
+
+    /**
+     * 字符串 → 编号，不存在时返回 {@link #NOT_FOUND}
+     */
+    public int idOf(String value) {
+        byte[] bytes = encode(value);
+        return idOf(bytes, 0, bytes.length);
+    }
+
+    public int idOf(ByteString value) {
+        if (value.isUtf8Compatible()) {
+            return idOf(value.array(), value.arrayOffset(), value.byteLength());
+        }
+        return idOf(value.toString());
+    }
+
+    private int idOf(byte[] bytes, int off, int len) {
+        return slots.getInt(findSlot(bytes, off, len, hash(bytes, off, len)) << 2) - 1;
+    }
+
+    /**
+     * 编号 → 字符串，每次调用都会解码出新的 String 对象
+     */
+    public String get(int id) {
+        checkId(id);
+        int start = offsets.getInt(id << 2);
+        byte[] bytes = new byte[offsets.getInt((id + 1) << 2) - start];
+        ByteBuffer d = data.duplicate();
+        d.position(start);
+        d.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 编号 → {@link ByteString}，只复制字节，不解码为 char
+     */
+    public ByteString getByteString(int id) {
+        ByteBuffer view = bytes(id);
+        byte[] bytes = new byte[view.remaining()];
+        view.get(bytes);
+        return ByteString.utf8(bytes, 0, bytes.length);
+    }
+
+    /**
+     * 编号对应的 UTF-8 字节的只读视图，不复制数据
+     */
+    public ByteBuffer bytes(int id) {
+        checkId(id);
+        int start = offsets.getInt(id << 2);
+        ByteBuffer d = data.asReadOnlyBuffer();
+        d.limit(offsets.getInt((id + 1) << 2)).position(start);
+        return d.slice();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * 字符串数据的字节数
+     */
+    public int dataBytes() {
+        return dataSize;
+    }
+
+    /**
+     * 已分配的堆外内存（或映射区域）字节数
+     */
+    public long offHeapBytes() {
+        return (long) data.capacity() + offsets.capacity() + hashes.capacity() + slots.capacity();
+    }
+
+    /**
+     * 持久化到文件，格式：32 字节文件头 + offsets + hashes + slots + data，均为小端序
+     */
+    public void save(Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(slotMask + 1).putInt(dataSize);
+        header.clear();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, header);
+            writeFully(channel, prefix(offsets, (size + 1) * 4));
+            writeFully(channel, prefix(hashes, size * 4));
+            writeFully(channel, prefix(slots, (slotMask + 1) * 4));
+            writeFully(channel, prefix(data, dataSize));
+            channel.force(false);
+        }
+    }
+
+    /**
+     * 以只读内存映射方式加载 {@link #save(Path)} 写出的文件，文件大小受单次映射的 2GB 上限约束
+     */
+    public static OffHeapStringDictionary load(Path file) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("不是有效的字典文件: " + file);
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        mapped.order(ByteOrder.LITTLE_ENDIAN);
+        int magic = mapped.getInt(0);
+        int version = mapped.getInt(4);
+        int size = mapped.getInt(8);
+        int slotCount = mapped.getInt(12);
+        int dataSize = mapped.getInt(16);
+        if (magic != MAGIC || version != VERSION) {
+            throw new IOException("不是有效的字典文件: " + file);
+        }
+        long expected = HEADER_BYTES + (size + 1L) * 4 + size * 4L + slotCount * 4L + dataSize;
+        if (size < 0 || dataSize < 0 || Integer.bitCount(slotCount) != 1 || slotCount <= size || expected != mapped.capacity()) {
+            throw new IOException("字典文件已损坏: " + file);
+        }
+
+        int position = HEADER_BYTES;
+        ByteBuffer offsets = region(mapped, position, (size + 1) * 4);
+        position += (size + 1) * 4;
+        ByteBuffer hashes = region(mapped, position, size * 4);
+        position += size * 4;
+        ByteBuffer slots = region(mapped, position, slotCount * 4);
+        position += slotCount * 4;
+        ByteBuffer data = region(mapped, position, dataSize);
+        return new OffHeapStringDictionary(data, offsets, hashes, slots, size, dataSize);
+    }
+
+    /**
+     * 线性探测，返回匹配的槽位或第一个空槽
+     */
+    private int findSlot(byte[] bytes, int off, int len, int hash) {
+        int slot = hash & slotMask;
+        while (true) {
+            int entry = slots.getInt(slot << 2);
+            if (entry == 0) {
+                return slot;
+            }
+            int id = entry - 1;
+            if (hashes.getInt(id << 2) == hash && bytesEqual(id, bytes, off, len)) {
+                return slot;
+            }
+            slot = (slot + 1) & slotMask;
+        }
+    }
+
+    private boolean bytesEqual(int id, byte[] bytes, int off, int len) {
+        int start = offsets.getInt(id << 2);
+        if (offsets.getInt((id + 1) << 2) - start != len) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            if (data.get(start + i) != bytes[off + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void ensureCapacity(int ids, int bytes) {
+        if (bytes > data.capacity()) {
+            data = grow(data, dataSize, newCapacity(data.capacity(), bytes));
+        }
+        if ((ids + 1) * 4 > offsets.capacity()) {
+            int capacity = newCapacity(offsets.capacity() / 4, ids + 1);
+            offsets = grow(offsets, size * 4 + 4, capacity * 4);
+            hashes = grow(hashes, size * 4, capacity * 4);
+        }
+    }
+
+    /**
+     * 只依据 hashes 重建槽位，不需要读取字符串字节
+     */
+    private void rehash(int slotCount) {
+        ByteBuffer table = allocate(slotCount * 4);
+        int mask = slotCount - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes.getInt(id << 2) & mask;
+            while (table.getInt(slot << 2) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table.putInt(slot << 2, id + 1);
+        }
+        slots = table;
+        slotMask = mask;
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= size) {
+            throw new IllegalArgumentException("无效的编号: " + id + "，当前大小: " + size);
+        }
+    }
+
+    private static byte[] encode(String value) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int hash(byte[] bytes, int off, int len) {
+        int h = 0;
+        for (int i = off, end = off + len; i < end; i++) {
+            h = 31 * h + bytes[i];
+        }
+        return (h ^ (h >>> 16)) * 0x9E3779B9;
+    }
+
+    private static int newCapacity(int current, int required) {
+        long capacity = Math.max((long) current << 1, required);
+        return (int) Math.min(capacity, Integer.MAX_VALUE - 8);
+    }
+
+    private static int tableSizeFor(int n) {
+        int size = 1;
+        while (size < n) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    private static ByteBuffer allocate(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static ByteBuffer grow(ByteBuffer old, int used, int capacity) {
+        ByteBuffer bigger = allocate(capacity);
+        bigger.put(prefix(old, used));
+        bigger.clear();
+        return bigger;
+    }
+
+    private static ByteBuffer prefix(ByteBuffer buffer, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.clear().limit(length);
+        return view;
+    }
+
+    private static ByteBuffer region(ByteBuffer buffer, int position, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.limit(position + length).position(position);
+        return view.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
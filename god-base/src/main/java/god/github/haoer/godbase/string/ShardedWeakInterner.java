@@ -0,0 +1,347 @@
+package god.github.haoer.godbase.string;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 分段、弱引用的对象驻留池，作为 String.intern() 的库级替代
+ *
+ * <p>{@link InternStudy} 中的 intern() 依赖 JVM 的 StringTable：
+ * 1. 它是一张固定大小的本地哈希表（JDK 8 默认 60013 个桶），调优只能通过全局的 -XX:StringTableSize
+ * 2. 无法观察命中率、冲突等运行时指标
+ * 3. 只能驻留 String
+ *
+ * <p>本类的设计：
+ * 1. 按哈希高位分为多个段（shard），每段一把锁，写入互不干扰
+ * 2. 读取无锁：桶数组用 {@link AtomicReferenceArray} 保证可见性，链表节点不可变（参考 JDK 7 ConcurrentHashMap）
+ * 3. 节点是 {@link WeakReference}，没有外部引用的字符串可以被 GC 回收，回收后的节点在写入时清理
+ * 4. 提供大小、命中率、冲突次数、回收次数等统计
+ *
+ * <pre>
+ * ShardedWeakInterner&lt;String&gt; interner = new ShardedWeakInterner&lt;&gt;();
+ * String canonical = interner.intern(new String("a"));
+ * </pre>
+ *
+ * @param <E> 被驻留的对象类型，必须正确实现 equals/hashCode 且不可变
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public class ShardedWeakInterner<E> {
+
+    private static final int MAX_SHARDS = 1 << 16;
+    private static final int INITIAL_BINS = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final Shard<E>[] shards;
+    private final int shardShift;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * 默认段数为 CPU 核数的 4 倍
+     */
+    public ShardedWeakInterner() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * @param concurrency 预期并发写入的线程数，向上取整为 2 的幂作为段数
+     */
+    public ShardedWeakInterner(int concurrency) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("concurrency 必须大于0: " + concurrency);
+        }
+        int n = 1;
+        while (n < concurrency && n < MAX_SHARDS) {
+            n <<= 1;
+        }
+        this.shards = newShards(n);
+        for (int i = 0; i < n; i++) {
+            shards[i] = new Shard<>(this);
+        }
+        this.shardShift = 32 - Integer.numberOfTrailingZeros(n);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> Shard<E>[] newShards(int n) {
+        // 不能直接创建泛型数组，数组只在本类内部使用，元素类型由构造方法保证
+        return (Shard<E>[]) new Shard<?>[n];
+    }
+
+    /**
+     * 返回与 sample 相等的规范对象：已存在则返回池中的对象，否则把 sample 放入池中并返回
+     */
+    public E intern(E sample) {
+        if (sample == null) {
+            throw new NullPointerException("sample");
+        }
+        int hash = spread(sample.hashCode());
+        E existing = shardFor(hash).find(sample, hash);
+        if (existing != null) {
+            hits.increment();
+            return existing;
+        }
+        return shardFor(hash).insert(sample, hash);
+    }
+
+    /**
+     * 查找规范对象，不存在时返回 null，不会插入
+     */
+    public E get(E sample) {
+        int hash = spread(sample.hashCode());
+        return shardFor(hash).find(sample, hash);
+    }
+
+    /**
+     * 池中条目数（包含已被回收但尚未清理的条目）
+     */
+    public int size() {
+        int size = 0;
+        for (Shard<E> shard : shards) {
+            size += shard.count;
+        }
+        return size;
+    }
+
+    /**
+     * 立即清理所有已被 GC 回收的条目
+     */
+    public void expungeStaleEntries() {
+        for (Shard<E> shard : shards) {
+            synchronized (shard) {
+                shard.expungeStaleEntries();
+            }
+        }
+    }
+
+    public Stats stats() {
+        int maxChain = 0;
+        long bins = 0;
+        for (Shard<E> shard : shards) {
+            AtomicReferenceArray<Entry<E>> table = shard.table;
+            bins += table.length();
+            for (int i = 0; i < table.length(); i++) {
+                int len = 0;
+                for (Entry<E> e = table.get(i); e != null; e = e.next) {
+                    len++;
+                }
+                maxChain = Math.max(maxChain, len);
+            }
+        }
+        return new Stats(size(), shards.length, bins, hits.sum(), misses.sum(), collisions.sum(), evictions.sum(), maxChain);
+    }
+
+    private Shard<E> shardFor(int hash) {
+        return shards.length == 1 ? shards[0] : shards[hash >>> shardShift];
+    }
+
+    /**
+     * 与 HashMap 相同的扰动，让低位也受高位影响
+     */
+    private static int spread(int h) {
+        return (h ^ (h >>> 16)) * 0x9E3779B9;
+    }
+
+    /**
+     * 弱引用节点，hash 与 next 不可变，删除时复制前缀
+     */
+    private static final class Entry<E> extends WeakReference<E> {
+        final int hash;
+        final Entry<E> next;
+
+        Entry(E referent, int hash, Entry<E> next, ReferenceQueue<? super E> queue) {
+            super(referent, queue);
+            this.hash = hash;
+            this.next = next;
+        }
+    }
+
+    private static final class Shard<E> {
+        private final ShardedWeakInterner<E> owner;
+        private final ReferenceQueue<E> queue = new ReferenceQueue<>();
+        volatile AtomicReferenceArray<Entry<E>> table = new AtomicReferenceArray<>(INITIAL_BINS);
+        volatile int count;
+        private int threshold = (int) (INITIAL_BINS * LOAD_FACTOR);
+
+        Shard(ShardedWeakInterner<E> owner) {
+            this.owner = owner;
+        }
+
+        /**
+         * 无锁查找
+         */
+        E find(E sample, int hash) {
+            AtomicReferenceArray<Entry<E>> tab = table;
+            long probes = 0;
+            try {
+                for (Entry<E> e = tab.get(hash & (tab.length() - 1)); e != null; e = e.next) {
+                    if (e.hash == hash) {
+                        E value = e.get();
+                        if (value != null && value.equals(sample)) {
+                            return value;
+                        }
+                    }
+                    probes++;
+                }
+                return null;
+            } finally {
+                if (probes > 0) {
+                    owner.collisions.add(probes);
+                }
+            }
+        }
+
+        synchronized E insert(E sample, int hash) {
+            expungeStaleEntries();
+            // 加锁后再查一次，其他线程可能刚刚插入
+            E existing = find(sample, hash);
+            if (existing != null) {
+                owner.hits.increment();
+                return existing;
+            }
+            if (count >= threshold) {
+                resize();
+            }
+            AtomicReferenceArray<Entry<E>> tab = table;
+            int index = hash & (tab.length() - 1);
+            tab.set(index, new Entry<>(sample, hash, tab.get(index), queue));
+            count++;
+            owner.misses.increment();
+            return sample;
+        }
+
+        /**
+         * 清理被回收的节点；调用方持有锁
+         */
+        void expungeStaleEntries() {
+            Reference<? extends E> ref;
+            while ((ref = queue.poll()) != null) {
+                @SuppressWarnings("unchecked")
+                Entry<E> stale = (Entry<E>) ref;
+                AtomicReferenceArray<Entry<E>> tab = table;
+                int index = stale.hash & (tab.length() - 1);
+                Entry<E> head = tab.get(index);
+                // 节点可能已在扩容时被丢弃，只有仍在链表中才需要删除
+                for (Entry<E> e = head; e != null; e = e.next) {
+                    if (e == stale) {
+                        tab.set(index, removeFromChain(head, stale));
+                        count--;
+                        owner.evictions.increment();
+                        break;
+                    }
+                }
+            }
+        }
+
+        /**
+         * 复制 stale 之前的节点，跳过 stale 及途中已被回收的节点
+         */
+        private Entry<E> removeFromChain(Entry<E> head, Entry<E> stale) {
+            Entry<E> newHead = stale.next;
+            for (Entry<E> e = head; e != stale; e = e.next) {
+                E value = e.get();
+                if (value != null) {
+                    newHead = new Entry<>(value, e.hash, newHead, queue);
+                } else {
+                    count--;
+                    owner.evictions.increment();
+                }
+            }
+            return newHead;
+        }
+
+        private void resize() {
+            AtomicReferenceArray<Entry<E>> old = table;
+            int newLength = old.length() << 1;
+            AtomicReferenceArray<Entry<E>> tab = new AtomicReferenceArray<>(newLength);
+            int live = 0;
+            for (int i = 0; i < old.length(); i++) {
+                for (Entry<E> e = old.get(i); e != null; e = e.next) {
+                    E value = e.get();
+                    if (value == null) {
+                        owner.evictions.increment();
+                        continue;
+                    }
+                    int index = e.hash & (newLength - 1);
+                    tab.set(index, new Entry<>(value, e.hash, tab.get(index), queue));
+                    live++;
+                }
+            }
+            table = tab;
+            count = live;
+            threshold = (int) (newLength * LOAD_FACTOR);
+        }
+    }
+
+    /**
+     * 驻留池统计信息
+     */
+    public static final class Stats {
+        private final int size;
+        private final int shards;
+        private final long bins;
+        private final long hits;
+        private final long misses;
+        private final long collisions;
+        private final long evictions;
+        private final int maxChainLength;
+
+        Stats(int size, int shards, long bins, long hits, long misses, long collisions, long evictions, int maxChainLength) {
+            this.size = size;
+            this.shards = shards;
+            this.bins = bins;
+            this.hits = hits;
+            this.misses = misses;
+            this.collisions = collisions;
+            this.evictions = evictions;
+            this.maxChainLength = maxChainLength;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public double getHitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+
+        /**
+         * 查找时在链表中越过的不匹配节点总数
+         */
+        public long getCollisions() {
+            return collisions;
+        }
+
+        /**
+         * 因对象被 GC 回收而清理的条目数
+         */
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public int getMaxChainLength() {
+            return maxChainLength;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Stats{size=%d, shards=%d, bins=%d, hits=%d, misses=%d, hitRate=%.2f%%, collisions=%d, evictions=%d, maxChain=%d}",
+                    size, shards, bins, hits, misses, getHitRate() * 100, collisions, evictions, maxChainLength);
+        }
+    }
+}
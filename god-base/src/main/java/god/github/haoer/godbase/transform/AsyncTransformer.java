@@ -0,0 +1,78 @@
+package god.github.haoer.godbase.transform;
+
+import god.github.haoer.godbase.generic.GenericWildCard.Transformer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * 非阻塞的 Transformer：transform 立即返回 CompletableFuture，结果就绪后再继续处理，适合查库、远程调用等 I/O 型转换
+ *
+ * <p>单独使用时与 CompletableFuture 相同；批量处理时交给 {@link god.github.haoer.godbase.transform.flow.AsyncStream#mapAsync}，
+ * 由下游的请求数驱动并限制同时进行的转换数量，不会一次性为所有元素发起调用。
+ *
+ * <pre>
+ * AsyncTransformer&lt;String, User&gt; load = new AsyncTransformer&lt;&gt;(userClient::findAsync);
+ * AsyncTransformer&lt;String, Integer&gt; age = load.thenApply(User::getAge);
+ * age.transform("zhangsan").thenAccept(System.out::println);
+ * </pre>
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public class AsyncTransformer<T, R> extends Transformer<T, CompletableFuture<R>> {
+
+    public AsyncTransformer(Function<T, CompletableFuture<R>> function) {
+        super(function);
+    }
+
+    /**
+     * 把同步的 Transformer 放到 executor 上执行。
+     * 阻塞调用仍然占用 executor 的线程，需要配合 mapAsync 的并发上限或专用线程池使用
+     */
+    public static <T, R> AsyncTransformer<T, R> of(Transformer<T, R> transformer, Executor executor) {
+        return new AsyncTransformer<>(input -> CompletableFuture.supplyAsync(() -> transformer.transform(input), executor));
+    }
+
+    /**
+     * 已经有结果的同步转换，不切换线程
+     */
+    public static <T, R> AsyncTransformer<T, R> completed(Transformer<T, R> transformer) {
+        return new AsyncTransformer<>(input -> CompletableFuture.completedFuture(transformer.transform(input)));
+    }
+
+    /**
+     * 转换过程中同步抛出的异常也以失败的 CompletableFuture 返回，调用方只需要处理一种失败方式
+     */
+    @Override
+    public CompletableFuture<R> transform(T input) {
+        CompletableFuture<R> future;
+        try {
+            future = super.transform(input);
+        } catch (Throwable e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+        if (future == null) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(new NullPointerException("AsyncTransformer 返回了 null"));
+        }
+        return future;
+    }
+
+    /**
+     * 结果就绪后再做一次同步转换
+     */
+    public <V> AsyncTransformer<T, V> thenApply(Function<? super R, ? extends V> next) {
+        return new AsyncTransformer<>(input -> transform(input).thenApply(next));
+    }
+
+    /**
+     * 结果就绪后再做一次异步转换
+     */
+    public <V> AsyncTransformer<T, V> thenCompose(AsyncTransformer<R, V> next) {
+        return new AsyncTransformer<>(input -> transform(input).thenCompose(next::transform));
+    }
+}
@@ -0,0 +1,73 @@
+package god.github.haoer.godbase.transform;
+
+import god.github.haoer.godbase.cache.TinyLfuCache;
+import god.github.haoer.godbase.generic.GenericWildCard.Transformer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 带缓存的 Transformer：相同输入只转换一次，适合名称规范化、查表等代价高且结果确定的转换
+ *
+ * <p>结果缓存在有界的 {@link TinyLfuCache} 中（W-TinyLFU，抗扫描），可设置写入后过期；
+ * 多个线程同时转换同一个输入时只调用一次原 Transformer。输入为 null 或结果为 null 时不缓存。
+ *
+ * <pre>
+ * Transformer&lt;String, String&gt; normalize = new MemoizingTransformer&lt;&gt;(
+ *         new Transformer&lt;&gt;(NameNormalizer::normalize), 10_000, 10, TimeUnit.MINUTES);
+ * normalize.transform(" Zhang San ");
+ * ((MemoizingTransformer&lt;String, String&gt;) normalize).stats();
+ * </pre>
+ *
+ * <p>不同访问分布下的命中率与吞吐见 MemoizingTransformerBenchmark。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class MemoizingTransformer<T, R> extends Transformer<T, R> {
+
+    private final Transformer<T, R> delegate;
+    private final TinyLfuCache<T, R> cache;
+
+    /**
+     * @param maximumSize 最多缓存的结果数
+     */
+    public MemoizingTransformer(Transformer<T, R> delegate, long maximumSize) {
+        this(delegate, new TinyLfuCache<>(maximumSize));
+    }
+
+    /**
+     * @param expireAfterWrite 结果缓存的时间，0 表示不过期
+     */
+    public MemoizingTransformer(Transformer<T, R> delegate, long maximumSize, long expireAfterWrite, TimeUnit unit) {
+        this(delegate, new TinyLfuCache<>(maximumSize, expireAfterWrite, unit));
+    }
+
+    private MemoizingTransformer(Transformer<T, R> delegate, TinyLfuCache<T, R> cache) {
+        super(delegate::transform);
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public R transform(T input) {
+        if (input == null) {
+            return delegate.transform(null);
+        }
+        return cache.get(input, delegate::transform);
+    }
+
+    /**
+     * 丢弃某个输入的缓存结果，下次重新转换
+     */
+    public void invalidate(T input) {
+        cache.invalidate(input);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public TinyLfuCache.Stats stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,304 @@
+package god.github.haoer.godbase.transform;
+
+import god.github.haoer.godbase.generic.GenericWildCard.Transformer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 融合的转换流水线：多个 {@link Transformer} 组合成一个函数，每个元素只经过一次调用链
+ *
+ * <p>逐个 Transformer 处理整个列表时，每一步都要生成一个中间列表；java.util.stream 没有中间集合，
+ * 但每个元素要经过 Sink 链和 Spliterator 的多层调用。本类在构建时把各阶段组合成一个函数：
+ * 1. {@link #map(Function)}、{@link #then(Transformer)} 追加转换，{@link #filter(Predicate)} 追加过滤，构建出的流水线不可变、可复用
+ * 2. {@link #applyAll(List)}、{@link #applyAll(Object[])}、{@link #applyInto(Object[], Object[])} 单线程单次遍历，结果直接写入输出
+ * 3. {@link #applyParallel(List)} 按下标区间在 ForkJoinPool 中拆分，各子任务写入同一个结果数组的不同区间，不合并中间结果
+ *
+ * <p>流水线本身也是一个 Transformer，可以传给接受 Transformer 的代码；元素被过滤时 {@link #transform(Object)} 返回 null。
+ *
+ * <pre>
+ * Pipeline&lt;User, String&gt; pipeline = Pipeline.of(new Transformer&lt;User, String&gt;(User::getName))
+ *         .filter(name -&gt; name != null)
+ *         .map(String::trim);
+ * List&lt;String&gt; names = pipeline.applyAll(users);
+ * List&lt;String&gt; parallel = pipeline.applyParallel(users);
+ * </pre>
+ *
+ * <p>与逐个 transform、java.util.stream 的对比见 PipelineBenchmark。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class Pipeline<T, R> extends Transformer<T, R> {
+
+    /**
+     * 元素数小于该值时 applyParallel 直接单线程执行
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    /**
+     * 并行拆分的最小区间
+     */
+    private static final int MIN_CHUNK = 1 << 10;
+
+    /**
+     * 被过滤的元素
+     */
+    private static final Object SKIP = new Object();
+
+    private final Function<Object, Object> fused;
+    private final boolean filtering;
+
+    private Pipeline(Function<Object, Object> fused, boolean filtering) {
+        super(unskip(fused));
+        this.fused = fused;
+        this.filtering = filtering;
+    }
+
+    /**
+     * 不做任何转换的流水线，用于从头开始组合
+     */
+    public static <T> Pipeline<T, T> identity() {
+        return new Pipeline<>(Function.identity(), false);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T, R> Pipeline<T, R> of(Transformer<T, R> transformer) {
+        if (transformer instanceof Pipeline) {
+            return (Pipeline<T, R>) transformer;
+        }
+        return new Pipeline<>(input -> transformer.transform((T) input), false);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T, R> Pipeline<T, R> of(Function<? super T, ? extends R> function) {
+        return new Pipeline<>(input -> function.apply((T) input), false);
+    }
+
+    /**
+     * 追加一个转换阶段
+     */
+    @SuppressWarnings("unchecked")
+    public <V> Pipeline<T, V> map(Function<? super R, ? extends V> function) {
+        Function<Object, Object> previous = fused;
+        if (!filtering) {
+            return new Pipeline<>(input -> function.apply((R) previous.apply(input)), false);
+        }
+        return new Pipeline<>(input -> {
+            Object value = previous.apply(input);
+            return value == SKIP ? SKIP : function.apply((R) value);
+        }, true);
+    }
+
+    /**
+     * 追加一个 Transformer 阶段；参数本身是 Pipeline 时合并其全部阶段
+     */
+    @SuppressWarnings("unchecked")
+    public <V> Pipeline<T, V> then(Transformer<R, V> next) {
+        if (!(next instanceof Pipeline)) {
+            return map(next::transform);
+        }
+        Pipeline<R, V> other = (Pipeline<R, V>) next;
+        Function<Object, Object> first = fused;
+        Function<Object, Object> second = other.fused;
+        if (!filtering) {
+            return new Pipeline<>(input -> second.apply(first.apply(input)), other.filtering);
+        }
+        return new Pipeline<>(input -> {
+            Object value = first.apply(input);
+            return value == SKIP ? SKIP : second.apply(value);
+        }, true);
+    }
+
+    /**
+     * 追加一个过滤阶段，不满足条件的元素不再经过后续阶段，也不出现在批量结果中
+     */
+    @SuppressWarnings("unchecked")
+    public Pipeline<T, R> filter(Predicate<? super R> predicate) {
+        Function<Object, Object> previous = fused;
+        if (!filtering) {
+            return new Pipeline<>(input -> {
+                Object value = previous.apply(input);
+                return predicate.test((R) value) ? value : SKIP;
+            }, true);
+        }
+        return new Pipeline<>(input -> {
+            Object value = previous.apply(input);
+            return value == SKIP || !predicate.test((R) value) ? SKIP : value;
+        }, true);
+    }
+
+    /**
+     * 是否含有过滤阶段；没有时批量结果与输入一一对应
+     */
+    public boolean isFiltering() {
+        return filtering;
+    }
+
+    /**
+     * 单线程处理整个列表
+     *
+     * @return 新的 ArrayList，不含被过滤的元素
+     */
+    @SuppressWarnings("unchecked")
+    public List<R> applyAll(List<? extends T> input) {
+        Function<Object, Object> f = fused;
+        int n = input.size();
+        ArrayList<R> out = new ArrayList<>(n);
+        if (input instanceof RandomAccess) {
+            for (int i = 0; i < n; i++) {
+                Object value = f.apply(input.get(i));
+                if (value != SKIP) {
+                    out.add((R) value);
+                }
+            }
+        } else {
+            for (T element : input) {
+                Object value = f.apply(element);
+                if (value != SKIP) {
+                    out.add((R) value);
+                }
+            }
+        }
+        return out;
+    }
+
+    /**
+     * 单线程处理整个数组
+     *
+     * @return 新的 ArrayList，不含被过滤的元素
+     */
+    public List<R> applyAll(T[] input) {
+        return applyAll(Arrays.asList(input));
+    }
+
+    /**
+     * 单线程处理整个数组，结果从 output[0] 开始连续写入，不分配任何集合
+     *
+     * @param output 长度不能小于 input
+     * @return 写入的元素数
+     */
+    @SuppressWarnings("unchecked")
+    public int applyInto(T[] input, R[] output) {
+        if (output.length < input.length) {
+            throw new IllegalArgumentException("output 长度不足: " + output.length + " < " + input.length);
+        }
+        Function<Object, Object> f = fused;
+        int count = 0;
+        for (T element : input) {
+            Object value = f.apply(element);
+            if (value != SKIP) {
+                output[count++] = (R) value;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 逐个处理并交给 action，不保存结果
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(Iterable<? extends T> input, Consumer<? super R> action) {
+        Function<Object, Object> f = fused;
+        for (T element : input) {
+            Object value = f.apply(element);
+            if (value != SKIP) {
+                action.accept((R) value);
+            }
+        }
+    }
+
+    /**
+     * 在公共 ForkJoinPool 中并行处理，结果顺序与输入一致
+     *
+     * @see #applyParallel(List, ForkJoinPool)
+     */
+    public List<R> applyParallel(List<? extends T> input) {
+        return applyParallel(input, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 并行处理，结果顺序与输入一致；元素数小于 {@link #PARALLEL_THRESHOLD} 时单线程执行。
+     * 各阶段的函数会被多个线程同时调用，必须是线程安全的
+     *
+     * @return 固定大小的列表（不能增删元素），不含被过滤的元素
+     */
+    @SuppressWarnings("unchecked")
+    public List<R> applyParallel(List<? extends T> input, ForkJoinPool pool) {
+        int n = input.size();
+        if (n < PARALLEL_THRESHOLD || pool.getParallelism() == 1) {
+            return applyAll(input);
+        }
+        // RandomAccess 的列表并发只读是安全的，直接按下标读取；其他列表先复制成数组
+        List<?> source = input instanceof RandomAccess ? input : Arrays.asList(input.toArray());
+        Object[] out = new Object[n];
+        int chunk = Math.max(MIN_CHUNK, n / (pool.getParallelism() * 8));
+        pool.invoke(new Batch(fused, source, out, 0, n, chunk));
+        int count = n;
+        if (filtering) {
+            // 各区间结果中被过滤的位置是 SKIP，顺序压缩一次
+            count = 0;
+            for (Object value : out) {
+                if (value != SKIP) {
+                    out[count++] = value;
+                }
+            }
+        }
+        return (List<R>) Arrays.asList(count == n ? out : Arrays.copyOf(out, count));
+    }
+
+    private static <T, R> Function<T, R> unskip(Function<Object, Object> fused) {
+        return input -> {
+            Object value = fused.apply(input);
+            @SuppressWarnings("unchecked")
+            R result = value == SKIP ? null : (R) value;
+            return result;
+        };
+    }
+
+    /**
+     * 处理 [from, to) 区间，超过 chunk 时二分
+     */
+    private static final class Batch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Function<Object, Object> fused;
+        private final List<?> input;
+        private final Object[] output;
+        private final int from;
+        private final int to;
+        private final int chunk;
+
+        Batch(Function<Object, Object> fused, List<?> input, Object[] output, int from, int to, int chunk) {
+            this.fused = fused;
+            this.input = input;
+            this.output = output;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                Function<Object, Object> f = fused;
+                List<?> in = input;
+                Object[] out = output;
+                for (int i = from; i < to; i++) {
+                    out[i] = f.apply(in.get(i));
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Batch(fused, input, output, from, mid, chunk),
+                    new Batch(fused, input, output, mid, to, chunk));
+        }
+    }
+}
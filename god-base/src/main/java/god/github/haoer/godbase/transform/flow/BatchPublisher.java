@@ -0,0 +1,113 @@
+package god.github.haoer.godbase.transform.flow;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 把上游元素按 batchSize 个一组打包成 List 发给下游，最后不足一组的在上游完成时发出
+ *
+ * <p>下游请求 n 个批次，就向上游请求 n * batchSize 个元素，一次下游请求对应一次上游请求。
+ * 下游可以一次写一批（批量入库、批量 RPC），而不是每个元素一次 I/O。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+final class BatchPublisher<T> implements Flow.Publisher<List<T>> {
+
+    private final Flow.Publisher<? extends T> source;
+    private final int batchSize;
+
+    BatchPublisher(Flow.Publisher<? extends T> source, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize 必须大于0: " + batchSize);
+        }
+        this.source = source;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super List<T>> subscriber) {
+        source.subscribe(new BatchSubscriber<T>(subscriber, batchSize));
+    }
+
+    private static final class BatchSubscriber<T> implements Flow.Subscriber<T>, Flow.Subscription {
+
+        private final Flow.Subscriber<? super List<T>> downstream;
+        private final int batchSize;
+        private Flow.Subscription upstream;
+        private List<T> batch;
+        private boolean done;
+
+        BatchSubscriber(Flow.Subscriber<? super List<T>> downstream, int batchSize) {
+            this.downstream = downstream;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (upstream != null) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (done) {
+                return;
+            }
+            List<T> b = batch;
+            if (b == null) {
+                b = new ArrayList<>(batchSize);
+                batch = b;
+            }
+            b.add(item);
+            if (b.size() == batchSize) {
+                batch = null;
+                downstream.onNext(b);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (done) {
+                return;
+            }
+            done = true;
+            batch = null;
+            downstream.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            List<T> b = batch;
+            batch = null;
+            if (b != null) {
+                downstream.onNext(b);
+            }
+            downstream.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                // 交给上游按规范以 onError 结束
+                upstream.request(n);
+                return;
+            }
+            long items = n * batchSize;
+            upstream.request(items / batchSize == n ? items : Long.MAX_VALUE);
+        }
+
+        @Override
+        public void cancel() {
+            upstream.cancel();
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package god.github.haoer.godbase.transform.flow;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 有界缓冲的热 Publisher：生产者主动推送元素，订阅者按请求数取走
+ *
+ * <p>缓冲区满时 {@link #offer(Object)} 返回 false、{@link #submit(Object)} 阻塞生产者线程，
+ * 消费者慢时压力传回生产者，而不是在内存里无限堆积。只允许一个订阅者；订阅之前提交的元素留在缓冲区里。
+ *
+ * <pre>
+ * BufferedPublisher&lt;String&gt; names = new BufferedPublisher&lt;&gt;(1024);
+ * CompletableFuture&lt;Void&gt; done = AsyncStream.from(names)
+ *         .mapAsync(loadUser, 16)
+ *         .forEach(repository::put);
+ * for (String name : reader) {
+ *     names.submit(name);
+ * }
+ * names.close();
+ * </pre>
+ *
+ * <p>生产者可以有多个线程；onNext 在调用 submit/offer/request 的某个线程上串行执行。
+ * 入队与 close()/cancel() 在同一把锁下检查状态：提交成功的元素一定在 onComplete 之前发出，
+ * 关闭或取消时立即唤醒阻塞的生产者。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class BufferedPublisher<T> implements Flow.Publisher<T> {
+
+    private final ArrayDeque<T> queue;
+    private final int capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final Flow.Subscription subscription = new BufferSubscription();
+    private volatile Flow.Subscriber<? super T> subscriber;
+    private volatile boolean closed;
+    private volatile Throwable error;
+    private volatile boolean cancelled;
+    private boolean subscribed;
+
+    /**
+     * @param capacity 缓冲区能容纳的元素数
+     */
+    public BufferedPublisher(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity 必须大于0: " + capacity);
+        }
+        this.queue = new ArrayDeque<>(capacity);
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        synchronized (this) {
+            if (subscribed) {
+                Demand.error(subscriber, new IllegalStateException("BufferedPublisher 只允许一个订阅者"));
+                return;
+            }
+            subscribed = true;
+        }
+        subscriber.onSubscribe(subscription);
+        this.subscriber = subscriber;
+        drain();
+    }
+
+    /**
+     * 缓冲区满、已关闭或订阅者已取消时返回 false，不阻塞
+     */
+    public boolean offer(T item) {
+        Objects.requireNonNull(item, "item");
+        lock.lock();
+        try {
+            if (closed || cancelled || queue.size() == capacity) {
+                return false;
+            }
+            queue.add(item);
+        } finally {
+            lock.unlock();
+        }
+        drain();
+        return true;
+    }
+
+    /**
+     * 缓冲区满、已关闭或订阅者已取消时返回 false，最多等待 timeout
+     */
+    public boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.requireNonNull(item, "item");
+        if (!enqueue(item, unit.toNanos(timeout))) {
+            return false;
+        }
+        drain();
+        return true;
+    }
+
+    /**
+     * 缓冲区满时阻塞，直到订阅者取走元素
+     *
+     * @throws IllegalStateException 已关闭或订阅者已取消
+     */
+    public void submit(T item) throws InterruptedException {
+        Objects.requireNonNull(item, "item");
+        if (!enqueue(item, -1)) {
+            throw new IllegalStateException(closed ? "BufferedPublisher 已关闭" : "订阅者已取消");
+        }
+        drain();
+    }
+
+    /**
+     * 不再提交元素；缓冲区里剩下的元素发完后通知 onComplete
+     */
+    public void close() {
+        terminate(null);
+    }
+
+    /**
+     * 以错误结束，缓冲区里未发出的元素被丢弃
+     */
+    public void closeExceptionally(Throwable error) {
+        Objects.requireNonNull(error, "error");
+        terminate(error);
+    }
+
+    /**
+     * 缓冲区中等待发出的元素数
+     */
+    public int buffered() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * 缓冲区满时等待，关闭或取消时被 {@link #notFull} 唤醒
+     *
+     * @param nanos 最多等待的时间，小于 0 表示一直等待
+     * @return 已入队；已关闭、已取消或等待超时返回 false
+     */
+    private boolean enqueue(T item, long nanos) throws InterruptedException {
+        boolean timed = nanos >= 0;
+        lock.lockInterruptibly();
+        try {
+            while (!closed && !cancelled && queue.size() == capacity) {
+                if (!timed) {
+                    notFull.await();
+                } else if (nanos <= 0) {
+                    return false;
+                } else {
+                    nanos = notFull.awaitNanos(nanos);
+                }
+            }
+            if (closed || cancelled) {
+                return false;
+            }
+            queue.add(item);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 在锁内置为关闭：之后不会再有元素入队，drain 看到 closed 后取空缓冲区即可安全地发出终止信号
+     */
+    private void terminate(Throwable error) {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            if (error != null) {
+                this.error = error;
+            }
+            closed = true;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        drain();
+    }
+
+    private T poll() {
+        lock.lock();
+        try {
+            T item = queue.poll();
+            if (item != null) {
+                notFull.signal();
+            }
+            return item;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isEmpty() {
+        lock.lock();
+        try {
+            return queue.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void clear() {
+        lock.lock();
+        try {
+            queue.clear();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 串行发送：wip 从 0 变为 1 的线程进入循环，其他线程只把 wip 加一，让它多循环一次。
+     * 结束（完成、出错、取消）后直接返回、不再递减 wip，之后的 drain 都不会进入循环
+     */
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        for (;;) {
+            Flow.Subscriber<? super T> s = subscriber;
+            if (s != null) {
+                if (cancelled) {
+                    clear();
+                    return;
+                }
+                Throwable e = error;
+                if (e != null) {
+                    clear();
+                    s.onError(e);
+                    return;
+                }
+                long r = requested.get();
+                long emitted = 0;
+                while (emitted != r) {
+                    boolean done = closed;
+                    T item = poll();
+                    if (item == null) {
+                        if (done) {
+                            s.onComplete();
+                            return;
+                        }
+                        break;
+                    }
+                    s.onNext(item);
+                    emitted++;
+                    if (cancelled) {
+                        clear();
+                        return;
+                    }
+                }
+                if (emitted == r && closed && error == null && isEmpty()) {
+                    s.onComplete();
+                    return;
+                }
+                if (emitted != 0) {
+                    Demand.produced(requested, emitted);
+                }
+            }
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) {
+                return;
+            }
+        }
+    }
+
+    private final class BufferSubscription implements Flow.Subscription {
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                // 非法请求即使在 close() 之后也以错误结束
+                lock.lock();
+                try {
+                    error = Demand.invalidRequest(n);
+                    closed = true;
+                    notFull.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                drain();
+                return;
+            }
+            Demand.add(requested, n);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            lock.lock();
+            try {
+                cancelled = true;
+                // 唤醒阻塞在 submit 上的生产者，让它们立即失败而不是一直等待
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            drain();
+        }
+    }
+}
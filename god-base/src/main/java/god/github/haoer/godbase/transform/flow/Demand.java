@@ -0,0 +1,79 @@
+package god.github.haoer.godbase.transform.flow;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 请求数的累加与扣减，Long.MAX_VALUE 表示无限
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+final class Demand {
+
+    static final Flow.Subscription EMPTY = new Flow.Subscription() {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    };
+
+    private Demand() {
+    }
+
+    /**
+     * 溢出时封顶为 Long.MAX_VALUE
+     *
+     * @return 累加前的值
+     */
+    static long add(AtomicLong requested, long n) {
+        for (;;) {
+            long current = requested.get();
+            if (current == Long.MAX_VALUE) {
+                return Long.MAX_VALUE;
+            }
+            long next = current + n;
+            if (next < 0) {
+                next = Long.MAX_VALUE;
+            }
+            if (requested.compareAndSet(current, next)) {
+                return current;
+            }
+        }
+    }
+
+    /**
+     * 扣减已发出的数量；无限请求不扣减
+     *
+     * @return 扣减后的值
+     */
+    static long produced(AtomicLong requested, long n) {
+        for (;;) {
+            long current = requested.get();
+            if (current == Long.MAX_VALUE) {
+                return Long.MAX_VALUE;
+            }
+            long next = current - n;
+            if (next < 0) {
+                throw new IllegalStateException("发出的元素多于请求数: " + n + " > " + current);
+            }
+            if (requested.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    static IllegalArgumentException invalidRequest(long n) {
+        return new IllegalArgumentException("request 的参数必须大于0: " + n);
+    }
+
+    /**
+     * 订阅失败：先给一个空的 Subscription，再通知错误
+     */
+    static void error(Flow.Subscriber<?> subscriber, Throwable error) {
+        subscriber.onSubscribe(EMPTY);
+        subscriber.onError(error);
+    }
+}
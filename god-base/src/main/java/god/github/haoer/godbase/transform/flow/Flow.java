@@ -0,0 +1,45 @@
+package god.github.haoer.godbase.transform.flow;
+
+/**
+ * 带背压的发布/订阅接口，与 JDK 9 的 java.util.concurrent.Flow（Reactive Streams 规范）一致，供 Java 8 使用
+ *
+ * <p>订阅者通过 {@link Subscription#request(long)} 声明还能接收多少个元素，发布者发出的 onNext 不会超过累计请求数，
+ * 生产快的一方因此不会压垮消费慢的一方。约定：
+ * 1. onSubscribe 最先调用且只调用一次；onError、onComplete 最多调用其中一个，之后不再有任何信号
+ * 2. 同一个订阅者的 onNext/onError/onComplete 不会并发调用
+ * 3. request 的参数必须大于 0，否则以 IllegalArgumentException 调用 onError；累计请求数超过 Long.MAX_VALUE 视为无限
+ *
+ * <p>升级到 Java 9 后可以直接换成 java.util.concurrent.Flow。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class Flow {
+
+    private Flow() {
+    }
+
+    @FunctionalInterface
+    public interface Publisher<T> {
+        void subscribe(Subscriber<? super T> subscriber);
+    }
+
+    public interface Subscriber<T> {
+        void onSubscribe(Subscription subscription);
+
+        void onNext(T item);
+
+        void onError(Throwable throwable);
+
+        void onComplete();
+    }
+
+    public interface Subscription {
+        void request(long n);
+
+        void cancel();
+    }
+
+    public interface Processor<T, R> extends Subscriber<T>, Publisher<R> {
+    }
+}
@@ -0,0 +1,84 @@
+package god.github.haoer.godbase.transform.flow;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * 终端订阅者：对每个元素调用 action，结束时完成 future
+ *
+ * <p>先请求 prefetch 个，每处理完 prefetch 的 3/4 再成批补充，action 慢时上游自然停下来。
+ * future 被取消时取消订阅。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+final class ForEachSubscriber<T> implements Flow.Subscriber<T> {
+
+    private final Consumer<? super T> action;
+    private final CompletableFuture<Void> future;
+    private final int prefetch;
+    private final int limit;
+    private Flow.Subscription subscription;
+    private int consumed;
+    private boolean done;
+
+    ForEachSubscriber(Consumer<? super T> action, CompletableFuture<Void> future, int prefetch) {
+        if (prefetch <= 0) {
+            throw new IllegalArgumentException("prefetch 必须大于0: " + prefetch);
+        }
+        this.action = action;
+        this.future = future;
+        this.prefetch = prefetch;
+        this.limit = Math.max(1, prefetch - (prefetch >> 2));
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (this.subscription != null) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        future.whenComplete((v, e) -> {
+            if (future.isCancelled()) {
+                subscription.cancel();
+            }
+        });
+        subscription.request(prefetch);
+    }
+
+    @Override
+    public void onNext(T item) {
+        if (done) {
+            return;
+        }
+        try {
+            action.accept(item);
+        } catch (Throwable e) {
+            done = true;
+            subscription.cancel();
+            future.completeExceptionally(e);
+            return;
+        }
+        if (++consumed == limit) {
+            consumed = 0;
+            subscription.request(limit);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        if (!done) {
+            done = true;
+            future.completeExceptionally(throwable);
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        if (!done) {
+            done = true;
+            future.complete(null);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package god.github.haoer.godbase.transform.flow;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 把 Iterable 变成冷的 Publisher：每个订阅者各自遍历一次，只在有请求时调用 next()，不预读
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+final class IterablePublisher<T> implements Flow.Publisher<T> {
+
+    private final Iterable<? extends T> source;
+
+    IterablePublisher(Iterable<? extends T> source) {
+        this.source = Objects.requireNonNull(source, "source");
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        Iterator<? extends T> iterator;
+        boolean hasNext;
+        try {
+            iterator = source.iterator();
+            hasNext = iterator.hasNext();
+        } catch (Throwable e) {
+            Demand.error(subscriber, e);
+            return;
+        }
+        if (!hasNext) {
+            subscriber.onSubscribe(Demand.EMPTY);
+            subscriber.onComplete();
+            return;
+        }
+        subscriber.onSubscribe(new IteratorSubscription<>(subscriber, iterator));
+    }
+
+    private static final class IteratorSubscription<T> implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super T> subscriber;
+        private final Iterator<? extends T> iterator;
+        private final AtomicLong requested = new AtomicLong();
+        private volatile boolean cancelled;
+
+        IteratorSubscription(Flow.Subscriber<? super T> subscriber, Iterator<? extends T> iterator) {
+            this.subscriber = subscriber;
+            this.iterator = iterator;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                if (!cancelled) {
+                    cancelled = true;
+                    subscriber.onError(Demand.invalidRequest(n));
+                }
+                return;
+            }
+            // 从 0 变为正数的线程负责发送，其余线程只累加请求数；onNext 里同步调用 request 也不会递归
+            if (Demand.add(requested, n) == 0) {
+                emit();
+            }
+        }
+
+        private void emit() {
+            long emitted = 0;
+            long r = requested.get();
+            for (;;) {
+                while (emitted != r) {
+                    if (cancelled) {
+                        return;
+                    }
+                    T item;
+                    boolean hasNext;
+                    try {
+                        item = iterator.next();
+                        hasNext = iterator.hasNext();
+                    } catch (Throwable e) {
+                        cancelled = true;
+                        subscriber.onError(e);
+                        return;
+                    }
+                    if (item == null) {
+                        cancelled = true;
+                        subscriber.onError(new NullPointerException("Iterable 中有 null 元素"));
+                        return;
+                    }
+                    subscriber.onNext(item);
+                    if (cancelled) {
+                        return;
+                    }
+                    if (!hasNext) {
+                        cancelled = true;
+                        subscriber.onComplete();
+                        return;
+                    }
+                    emitted++;
+                }
+                r = Demand.produced(requested, emitted);
+                emitted = 0;
+                if (r == 0) {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
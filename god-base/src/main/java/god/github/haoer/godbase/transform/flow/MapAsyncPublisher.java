@@ -0,0 +1,242 @@
+package god.github.haoer.godbase.transform.flow;
+
+import god.github.haoer.godbase.transform.AsyncTransformer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 对每个元素调用 {@link AsyncTransformer}，按输入顺序发出结果
+ *
+ * <p>同时进行的转换不超过 maxConcurrency：开始时向上游请求 maxConcurrency 个，
+ * 之后每向下游发出 limit（maxConcurrency 的 3/4）个结果再成批补充请求，而不是发一个要一个。
+ * 结果在发给下游之前才计入，未完成和已完成未发出的 CompletableFuture 合计也不超过 maxConcurrency，内存有界。
+ *
+ * <p>按顺序发出意味着队首的转换较慢时，后面已完成的结果要等它。任何一个转换失败或上游出错，
+ * 都立即向下游通知 onError，并取消上游。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+final class MapAsyncPublisher<T, R> implements Flow.Publisher<R> {
+
+    private final Flow.Publisher<? extends T> source;
+    private final AsyncTransformer<? super T, ? extends R> transformer;
+    private final int maxConcurrency;
+
+    MapAsyncPublisher(Flow.Publisher<? extends T> source, AsyncTransformer<? super T, ? extends R> transformer,
+                      int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency 必须大于0: " + maxConcurrency);
+        }
+        this.source = source;
+        this.transformer = transformer;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super R> subscriber) {
+        source.subscribe(new MapAsyncSubscriber<T, R>(subscriber, transformer, maxConcurrency));
+    }
+
+    private static final class MapAsyncSubscriber<T, R> implements Flow.Subscriber<T>, Flow.Subscription {
+
+        private final Flow.Subscriber<? super R> downstream;
+        private final AsyncTransformer<? super T, ? extends R> transformer;
+        private final int maxConcurrency;
+        private final int limit;
+        /**
+         * 按到达顺序排队的转换结果，onNext 入队，drain 出队
+         */
+        private final ConcurrentLinkedQueue<CompletableFuture<? extends R>> inFlight = new ConcurrentLinkedQueue<>();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private Flow.Subscription upstream;
+        private volatile boolean done;
+        private volatile Throwable error;
+        private volatile boolean cancelled;
+        /**
+         * 上次补充请求后已发出的结果数，只在 drain 中读写
+         */
+        private int consumed;
+
+        MapAsyncSubscriber(Flow.Subscriber<? super R> downstream, AsyncTransformer<? super T, ? extends R> transformer,
+                           int maxConcurrency) {
+            this.downstream = downstream;
+            this.transformer = transformer;
+            this.maxConcurrency = maxConcurrency;
+            this.limit = Math.max(1, maxConcurrency - (maxConcurrency >> 2));
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (upstream != null) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+            downstream.onSubscribe(this);
+            if (!cancelled) {
+                subscription.request(maxConcurrency);
+            }
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (done || cancelled) {
+                return;
+            }
+            CompletableFuture<? extends R> future = transformer.transform(item);
+            inFlight.offer(future);
+            future.whenComplete((r, e) -> drain());
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (done) {
+                return;
+            }
+            error = throwable;
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                upstream.cancel();
+                onError(Demand.invalidRequest(n));
+                return;
+            }
+            Demand.add(requested, n);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                upstream.cancel();
+                drain();
+            }
+        }
+
+        /**
+         * 只有一个线程在循环里向下游发信号（见 BufferedPublisher#drain）；转换完成的回调、上游信号和下游请求都只是触发一次 drain
+         */
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (;;) {
+                if (terminated()) {
+                    return;
+                }
+                long r = requested.get();
+                long emitted = 0;
+                while (emitted != r) {
+                    boolean d = done;
+                    CompletableFuture<? extends R> future = inFlight.peek();
+                    if (future == null) {
+                        if (d) {
+                            complete();
+                            return;
+                        }
+                        break;
+                    }
+                    if (!future.isDone()) {
+                        break;
+                    }
+                    inFlight.poll();
+                    R value;
+                    try {
+                        value = future.join();
+                    } catch (Throwable e) {
+                        fail(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                        return;
+                    }
+                    if (value == null) {
+                        fail(new NullPointerException("AsyncTransformer 的结果为 null"));
+                        return;
+                    }
+                    downstream.onNext(value);
+                    emitted++;
+                    if (terminated()) {
+                        return;
+                    }
+                    if (++consumed == limit) {
+                        consumed = 0;
+                        upstream.request(limit);
+                    }
+                }
+                if (emitted == r && done && inFlight.isEmpty()) {
+                    complete();
+                    return;
+                }
+                if (emitted != 0) {
+                    Demand.produced(requested, emitted);
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * 已取消或上游出错时清理并返回 true；出错时通知下游
+         */
+        private boolean terminated() {
+            if (cancelled) {
+                clear();
+                return true;
+            }
+            Throwable e = error;
+            if (e != null) {
+                clear();
+                downstream.onError(e);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * done 之后 error 不会再变，这里再读一次，避免 onError 与 drain 交错时误发 onComplete
+         */
+        private void complete() {
+            Throwable e = error;
+            if (e != null) {
+                downstream.onError(e);
+            } else {
+                downstream.onComplete();
+            }
+        }
+
+        private void fail(Throwable e) {
+            cancelled = true;
+            upstream.cancel();
+            clear();
+            downstream.onError(e);
+        }
+
+        /**
+         * 丢弃未发出的结果。不取消这些 CompletableFuture：它们可能被转换函数缓存或与其他调用方共享
+         */
+        private void clear() {
+            inFlight.clear();
+        }
+    }
+}
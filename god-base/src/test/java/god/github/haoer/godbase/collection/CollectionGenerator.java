@@ -0,0 +1,155 @@
+package god.github.haoer.godbase.collection;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 基本类型集合的代码生成器
+ *
+ * <p>IntList、LongIntMap、ObjectIntMap、IntIntPair 等类只是元素类型不同，由 src/main/templates/collection 下的同一组模板生成，
+ * 修改一处即可保证所有基本类型的实现一致。模板中的 ${name} 替换为对应类型的名称（如 ${type} → int、${Boxed} → Integer），
+ * 未定义的占位符直接报错。生成的源码提交在仓库中，修改模板后手动重新生成：
+ * <pre>
+ * mvn -pl god-base test-compile exec:java@generate-collections
+ * </pre>
+ * 本类是构建工具，放在 src/test/java 下，不随 god-base 发布。
+ * 等价于：
+ * <pre>
+ * java god.github.haoer.godbase.collection.CollectionGenerator &lt;模板目录&gt; &lt;源码根目录&gt; [--check]
+ * </pre>
+ * --check 只比较不写入，生成结果与现有源码不一致时以非 0 状态退出，可用于检查是否有人直接修改了生成的文件。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public class CollectionGenerator {
+
+    private static final String PACKAGE_DIR = "god/github/haoer/godbase/collection";
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{(\\w+)}");
+
+    /**
+     * 元素类型：基本类型名、首字母大写名、包装类型、java.util.function 中的消费者、java.util.stream 中的流、
+     * ObjXxxConsumer、元素字节数、装箱后每个元素的大约字节数（压缩指针下引用 4 字节加包装对象）
+     */
+    private static final String[][] TYPES = {
+            {"int", "Int", "Integer", "IntConsumer", "IntStream", "ObjIntConsumer", "4", "20"},
+            {"long", "Long", "Long", "LongConsumer", "LongStream", "ObjLongConsumer", "8", "28"},
+            {"double", "Double", "Double", "DoubleConsumer", "DoubleStream", "ObjDoubleConsumer", "8", "28"},
+    };
+
+    private static final String[] LIST_TYPES = {"int", "long", "double"};
+    /**
+     * double 作为哈希表的键时 0.0/-0.0、NaN 的相等性容易出错，只生成整数键
+     */
+    private static final String[] KEY_TYPES = {"int", "long"};
+    private static final String[] MAP_VALUE_TYPES = {"int", "long"};
+    private static final String[] OBJECT_VALUE_TYPES = {"int", "long", "double"};
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("用法: CollectionGenerator <templateDirectory> <sourceRoot> [--check]");
+        }
+        Path templates = Paths.get(args[0]);
+        Path output = Paths.get(args[1]).resolve(PACKAGE_DIR);
+        boolean check = Arrays.asList(args).contains("--check");
+
+        int stale = 0;
+        for (String type : LIST_TYPES) {
+            stale += generate(templates, "PrimitiveList", output, "${Type}List", vars(null, type), check);
+        }
+        for (String key : KEY_TYPES) {
+            for (String value : MAP_VALUE_TYPES) {
+                stale += generate(templates, "PrimitivePrimitiveMap", output, "${Key}${Value}Map", vars(key, value), check);
+                stale += generate(templates, "PrimitivePrimitivePair", output, "${Key}${Value}Pair", vars(key, value), check);
+            }
+        }
+        for (String value : OBJECT_VALUE_TYPES) {
+            stale += generate(templates, "ObjectPrimitiveMap", output, "Object${Value}Map", vars(null, value), check);
+            stale += generate(templates, "ObjectPrimitivePair", output, "Object${Value}Pair", vars(null, value), check);
+        }
+        if (check && stale > 0) {
+            System.err.println(stale + " 个文件与模板不一致，请重新生成");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @return 文件内容有变化时返回 1
+     */
+    private static int generate(Path templates, String template, Path output, String className,
+                                Map<String, String> vars, boolean check) throws IOException {
+        String source = new String(Files.readAllBytes(templates.resolve(template + ".java.template")), StandardCharsets.UTF_8);
+        String name = substitute(className, vars, template);
+        String content = "// 由 CollectionGenerator 根据 " + template + ".java.template 生成，修改模板后重新生成，不要直接修改\n"
+                + substitute(source, vars, template);
+        Path file = output.resolve(name + ".java");
+        if (Files.exists(file) && new String(Files.readAllBytes(file), StandardCharsets.UTF_8).equals(content)) {
+            return 0;
+        }
+        if (check) {
+            System.err.println("过期: " + file);
+        } else {
+            Files.createDirectories(output);
+            Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+            System.out.println("生成: " + file);
+        }
+        return 1;
+    }
+
+    private static String substitute(String text, Map<String, String> vars, String template) {
+        Matcher matcher = PLACEHOLDER.matcher(text);
+        StringBuffer sb = new StringBuffer();
+        while (matcher.find()) {
+            String value = vars.get(matcher.group(1));
+            if (value == null) {
+                throw new IllegalArgumentException(template + " 中有未定义的占位符: " + matcher.group());
+            }
+            matcher.appendReplacement(sb, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(sb);
+        return sb.toString();
+    }
+
+    /**
+     * 单一元素类型的模板（列表、对象键的表）用 type 系列占位符，同时也定义为 value 系列
+     */
+    private static Map<String, String> vars(String key, String value) {
+        Map<String, String> vars = new HashMap<>();
+        String[] v = type(value);
+        vars.put("type", v[0]);
+        vars.put("Type", v[1]);
+        vars.put("Boxed", v[2]);
+        vars.put("Consumer", v[3]);
+        vars.put("Stream", v[4]);
+        vars.put("bytes", v[6]);
+        vars.put("boxedBytes", v[7]);
+        vars.put("value", v[0]);
+        vars.put("Value", v[1]);
+        vars.put("ValueBoxed", v[2]);
+        vars.put("ObjConsumer", v[5]);
+        if (key != null) {
+            String[] k = type(key);
+            vars.put("key", k[0]);
+            vars.put("Key", k[1]);
+            vars.put("KeyBoxed", k[2]);
+        }
+        return vars;
+    }
+
+    private static String[] type(String name) {
+        for (String[] type : TYPES) {
+            if (type[0].equals(name)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("不支持的类型: " + name);
+    }
+}
@@ -0,0 +1,167 @@
+package god.github.haoer.godbenchmark.collection;
+
+import god.github.haoer.godbase.collection.IntIntMap;
+import god.github.haoer.godbase.collection.IntList;
+import god.github.haoer.godbase.collection.ObjectIntMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 装箱集合与生成的基本类型集合的对比：id 列表求和、按 id 计数、按名称计数
+ *
+ * <p>Setup 中按 GC 前后的堆差打印两者的内存占用。id 大多超出 Integer 缓存（-128～127），
+ * HashMap.merge 每次都要装箱 key，新 key 还要分配 Node；addTo 只在数组上探测、累加，不分配对象。
+ *
+ * <p>运行：java -jar god-benchmark/target/benchmarks.jar PrimitiveCollectionBenchmark -prof gc
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class PrimitiveCollectionBenchmark {
+
+    @Param({"1000000"})
+    public int size;
+
+    /**
+     * 不同 id / 名称的个数
+     */
+    @Param({"100000"})
+    public int distinct;
+
+    private int[] ids;
+    private String[] names;
+    private List<Integer> boxedList;
+    private IntList intList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        ids = new int[size];
+        names = new String[distinct];
+        for (int i = 0; i < distinct; i++) {
+            names[i] = "user-" + i;
+        }
+        for (int i = 0; i < size; i++) {
+            ids[i] = random.nextInt(distinct);
+        }
+
+        long before = usedHeap();
+        boxedList = new ArrayList<>(size);
+        for (int id : ids) {
+            boxedList.add(id + 1000);
+        }
+        long boxedBytes = usedHeap() - before;
+        before = usedHeap();
+        intList = new IntList(size);
+        for (int id : ids) {
+            intList.add(id + 1000);
+        }
+        long primitiveBytes = usedHeap() - before;
+
+        before = usedHeap();
+        Map<Integer, Integer> boxedCounts = countBoxed();
+        long boxedMapBytes = usedHeap() - before;
+        before = usedHeap();
+        IntIntMap counts = countPrimitive();
+        long primitiveMapBytes = usedHeap() - before;
+
+        System.out.println();
+        System.out.println("List<Integer> 约 " + (boxedBytes >> 10) + "KB, IntList 约 " + (primitiveBytes >> 10) + "KB; "
+                + "HashMap<Integer, Integer>(" + boxedCounts.size() + ") 约 " + (boxedMapBytes >> 10) + "KB, IntIntMap("
+                + counts.size() + ") 约 " + (primitiveMapBytes >> 10) + "KB");
+    }
+
+    @Benchmark
+    public long boxedListSum() {
+        long sum = 0;
+        for (Integer value : boxedList) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long intListSum() {
+        long sum = 0;
+        IntList list = intList;
+        for (int i = 0, n = list.size(); i < n; i++) {
+            sum += list.get(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> boxedMapCount() {
+        return countBoxed();
+    }
+
+    @Benchmark
+    public IntIntMap intIntMapCount() {
+        return countPrimitive();
+    }
+
+    @Benchmark
+    public Map<String, Integer> boxedNameCount() {
+        Map<String, Integer> counts = new HashMap<>();
+        for (int id : ids) {
+            counts.merge(names[id], 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    @Benchmark
+    public ObjectIntMap<String> objectIntMapNameCount() {
+        ObjectIntMap<String> counts = new ObjectIntMap<>();
+        for (int id : ids) {
+            counts.addTo(names[id], 1);
+        }
+        return counts;
+    }
+
+    private Map<Integer, Integer> countBoxed() {
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (int id : ids) {
+            counts.merge(id, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private IntIntMap countPrimitive() {
+        IntIntMap counts = new IntIntMap();
+        for (int id : ids) {
+            counts.addTo(id, 1);
+        }
+        return counts;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,219 @@
+package god.github.haoer.godbenchmark.generic;
+
+import god.github.haoer.godbase.generic.Animal;
+import god.github.haoer.godbase.generic.AnimalBatchProcessor;
+import god.github.haoer.godbase.generic.Cat;
+import god.github.haoer.godbase.generic.Dog;
+import god.github.haoer.godbase.generic.TypePartition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 混合类型的 Animal 列表，逐个虚调用与 {@link AnimalBatchProcessor} 按类型分组处理的耗时
+ *
+ * <p>types 为列表中具体类型的数量：2 种时逐个调用仍能内联（bimorphic），4 种以上调用点变为 megamorphic；
+ * 12 种时超出 AnimalBatchProcessor 的独立 Kernel 数，多出的类型走共用的循环。元素类型随机排列。
+ * 每组参数单独 fork，类型分配和调用点的统计不会互相影响。
+ *
+ * <p>1. naive：describeAll，与 AnimalProcessor.processAnimals 相同的循环
+ * 2. partitioned：分组后每种类型走各自的循环
+ * 3. parallel：分组后按 Spliterator 切段并行
+ * 4. partitionOnly：只做分组，看分组本身的开销
+ *
+ * <p>运行：java -jar god-benchmark/target/benchmarks.jar AnimalDispatchBenchmark -prof gc
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class AnimalDispatchBenchmark {
+
+    @Param({"2", "4", "8", "12"})
+    public int types;
+
+    @Param({"100000"})
+    public int size;
+
+    private List<Animal> animals;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Animal[] prototypes = {
+                new Cat(), new Dog(), new Bird(), new Fish(), new Horse(), new Sheep(),
+                new Rabbit(), new Tiger(), new Panda(), new Monkey(), new Mouse(), new Cow()};
+        Random random = new Random(42);
+        animals = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            // 每个元素新建对象，分组后的数组与原列表一样分散在堆上
+            animals.add(copyOf(prototypes[random.nextInt(types)]));
+        }
+    }
+
+    @Benchmark
+    public String[] naive() {
+        return AnimalBatchProcessor.describeAll(animals);
+    }
+
+    @Benchmark
+    public String[] partitioned() {
+        return AnimalBatchProcessor.describePartitioned(animals);
+    }
+
+    @Benchmark
+    public String[] parallel() {
+        return AnimalBatchProcessor.describeParallel(animals);
+    }
+
+    @Benchmark
+    public TypePartition<Animal> partitionOnly() {
+        return TypePartition.of(animals);
+    }
+
+    private static Animal copyOf(Animal prototype) {
+        try {
+            return prototype.getClass().getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class Bird extends Animal {
+        @Override
+        public String getName() {
+            return "鸟";
+        }
+
+        @Override
+        public String eatSomething() {
+            return "吃虫子";
+        }
+    }
+
+    public static class Fish extends Animal {
+        @Override
+        public String getName() {
+            return "鱼";
+        }
+
+        @Override
+        public String eatSomething() {
+            return "吃水草";
+        }
+    }
+
+    public static class Horse extends Animal {
+        @Override
+        public String getName() {
+            return "马";
+        }
+
+        @Override
+        public String eatSomething() {
+            return "吃草";
+        }
+    }
+
+    public static class Sheep extends Animal {
+        @Override
+        public String getName() {
+            return "羊";
+        }
+
+        @Override
+        public String eatSomething() {
+            return "吃青草";
+        }
+    }
+
+    public static class Rabbit extends Animal {
+        @Override
+        public String getName() {
+            return "兔子";
+        }
+
+        @Override
+        public String eatSomething() {
+            return "吃胡萝卜";
+        }
+    }
+
+    public static class Tiger extends Animal {
+        @Override
+        public String getName() {
+            return "老虎";
+        }
+
+        @Override
+        public String eatSomething() {
+            return "吃肉";
+        }
+    }
+
+    public static class Panda extends Animal {
+        @Override
+        public String getName() {
+            return "熊猫";
+        }
+
+        @Override
+        public String eatSomething() {
+            return "吃竹子";
+        }
+    }
+
+    public static class Monkey extends Animal {
+        @Override
+        public String getName() {
+            return "猴子";
+        }
+
+        @Override
+        public String eatSomething() {
+            return "吃香蕉";
+        }
+    }
+
+    public static class Mouse extends Animal {
+        @Override
+        public String getName() {
+            return "老鼠";
+        }
+
+        @Override
+        public String eatSomething() {
+            return "吃米";
+        }
+    }
+
+    public static class Cow extends Animal {
+        @Override
+        public String getName() {
+            return "牛";
+        }
+
+        @Override
+        public String eatSomething() {
+            return "吃干草";
+        }
+    }
+}
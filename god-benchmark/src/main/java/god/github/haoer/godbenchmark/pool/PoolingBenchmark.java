@@ -0,0 +1,158 @@
+package god.github.haoer.godbenchmark.pool;
+
+import god.github.haoer.godbase.generic.Animal;
+import god.github.haoer.godbase.pool.ObjectPool;
+import god.github.haoer.godbase.pool.Retained;
+import god.github.haoer.godbase.reflection.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对象池与直接分配的对比
+ *
+ * <p>预期结论：
+ * 1. User、Animal 这类小对象：new 只是 TLAB 指针碰撞，死对象在年轻代回收时没有成本，池化的 ThreadLocal 查找与重置更慢
+ * 2. 构造时分配大数组的对象（{@link Buffered}，64KB）：new 需要清零并很快触发年轻代 GC，池化复用缓冲区明显更快
+ * 3. 多线程（@Threads(4)）下线程缓存避免了全局池竞争，开销与单线程接近
+ * 建议加 -prof gc 观察每次操作的分配字节数与 GC 次数。
+ *
+ * <p>运行：java -jar god-benchmark/target/benchmarks.jar PoolingBenchmark -prof gc
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PoolingBenchmark {
+
+    /**
+     * 构造时分配 64KB 缓冲区的 Bean
+     */
+    public static class Buffered {
+        @Retained
+        private final byte[] buffer = new byte[64 * 1024];
+        private int length;
+
+        public void fill(int n) {
+            buffer[0] = (byte) n;
+            length = n;
+        }
+    }
+
+    private ObjectPool<User> userPool;
+    private ObjectPool<Animal> animalPool;
+    private ObjectPool<Buffered> bufferedPool;
+    private ObjectPool<Buffered> bufferedPoolClearing;
+
+    /**
+     * 每个线程一个计数器：放在 Scope.Benchmark 的状态里会被 @Threads(4) 的线程共享，既是数据竞争，又会带来伪共享
+     */
+    @State(Scope.Thread)
+    public static class Counter {
+        private int value;
+
+        int next() {
+            return value++;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        userPool = new ObjectPool<>(User.class);
+        animalPool = new ObjectPool<>(Animal.class);
+        bufferedPool = new ObjectPool<>(Buffered.class);
+        bufferedPoolClearing = new ObjectPool<>(Buffered.class, ObjectPool.DEFAULT_LOCAL_CAPACITY,
+                ObjectPool.DEFAULT_GLOBAL_CAPACITY, false, b -> Arrays.fill(b.buffer, (byte) 0));
+    }
+
+    @Benchmark
+    public int allocateUser(Counter counter) {
+        User user = new User();
+        user.setName("张三");
+        user.setAge(counter.next());
+        return user.getAge();
+    }
+
+    @Benchmark
+    public int pooledUser(Counter counter) {
+        try (ObjectPool.Lease<User> lease = userPool.acquire()) {
+            User user = lease.get();
+            user.setName("张三");
+            user.setAge(counter.next());
+            return user.getAge();
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int allocateUser4Threads(Counter counter) {
+        return allocateUser(counter);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int pooledUser4Threads(Counter counter) {
+        return pooledUser(counter);
+    }
+
+    @Benchmark
+    public String allocateAnimal() {
+        Animal animal = new Animal();
+        animal.setEat("骨头");
+        return animal.getEat();
+    }
+
+    @Benchmark
+    public String pooledAnimal() {
+        try (ObjectPool.Lease<Animal> lease = animalPool.acquire()) {
+            Animal animal = lease.get();
+            animal.setEat("骨头");
+            return animal.getEat();
+        }
+    }
+
+    @Benchmark
+    public int allocateBuffered(Counter counter) {
+        Buffered buffered = new Buffered();
+        buffered.fill(counter.next() & 0xFF);
+        return buffered.length;
+    }
+
+    @Benchmark
+    public int pooledBuffered(Counter counter) {
+        try (ObjectPool.Lease<Buffered> lease = bufferedPool.acquire()) {
+            Buffered buffered = lease.get();
+            buffered.fill(counter.next() & 0xFF);
+            return buffered.length;
+        }
+    }
+
+    /**
+     * 归还时清零缓冲区：成本与 new 的清零相当，但省去了 GC
+     */
+    @Benchmark
+    public int pooledBufferedClearing(Counter counter) {
+        try (ObjectPool.Lease<Buffered> lease = bufferedPoolClearing.acquire()) {
+            Buffered buffered = lease.get();
+            buffered.fill(counter.next() & 0xFF);
+            return buffered.length;
+        }
+    }
+}
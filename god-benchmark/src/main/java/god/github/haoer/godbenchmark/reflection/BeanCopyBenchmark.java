@@ -0,0 +1,138 @@
+package god.github.haoer.godbenchmark.reflection;
+
+import god.github.haoer.godbase.reflection.BeanCopier;
+import god.github.haoer.godbase.reflection.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对象图复制方式对比：序列化往返 vs {@link BeanCopier}
+ *
+ * <p>对象图为 List&lt;User&gt; 加上按名称索引的 Map，两者引用同一批 User（共享引用需要保持）。
+ * 建议加 -prof gc 对比每次操作的分配字节数。
+ *
+ * <p>运行：java -jar god-benchmark/target/benchmarks.jar BeanCopyBenchmark -prof gc
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeanCopyBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int users;
+
+    private Graph graph;
+    private List<User> list;
+
+    /**
+     * 被复制的对象图
+     */
+    public static class Graph implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        List<User> users = new ArrayList<>();
+        Map<String, User> byName = new HashMap<>();
+    }
+
+    /**
+     * 共享元素放在哈希容器中：index 里的 List 就是 tags，副本中也必须能用 tags 命中 index
+     */
+    public static class Indexed {
+        Set<List<String>> index = new HashSet<>();
+        List<String> tags = new ArrayList<>();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        verifySharedElements();
+        graph = new Graph();
+        for (int i = 0; i < users; i++) {
+            User user = new User("user-" + i, i % 100);
+            graph.users.add(user);
+            graph.byName.put(user.getName(), user);
+        }
+        list = graph.users;
+    }
+
+    /**
+     * 回归检查：容器元素没有填充完就放入哈希容器时，副本的 index 找不到 tags
+     */
+    private static void verifySharedElements() {
+        Indexed source = new Indexed();
+        source.tags.add("java");
+        source.index.add(source.tags);
+        Indexed copy = BeanCopier.deepCopy(source);
+        if (copy.tags == source.tags || !copy.index.contains(copy.tags)) {
+            throw new IllegalStateException("deepCopy 破坏了哈希容器中共享元素的查找");
+        }
+    }
+
+    @Benchmark
+    public Graph serializationRoundTrip() throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(graph);
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (Graph) ois.readObject();
+        }
+    }
+
+    @Benchmark
+    public Graph deepCopy() {
+        return BeanCopier.deepCopy(graph);
+    }
+
+    @Benchmark
+    public List<User> shallowCopyList() {
+        return BeanCopier.shallowCopy(list);
+    }
+
+    @Benchmark
+    public List<User> cloneEach() throws CloneNotSupportedException {
+        List<User> copy = new ArrayList<>(list.size());
+        for (User user : list) {
+            copy.add(user.clone());
+        }
+        return copy;
+    }
+
+    @Benchmark
+    public List<User> copyPropertiesEach() {
+        List<User> copy = new ArrayList<>(list.size());
+        for (User user : list) {
+            copy.add(BeanCopier.copyProperties(user, new User()));
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,232 @@
+package god.github.haoer.godbenchmark.reflection;
+
+import god.github.haoer.godbase.reflection.ObjectFactories;
+import god.github.haoer.godbase.reflection.ObjectFactory;
+import god.github.haoer.godbase.reflection.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import sun.misc.Unsafe;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link god.github.haoer.godbase.reflection.CreateObject} 中六种创建方式的实测
+ *
+ * <p>同时输出吞吐量（ops/ns）与平均耗时（ns/op）；通过 main 运行时自动挂载 GC profiler，
+ * 结果中的 gc.alloc.rate.norm 即每次操作分配的字节数。额外对比：
+ * <ul>
+ *     <li>reflectCachedConstructor vs reflectFreshConstructor：缓存 Constructor 与每次 getConstructor()</li>
+ *     <li>methodHandleInvoke vs methodHandleInvokeExact：invoke 的调用点类型为 ()Object，与句柄的 ()User 不一致，
+ *     需要经过 asType 适配；调用点类型完全一致时 invoke 与 invokeExact 没有区别</li>
+ *     <li>methodHandleInvokeExactNonConstant：句柄放在实例字段中，JIT 无法把它当作常量内联</li>
+ *     <li>objectFactory*：{@link ObjectFactories} 各策略生成的工厂</li>
+ * </ul>
+ *
+ * <p>运行：java -cp god-benchmark/target/benchmarks.jar god.github.haoer.godbenchmark.reflection.CreateObjectBenchmark
+ * <br>或：java -jar god-benchmark/target/benchmarks.jar CreateObjectBenchmark -prof gc
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreateObjectBenchmark {
+
+    private static final MethodHandle CONSTRUCTOR;
+    private static final Unsafe UNSAFE;
+
+    static {
+        try {
+            CONSTRUCTOR = MethodHandles.lookup().findConstructor(User.class, MethodType.methodType(void.class));
+            Field field = Unsafe.class.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            UNSAFE = (Unsafe) field.get(null);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private String name = "张三";
+    private Integer age = 18;
+
+    private Constructor<User> noArgConstructor;
+    private Constructor<User> argsConstructor;
+    private MethodHandle nonConstantHandle;
+    private User prototype;
+    private byte[] serialized;
+
+    private ObjectFactory<User> lambdaFactory;
+    private ObjectFactory<User> methodHandleFactory;
+    private ObjectFactory<User> reflectionFactory;
+    private ObjectFactory<User> unsafeFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        noArgConstructor = User.class.getConstructor();
+        argsConstructor = User.class.getConstructor(String.class, Integer.class);
+        nonConstantHandle = CONSTRUCTOR;
+        prototype = new User(name, age);
+        serialized = serialize(prototype);
+
+        lambdaFactory = ObjectFactories.create(User.class, ObjectFactories.Strategy.LAMBDA);
+        methodHandleFactory = ObjectFactories.create(User.class, ObjectFactories.Strategy.METHOD_HANDLE);
+        reflectionFactory = ObjectFactories.create(User.class, ObjectFactories.Strategy.REFLECTION);
+        unsafeFactory = ObjectFactories.create(User.class, ObjectFactories.Strategy.UNSAFE);
+    }
+
+    // ---------- 方式一：new ----------
+
+    @Benchmark
+    public User newNoArgs() {
+        return new User();
+    }
+
+    @Benchmark
+    public User newWithArgs() {
+        return new User(name, age);
+    }
+
+    // ---------- 方式二：反射 ----------
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public User reflectClassNewInstance() throws Exception {
+        return User.class.newInstance();
+    }
+
+    @Benchmark
+    public User reflectCachedConstructor() throws Exception {
+        return noArgConstructor.newInstance();
+    }
+
+    @Benchmark
+    public User reflectFreshConstructor() throws Exception {
+        return User.class.getConstructor().newInstance();
+    }
+
+    @Benchmark
+    public User reflectCachedConstructorWithArgs() throws Exception {
+        return argsConstructor.newInstance(name, age);
+    }
+
+    // ---------- 方式三：克隆 ----------
+
+    @Benchmark
+    public User cloneObject() throws CloneNotSupportedException {
+        return prototype.clone();
+    }
+
+    // ---------- 方式四：序列化 ----------
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public User serializeRoundTrip() throws IOException, ClassNotFoundException {
+        return deserialize(serialize(prototype));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public User deserializeOnly() throws IOException, ClassNotFoundException {
+        return deserialize(serialized);
+    }
+
+    // ---------- 方式五：MethodHandle ----------
+
+    @Benchmark
+    public User methodHandleInvoke() throws Throwable {
+        // 先转成 Object，调用点类型变为 ()Object，invoke 才需要做类型适配
+        return (User) (Object) CONSTRUCTOR.invoke();
+    }
+
+    @Benchmark
+    public User methodHandleInvokeExact() throws Throwable {
+        return (User) CONSTRUCTOR.invokeExact();
+    }
+
+    @Benchmark
+    public User methodHandleInvokeExactNonConstant() throws Throwable {
+        return (User) nonConstantHandle.invokeExact();
+    }
+
+    // ---------- 方式六：Unsafe ----------
+
+    @Benchmark
+    public User unsafeAllocate() throws InstantiationException {
+        return (User) UNSAFE.allocateInstance(User.class);
+    }
+
+    // ---------- ObjectFactories ----------
+
+    @Benchmark
+    public User objectFactoryLambda() {
+        return lambdaFactory.newInstance();
+    }
+
+    @Benchmark
+    public User objectFactoryMethodHandle() {
+        return methodHandleFactory.newInstance();
+    }
+
+    @Benchmark
+    public User objectFactoryReflection() {
+        return reflectionFactory.newInstance();
+    }
+
+    @Benchmark
+    public User objectFactoryUnsafe() {
+        return unsafeFactory.newInstance();
+    }
+
+    private static byte[] serialize(User user) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(user);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static User deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (User) ois.readObject();
+        }
+    }
+
+    /**
+     * 附带 GC profiler 运行本基准
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(CreateObjectBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
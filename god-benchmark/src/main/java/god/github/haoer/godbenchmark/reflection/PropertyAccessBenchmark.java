@@ -0,0 +1,126 @@
+package god.github.haoer.godbenchmark.reflection;
+
+import god.github.haoer.godbase.reflection.BeanAccessor;
+import god.github.haoer.godbase.reflection.Property;
+import god.github.haoer.godbase.reflection.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 属性读写方式对比：直接调用 vs {@link BeanAccessor} vs 反射 vs 每次查找的 MethodHandle
+ *
+ * <ul>
+ *     <li>direct*：直接调用 getAge()/setAge()，基线</li>
+ *     <li>cachedFunction*：保存 {@link Property#getter()}/{@link Property#setter()} 后直接调用</li>
+ *     <li>cachedProperty*：保存 {@link Property} 后调用 get/set</li>
+ *     <li>byName*：每次按名称访问 BeanAccessor</li>
+ *     <li>reflection*：缓存的 Method.invoke</li>
+ *     <li>lookupEveryCall：与 CreateObject#createUserByMethod 相同，每次查找句柄再用 invoke 调用</li>
+ * </ul>
+ *
+ * <p>运行：java -jar god-benchmark/target/benchmarks.jar PropertyAccessBenchmark
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyAccessBenchmark {
+
+    private User user;
+    private Integer age = 18;
+
+    private BeanAccessor<User> accessor;
+    private Property<User, Integer> ageProperty;
+    private Function<User, Integer> ageGetter;
+    private BiConsumer<User, Integer> ageSetter;
+    private Method getAge;
+    private Method setAge;
+
+    @Setup(Level.Trial)
+    public void setUp() throws NoSuchMethodException {
+        user = new User("张三", 18);
+        accessor = BeanAccessor.of(User.class);
+        ageProperty = accessor.property("age", Integer.class);
+        ageGetter = ageProperty.getter();
+        ageSetter = ageProperty.setter();
+        getAge = User.class.getMethod("getAge");
+        setAge = User.class.getMethod("setAge", Integer.class);
+    }
+
+    @Benchmark
+    public Integer directGet() {
+        return user.getAge();
+    }
+
+    @Benchmark
+    public void directSet() {
+        user.setAge(age);
+    }
+
+    @Benchmark
+    public Integer cachedFunctionGet() {
+        return ageGetter.apply(user);
+    }
+
+    @Benchmark
+    public void cachedFunctionSet() {
+        ageSetter.accept(user, age);
+    }
+
+    @Benchmark
+    public Integer cachedPropertyGet() {
+        return ageProperty.get(user);
+    }
+
+    @Benchmark
+    public void cachedPropertySet() {
+        ageProperty.set(user, age);
+    }
+
+    @Benchmark
+    public Object byNameGet() {
+        return accessor.get(user, "age");
+    }
+
+    @Benchmark
+    public void byNameSet() {
+        accessor.set(user, "age", age);
+    }
+
+    @Benchmark
+    public Object reflectionGet() throws Exception {
+        return getAge.invoke(user);
+    }
+
+    @Benchmark
+    public void reflectionSet() throws Exception {
+        setAge.invoke(user, age);
+    }
+
+    @Benchmark
+    public void lookupEveryCall() throws Throwable {
+        MethodHandles.lookup().findVirtual(User.class, "setAge", MethodType.methodType(void.class, Integer.class))
+                .invoke(user, age);
+    }
+}
@@ -0,0 +1,146 @@
+package god.github.haoer.godbenchmark.serialize;
+
+import god.github.haoer.godbase.reflection.User;
+import god.github.haoer.godbase.serialize.ChunkedReader;
+import god.github.haoer.godbase.serialize.ChunkedWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 大批量 User 导出/导入：ObjectOutputStream 逐个写对象 vs {@link ChunkedWriter}/{@link ChunkedReader}
+ *
+ * <p>导出写入丢弃数据的输出流，只测编码；ObjectOutputStream 不调用 reset()，句柄表随记录数增长，
+ * 建议加 -prof gc 对比分配与 GC。导入对比顺序迭代与在 ForkJoinPool 上并行解码。
+ *
+ * <p>运行：java -jar god-benchmark/target/benchmarks.jar ChunkedStreamBenchmark -prof gc
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class ChunkedStreamBenchmark {
+
+    @Param({"1000000"})
+    public int users;
+
+    private User[] data;
+    private byte[] javaBytes;
+    private byte[] chunkedBytes;
+    private ForkJoinPool pool;
+
+    /**
+     * 丢弃写入的数据
+     */
+    static final class NullOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        data = new User[users];
+        for (int i = 0; i < users; i++) {
+            data[i] = new User("user-" + i, i % 100);
+        }
+        ByteArrayOutputStream java = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(java)) {
+            oos.writeInt(users);
+            for (User user : data) {
+                oos.writeObject(user);
+            }
+        }
+        javaBytes = java.toByteArray();
+        ByteArrayOutputStream chunked = new ByteArrayOutputStream();
+        try (ChunkedWriter<User> writer = new ChunkedWriter<>(chunked, User.class)) {
+            for (User user : data) {
+                writer.write(user);
+            }
+        }
+        chunkedBytes = chunked.toByteArray();
+        pool = new ForkJoinPool();
+        System.out.println();
+        System.out.println("users=" + users + ", Java 序列化 " + javaBytes.length + " 字节, 分块 " + chunkedBytes.length + " 字节");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public void javaExport() throws IOException {
+        try (ObjectOutputStream oos = new ObjectOutputStream(new NullOutputStream())) {
+            oos.writeInt(users);
+            for (User user : data) {
+                oos.writeObject(user);
+            }
+        }
+    }
+
+    @Benchmark
+    public long chunkedExport() throws IOException {
+        try (ChunkedWriter<User> writer = new ChunkedWriter<>(new NullOutputStream(), User.class)) {
+            for (User user : data) {
+                writer.write(user);
+            }
+            return writer.totalRecords();
+        }
+    }
+
+    @Benchmark
+    public void javaImport(Blackhole bh) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(javaBytes))) {
+            int count = ois.readInt();
+            for (int i = 0; i < count; i++) {
+                bh.consume(ois.readObject());
+            }
+        }
+    }
+
+    @Benchmark
+    public void chunkedImport(Blackhole bh) throws IOException {
+        try (ChunkedReader<User> reader = new ChunkedReader<>(new ByteArrayInputStream(chunkedBytes), User.class)) {
+            for (User user : reader) {
+                bh.consume(user);
+            }
+        }
+    }
+
+    @Benchmark
+    public void chunkedImportParallel(Blackhole bh) throws IOException {
+        try (ChunkedReader<User> reader = new ChunkedReader<>(new ByteArrayInputStream(chunkedBytes), User.class)) {
+            reader.forEachChunk(pool, pool.getParallelism() * 2, bh::consume);
+        }
+    }
+}
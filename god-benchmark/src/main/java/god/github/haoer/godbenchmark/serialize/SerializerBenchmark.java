@@ -0,0 +1,112 @@
+package god.github.haoer.godbenchmark.serialize;
+
+import god.github.haoer.godbase.reflection.User;
+import god.github.haoer.godbase.serialize.BinaryWriter;
+import god.github.haoer.godbase.serialize.SchemaSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Java 序列化与 {@link SchemaSerializer} 的编码、解码耗时对比
+ *
+ * <p>数据为单个 User 和包含多个 User 的列表。Setup 中打印两种方式的编码字节数；
+ * 建议加 -prof gc 对比每次操作的分配字节数。
+ *
+ * <p>运行：java -jar god-benchmark/target/benchmarks.jar SerializerBenchmark -prof gc
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+
+    @Param({"1", "100"})
+    public int users;
+
+    private Users data;
+    private byte[] javaBytes;
+    private byte[] schemaBytes;
+    private final BinaryWriter writer = new BinaryWriter();
+
+    /**
+     * 被序列化的数据，两种方式都能处理
+     */
+    public static class Users implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        List<User> users = new ArrayList<>();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        data = new Users();
+        for (int i = 0; i < users; i++) {
+            data.users.add(new User("user-" + i, 18 + i % 50));
+        }
+        javaBytes = javaEncode();
+        schemaBytes = schemaEncode();
+        System.out.println();
+        System.out.println("users=" + users + ", Java 序列化 " + javaBytes.length + " 字节, Schema " + schemaBytes.length + " 字节");
+    }
+
+    @Benchmark
+    public byte[] javaEncode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public Users javaDecode() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(javaBytes))) {
+            return (Users) ois.readObject();
+        }
+    }
+
+    @Benchmark
+    public byte[] schemaEncode() {
+        return SchemaSerializer.toBytes(data);
+    }
+
+    /**
+     * 写入调用方持有的缓冲区，不分配结果数组
+     */
+    @Benchmark
+    public int schemaEncodeReuse() {
+        writer.reset();
+        SchemaSerializer.write(data, writer);
+        return writer.size();
+    }
+
+    @Benchmark
+    public Users schemaDecode() throws IOException {
+        return SchemaSerializer.fromBytes(schemaBytes, Users.class);
+    }
+}
@@ -0,0 +1,150 @@
+package god.github.haoer.godbenchmark.spi;
+
+import god.github.haoer.godbase.spi.MyService;
+import god.github.haoer.godbase.spi.ServiceRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SPI 发现与分发成本基准测试
+ *
+ * <p>为 {@link god.github.haoer.godbase.spi.SPIDemo} Javadoc 中的性能结论提供数据，覆盖 1/10/100/1000 个提供者：
+ * <ul>
+ *     <li>coldDiscovery：全新类加载器上 ServiceLoader 发现 + 实例化全部提供者（包含类加载）</li>
+ *     <li>coldIndexedRegistry：同样条件下通过构建期索引 {@link ServiceRegistry} 发现并实例化</li>
+ *     <li>coldIndexedLookupOnly：只读取索引、不实例化（ServiceRegistry 的懒加载收益）</li>
+ *     <li>warmIteration：ServiceLoader 已缓存提供者后的再次遍历</li>
+ *     <li>reload：ServiceLoader.reload() 后重新遍历（类已加载，重新解析配置并实例化）</li>
+ *     <li>dispatch：在已发现的提供者上轮流调用 execute()，结果为单次调用耗时</li>
+ * </ul>
+ *
+ * <p>运行：java -jar god-benchmark/target/benchmarks.jar ServiceLoaderBenchmark
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceLoaderBenchmark {
+
+    private static final int DISPATCH_CALLS = 1024;
+
+    @Param({"1", "10", "100", "1000"})
+    public int providers;
+
+    private Path classes;
+    private URLClassLoader warmLoader;
+    private ServiceLoader<MyService> warmServiceLoader;
+    private MyService[] dispatchTargets;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        classes = SyntheticProviders.generate(providers);
+        warmLoader = SyntheticProviders.newLoader(classes);
+        warmServiceLoader = ServiceLoader.load(MyService.class, warmLoader);
+        List<MyService> instances = new ArrayList<>();
+        for (MyService service : warmServiceLoader) {
+            instances.add(service);
+        }
+        if (instances.size() != providers) {
+            throw new IllegalStateException("期望 " + providers + " 个提供者，实际 " + instances.size());
+        }
+        // 固定长度的调用序列，轮流命中各个实现类，模拟真实的多态调用点
+        dispatchTargets = new MyService[DISPATCH_CALLS];
+        for (int i = 0; i < DISPATCH_CALLS; i++) {
+            dispatchTargets[i] = instances.get(i % instances.size());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        warmLoader.close();
+        SyntheticProviders.delete(classes);
+    }
+
+    /**
+     * 每次调用都使用一个全新的类加载器，模拟冷启动
+     */
+    @State(Scope.Thread)
+    public static class ColdLoader {
+        URLClassLoader loader;
+
+        @Setup(Level.Invocation)
+        public void open(ServiceLoaderBenchmark benchmark) {
+            loader = SyntheticProviders.newLoader(benchmark.classes);
+        }
+
+        @TearDown(Level.Invocation)
+        public void close() throws IOException {
+            loader.close();
+        }
+    }
+
+    @Benchmark
+    public void coldDiscovery(ColdLoader cold, Blackhole bh) {
+        for (MyService service : ServiceLoader.load(MyService.class, cold.loader)) {
+            bh.consume(service);
+        }
+    }
+
+    @Benchmark
+    public void coldIndexedRegistry(ColdLoader cold, Blackhole bh) {
+        for (MyService service : ServiceRegistry.create(MyService.class, cold.loader)) {
+            bh.consume(service);
+        }
+    }
+
+    @Benchmark
+    public int coldIndexedLookupOnly(ColdLoader cold) {
+        return ServiceRegistry.create(MyService.class, cold.loader).providers().size();
+    }
+
+    @Benchmark
+    public void warmIteration(Blackhole bh) {
+        for (MyService service : warmServiceLoader) {
+            bh.consume(service);
+        }
+    }
+
+    @Benchmark
+    public void reload(Blackhole bh) {
+        warmServiceLoader.reload();
+        for (MyService service : warmServiceLoader) {
+            bh.consume(service);
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(DISPATCH_CALLS)
+    public void dispatch() {
+        for (MyService service : dispatchTargets) {
+            service.execute();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package god.github.haoer.godbenchmark.spi;
+
+import god.github.haoer.godbase.spi.ExtensionLoader;
+import god.github.haoer.godbase.spi.HotSwapServiceRegistry;
+import god.github.haoer.godbase.spi.MyService;
+import god.github.haoer.godbase.spi.MyServiceImplB;
+import god.github.haoer.godbase.spi.ServiceRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 已加载提供者之后的分发与查找成本
+ *
+ * <ul>
+ *     <li>directDispatch：直接遍历数组调用 execute()，作为基线</li>
+ *     <li>registryDispatch：遍历 {@link ServiceRegistry}（实例已缓存）</li>
+ *     <li>hotSwapDispatch：经过 {@link HotSwapServiceRegistry} 的快照获取/释放后再遍历</li>
+ *     <li>hotSwapReload：热加载一次插件目录的耗时</li>
+ *     <li>serviceLoaderScan / extensionLookup：从 god-base 自带的实现中挑出 B，线性扫描 vs 哈希查找</li>
+ * </ul>
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpiDispatchBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int providers;
+
+    private Path classes;
+    private Path pluginDir;
+    private URLClassLoader loader;
+    private MyService[] direct;
+    private ServiceRegistry<MyService> registry;
+    private HotSwapServiceRegistry<MyService> hotSwap;
+    private ServiceLoader<MyService> builtinServiceLoader;
+    private ExtensionLoader<MyService> builtinExtensions;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        classes = SyntheticProviders.generate(providers);
+        loader = SyntheticProviders.newLoader(classes);
+
+        registry = ServiceRegistry.create(MyService.class, loader);
+        List<MyService> instances = new ArrayList<>();
+        for (MyService service : registry) {
+            instances.add(service);
+        }
+        direct = instances.toArray(new MyService[0]);
+
+        pluginDir = Files.createTempDirectory("spi-plugins-");
+        SyntheticProviders.toJar(classes, pluginDir.resolve("synthetic.jar"));
+        hotSwap = new HotSwapServiceRegistry<>(MyService.class, pluginDir);
+        hotSwap.reload();
+
+        builtinServiceLoader = ServiceLoader.load(MyService.class, MyService.class.getClassLoader());
+        builtinExtensions = ExtensionLoader.load(MyService.class, MyService.class.getClassLoader());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.out.println(hotSwap.getStats());
+        hotSwap.close();
+        loader.close();
+        Files.deleteIfExists(pluginDir.resolve("synthetic.jar"));
+        Files.deleteIfExists(pluginDir);
+        SyntheticProviders.delete(classes);
+    }
+
+    @Benchmark
+    public void directDispatch() {
+        for (MyService service : direct) {
+            service.execute();
+        }
+    }
+
+    @Benchmark
+    public void registryDispatch() {
+        for (MyService service : registry) {
+            service.execute();
+        }
+    }
+
+    @Benchmark
+    public void hotSwapDispatch() {
+        hotSwap.dispatch(MyService::execute);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int hotSwapReload() throws IOException {
+        return hotSwap.reload();
+    }
+
+    @Benchmark
+    public MyService serviceLoaderScan() {
+        for (MyService service : builtinServiceLoader) {
+            if (service instanceof MyServiceImplB) {
+                return service;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public MyService extensionLookup() {
+        return builtinExtensions.getExtension("b");
+    }
+}
@@ -0,0 +1,162 @@
+package god.github.haoer.godbenchmark.spi;
+
+import god.github.haoer.godbase.spi.MyService;
+import god.github.haoer.godbase.spi.ServiceRegistry;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 生成包含 N 个 {@link MyService} 提供者的合成 classpath
+ *
+ * <p>使用 JDK 自带的编译器生成类文件，同时写出 META-INF/services 配置和 {@link ServiceRegistry} 索引，
+ * 因此基准测试需要运行在 JDK（而不是 JRE）上。
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+public final class SyntheticProviders {
+
+    static final String PACKAGE = "god.github.haoer.godbenchmark.synthetic";
+
+    private SyntheticProviders() {
+    }
+
+    /**
+     * 在临时目录中生成 count 个提供者，返回 classes 根目录
+     */
+    public static Path generate(int count) throws IOException {
+        Path root = Files.createTempDirectory("spi-providers-" + count + "-");
+        Path src = root.resolve("src");
+        Path classes = root.resolve("classes");
+        Path pkg = src.resolve(PACKAGE.replace('.', File.separatorChar));
+        Files.createDirectories(pkg);
+        Files.createDirectories(classes);
+
+        List<String> sources = new ArrayList<>(count);
+        StringBuilder config = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            String name = "Provider" + i;
+            Path file = pkg.resolve(name + ".java");
+            String code = "package " + PACKAGE + ";\n"
+                    + "public class " + name + " implements " + MyService.class.getName() + " {\n"
+                    + "    private int calls;\n"
+                    + "    @Override public void execute() { calls++; }\n"
+                    + "}\n";
+            Files.write(file, code.getBytes(StandardCharsets.UTF_8));
+            sources.add(file.toString());
+            config.append(PACKAGE).append('.').append(name).append('\n');
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("需要在 JDK 上运行，当前环境没有 Java 编译器");
+        }
+        List<String> args = new ArrayList<>();
+        args.add("-nowarn");
+        args.add("-cp");
+        args.add(codeSourceOf(MyService.class));
+        args.add("-d");
+        args.add(classes.toString());
+        args.addAll(sources);
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        if (compiler.run(null, null, err, args.toArray(new String[0])) != 0) {
+            throw new IllegalStateException("生成提供者失败:\n" + err);
+        }
+
+        byte[] configBytes = config.toString().getBytes(StandardCharsets.UTF_8);
+        Path services = classes.resolve("META-INF/services");
+        Path index = classes.resolve(ServiceRegistry.INDEX_PREFIX);
+        Files.createDirectories(services);
+        Files.createDirectories(index);
+        Files.write(services.resolve(MyService.class.getName()), configBytes);
+        Files.write(index.resolve(MyService.class.getName()), configBytes);
+        return classes;
+    }
+
+    /**
+     * 把 classes 目录打成 jar，用于插件热加载场景
+     */
+    public static Path toJar(Path classes, Path jar) throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(classes)) {
+            files = walk.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        try (OutputStream out = Files.newOutputStream(jar); JarOutputStream jos = new JarOutputStream(out)) {
+            for (Path file : files) {
+                jos.putNextEntry(new JarEntry(classes.relativize(file).toString().replace(File.separatorChar, '/')));
+                jos.write(Files.readAllBytes(file));
+                jos.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    /**
+     * 新建一个只暴露合成提供者的类加载器
+     * <p>
+     * SPI 配置与索引只从合成目录查找，不委托父加载器，避免 god-base 自带的 MyServiceImplA/B 混入结果
+     */
+    public static URLClassLoader newLoader(Path classes) {
+        try {
+            return new URLClassLoader(new URL[]{classes.toUri().toURL()}, MyService.class.getClassLoader()) {
+                @Override
+                public URL getResource(String name) {
+                    return isSpiResource(name) ? findResource(name) : super.getResource(name);
+                }
+
+                @Override
+                public Enumeration<URL> getResources(String name) throws IOException {
+                    return isSpiResource(name) ? findResources(name) : super.getResources(name);
+                }
+            };
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 删除 {@link #generate(int)} 生成的整个临时目录
+     */
+    public static void delete(Path classes) {
+        Path root = classes.getParent();
+        try (Stream<Path> walk = Files.walk(root)) {
+            List<Path> paths = walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+            for (Path path : paths) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            System.err.println("删除临时目录失败: " + root + " " + e.getMessage());
+        }
+    }
+
+    private static boolean isSpiResource(String name) {
+        return name.startsWith("META-INF/services/") || name.startsWith(ServiceRegistry.INDEX_PREFIX);
+    }
+
+    private static String codeSourceOf(Class<?> type) {
+        try {
+            return new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+        } catch (Exception e) {
+            return System.getProperty("java.class.path");
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package god.github.haoer.godbenchmark.store;
+
+import god.github.haoer.godbase.reflection.User;
+import god.github.haoer.godbase.store.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 95% 读 / 5% 写的混合负载下，MVCC {@link UserRepository} 与加锁 HashMap 的吞吐对比
+ *
+ * <p>读写锁的读锁本身要 CAS 同一个计数器，线程越多竞争越激烈；synchronized 完全串行。
+ * UserRepository 的读只是一次 volatile 读，写时复制路径（约 log32(n) 个小数组），读吞吐随线程数增长。
+ *
+ * <p>运行（分别用 1、4、8 个线程观察扩展性）：
+ * java -jar god-benchmark/target/benchmarks.jar UserRepositoryBenchmark -t 1
+ * java -jar god-benchmark/target/benchmarks.jar UserRepositoryBenchmark -t 4
+ * java -jar god-benchmark/target/benchmarks.jar UserRepositoryBenchmark -t 8
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserRepositoryBenchmark {
+
+    @Param({"100000"})
+    public int users;
+
+    /**
+     * 写操作占比（百分比）
+     */
+    @Param({"5"})
+    public int writePercent;
+
+    private String[] names;
+    private UserRepository repository;
+    private Map<String, User> rwMap;
+    private ReentrantReadWriteLock rwLock;
+    private Map<String, User> syncMap;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        names = new String[users];
+        repository = new UserRepository();
+        rwMap = new HashMap<>();
+        rwLock = new ReentrantReadWriteLock();
+        syncMap = new HashMap<>();
+        for (int i = 0; i < users; i++) {
+            names[i] = "user-" + i;
+            User user = new User(names[i], i % 100);
+            repository.put(user);
+            rwMap.put(names[i], new User(names[i], i % 100));
+            syncMap.put(names[i], new User(names[i], i % 100));
+        }
+    }
+
+    @Benchmark
+    public Integer mvccRepository() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String name = names[random.nextInt(names.length)];
+        if (random.nextInt(100) < writePercent) {
+            repository.put(new User(name, random.nextInt(100)));
+            return null;
+        }
+        return repository.snapshot().getAge(name);
+    }
+
+    @Benchmark
+    public Integer readWriteLockMap() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String name = names[random.nextInt(names.length)];
+        if (random.nextInt(100) < writePercent) {
+            User user = new User(name, random.nextInt(100));
+            rwLock.writeLock().lock();
+            try {
+                rwMap.put(name, user);
+            } finally {
+                rwLock.writeLock().unlock();
+            }
+            return null;
+        }
+        rwLock.readLock().lock();
+        try {
+            return rwMap.get(name).getAge();
+        } finally {
+            rwLock.readLock().unlock();
+        }
+    }
+
+    @Benchmark
+    public Integer synchronizedMap() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String name = names[random.nextInt(names.length)];
+        if (random.nextInt(100) < writePercent) {
+            User user = new User(name, random.nextInt(100));
+            synchronized (syncMap) {
+                syncMap.put(name, user);
+            }
+            return null;
+        }
+        synchronized (syncMap) {
+            return syncMap.get(name).getAge();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package god.github.haoer.godbenchmark.store;
+
+import god.github.haoer.godbase.reflection.User;
+import god.github.haoer.godbase.store.UserCursor;
+import god.github.haoer.godbase.store.UserTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * List&lt;User&gt; 与堆外列式 {@link UserTable} 的扫描、聚合对比
+ *
+ * <p>Setup 中打印两者的内存占用（List 按 GC 前后的堆差估算）。User 对象在堆中按创建顺序分布，
+ * 但每条记录要经过 User → Integer 两次指针跳转；UserTable 的 age 列是连续的 int。
+ *
+ * <p>运行：java -jar god-benchmark/target/benchmarks.jar UserTableBenchmark
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class UserTableBenchmark {
+
+    @Param({"10000000"})
+    public int users;
+
+    private List<User> list;
+    private UserTable table;
+    private UserCursor cursor;
+    private int targetNameId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long before = usedHeap();
+        list = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            // 1000 个不同的 name，age 在 0～99 之间
+            list.add(new User("user-" + (i % 1000), i % 100));
+        }
+        long listBytes = usedHeap() - before;
+        table = new UserTable(users);
+        for (User user : list) {
+            table.add(user);
+        }
+        cursor = table.cursor();
+        targetNameId = table.nameIdOf("user-7");
+        System.out.println();
+        System.out.println("users=" + users + ", List<User> 约 " + (listBytes >> 20) + "MB 堆, UserTable "
+                + (table.offHeapBytes() >> 20) + "MB 堆外");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        table.close();
+    }
+
+    @Benchmark
+    public long listSumAge() {
+        long sum = 0;
+        for (User user : list) {
+            Integer age = user.getAge();
+            if (age != null) {
+                sum += age;
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long tableSumAge() {
+        return table.sumAge();
+    }
+
+    @Benchmark
+    public long cursorSumAge() {
+        long sum = 0;
+        cursor.rewind();
+        while (cursor.next()) {
+            sum += cursor.age();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int listCountBetween() {
+        int count = 0;
+        for (User user : list) {
+            Integer age = user.getAge();
+            if (age != null && age >= 18 && age <= 60) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int tableCountBetween() {
+        return table.countAgeBetween(18, 60);
+    }
+
+    @Benchmark
+    public int listCountName() {
+        int count = 0;
+        for (User user : list) {
+            if ("user-7".equals(user.getName())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int cursorCountName() {
+        int count = 0;
+        cursor.rewind();
+        while (cursor.next()) {
+            if (cursor.nameId() == targetNameId) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
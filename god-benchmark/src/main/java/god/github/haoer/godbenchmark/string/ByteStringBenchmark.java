@@ -0,0 +1,118 @@
+package god.github.haoer.godbenchmark.string;
+
+import god.github.haoer.godbase.string.ByteString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * {@link ByteString} 与 String 的内存占用与哈希吞吐对比（ASCII 内容）
+ *
+ * <ul>
+ *     <li>sliceAndHash：截掉首字符后计算哈希，Java 8 的 substring 会复制 char[]，ByteString 不复制</li>
+ *     <li>decodeAndHash：从字节缓冲区构造后计算哈希，模拟解析网络/文件数据</li>
+ * </ul>
+ *
+ * <p>Setup 时打印 100 万个对象各自的堆占用；每次操作的分配字节数可以加 -prof gc 查看 gc.alloc.rate.norm。
+ *
+ * <p>运行：java -jar god-benchmark/target/benchmarks.jar ByteStringBenchmark -prof gc
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ByteStringBenchmark {
+
+    private static final int FOOTPRINT_COUNT = 1_000_000;
+
+    @Param({"8", "32", "128"})
+    public int length;
+
+    private byte[] bytes;
+    private String string;
+    private ByteString byteString;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + i % 26));
+        }
+        string = sb.toString();
+        bytes = string.getBytes(StandardCharsets.ISO_8859_1);
+        byteString = ByteString.latin1(bytes, 0, bytes.length);
+
+        long stringBytes = footprint(i -> new String(bytes, StandardCharsets.ISO_8859_1));
+        long byteStringBytes = footprint(i -> ByteString.of(string));
+        System.out.println("length=" + length + " String 约 " + stringBytes + " 字节/个，ByteString 约 " + byteStringBytes + " 字节/个");
+    }
+
+    /**
+     * 创建 FOOTPRINT_COUNT 个对象并保持引用，返回平均每个对象（含数组中的引用槽）的堆增量
+     */
+    private static long footprint(IntFunction<Object> factory) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long before = memory.getHeapMemoryUsage().getUsed();
+        Object[] retained = new Object[FOOTPRINT_COUNT];
+        for (int i = 0; i < FOOTPRINT_COUNT; i++) {
+            retained[i] = factory.apply(i);
+        }
+        System.gc();
+        long used = memory.getHeapMemoryUsage().getUsed() - before;
+        if (retained[FOOTPRINT_COUNT - 1] == null) {
+            throw new IllegalStateException();
+        }
+        return used / FOOTPRINT_COUNT;
+    }
+
+    @Benchmark
+    public int stringSliceAndHash() {
+        return string.substring(1).hashCode();
+    }
+
+    @Benchmark
+    public int byteStringSliceAndHash() {
+        return byteString.slice(1, length).hashCode();
+    }
+
+    @Benchmark
+    public int stringDecodeAndHash() {
+        return new String(bytes, 0, length, StandardCharsets.ISO_8859_1).hashCode();
+    }
+
+    @Benchmark
+    public int byteStringDecodeAndHash() {
+        return ByteString.latin1(bytes, 0, length).hashCode();
+    }
+
+    @Benchmark
+    public int stringCachedHash() {
+        return string.hashCode();
+    }
+
+    @Benchmark
+    public int byteStringCachedHash() {
+        return byteString.hashCode();
+    }
+}
@@ -0,0 +1,118 @@
+package god.github.haoer.godbenchmark.string;
+
+import god.github.haoer.godbase.string.ShardedWeakInterner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 字符串驻留方案对比：String.intern() vs ConcurrentHashMap 去重 vs {@link ShardedWeakInterner}
+ *
+ * <p>每次测量依次生成 count 个字符串（内容在 distinctPercent% 的取值中循环，模拟大量重复的配置/字典数据），
+ * 对每个新建的 String 做驻留，并把规范对象保存在 retained 数组中，模拟业务数据结构对驻留结果的引用。
+ *
+ * <p>注意：JVM 的 StringTable 无法在迭代之间清空，native 方案从第二次迭代起全部命中；
+ * 另外两种方案每次迭代都会新建。100M 规模需要较大的堆，已在 @Fork 中设置 -Xmx8g。
+ *
+ * <p>运行：java -jar god-benchmark/target/benchmarks.jar InternerBenchmark -p count=1000000
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class InternerBenchmark {
+
+    @Param({"1000000", "10000000", "100000000"})
+    public int count;
+
+    @Param({"10"})
+    public int distinctPercent;
+
+    private int distinct;
+    private String[] retained;
+    private ConcurrentHashMap<String, String> map;
+    private ShardedWeakInterner<String> interner;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        distinct = Math.max(1, (int) ((long) count * distinctPercent / 100));
+        retained = new String[distinct];
+        map = new ConcurrentHashMap<>();
+        interner = new ShardedWeakInterner<>();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        if (interner.size() > 0) {
+            System.out.println(interner.stats());
+        }
+    }
+
+    @Benchmark
+    public String[] nativeIntern() {
+        char[] buf = new char[32];
+        for (int i = 0; i < count; i++) {
+            int id = i % distinct;
+            retained[id] = newKey(buf, id).intern();
+        }
+        return retained;
+    }
+
+    @Benchmark
+    public String[] concurrentHashMap() {
+        char[] buf = new char[32];
+        for (int i = 0; i < count; i++) {
+            int id = i % distinct;
+            String key = newKey(buf, id);
+            String existing = map.putIfAbsent(key, key);
+            retained[id] = existing != null ? existing : key;
+        }
+        return retained;
+    }
+
+    @Benchmark
+    public String[] shardedWeakInterner() {
+        char[] buf = new char[32];
+        for (int i = 0; i < count; i++) {
+            int id = i % distinct;
+            retained[id] = interner.intern(newKey(buf, id));
+        }
+        return retained;
+    }
+
+    /**
+     * 生成形如 "dict-entry-12345" 的新字符串对象，每次调用都会分配
+     */
+    static String newKey(char[] buf, int id) {
+        String prefix = "dict-entry-";
+        prefix.getChars(0, prefix.length(), buf, 0);
+        int end = buf.length;
+        int pos = end;
+        int v = id;
+        do {
+            buf[--pos] = (char) ('0' + v % 10);
+            v /= 10;
+        } while (v != 0);
+        int digits = end - pos;
+        System.arraycopy(buf, pos, buf, prefix.length(), digits);
+        return new String(buf, 0, prefix.length() + digits);
+    }
+}
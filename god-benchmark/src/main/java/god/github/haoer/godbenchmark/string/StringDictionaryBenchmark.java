@@ -0,0 +1,124 @@
+package god.github.haoer.godbenchmark.string;
+
+import god.github.haoer.godbase.string.OffHeapStringDictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 字典数据放在堆上（String[] + HashMap）与放在 {@link OffHeapStringDictionary} 中的对比
+ *
+ * <ul>
+ *     <li>encode：字符串 → 编号</li>
+ *     <li>decode：编号 → 字符串</li>
+ *     <li>fullGc：一次 System.gc() 的耗时，体现堆上对象数量对 GC 扫描的影响</li>
+ * </ul>
+ *
+ * <p>Setup 结束时打印两种存储各自占用的堆大小。
+ *
+ * <p>运行：java -jar god-benchmark/target/benchmarks.jar StringDictionaryBenchmark
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class StringDictionaryBenchmark {
+
+    public enum Storage {
+        HEAP, OFF_HEAP
+    }
+
+    @Param({"1000000", "10000000"})
+    public int count;
+
+    @Param({"HEAP", "OFF_HEAP"})
+    public Storage storage;
+
+    private String[] probes;
+    private String[] heapValues;
+    private Map<String, Integer> heapIds;
+    private OffHeapStringDictionary dictionary;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long before = memory.getHeapMemoryUsage().getUsed();
+        if (storage == Storage.HEAP) {
+            heapValues = new String[count];
+            heapIds = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                String value = valueOf(i);
+                heapValues[i] = value;
+                heapIds.put(value, i);
+            }
+        } else {
+            dictionary = new OffHeapStringDictionary(count, count * 16);
+            for (int i = 0; i < count; i++) {
+                dictionary.add(valueOf(i));
+            }
+        }
+        System.gc();
+        long used = memory.getHeapMemoryUsage().getUsed() - before;
+        System.out.println(storage + " 堆占用约 " + (used >> 20) + " MB"
+                + (dictionary != null ? "，堆外 " + (dictionary.offHeapBytes() >> 20) + " MB" : ""));
+
+        // 查询用的字符串与字典中的对象不是同一个实例，避免引用相等的捷径
+        probes = new String[1024];
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = valueOf(ThreadLocalRandom.current().nextInt(count));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        heapValues = null;
+        heapIds = null;
+        dictionary = null;
+    }
+
+    @Benchmark
+    public int encode() {
+        String probe = probes[ThreadLocalRandom.current().nextInt(probes.length)];
+        return storage == Storage.HEAP ? heapIds.get(probe) : dictionary.idOf(probe);
+    }
+
+    @Benchmark
+    public String decode() {
+        int id = ThreadLocalRandom.current().nextInt(count);
+        return storage == Storage.HEAP ? heapValues[id] : dictionary.get(id);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void fullGc() {
+        System.gc();
+    }
+
+    private static String valueOf(int i) {
+        return "config.key." + i;
+    }
+}
@@ -0,0 +1,141 @@
+package god.github.haoer.godbenchmark.transform;
+
+import god.github.haoer.godbase.generic.GenericWildCard.Transformer;
+import god.github.haoer.godbase.transform.AsyncTransformer;
+import god.github.haoer.godbase.transform.flow.AsyncStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 模拟 I/O 延迟的转换，分别用线程池阻塞调用和 {@link AsyncStream#mapAsync} 处理一批输入
+ *
+ * <p>1. blockingPerItem：每个元素提交一个任务到固定线程池，任务里 sleep 模拟阻塞 I/O，最后逐个 get（现有的做法）
+ * 2. asyncStream：非阻塞的 AsyncTransformer（定时器回调完成），mapAsync 限制同时进行的调用数为 concurrency
+ * 3. syncLoop / completedStream：没有延迟的转换，比较 AsyncStream 本身的开销
+ *
+ * <p>两种方式同时进行的 I/O 数相同（线程数 = concurrency），差别在于前者每个进行中的调用占一个线程，
+ * 且所有任务一次性进入线程池队列；后者只有一个定时器线程，请求按下游进度逐批发出。
+ *
+ * <p>运行：java -jar god-benchmark/target/benchmarks.jar AsyncStreamBenchmark -prof gc
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class AsyncStreamBenchmark {
+
+    private static final int SIZE = 2000;
+    private static final long LATENCY_MICROS = 500;
+
+    @Param({"16", "64"})
+    public int concurrency;
+
+    private List<Integer> input;
+    private ExecutorService blockingPool;
+    private ScheduledExecutorService timer;
+    private Transformer<Integer, Integer> blocking;
+    private Transformer<Integer, Integer> compute;
+    private AsyncTransformer<Integer, Integer> async;
+    private AsyncTransformer<Integer, Integer> completed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        input = new ArrayList<>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            input.add(i);
+        }
+        blockingPool = Executors.newFixedThreadPool(concurrency);
+        timer = Executors.newSingleThreadScheduledExecutor();
+        blocking = new Transformer<>(AsyncStreamBenchmark::blockingLookup);
+        compute = new Transformer<>(AsyncStreamBenchmark::mix);
+        async = new AsyncTransformer<>(this::asyncLookup);
+        completed = AsyncTransformer.completed(compute);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        blockingPool.shutdownNow();
+        timer.shutdownNow();
+    }
+
+    @Benchmark
+    public long blockingPerItem() throws Exception {
+        List<Future<Integer>> futures = new ArrayList<>(SIZE);
+        for (Integer i : input) {
+            futures.add(blockingPool.submit(() -> blocking.transform(i)));
+        }
+        long sum = 0;
+        for (Future<Integer> future : futures) {
+            sum += future.get();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long asyncStream() {
+        long[] sum = new long[1];
+        AsyncStream.fromIterable(input).mapAsync(async, concurrency).forEach(v -> sum[0] += v).join();
+        return sum[0];
+    }
+
+    @Benchmark
+    public long syncLoop() {
+        long sum = 0;
+        for (Integer i : input) {
+            sum += compute.transform(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long completedStream() {
+        long[] sum = new long[1];
+        AsyncStream.fromIterable(input).mapAsync(completed, concurrency).forEach(v -> sum[0] += v).join();
+        return sum[0];
+    }
+
+    private static Integer blockingLookup(Integer key) {
+        try {
+            TimeUnit.MICROSECONDS.sleep(LATENCY_MICROS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return mix(key);
+    }
+
+    private CompletableFuture<Integer> asyncLookup(Integer key) {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        timer.schedule(() -> future.complete(mix(key)), LATENCY_MICROS, TimeUnit.MICROSECONDS);
+        return future;
+    }
+
+    private static Integer mix(Integer key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & 0xFFFF;
+    }
+}
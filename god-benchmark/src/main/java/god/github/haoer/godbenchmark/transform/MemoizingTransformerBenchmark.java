@@ -0,0 +1,183 @@
+package god.github.haoer.godbenchmark.transform;
+
+import god.github.haoer.godbase.generic.GenericWildCard.Transformer;
+import god.github.haoer.godbase.transform.MemoizingTransformer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Zipf 分布的输入下，直接转换、{@link MemoizingTransformer}（W-TinyLFU）与 synchronized LRU 缓存的吞吐和命中率
+ *
+ * <p>键空间 100 万，缓存 1 万；skew 越大热点越集中。每轮结束时打印命中率。
+ * 转换函数模拟名称规范化：去空白、转小写、合并连续分隔符，每次分配若干临时字符串。
+ *
+ * <p>运行：java -jar god-benchmark/target/benchmarks.jar MemoizingTransformerBenchmark
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class MemoizingTransformerBenchmark {
+
+    private static final int KEYS = 1_000_000;
+    private static final int CACHE_SIZE = 10_000;
+    private static final int SAMPLES = 1 << 20;
+
+    /**
+     * Zipf 分布的指数
+     */
+    @Param({"0.8", "1.0", "1.2"})
+    public double skew;
+
+    private String[] names;
+    private int[] samples;
+    private Transformer<String, String> direct;
+    private MemoizingTransformer<String, String> memoizing;
+    private Transformer<String, String> lru;
+    private Map<String, String> lruMap;
+    private long lruHits;
+    private long lruRequests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        names = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            names[i] = "  User--" + i + "  ";
+        }
+        samples = zipfSamples(skew, new Random(42));
+        direct = new Transformer<>(MemoizingTransformerBenchmark::normalize);
+        memoizing = new MemoizingTransformer<>(direct, CACHE_SIZE);
+        lruMap = new LinkedHashMap<String, String>(CACHE_SIZE * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        };
+        lru = new Transformer<>(this::lruTransform);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println();
+        System.out.println("skew=" + skew + ", TinyLFU: " + memoizing.stats());
+        synchronized (lruMap) {
+            System.out.printf("skew=%s, LRU hitRate=%.4f%n", skew, lruRequests == 0 ? 0 : (double) lruHits / lruRequests);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int position;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            position = new Random().nextInt(SAMPLES);
+        }
+
+        int next(int[] samples) {
+            position = (position + 1) & (SAMPLES - 1);
+            return samples[position];
+        }
+    }
+
+    @Benchmark
+    public String direct(Cursor cursor) {
+        return direct.transform(names[cursor.next(samples)]);
+    }
+
+    @Benchmark
+    public String tinyLfu(Cursor cursor) {
+        return memoizing.transform(names[cursor.next(samples)]);
+    }
+
+    @Benchmark
+    public String synchronizedLru(Cursor cursor) {
+        return lru.transform(names[cursor.next(samples)]);
+    }
+
+    private String lruTransform(String name) {
+        synchronized (lruMap) {
+            lruRequests++;
+            String cached = lruMap.get(name);
+            if (cached != null) {
+                lruHits++;
+                return cached;
+            }
+        }
+        String value = normalize(name);
+        synchronized (lruMap) {
+            lruMap.put(name, value);
+        }
+        return value;
+    }
+
+    static String normalize(String name) {
+        String s = name.trim().toLowerCase(Locale.ROOT);
+        while (s.contains("--")) {
+            s = s.replace("--", "-");
+        }
+        return s.replace('-', '_');
+    }
+
+    /**
+     * 按 Zipf 分布预先生成的下标，排名 1 的键最热；排名与下标之间打乱，热点不集中在相邻的键上
+     */
+    private static int[] zipfSamples(double skew, Random random) {
+        double[] cdf = new double[KEYS];
+        double sum = 0;
+        for (int i = 0; i < KEYS; i++) {
+            sum += 1 / Math.pow(i + 1, skew);
+            cdf[i] = sum;
+        }
+        int[] permutation = new int[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            permutation[i] = i;
+        }
+        for (int i = KEYS - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = permutation[i];
+            permutation[i] = permutation[j];
+            permutation[j] = t;
+        }
+        int[] samples = new int[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            double u = random.nextDouble() * sum;
+            int lo = 0;
+            int hi = KEYS - 1;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (cdf[mid] < u) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            samples[i] = permutation[lo];
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,156 @@
+package god.github.haoer.godbenchmark.transform;
+
+import god.github.haoer.godbase.generic.GenericWildCard.Transformer;
+import god.github.haoer.godbase.reflection.User;
+import god.github.haoer.godbase.transform.Pipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 相同的转换（User → age → 分数 → 过滤 → 等级）分别用逐个 Transformer、java.util.stream 与 {@link Pipeline} 执行
+ *
+ * <p>1. chainedPerStage：每个 Transformer 处理整个列表，生成中间列表（现有代码的写法）
+ * 2. chainedPerElement：每个元素依次调用各 Transformer.transform，没有中间列表
+ * 3. stream / parallelStream：java.util.stream
+ * 4. pipeline / pipelineInto / pipelineParallel：融合后的 Pipeline
+ *
+ * <p>运行：java -jar god-benchmark/target/benchmarks.jar PipelineBenchmark -prof gc
+ *
+ * @author zhaozuhao
+ * @date 2026/10/16
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class PipelineBenchmark {
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    private List<User> users;
+    private User[] userArray;
+    private Integer[] output;
+
+    private Transformer<User, Integer> age;
+    private Transformer<Integer, Integer> score;
+    private Transformer<Integer, Integer> level;
+    private Pipeline<User, Integer> pipeline;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            users.add(new User("user-" + i, i % 100));
+        }
+        userArray = users.toArray(new User[0]);
+        output = new Integer[size];
+        age = new Transformer<>(User::getAge);
+        score = new Transformer<>(PipelineBenchmark::score);
+        level = new Transformer<>(s -> s / 10);
+        pipeline = Pipeline.of(age).then(score).filter(PipelineBenchmark::passed).then(level);
+    }
+
+    @Benchmark
+    public List<Integer> chainedPerStage() {
+        List<Integer> ages = new ArrayList<>(users.size());
+        for (User user : users) {
+            ages.add(age.transform(user));
+        }
+        List<Integer> scores = new ArrayList<>(ages.size());
+        for (Integer a : ages) {
+            scores.add(score.transform(a));
+        }
+        List<Integer> passed = new ArrayList<>();
+        for (Integer s : scores) {
+            if (passed(s)) {
+                passed.add(s);
+            }
+        }
+        List<Integer> levels = new ArrayList<>(passed.size());
+        for (Integer s : passed) {
+            levels.add(level.transform(s));
+        }
+        return levels;
+    }
+
+    @Benchmark
+    public List<Integer> chainedPerElement() {
+        List<Integer> levels = new ArrayList<>(users.size());
+        for (User user : users) {
+            Integer s = score.transform(age.transform(user));
+            if (passed(s)) {
+                levels.add(level.transform(s));
+            }
+        }
+        return levels;
+    }
+
+    @Benchmark
+    public List<Integer> stream() {
+        return users.stream()
+                .map(age::transform)
+                .map(score::transform)
+                .filter(PipelineBenchmark::passed)
+                .map(level::transform)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Integer> parallelStream() {
+        return users.parallelStream()
+                .map(age::transform)
+                .map(score::transform)
+                .filter(PipelineBenchmark::passed)
+                .map(level::transform)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Integer> pipeline() {
+        return pipeline.applyAll(users);
+    }
+
+    @Benchmark
+    public int pipelineInto() {
+        return pipeline.applyInto(userArray, output);
+    }
+
+    @Benchmark
+    public List<Integer> pipelineParallel() {
+        return pipeline.applyParallel(users);
+    }
+
+    /**
+     * 每个元素一点计算量，避免整个基准只测到内存访问
+     */
+    private static Integer score(Integer age) {
+        int h = age;
+        for (int i = 0; i < 8; i++) {
+            h = h * 31 + 7;
+            h ^= h >>> 13;
+        }
+        return (h & 0x7FFFFFFF) % 1000;
+    }
+
+    private static boolean passed(Integer score) {
+        return score >= 300;
+    }
+}